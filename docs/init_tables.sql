@@ -25,13 +25,16 @@ CREATE TABLE IF NOT EXISTS `certificate` (
   `revoked_by` varchar(64) DEFAULT NULL COMMENT '吊销操作人',
   `revocation_comments` varchar(512) DEFAULT NULL COMMENT '吊销备注',
   `renewal_notice_days` int DEFAULT 30 COMMENT '续期通知天数',
+  `crl_partition` int DEFAULT NULL COMMENT 'CRL分区号(未分区为空)',
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`serial_number`),
   KEY `idx_applicant_id` (`applicant_id`),
   KEY `idx_status` (`status`),
   KEY `idx_not_after` (`not_after`),
-  KEY `idx_issuer_dn` (`issuer_dn`)
+  KEY `idx_issuer_dn` (`issuer_dn`),
+  KEY `idx_issuer_status_time` (`issuer_dn`, `status`, `update_time`),
+  KEY `idx_issuer_partition_status` (`issuer_dn`, `crl_partition`, `status`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='证书表';
 
 -- =============================================
@@ -45,6 +48,8 @@ CREATE TABLE IF NOT EXISTS `certificate_authority` (
   `private_key_alias` varchar(128) DEFAULT NULL COMMENT '私钥别名',
   `key_type` varchar(32) DEFAULT 'RSA' COMMENT '密钥类型',
   `key_size` int DEFAULT 2048 COMMENT '密钥大小',
+  `alt_signature_algorithm` varchar(32) DEFAULT NULL COMMENT '混合证书备用签名算法(如ML-DSA-65)',
+  `crl_partition_count` int NOT NULL DEFAULT 0 COMMENT 'CRL分区数(0表示不分区)',
   `enabled` tinyint(1) DEFAULT 1 COMMENT '是否启用',
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
@@ -127,7 +132,7 @@ CREATE TABLE IF NOT EXISTS `certificate_chain` (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='证书链表';
 
 -- =============================================
--- 吊销状态缓存表
+-- 吊销状态缓存表(旧版JSON整体缓存, 只在没有二进制快照时读取一次用于升级)
 -- =============================================
 CREATE TABLE IF NOT EXISTS `revocation_status_cache` (
   `cache_id` varchar(64) NOT NULL COMMENT '缓存ID',
@@ -141,6 +146,86 @@ CREATE TABLE IF NOT EXISTS `revocation_status_cache` (
   KEY `idx_create_time` (`create_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='吊销状态缓存表';
 
+-- =============================================
+-- 序列号段表(按节点预留号段的持久化序列, 如CRL编号)
+-- =============================================
+CREATE TABLE IF NOT EXISTS `sequence_block` (
+  `seq_name` varchar(128) NOT NULL COMMENT '序列名称',
+  `next_value` bigint NOT NULL COMMENT '下一个未预留的值',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`seq_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='序列号段表';
+
+-- =============================================
+-- 基础CRL状态表(各CA当前基础CRL及已并入的吊销范围, 用于生成增量CRL)
+-- =============================================
+CREATE TABLE IF NOT EXISTS `crl_base_state` (
+  `ca_id` varchar(64) NOT NULL COMMENT 'CA ID',
+  `base_crl_number` varchar(64) NOT NULL COMMENT '基础CRL编号',
+  `base_this_update` datetime NOT NULL COMMENT '基础CRL本次更新时间',
+  `revocation_cutoff` datetime DEFAULT NULL COMMENT '并入基础CRL的吊销时间上界',
+  `base_revoked_count` int NOT NULL DEFAULT 0 COMMENT '基础CRL吊销条目数',
+  `base_crl_url` varchar(512) DEFAULT NULL COMMENT '基础CRL访问URL',
+  `delta_crl_url` varchar(512) DEFAULT NULL COMMENT '增量CRL访问URL',
+  `last_delta_crl_number` varchar(64) DEFAULT NULL COMMENT '最近一次增量CRL编号',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`ca_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='基础CRL状态表';
+
+-- =============================================
+-- CRL分区状态表
+-- =============================================
+CREATE TABLE IF NOT EXISTS `crl_partition_state` (
+  `ca_id` varchar(64) NOT NULL COMMENT 'CA ID',
+  `partition_no` int NOT NULL COMMENT '分区号',
+  `crl_number` varchar(64) NOT NULL COMMENT '最近一次发布的CRL编号',
+  `revoked_count` bigint NOT NULL DEFAULT 0 COMMENT '已发布CRL的吊销条目数',
+  `latest_revocation_date` datetime DEFAULT NULL COMMENT '已发布CRL中最晚的吊销时间',
+  `this_update` datetime NOT NULL COMMENT '本次更新时间',
+  `next_update` datetime NOT NULL COMMENT '下次更新时间',
+  `crl_url` varchar(512) DEFAULT NULL COMMENT '分区CRL访问URL',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`ca_id`, `partition_no`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='CRL分区状态表';
+
+-- =============================================
+-- 吊销状态快照表(压缩后的二进制快照头, 带格式版本; 只保留最近两份)
+-- =============================================
+CREATE TABLE IF NOT EXISTS `revocation_status_snapshot` (
+  `snapshot_id` bigint NOT NULL AUTO_INCREMENT COMMENT '快照ID',
+  `cache_id` varchar(64) NOT NULL COMMENT '缓存ID',
+  `format_version` int NOT NULL COMMENT '快照格式版本',
+  `entry_count` int NOT NULL COMMENT '吊销条目数',
+  `last_delta_id` bigint NOT NULL DEFAULT 0 COMMENT '已并入的最大增量ID',
+  `segment_count` int DEFAULT NULL COMMENT '数据分段数(写入完成前为NULL)',
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`snapshot_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='吊销状态快照表';
+
+-- =============================================
+-- 吊销状态快照分段表(快照数据按固定大小分段存储, 单行远小于max_allowed_packet; 拼接后末尾为CRC32)
+-- =============================================
+CREATE TABLE IF NOT EXISTS `revocation_status_snapshot_segment` (
+  `snapshot_id` bigint NOT NULL COMMENT '快照ID',
+  `segment_no` int NOT NULL COMMENT '分段序号(从0开始)',
+  `segment_data` mediumblob NOT NULL COMMENT '分段数据',
+  PRIMARY KEY (`snapshot_id`, `segment_no`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='吊销状态快照分段表';
+
+-- =============================================
+-- 吊销状态增量表(每次吊销追加一行, 压缩并入快照后删除)
+-- =============================================
+CREATE TABLE IF NOT EXISTS `revocation_status_delta` (
+  `delta_id` bigint NOT NULL AUTO_INCREMENT COMMENT '增量ID',
+  `cache_id` varchar(64) NOT NULL COMMENT '缓存ID',
+  `serial_number` varchar(64) NOT NULL COMMENT '证书序列号',
+  `revocation_date` datetime(3) DEFAULT NULL COMMENT '吊销时间',
+  `revocation_reason` varchar(64) DEFAULT NULL COMMENT '吊销原因',
+  `create_time` datetime(3) NOT NULL COMMENT '追加时间',
+  PRIMARY KEY (`delta_id`),
+  KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='吊销状态增量表';
+
 -- =============================================
 -- 插入初始数据
 -- =============================================
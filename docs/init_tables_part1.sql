@@ -19,17 +19,22 @@ CREATE TABLE IF NOT EXISTS `certificate` (
   `applicant_id` varchar(64) NOT NULL COMMENT '申请者ID',
   `issuance_request_id` varchar(64) DEFAULT NULL COMMENT '签发请求ID',
   `pem_encoded` longtext COMMENT '证书PEM编码',
+  `post_quantum_csr_pem` longtext DEFAULT NULL COMMENT '后量子CSR（PEM）',
+  `post_quantum_public_key_pem` longtext DEFAULT NULL COMMENT '后量子公钥PEM',
   `revocation_reason` varchar(255) DEFAULT NULL COMMENT '吊销原因',
   `revoked_by` varchar(64) DEFAULT NULL COMMENT '吊销操作人',
   `revocation_comments` varchar(512) DEFAULT NULL COMMENT '吊销备注',
   `renewal_notice_days` int DEFAULT 30 COMMENT '续期通知天数',
+  `crl_partition` int DEFAULT NULL COMMENT 'CRL分区号(未分区为空)',
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`serial_number`),
   KEY `idx_applicant_id` (`applicant_id`),
   KEY `idx_status` (`status`),
   KEY `idx_not_after` (`not_after`),
-  KEY `idx_issuer_dn` (`issuer_dn`)
+  KEY `idx_issuer_dn` (`issuer_dn`),
+  KEY `idx_issuer_status_time` (`issuer_dn`, `status`, `update_time`),
+  KEY `idx_issuer_partition_status` (`issuer_dn`, `crl_partition`, `status`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='证书表';
 
 -- =============================================
@@ -43,6 +48,8 @@ CREATE TABLE IF NOT EXISTS `certificate_authority` (
   `private_key_alias` varchar(128) DEFAULT NULL COMMENT '私钥别名',
   `key_type` varchar(32) DEFAULT 'RSA' COMMENT '密钥类型',
   `key_size` int DEFAULT 2048 COMMENT '密钥大小',
+  `alt_signature_algorithm` varchar(32) DEFAULT NULL COMMENT '混合证书备用签名算法(如ML-DSA-65)',
+  `crl_partition_count` int NOT NULL DEFAULT 0 COMMENT 'CRL分区数(0表示不分区)',
   `enabled` tinyint(1) DEFAULT 1 COMMENT '是否启用',
   `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
@@ -26,4 +26,14 @@ public class CACreateRequest {
      * 有效期(天)
      */
     private Integer validityDays;
+
+    /**
+     * 混合证书备用签名算法(如ML-DSA-65, 可为空)
+     */
+    private String altSignatureAlgorithm;
+
+    /**
+     * CRL分区数(按序列号取模分片发布CRL, 为空或0表示不分区)
+     */
+    private Integer crlPartitionCount;
 }
@@ -27,6 +27,16 @@ public class CAQueryResponse {
      */
     private String signatureAlgorithm;
 
+    /**
+     * 混合证书备用签名算法
+     */
+    private String altSignatureAlgorithm;
+
+    /**
+     * CRL分区数
+     */
+    private Integer crlPartitionCount;
+
     /**
      * 状态
      */
@@ -29,4 +29,9 @@ public class CRLGenerateRequest {
      */
     @NotBlank(message = "操作者不能为空")
     private String operator;
+
+    /**
+     * CRL类型: FULL(默认, 完整CRL)、BASE(基础CRL)、DELTA(增量CRL)
+     */
+    private String crlType;
 }
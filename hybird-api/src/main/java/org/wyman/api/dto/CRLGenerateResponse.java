@@ -42,4 +42,14 @@ public class CRLGenerateResponse {
      * 吊销证书数量
      */
     private int revokedCount;
+
+    /**
+     * CRL类型: FULL、BASE、DELTA
+     */
+    private String crlType;
+
+    /**
+     * 增量CRL所基于的基础CRL编号
+     */
+    private String baseCrlNumber;
 }
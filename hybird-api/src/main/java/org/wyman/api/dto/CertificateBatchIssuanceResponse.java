@@ -0,0 +1,63 @@
+package org.wyman.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量证书签发响应DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateBatchIssuanceResponse {
+    /**
+     * 请求总数
+     */
+    private int total;
+
+    /**
+     * 成功数量
+     */
+    private int successCount;
+
+    /**
+     * 失败数量
+     */
+    private int failureCount;
+
+    /**
+     * 逐项结果(与请求中的CSR顺序一致)
+     */
+    private List<ItemResult> items;
+
+    /**
+     * 单项签发结果
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        /**
+         * 在请求中的序号
+         */
+        private Integer index;
+
+        /**
+         * 是否成功
+         */
+        private Boolean success;
+
+        /**
+         * 失败原因
+         */
+        private String errorMessage;
+
+        /**
+         * 签发结果(成功时)
+         */
+        private CertificateIssuanceResponse certificate;
+    }
+}
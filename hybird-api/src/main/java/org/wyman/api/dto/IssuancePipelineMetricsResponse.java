@@ -0,0 +1,88 @@
+package org.wyman.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 签发流水线指标响应DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssuancePipelineMetricsResponse {
+    /**
+     * 未完成的票据数
+     */
+    private long pendingTickets;
+
+    /**
+     * 各阶段指标
+     */
+    private List<StageMetrics> stages;
+
+    /**
+     * 阶段指标
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageMetrics {
+        /**
+         * 阶段名称
+         */
+        private String stage;
+
+        /**
+         * 当前队列深度
+         */
+        private Integer queueDepth;
+
+        /**
+         * 队列剩余容量
+         */
+        private Integer queueRemainingCapacity;
+
+        /**
+         * 活跃线程数
+         */
+        private Integer activeThreads;
+
+        /**
+         * 最大线程数
+         */
+        private Integer maxThreads;
+
+        /**
+         * 已提交任务数
+         */
+        private Long submitted;
+
+        /**
+         * 已完成任务数
+         */
+        private Long completed;
+
+        /**
+         * 因队列满被拒绝的任务数
+         */
+        private Long rejected;
+
+        /**
+         * 平均排队耗时(毫秒)
+         */
+        private Double avgQueueMillis;
+
+        /**
+         * 平均处理耗时(毫秒)
+         */
+        private Double avgServiceMillis;
+
+        /**
+         * 最大处理耗时(毫秒)
+         */
+        private Double maxServiceMillis;
+    }
+}
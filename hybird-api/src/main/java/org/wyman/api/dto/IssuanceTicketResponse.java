@@ -0,0 +1,45 @@
+package org.wyman.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 异步签发票据响应DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssuanceTicketResponse {
+    /**
+     * 票据ID
+     */
+    private String ticketId;
+
+    /**
+     * 状态(QUEUED, VALIDATING, SIGNING, PERSISTING, COMPLETED, FAILED)
+     */
+    private String status;
+
+    /**
+     * 失败原因
+     */
+    private String errorMessage;
+
+    /**
+     * 提交时间
+     */
+    private LocalDateTime submitTime;
+
+    /**
+     * 完成时间
+     */
+    private LocalDateTime completeTime;
+
+    /**
+     * 签发结果(COMPLETED时)
+     */
+    private CertificateIssuanceResponse certificate;
+}
@@ -0,0 +1,46 @@
+package org.wyman.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.wyman.domain.status.adapter.port.IRevocationStatusCacheRepository;
+import org.wyman.infrastructure.adapter.repository.RedisRevocationStatusCacheRepository;
+import org.wyman.infrastructure.adapter.repository.RevocationStatusCacheRepository;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusCacheMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusDeltaMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusSnapshotMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusSnapshotSegmentMapper;
+
+/**
+ * 吊销状态缓存仓储配置
+ * 按cache.type选择实现: redis为多节点共享的哈希并通过发布订阅同步各节点快照, database为数据库快照+增量
+ */
+@Configuration
+public class RevocationCacheConfig {
+
+    @Bean
+    @ConditionalOnCacheType("redis")
+    public RedisMessageListenerContainer revocationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnCacheType("redis")
+    public IRevocationStatusCacheRepository redisRevocationStatusCacheRepository(RedisTemplate<String, String> redisTemplate,
+                                                                                 RedisMessageListenerContainer revocationListenerContainer) {
+        return new RedisRevocationStatusCacheRepository(redisTemplate, revocationListenerContainer);
+    }
+
+    @Bean
+    @ConditionalOnCacheType("database")
+    public IRevocationStatusCacheRepository revocationStatusCacheRepository(RevocationStatusSnapshotMapper snapshotMapper,
+                                                                            RevocationStatusSnapshotSegmentMapper segmentMapper,
+                                                                            RevocationStatusDeltaMapper deltaMapper,
+                                                                            RevocationStatusCacheMapper legacyCacheMapper) {
+        return new RevocationStatusCacheRepository(snapshotMapper, segmentMapper, deltaMapper, legacyCacheMapper);
+    }
+}
@@ -0,0 +1,43 @@
+package org.wyman.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.status.service.RevocationStatusService;
+
+/**
+ * 吊销状态快照初始化器
+ * 在Bean初始化阶段(Web服务器开始接收请求之前)加载快照, 停机时并入待合并的吊销后写回本地快照文件
+ */
+@Slf4j
+@Component
+public class RevocationSnapshotInitializer {
+
+    private final RevocationStatusService revocationStatusService;
+
+    public RevocationSnapshotInitializer(RevocationStatusService revocationStatusService) {
+        this.revocationStatusService = revocationStatusService;
+    }
+
+    @PostConstruct
+    public void load() {
+        long start = System.currentTimeMillis();
+        int count = revocationStatusService.loadSnapshot();
+        log.info("吊销状态快照加载完成: {}条, 耗时{}ms", count, System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void save() {
+        try {
+            revocationStatusService.flushPendingRevocations(Integer.MAX_VALUE);
+        } catch (Exception e) {
+            log.warn("并入待合并的吊销失败", e);
+        }
+        try {
+            revocationStatusService.saveSnapshot();
+        } catch (Exception e) {
+            log.warn("保存吊销状态快照失败", e);
+        }
+    }
+}
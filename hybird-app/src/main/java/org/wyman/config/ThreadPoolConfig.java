@@ -6,8 +6,10 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.wyman.trigger.pipeline.PipelineStage;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @EnableAsync
@@ -47,4 +49,42 @@ public class ThreadPoolConfig {
                 handler);
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public PipelineStage issuanceValidateStage(ThreadPoolConfigProperties properties) {
+        return pipelineStage("validate", properties.getPipelineValidatePoolSize(), properties.getPipelineStageQueueSize(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public PipelineStage issuanceSignStage(ThreadPoolConfigProperties properties) {
+        return pipelineStage("sign", properties.getPipelineSignPoolSize(), properties.getPipelineStageQueueSize(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 持久化阶段的证书已签名、序列号已占用, 队列满时不能拒绝: 由签名线程自行入库, 背压传导到签名阶段;
+     * 关闭后不再静默丢弃任务, 票据以失败结束
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PipelineStage issuancePersistStage(ThreadPoolConfigProperties properties) {
+        return pipelineStage("persist", properties.getPipelinePersistPoolSize(), properties.getPipelineStageQueueSize(),
+                new PipelineStage.CallerRunsUnlessShutdownPolicy());
+    }
+
+    /**
+     * 签发流水线阶段: 固定线程数 + 有界队列, 队列满时按拒绝策略形成背压
+     */
+    private PipelineStage pipelineStage(String name, int poolSize, int queueSize, RejectedExecutionHandler rejectedHandler) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize,
+                poolSize,
+                0L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> new Thread(runnable, "issuance-" + name + "-" + threadIndex.incrementAndGet()),
+                rejectedHandler);
+        log.info("签发流水线阶段初始化: stage={}, threads={}, queue={}", name, poolSize, queueSize);
+        return new PipelineStage(name, executor);
+    }
+
 }
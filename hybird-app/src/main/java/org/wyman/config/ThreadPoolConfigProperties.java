@@ -23,4 +23,13 @@ public class ThreadPoolConfigProperties {
      * */
     private String policy = "AbortPolicy";
 
+    /** 签发流水线: 校验阶段线程数(CSR解析、身份验证、策略校验) */
+    private Integer pipelineValidatePoolSize = 8;
+    /** 签发流水线: 签名阶段线程数, 默认等于CPU核数 */
+    private Integer pipelineSignPoolSize = Runtime.getRuntime().availableProcessors();
+    /** 签发流水线: 持久化阶段线程数 */
+    private Integer pipelinePersistPoolSize = 8;
+    /** 签发流水线: 各阶段有界队列长度 */
+    private Integer pipelineStageQueueSize = 1000;
+
 }
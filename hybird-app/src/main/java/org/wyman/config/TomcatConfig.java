@@ -0,0 +1,66 @@
+package org.wyman.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.tomcat.util.buf.EncodedSolidusHandling;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Tomcat配置
+ */
+@Configuration
+public class TomcatConfig {
+
+    /**
+     * 允许%2F出现在路径中的前缀: GET方式的OCSP请求以Base64放在路径中, '/'经URL编码后为%2F
+     */
+    private static final String OCSP_PATH = "/ocsp/";
+
+    /**
+     * 连接器放行路径中的%2F(Tomcat默认直接拒绝), 由encodedSolidusFilter限定只有OCSP路径可以使用
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> encodedSolidusCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector ->
+            connector.setEncodedSolidusHandling(EncodedSolidusHandling.PASS_THROUGH.getValue()));
+    }
+
+    /**
+     * OCSP以外的路径含%2F时按Tomcat默认行为返回400
+     */
+    @Bean
+    public FilterRegistrationBean<EncodedSolidusFilter> encodedSolidusFilter() {
+        FilterRegistrationBean<EncodedSolidusFilter> registration = new FilterRegistrationBean<>(new EncodedSolidusFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    static final class EncodedSolidusFilter extends OncePerRequestFilter {
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return request.getRequestURI().startsWith(request.getContextPath() + OCSP_PATH);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            if (request.getRequestURI().toLowerCase(Locale.ROOT).contains("%2f")) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
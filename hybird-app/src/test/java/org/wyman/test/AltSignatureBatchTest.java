@@ -0,0 +1,182 @@
+package org.wyman.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.asn1.DERBitString;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.BatchAltSignature;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.constants.HybridCertificateOids;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 批量备用签名: 批次包含证明、并发签发共享批次签名与等待超时(吞吐基准见hybird-benchmark的AltSignatureBatchBenchmark)
+ */
+@Slf4j
+public class AltSignatureBatchTest {
+
+    @Test
+    public void test_batchProofsVerifyEachLeaf() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+        kpg.initialize(2048);
+        KeyPair altKeyPair = kpg.generateKeyPair();
+        SignerPool.SignerKey signerKey = new SignerPool.SignerKey("CN=Batch CA", "SHA256withRSA",
+            SignerPool.keyAlias(altKeyPair.getPrivate()));
+        AltSignatureBatchConfig config = new AltSignatureBatchConfig();
+        config.setEnabled(true);
+        config.setMaxBatchSize(16);
+        config.setFlushWindowMs(60_000);
+        AltSignatureBatcher batcher = new AltSignatureBatcher(new SignerPool(new SignerPoolConfig()), config);
+
+        int total = 64;
+        List<byte[]> tbsList = new ArrayList<>(total);
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            tbsList.add(ByteBuffer.allocate(512).putInt(i).array());
+            futures.add(batcher.submit(signerKey, altKeyPair.getPrivate(), "SHA256withRSA", tbsList.get(i)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        // 满批即签, 每条的包含证明只对自己的预TBS成立
+        for (int i = 0; i < total; i++) {
+            BatchAltSignature proof = BatchAltSignature.getInstance(futures.get(i).join());
+            Assert.assertEquals(16, proof.getBatchSize());
+            Assert.assertTrue(proof.verify(tbsList.get(i), altKeyPair.getPublic(), "SHA256withRSA"));
+            Assert.assertFalse(proof.verify(tbsList.get((i + 1) % total), altKeyPair.getPublic(), "SHA256withRSA"));
+        }
+        Assert.assertEquals(total / 16, batcher.getStatistics().batches());
+        batcher.destroy();
+    }
+
+    @Test
+    public void test_concurrentIssuanceSharesBatchSignature() throws Exception {
+        AltSignatureBatchConfig config = new AltSignatureBatchConfig();
+        config.setEnabled(true);
+        config.setMaxBatchSize(8);
+        config.setFlushWindowMs(50);
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        AltSignatureBatcher batcher = new AltSignatureBatcher(signerPool, config);
+        BouncyCastleCertificateGenerator generator = new BouncyCastleCertificateGenerator(signerPool, batcher);
+
+        KeyPair caKeyPair = generator.generateKeyPair("ECDSA_P256");
+        KeyPair altKeyPair = generator.generateKeyPair("RSA2048");
+        KeyPair subjectKeyPair = generator.generateKeyPair("ECDSA_P256");
+        Date notBefore = new Date();
+        Date notAfter = new Date(notBefore.getTime() + 30L * 24 * 3600 * 1000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<X509Certificate>> certs = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            BigInteger serial = BigInteger.valueOf(5000 + i);
+            certs.add(executor.submit(() -> generator.generateCertificate(new X500Name("CN=Batch CA"),
+                new X500Name("CN=device-" + serial), subjectKeyPair.getPublic(), caKeyPair.getPrivate(),
+                notBefore, notAfter, serial, "ECDSA_P256", "http://crl.example.com/ca.crl",
+                HybridCertificateRequestContext.builder()
+                    .hybridEnabled(true)
+                    .altSignatureRequired(true)
+                    .pqSignaturePublicKeyPem("-----BEGIN PUBLIC KEY-----\nMOCK-PQ-SIG\n-----END PUBLIC KEY-----")
+                    .altSignatureJcaName("SHA256withRSA")
+                    .altSignaturePrivateKey(altKeyPair.getPrivate())
+                    .build())));
+        }
+        for (Future<X509Certificate> future : certs) {
+            X509Certificate cert = future.get();
+            Assert.assertTrue(generator.verifyCertificateSignature(cert, caKeyPair.getPublic()));
+            Assert.assertNull(cert.getExtensionValue(HybridCertificateOids.EXT_ALT_SIGNATURE_VALUE));
+            byte[] extension = ASN1OctetString.getInstance(
+                cert.getExtensionValue(HybridCertificateOids.EXT_ALT_SIGNATURE_BATCH)).getOctets();
+            BatchAltSignature proof = BatchAltSignature.getInstance(DERBitString.getInstance(extension).getOctets());
+            byte[] preTbs = AltSignatures.preTbs(cert);
+            Assert.assertTrue(proof.verify(preTbs, altKeyPair.getPublic(), "SHA256withRSA"));
+            Assert.assertFalse(proof.verify(cert.getTBSCertificate(), altKeyPair.getPublic(), "SHA256withRSA"));
+        }
+        executor.shutdown();
+        log.info("并发签发批量备用签名统计: {}", batcher.getStatistics());
+        Assert.assertTrue(batcher.getStatistics().batches() < 32);
+        batcher.destroy();
+    }
+
+    @Test
+    public void test_leafIndexOutsideBatchRejected() throws Exception {
+        AltSignatureBatchConfig config = new AltSignatureBatchConfig();
+        config.setEnabled(true);
+        config.setMaxBatchSize(1);
+        AltSignatureBatcher batcher = new AltSignatureBatcher(new SignerPool(new SignerPoolConfig()), config);
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+        kpg.initialize(2048);
+        KeyPair altKeyPair = kpg.generateKeyPair();
+        SignerPool.SignerKey signerKey = new SignerPool.SignerKey("CN=Batch CA", "SHA256withRSA",
+            SignerPool.keyAlias(altKeyPair.getPrivate()));
+        byte[] tbs = "pre-tbs".getBytes(StandardCharsets.UTF_8);
+
+        byte[] encoded = batcher.submit(signerKey, altKeyPair.getPrivate(), "SHA256withRSA", tbs).get();
+        Assert.assertTrue(BatchAltSignature.getInstance(encoded).verify(tbs, altKeyPair.getPublic(), "SHA256withRSA"));
+
+        // 单叶批次的包含路径为空, 任意序号都能还原出同一批次根, 只能靠序号范围拒绝
+        for (int leafIndex : new int[]{1, -1}) {
+            ASN1EncodableVector forged = new ASN1EncodableVector();
+            ASN1Sequence seq = ASN1Sequence.getInstance(encoded);
+            forged.add(new ASN1Integer(leafIndex));
+            for (int i = 1; i < seq.size(); i++) {
+                forged.add(seq.getObjectAt(i));
+            }
+            BatchAltSignature proof = BatchAltSignature.getInstance(new DERSequence(forged).getEncoded());
+            Assert.assertFalse(proof.verify(tbs, altKeyPair.getPublic(), "SHA256withRSA"));
+        }
+        batcher.destroy();
+    }
+
+    @Test
+    public void test_issuanceFailsWhenBatchSignatureTimesOut() throws Exception {
+        AltSignatureBatchConfig config = new AltSignatureBatchConfig();
+        config.setEnabled(true);
+        config.setMaxBatchSize(256);
+        config.setFlushWindowMs(60_000);
+        config.setSignTimeoutMs(100);
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        AltSignatureBatcher batcher = new AltSignatureBatcher(signerPool, config);
+        BouncyCastleCertificateGenerator generator = new BouncyCastleCertificateGenerator(signerPool, batcher);
+
+        KeyPair caKeyPair = generator.generateKeyPair("ECDSA_P256");
+        Date notBefore = new Date();
+        try {
+            generator.generateCertificate(new X500Name("CN=Batch CA"), new X500Name("CN=device-timeout"),
+                caKeyPair.getPublic(), caKeyPair.getPrivate(), notBefore,
+                new Date(notBefore.getTime() + 24L * 3600 * 1000), BigInteger.valueOf(6000), "ECDSA_P256",
+                "http://crl.example.com/ca.crl", HybridCertificateRequestContext.builder()
+                    .hybridEnabled(true)
+                    .altSignatureRequired(true)
+                    .build());
+            Assert.fail("批次在攒批窗口内不会签名, 签发应超时");
+        } catch (TimeoutException expected) {
+            Assert.assertEquals(0, batcher.getStatistics().batches());
+        }
+        batcher.destroy();
+    }
+}
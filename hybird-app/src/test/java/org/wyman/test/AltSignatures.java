@@ -0,0 +1,54 @@
+package org.wyman.test;
+
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.ExtensionsGenerator;
+import org.bouncycastle.asn1.x509.TBSCertificate;
+import org.bouncycastle.asn1.x509.V3TBSCertificateGenerator;
+import org.wyman.types.constants.HybridCertificateOids;
+
+import java.security.cert.X509Certificate;
+import java.util.Set;
+
+/**
+ * 测试用: 从已签发的混合证书还原备用签名的被签数据
+ */
+final class AltSignatures {
+
+    /**
+     * 由备用签名值派生、预TBS中不存在的扩展(Merkle根与侧载URL由签发时自动填充)
+     */
+    private static final Set<String> DERIVED_EXTENSIONS = Set.of(
+        HybridCertificateOids.EXT_HYBRID_MERKLE_ROOT,
+        HybridCertificateOids.EXT_HYBRID_SIDECAR_URL,
+        HybridCertificateOids.EXT_ALT_SIGNATURE_VALUE,
+        HybridCertificateOids.EXT_ALT_SIGNATURE_BATCH);
+
+    private AltSignatures() {
+    }
+
+    /**
+     * 去掉派生扩展后的TBS DER编码, 其余字段与扩展顺序不变
+     */
+    static byte[] preTbs(X509Certificate cert) throws Exception {
+        TBSCertificate tbs = TBSCertificate.getInstance(cert.getTBSCertificate());
+        Extensions extensions = tbs.getExtensions();
+        ExtensionsGenerator extGen = new ExtensionsGenerator();
+        for (ASN1ObjectIdentifier oid : extensions.getExtensionOIDs()) {
+            if (!DERIVED_EXTENSIONS.contains(oid.getId())) {
+                extGen.addExtension(extensions.getExtension(oid));
+            }
+        }
+        V3TBSCertificateGenerator tbsGen = new V3TBSCertificateGenerator();
+        tbsGen.setSerialNumber(tbs.getSerialNumber());
+        tbsGen.setSignature(tbs.getSignature());
+        tbsGen.setIssuer(tbs.getIssuer());
+        tbsGen.setStartDate(tbs.getStartDate());
+        tbsGen.setEndDate(tbs.getEndDate());
+        tbsGen.setSubject(tbs.getSubject());
+        tbsGen.setSubjectPublicKeyInfo(tbs.getSubjectPublicKeyInfo());
+        tbsGen.setExtensions(extGen.generate());
+        return tbsGen.generateTBSCertificate().getEncoded(ASN1Encoding.DER);
+    }
+}
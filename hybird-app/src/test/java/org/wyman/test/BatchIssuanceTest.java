@@ -0,0 +1,181 @@
+package org.wyman.test;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRegistry;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.service.SigningService;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.CertificateIssuanceCommand;
+import org.wyman.domain.signing.valobj.CertificateIssuanceResult;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.adapter.port.MockPrivateKeyProvider;
+import org.wyman.infrastructure.adapter.port.StripedSerialNumberAllocator;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SerialNumberAllocatorConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.SignerPool;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量签发: 同一批次内成功与失败的CSR各自返回逐项结果, 超过单批上限时整批拒绝
+ */
+public class BatchIssuanceTest {
+
+    private static final String ALGORITHM = "ECDSA_P256";
+    private static final String CA_NAME = "Batch Issuance CA";
+
+    private final SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+    private final BouncyCastleCertificateGenerator generator =
+        new BouncyCastleCertificateGenerator(signerPool, new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+    private final MockPrivateKeyProvider keyProvider = new MockPrivateKeyProvider();
+    private final InMemoryRegistry registry = new InMemoryRegistry();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>());
+    private final SigningService signingService = new SigningService(null, registry, null, keyProvider, generator,
+        new StripedSerialNumberAllocator(new SerialNumberAllocatorConfig()), null, generator::generateKeyPair,
+        null, null, null, null, executor);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void test_mixedBatchReturnsPerItemResults() throws Exception {
+        registerCa();
+        LocalDateTime notBefore = LocalDateTime.now();
+        List<CertificateIssuanceCommand> commands = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            // 第2、5项缺少公钥, 签名失败
+            KeyPair subjectKeyPair = generator.generateKeyPair(ALGORITHM);
+            commands.add(CertificateIssuanceCommand.builder()
+                .subjectDN("CN=device-" + i + ",O=wyman")
+                .publicKey(i % 3 == 1 ? null : subjectKeyPair.getPublic())
+                .notBefore(notBefore)
+                .notAfter(notBefore.plusDays(30))
+                .signatureAlgorithm(ALGORITHM)
+                .build());
+        }
+
+        List<CertificateIssuanceResult> results = signingService.issueCertificates(CA_NAME, commands);
+
+        Assert.assertEquals(commands.size(), results.size());
+        List<BigInteger> serials = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            CertificateIssuanceResult result = results.get(i);
+            Assert.assertEquals(i, result.getIndex());
+            if (i % 3 == 1) {
+                Assert.assertFalse(result.isSuccess());
+                Assert.assertNull(result.getCertificate());
+                Assert.assertTrue(result.getErrorMessage().startsWith("签发证书失败"));
+                continue;
+            }
+            Assert.assertTrue(result.isSuccess());
+            X509Certificate cert = x509(result.getCertificate());
+            Assert.assertTrue(generator.verifyCertificateSignature(cert, keyProvider.getPublicKey(ALGORITHM)));
+            Assert.assertTrue(cert.getSubjectX500Principal().getName().contains("CN=device-" + i));
+            serials.add(cert.getSerialNumber());
+        }
+        Assert.assertEquals(4, serials.size());
+        Assert.assertEquals(4, serials.stream().distinct().count());
+    }
+
+    @Test
+    public void test_batchOverSizeLimitRejectedBeforeSigning() throws Exception {
+        registerCa();
+        List<CertificateIssuanceCommand> commands = new ArrayList<>();
+        KeyPair subjectKeyPair = generator.generateKeyPair(ALGORITHM);
+        for (int i = 0; i <= SigningService.MAX_BATCH_SIZE; i++) {
+            commands.add(CertificateIssuanceCommand.builder()
+                .subjectDN("CN=device-" + i + ",O=wyman")
+                .publicKey(subjectKeyPair.getPublic())
+                .notBefore(LocalDateTime.now())
+                .notAfter(LocalDateTime.now().plusDays(30))
+                .signatureAlgorithm(ALGORITHM)
+                .build());
+        }
+
+        try {
+            signingService.issueCertificates(CA_NAME, commands);
+            Assert.fail("超过单批上限应整批拒绝");
+        } catch (IllegalArgumentException expected) {
+            Assert.assertTrue(expected.getMessage().contains(String.valueOf(SigningService.MAX_BATCH_SIZE)));
+        }
+        Assert.assertEquals(0, executor.getTaskCount());
+
+        // 恰好达到上限的批次正常签发
+        List<CertificateIssuanceResult> results = signingService.issueCertificates(CA_NAME,
+            commands.subList(0, SigningService.MAX_BATCH_SIZE));
+        Assert.assertEquals(SigningService.MAX_BATCH_SIZE, results.stream().filter(CertificateIssuanceResult::isSuccess).count());
+    }
+
+    private void registerCa() throws Exception {
+        KeyPair caKeyPair = new KeyPair(keyProvider.getPublicKey(ALGORITHM), keyProvider.getSigningPrivateKey(ALGORITHM));
+        Date notBefore = new Date();
+        X509Certificate x509 = generator.generateCACertificate(new X500Name("CN=" + CA_NAME + ",O=wyman"), caKeyPair,
+            notBefore, new Date(notBefore.getTime() + 365L * 24 * 3600 * 1000), BigInteger.ONE, ALGORITHM,
+            "http://crl.example.com/ca.crl");
+        Certificate caCertificate = new Certificate();
+        caCertificate.setSubjectDN(x509.getSubjectX500Principal().getName());
+        caCertificate.setPemEncoded(generator.toPEM(x509));
+        registry.register(new CertificateAuthority("batch-issuance-ca", CA_NAME, caCertificate));
+    }
+
+    private static X509Certificate x509(Certificate certificate) throws Exception {
+        return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+            new ByteArrayInputStream(certificate.getPemEncoded().getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static class InMemoryRegistry implements ICertificateAuthorityRegistry {
+        private final Map<String, CertificateAuthority> byName = new ConcurrentHashMap<>();
+
+        @Override
+        public CertificateAuthority getByName(String caName) {
+            return byName.get(caName);
+        }
+
+        @Override
+        public CertificateAuthority getById(String caId) {
+            return byName.values().stream().filter(ca -> ca.getCaId().equals(caId)).findFirst().orElse(null);
+        }
+
+        @Override
+        public List<CertificateAuthority> getAll() {
+            return List.copyOf(byName.values());
+        }
+
+        @Override
+        public CertificateAuthority getByIssuerHash(String hashAlgorithm, byte[] issuerNameHash, byte[] issuerKeyHash) {
+            return null;
+        }
+
+        @Override
+        public void register(CertificateAuthority ca) {
+            byName.put(ca.getCaName(), ca);
+        }
+
+        @Override
+        public void invalidate(String caId) {
+            byName.values().removeIf(ca -> ca.getCaId().equals(caId));
+        }
+    }
+}
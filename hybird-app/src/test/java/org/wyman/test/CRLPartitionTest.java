@@ -0,0 +1,155 @@
+package org.wyman.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.IssuingDistributionPoint;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.valobj.CRLPartitionState;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
+import org.wyman.domain.signing.valobj.RevocationSummary;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.adapter.port.MockPrivateKeyProvider;
+import org.wyman.infrastructure.adapter.port.StripedSerialNumberAllocator;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SerialNumberAllocatorConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.enums.CRLType;
+import org.wyman.types.enums.RevocationReason;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CRL分区: 证书按序列号分配分区并写入分区分发点, 分区CRL携带与之一致的关键issuingDistributionPoint
+ */
+@Slf4j
+public class CRLPartitionTest {
+
+    private static final int PARTITIONS = 4;
+
+    private final BouncyCastleCertificateGenerator generator = generator();
+
+    @Test
+    public void test_certificatesCarryPartitionDistributionPoint() throws Exception {
+        CertificateAuthority ca = certificateAuthority();
+        MockPrivateKeyProvider keyProvider = new MockPrivateKeyProvider();
+        KeyPair subjectKeyPair = generator.generateKeyPair("ECDSA_P256");
+        CertificateProfileTemplate profile = CertificateProfileTemplate.defaults("http://crl.example.com/ca.crl");
+
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            // 有模板与无模板两条签发路径
+            Certificate cert = ca.issueCertificate("CN=device-" + i, subjectKeyPair.getPublic(),
+                LocalDateTime.now(), LocalDateTime.now().plusDays(30), "ECDSA_P256", null, keyProvider,
+                i % 2 == 0 ? profile : null, null);
+            X509Certificate x509 = parse(cert.getPemEncoded());
+
+            int partition = x509.getSerialNumber().mod(BigInteger.valueOf(PARTITIONS)).intValue();
+            Assert.assertEquals(Integer.valueOf(partition), cert.getCrlPartition());
+            Assert.assertEquals(partitionUrl(partition), cert.getCrlDistributionPoint());
+            CRLDistPoint dp = CRLDistPoint.getInstance(ASN1OctetString.getInstance(
+                x509.getExtensionValue(Extension.cRLDistributionPoints.getId())).getOctets());
+            Assert.assertEquals(1, dp.getDistributionPoints().length);
+            Assert.assertEquals(partitionUrl(partition), GeneralNames.getInstance(
+                dp.getDistributionPoints()[0].getDistributionPoint().getName()).getNames()[0].getName().toString());
+            // 模板的其余扩展不受影响
+            if (i % 2 == 0) {
+                Assert.assertNotNull(x509.getKeyUsage());
+            }
+            seen.add(partition);
+        }
+        Assert.assertEquals(PARTITIONS, seen.size());
+    }
+
+    @Test
+    public void test_partitionCrlCarriesIssuingDistributionPoint() throws Exception {
+        CertificateAuthority ca = certificateAuthority();
+        List<RevokedCertificate> entries = List.of(
+            new RevokedCertificate("1001", LocalDateTime.now().minusHours(1), RevocationReason.KEY_COMPROMISE),
+            new RevokedCertificate("1005", LocalDateTime.now(), null));
+
+        try (StreamedCRL streamed = ca.generateStreamingCRL(CRLType.FULL, entries::forEach,
+                new MockPrivateKeyProvider(), "ECDSA_P256", Duration.ofHours(24), null, partitionUrl(1))) {
+            X509CRL crl;
+            try (InputStream in = streamed.openStream()) {
+                crl = (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(in);
+            }
+
+            Assert.assertTrue(crl.getCriticalExtensionOIDs().contains(Extension.issuingDistributionPoint.getId()));
+            IssuingDistributionPoint idp = IssuingDistributionPoint.getInstance(ASN1OctetString.getInstance(
+                crl.getExtensionValue(Extension.issuingDistributionPoint.getId())).getOctets());
+            Assert.assertEquals(partitionUrl(1), GeneralNames.getInstance(
+                idp.getDistributionPoint().getName()).getNames()[0].getName().toString());
+            Assert.assertFalse(idp.onlyContainsUserCerts());
+            Assert.assertFalse(idp.onlyContainsCACerts());
+            Assert.assertEquals(2, crl.getRevokedCertificates().size());
+        }
+    }
+
+    @Test
+    public void test_partitionRegeneratedOnlyWhenChanged() {
+        LocalDateTime latest = LocalDateTime.now().minusMinutes(5).withNano(0);
+        LocalDateTime now = LocalDateTime.now();
+        CRLPartitionState state = new CRLPartitionState("ca", 2, "7", 10, latest, now, now.plusHours(24), null);
+        LocalDateTime refreshDeadline = now.plusHours(1);
+
+        Assert.assertFalse(state.isStale(new RevocationSummary(10, latest), refreshDeadline));
+        // 新吊销
+        Assert.assertTrue(state.isStale(new RevocationSummary(11, now), refreshDeadline));
+        // 条目数不变但吊销时间变化(如证书过期移出后又有新吊销)
+        Assert.assertTrue(state.isStale(new RevocationSummary(10, now), refreshDeadline));
+        // 即将过期
+        Assert.assertTrue(state.isStale(new RevocationSummary(10, latest), now.plusHours(25)));
+        // 已发布的空分区
+        CRLPartitionState empty = new CRLPartitionState("ca", 3, "8", 0, null, now, now.plusHours(24), null);
+        Assert.assertFalse(empty.isStale(new RevocationSummary(), refreshDeadline));
+    }
+
+    private CertificateAuthority certificateAuthority() {
+        Certificate caCertificate = new Certificate();
+        caCertificate.setSubjectDN("CN=Partition CA,O=wyman");
+        CertificateAuthority ca = new CertificateAuthority("partition-ca", "Partition CA", caCertificate);
+        ca.setCertificateGenerator(generator);
+        ca.setSerialNumberAllocator(new StripedSerialNumberAllocator(new SerialNumberAllocatorConfig()));
+        ca.setNextCrlNumber(1);
+        ca.setCrlPartitionCount(PARTITIONS);
+        ca.setCrlPartitionUrlResolver(CRLPartitionTest::partitionUrl);
+        return ca;
+    }
+
+    private static String partitionUrl(int partition) {
+        return "http://crl.example.com/crl/Partition%20CA/partition-" + partition + ".crl";
+    }
+
+    private static BouncyCastleCertificateGenerator generator() {
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        return new BouncyCastleCertificateGenerator(signerPool,
+            new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+    }
+
+    private static X509Certificate parse(String pem) throws Exception {
+        return (X509Certificate) CertificateFactory.getInstance("X.509")
+            .generateCertificate(new ByteArrayInputStream(pem.getBytes(StandardCharsets.UTF_8)));
+    }
+}
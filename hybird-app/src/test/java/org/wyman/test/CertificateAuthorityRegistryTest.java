@@ -0,0 +1,224 @@
+package org.wyman.test;
+
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRepository;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.adapter.repository.CertificateAuthorityRegistry;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.infrastructure.dao.mapper.CertificateAuthorityMapper;
+import org.wyman.infrastructure.dao.po.CertificateAuthorityPO;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CA注册表: 查询返回请求副本, 任一加载列变化都会重载, 按OCSP颁发者哈希只能查到已启用的CA
+ */
+public class CertificateAuthorityRegistryTest {
+
+    private InMemoryRepository repository;
+    private AtomicInteger version;
+    private CertificateAuthorityRegistry registry;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryRepository();
+        version = new AtomicInteger();
+        repository.save(ca("ca-1", "Registry CA"));
+        registry = new CertificateAuthorityRegistry(repository, new StampMapper(version), new SignerPool(new SignerPoolConfig()));
+    }
+
+    @Test
+    public void test_requestsGetIsolatedCopies() {
+        CertificateAuthority first = registry.getByName("Registry CA");
+        first.setCrlNumberAllocator(name -> 1L);
+        first.setAltSignatureAlgorithm("ML-DSA-65");
+
+        CertificateAuthority second = registry.getByName("Registry CA");
+        Assert.assertNotSame(first, second);
+        Assert.assertNull(second.getCrlNumberAllocator());
+        Assert.assertNull(second.getAltSignatureAlgorithm());
+        Assert.assertTrue(second.pullDomainEvents().isEmpty());
+        // 已解析状态与CRL发布锁在副本间共享
+        Assert.assertSame(first.getIssuerX500Name(), second.getIssuerX500Name());
+        Assert.assertSame(first.getCrlLock(), second.getCrlLock());
+        Assert.assertNotSame(first, registry.getById("ca-1"));
+    }
+
+    @Test
+    public void test_reloadOnAnyLoadedColumn() {
+        Object crlLock = registry.getByName("Registry CA").getCrlLock();
+
+        CertificateAuthority changed = ca("ca-1", "Registry CA");
+        changed.setAltSignatureAlgorithm("ML-DSA-65");
+        repository.save(changed);
+        version.incrementAndGet();
+        registry.refreshIfChanged();
+        Assert.assertEquals("ML-DSA-65", registry.getByName("Registry CA").getAltSignatureAlgorithm());
+
+        CertificateAuthority partitioned = ca("ca-1", "Registry CA");
+        partitioned.setAltSignatureAlgorithm("ML-DSA-65");
+        partitioned.setCrlPartitionCount(8);
+        repository.save(partitioned);
+        version.incrementAndGet();
+        registry.refreshIfChanged();
+        Assert.assertEquals(8, registry.getById("ca-1").getCrlPartitionCount());
+        // 变更后的聚合根沿用原CRL发布锁
+        Assert.assertSame(crlLock, registry.getById("ca-1").getCrlLock());
+        registry.invalidate("ca-1");
+        Assert.assertSame(crlLock, registry.getById("ca-1").getCrlLock());
+    }
+
+    @Test
+    public void test_issuerHashIndexSkipsDisabledCas() throws Exception {
+        BouncyCastleCertificateGenerator generator = new BouncyCastleCertificateGenerator(
+            new SignerPool(new SignerPoolConfig()), new AltSignatureBatcher(new SignerPool(new SignerPoolConfig()),
+                new AltSignatureBatchConfig()));
+        X509Certificate enabled = caCertificate(generator, "Enabled OCSP CA");
+        X509Certificate disabled = caCertificate(generator, "Disabled OCSP CA");
+        repository.save(ca("ca-2", "Enabled OCSP CA", generator.toPEM(enabled)));
+        CertificateAuthority disabledCa = ca("ca-3", "Disabled OCSP CA", generator.toPEM(disabled));
+        disabledCa.setEnabled(false);
+        repository.save(disabledCa);
+
+        CertificateID enabledId = sha1CertId(enabled);
+        CertificateAuthority found = registry.getByIssuerHash(OIWObjectIdentifiers.idSHA1.getId(),
+            enabledId.getIssuerNameHash(), enabledId.getIssuerKeyHash());
+        Assert.assertNotNull(found);
+        Assert.assertEquals("ca-2", found.getCaId());
+        Assert.assertNotSame(found, registry.getByIssuerHash(OIWObjectIdentifiers.idSHA1.getId(),
+            enabledId.getIssuerNameHash(), enabledId.getIssuerKeyHash()));
+
+        CertificateID disabledId = sha1CertId(disabled);
+        Assert.assertNull(registry.getByIssuerHash(OIWObjectIdentifiers.idSHA1.getId(),
+            disabledId.getIssuerNameHash(), disabledId.getIssuerKeyHash()));
+        Assert.assertNull(registry.getByIssuerHash("1.2.3.4", enabledId.getIssuerNameHash(),
+            enabledId.getIssuerKeyHash()));
+    }
+
+    private static X509Certificate caCertificate(BouncyCastleCertificateGenerator generator, String caName)
+            throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(256);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        Date notBefore = new Date();
+        return generator.generateCACertificate(new X500Name("CN=" + caName), keyPair, notBefore,
+            new Date(notBefore.getTime() + 24L * 3600 * 1000), BigInteger.ONE, "ECDSA_P256", null);
+    }
+
+    private static CertificateID sha1CertId(X509Certificate certificate) throws Exception {
+        return new CertificateID(new JcaDigestCalculatorProviderBuilder().build().get(
+            new AlgorithmIdentifier(OIWObjectIdentifiers.idSHA1)), new JcaX509CertificateHolder(certificate), BigInteger.ONE);
+    }
+
+    private static CertificateAuthority ca(String caId, String caName, String pem) {
+        CertificateAuthority ca = ca(caId, caName);
+        ca.getCaCertificate().setPemEncoded(pem);
+        return ca;
+    }
+
+    private static CertificateAuthority ca(String caId, String caName) {
+        Certificate certificate = new Certificate();
+        certificate.setSubjectDN("CN=" + caName);
+        certificate.setIssuerDN("CN=" + caName);
+        certificate.setPemEncoded("-----BEGIN CERTIFICATE-----\n" + caName + "\n-----END CERTIFICATE-----");
+        return new CertificateAuthority(caId, caName, certificate);
+    }
+
+    /**
+     * 每次查询返回新实例, 与从CA表加载一致
+     */
+    private static class InMemoryRepository implements ICertificateAuthorityRepository {
+        private final Map<String, CertificateAuthority> rows = new ConcurrentHashMap<>();
+
+        @Override
+        public void save(CertificateAuthority ca) {
+            rows.put(ca.getCaId(), ca);
+        }
+
+        @Override
+        public CertificateAuthority findByName(String caName) {
+            return rows.values().stream().filter(ca -> ca.getCaName().equals(caName)).findFirst().map(CertificateAuthority::copy).orElse(null);
+        }
+
+        @Override
+        public CertificateAuthority findById(String caId) {
+            CertificateAuthority ca = rows.get(caId);
+            return ca != null ? ca.copy() : null;
+        }
+
+        @Override
+        public List<CertificateAuthority> findAll() {
+            List<CertificateAuthority> all = new ArrayList<>();
+            rows.values().forEach(ca -> all.add(ca.copy()));
+            return all;
+        }
+    }
+
+    /**
+     * 只提供版本戳的CA表映射
+     */
+    private static class StampMapper implements CertificateAuthorityMapper {
+        private final AtomicInteger version;
+
+        StampMapper(AtomicInteger version) {
+            this.version = version;
+        }
+
+        @Override
+        public String selectVersionStamp() {
+            return "1|" + version.get();
+        }
+
+        @Override
+        public int insert(CertificateAuthorityPO ca) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int update(CertificateAuthorityPO ca) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CertificateAuthorityPO selectById(String caId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CertificateAuthorityPO selectByName(String caName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CertificateAuthorityPO> selectAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CertificateAuthorityPO> selectEnabled() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
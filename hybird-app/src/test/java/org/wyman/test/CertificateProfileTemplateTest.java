@@ -0,0 +1,115 @@
+package org.wyman.test;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.policy.model.aggregate.CertificatePolicy;
+import org.wyman.domain.policy.service.PolicyService;
+import org.wyman.domain.policy.valobj.CryptographicRule;
+import org.wyman.domain.policy.valobj.ExtensionProfile;
+import org.wyman.domain.policy.valobj.ValidityPeriodRule;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.enums.CertificateType;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 证书模板测试: 模板按策略版本缓存, 模板签发的扩展与原固定扩展一致, 且扩展可按策略配置
+ */
+public class CertificateProfileTemplateTest {
+
+    private static final String CRL_DP = "http://crl.example.com/ca.crl";
+
+    @Test
+    public void test_templateCachedPerPolicyVersion() {
+        PolicyService policyService = new PolicyService(null);
+        CertificatePolicy policy = policy();
+
+        CertificateProfileTemplate first = policyService.getProfileTemplate(policy);
+        Assert.assertSame(first, policyService.getProfileTemplate(policy));
+        Assert.assertTrue(first.allowsSignatureAlgorithm("ECDSA_P256"));
+        Assert.assertFalse(first.allowsSignatureAlgorithm("RSA4096"));
+        Assert.assertTrue(first.allowsValidity(LocalDateTime.now(), LocalDateTime.now().plusDays(30)));
+        Assert.assertFalse(first.allowsValidity(LocalDateTime.now(), LocalDateTime.now().plusDays(400)));
+
+        // 规则变化后重新编译
+        policy.getValidityPeriodRule().setMaxDays(730);
+        CertificateProfileTemplate second = policyService.getProfileTemplate(policy);
+        Assert.assertNotSame(first, second);
+        Assert.assertNotEquals(first.getTemplateKey(), second.getTemplateKey());
+        Assert.assertTrue(second.allowsValidity(LocalDateTime.now(), LocalDateTime.now().plusDays(400)));
+
+        // 缓存键是规则快照: 原地修改规则列表同样触发重新编译, 已缓存的模板不受影响
+        policy.getCryptographicRule().getAllowedSignatureAlgorithms().set(0, "RSA4096");
+        CertificateProfileTemplate third = policyService.getProfileTemplate(policy);
+        Assert.assertNotSame(second, third);
+        Assert.assertFalse(second.allowsSignatureAlgorithm("RSA4096"));
+        Assert.assertTrue(third.allowsSignatureAlgorithm("RSA4096"));
+        Assert.assertSame(third, policyService.getProfileTemplate(policy));
+
+        // 策略换版后重新编译
+        policy.setVersion("2.0");
+        Assert.assertNotSame(third, policyService.getProfileTemplate(policy));
+    }
+
+    @Test
+    public void test_templateExtensionsMatchLegacyAndAreConfigurable() throws Exception {
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        BouncyCastleCertificateGenerator generator = new BouncyCastleCertificateGenerator(signerPool,
+            new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+        KeyPair caKeyPair = generator.generateKeyPair("ECDSA_P256");
+        KeyPair subjectKeyPair = generator.generateKeyPair("ECDSA_P256");
+        X500Name issuer = new X500Name("CN=Profile CA");
+        X500Name subject = new X500Name("CN=device-0001");
+        Date notBefore = new Date();
+        Date notAfter = new Date(notBefore.getTime() + 30L * 24 * 3600 * 1000);
+
+        X509Certificate legacy = generator.generateCertificate(issuer, subject, subjectKeyPair.getPublic(),
+            caKeyPair.getPrivate(), notBefore, notAfter, BigInteger.ONE, "ECDSA_P256", CRL_DP, null);
+
+        PolicyService policyService = new PolicyService(null);
+        CertificatePolicy policy = policy();
+        CertificateProfileTemplate template = policyService.getProfileTemplate(policy);
+        X509Certificate templated = generator.generateCertificate(issuer, subject, subjectKeyPair.getPublic(),
+            caKeyPair.getPrivate(), notBefore, notAfter, BigInteger.TWO, "ECDSA_P256", template, null);
+
+        Assert.assertArrayEquals(legacy.getExtensionValue("2.5.29.31"), templated.getExtensionValue("2.5.29.31"));
+        Assert.assertArrayEquals(legacy.getKeyUsage(), templated.getKeyUsage());
+        Assert.assertEquals(legacy.getBasicConstraints(), templated.getBasicConstraints());
+        Assert.assertEquals(legacy.getCriticalExtensionOIDs(), templated.getCriticalExtensionOIDs());
+        Assert.assertNull(templated.getExtendedKeyUsage());
+
+        policy.getExtensionProfile().setExtendedKeyUsages(List.of("clientAuth"));
+        policy.getExtensionProfile().setKeyUsages(List.of("digitalSignature"));
+        X509Certificate configured = generator.generateCertificate(issuer, subject, subjectKeyPair.getPublic(),
+            caKeyPair.getPrivate(), notBefore, notAfter, BigInteger.valueOf(3), "ECDSA_P256",
+            policyService.getProfileTemplate(policy), null);
+        Assert.assertEquals(List.of("1.3.6.1.5.5.7.3.2"), configured.getExtendedKeyUsage());
+        Assert.assertTrue(configured.getKeyUsage()[0]);
+        Assert.assertFalse(configured.getKeyUsage()[2]);
+    }
+
+    private CertificatePolicy policy() {
+        CertificatePolicy policy = new CertificatePolicy("POLICY-T", CertificateType.DEVICE_CERT, "测试策略");
+        CryptographicRule cryptoRule = new CryptographicRule();
+        cryptoRule.setAllowedSignatureAlgorithms(Arrays.asList("SM2", "ECDSA_P256"));
+        policy.setCryptographicRule(cryptoRule);
+        ValidityPeriodRule validityRule = new ValidityPeriodRule();
+        validityRule.setMinDays(1);
+        validityRule.setMaxDays(365);
+        policy.setValidityPeriodRule(validityRule);
+        policy.setExtensionProfile(new ExtensionProfile());
+        return policy;
+    }
+}
@@ -0,0 +1,171 @@
+package org.wyman.test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.service.RevocationStatusService;
+import org.wyman.domain.status.valobj.CRLMetadata;
+import org.wyman.infrastructure.adapter.repository.FileRevocationSnapshotStore;
+import org.wyman.infrastructure.config.RevocationSnapshotConfig;
+import org.wyman.trigger.http.CertificateStatusStreamController;
+import org.wyman.types.enums.RevocationReason;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式批量状态查询: NDJSON与二进制输入、分块并行查询后按输入顺序输出、可选详情字段、无效条目与截断输入
+ */
+public class CertificateStatusStreamTest {
+
+    private static final LocalDateTime REVOKED_AT = LocalDateTime.of(2025, 3, 1, 8, 30);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CertificateStatusStreamController controller;
+
+    @Before
+    public void setUp() {
+        RevocationSnapshotConfig config = new RevocationSnapshotConfig();
+        config.setFile(new File(folder.getRoot(), "snapshot.bin").getPath());
+        // 小分块、少量在途分块, 覆盖并行查询与按序写出
+        config.setStreamChunkSize(100);
+        config.setStreamParallelism(3);
+        config.setStreamMaxInFlightChunks(2);
+        RevocationStatusService service = new RevocationStatusService(new InMemoryRevocationStatusCacheRepository(),
+            new FileRevocationSnapshotStore(config), null, null);
+        service.loadSnapshot();
+        List<RevocationStatusCache.RevocationDetail> revoked = new ArrayList<>();
+        for (int i = 0; i < 100_000; i += 7) {
+            revoked.add(Revocations.detail(serial(i), REVOKED_AT, RevocationReason.KEY_COMPROMISE));
+        }
+        service.updateCacheFromCRL(new CRLMetadata("1", "CN=Stream CA", LocalDateTime.now(), LocalDateTime.now().plusDays(1),
+            "http://crl.example.com/1.crl", revoked.size()), revoked);
+        controller = new CertificateStatusStreamController(service, config);
+    }
+
+    @Test
+    public void test_ndjsonLinesWithDetails() throws Exception {
+        String body = serial(7) + "\n"
+            + "\"" + serial(8).toUpperCase() + "\"\n"
+            + "\n"
+            + "{\"serialNumber\":\"000" + serial(14) + "\"}\n"
+            + "not-a-serial\n"
+            + "{\"serialNumber\":";
+        List<JSONObject> lines = ndjson(body, true);
+
+        Assert.assertEquals(5, lines.size());
+        Assert.assertTrue(lines.get(0).getBooleanValue("revoked"));
+        Assert.assertEquals(RevocationReason.KEY_COMPROMISE.getDesc(), lines.get(0).getString("revocationReason"));
+        Assert.assertEquals(REVOKED_AT.toString(), lines.get(0).getString("revocationDate"));
+        Assert.assertEquals(serial(8), lines.get(1).getString("serialNumber"));
+        Assert.assertFalse(lines.get(1).getBooleanValue("revoked"));
+        Assert.assertNull(lines.get(1).get("revocationReason"));
+        // 前导零去除后与签发格式一致
+        Assert.assertEquals(serial(14), lines.get(2).getString("serialNumber"));
+        Assert.assertTrue(lines.get(2).getBooleanValue("revoked"));
+        Assert.assertEquals(3, lines.get(3).getIntValue("index"));
+        Assert.assertNotNull(lines.get(3).getString("error"));
+        Assert.assertEquals(4, lines.get(4).getIntValue("index"));
+    }
+
+    @Test
+    public void test_overlongNdjsonLineReturnsError() throws Exception {
+        String body = serial(7) + "\n"
+            + "{\"serialNumber\":\"" + serial(14) + "\",\"padding\":\"" + "a".repeat(1_000_000) + "\"}\n"
+            + serial(21) + "\n"
+            + "f".repeat(300);
+        List<JSONObject> lines = ndjson(body, false);
+
+        Assert.assertEquals(4, lines.size());
+        Assert.assertTrue(lines.get(0).getBooleanValue("revoked"));
+        // 超长行整行作为一个无效条目, 后续行照常查询
+        Assert.assertEquals(1, lines.get(1).getIntValue("index"));
+        Assert.assertNotNull(lines.get(1).getString("error"));
+        Assert.assertEquals(serial(21), lines.get(2).getString("serialNumber"));
+        Assert.assertTrue(lines.get(2).getBooleanValue("revoked"));
+        Assert.assertEquals(3, lines.get(3).getIntValue("index"));
+    }
+
+    @Test
+    public void test_largeNdjsonKeepsInputOrder() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            body.append(serial(i)).append('\n');
+        }
+        List<JSONObject> lines = ndjson(body.toString(), false);
+
+        Assert.assertEquals(100_000, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            JSONObject line = lines.get(i);
+            Assert.assertEquals(serial(i), line.getString("serialNumber"));
+            Assert.assertEquals(i % 7 == 0, line.getBooleanValue("revoked"));
+            Assert.assertNull(line.get("revocationReason"));
+        }
+    }
+
+    @Test
+    public void test_binaryRecordsStopAtTruncatedInput() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (int i = 0; i < 250; i++) {
+            byte[] bytes = new BigInteger(serial(i), 16).toByteArray();
+            body.write(bytes.length);
+            body.write(bytes);
+        }
+        body.write(5);
+        body.write(new byte[]{1, 2});
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/certificate/status/stream");
+        request.setContent(body.toByteArray());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.streamBinary(false, request, response);
+        List<JSONObject> lines = parse(response);
+
+        Assert.assertEquals(251, lines.size());
+        for (int i = 0; i < 250; i++) {
+            Assert.assertEquals(serial(i), lines.get(i).getString("serialNumber"));
+            Assert.assertEquals(i % 7 == 0, lines.get(i).getBooleanValue("revoked"));
+        }
+        Assert.assertEquals(250, lines.get(250).getIntValue("index"));
+        Assert.assertNotNull(lines.get(250).getString("error"));
+    }
+
+    private List<JSONObject> ndjson(String body, boolean details) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/certificate/status/stream");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.streamNdjson(details, request, response);
+        Assert.assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        return parse(response);
+    }
+
+    private static List<JSONObject> parse(MockHttpServletResponse response) throws Exception {
+        List<JSONObject> lines = new ArrayList<>();
+        for (String line : response.getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(JSON.parseObject(line));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * 与签发序列号同样形态(约135位)的测试序列号
+     */
+    private static String serial(int i) {
+        return BigInteger.ONE.shiftLeft(134).add(BigInteger.valueOf(i * 7919L)).toString(16);
+    }
+}
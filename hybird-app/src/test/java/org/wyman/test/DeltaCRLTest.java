@@ -0,0 +1,401 @@
+package org.wyman.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.signing.adapter.port.ICRLBaseStateRepository;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRegistry;
+import org.wyman.domain.signing.adapter.port.IObjectStorageGateway;
+import org.wyman.domain.signing.adapter.port.IRevokedCertificateSource;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.service.SigningService;
+import org.wyman.domain.signing.valobj.CRL;
+import org.wyman.domain.signing.valobj.CRLBaseState;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.RevocationSummary;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.adapter.port.MockPrivateKeyProvider;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.enums.CRLType;
+import org.wyman.types.enums.RevocationReason;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 增量CRL: 基础CRL携带freshestCRL, 增量CRL携带关键deltaCRLIndicator且只含新吊销条目;
+ * 经SigningService发布时只收录本CA的条目, 基础CRL读取时尚未提交的吊销由增量CRL收录
+ */
+@Slf4j
+public class DeltaCRLTest {
+
+    private static final String DELTA_URL = "http://crl.example.com/crl/Delta%20CA/delta.crl";
+
+    @Test
+    public void test_baseAndDeltaCRLExtensions() throws Exception {
+        MockPrivateKeyProvider keyProvider = new MockPrivateKeyProvider();
+        CertificateAuthority ca = certificateAuthority();
+
+        List<RevokedCertificate> baseEntries = entries(0, 1000, LocalDateTime.now().minusDays(1));
+        X509CRL baseCrl;
+        try (StreamedCRL base = ca.generateStreamingCRL(CRLType.BASE, baseEntries::forEach, keyProvider, "ECDSA_P256",
+                 Duration.ofHours(24), DELTA_URL, null)) {
+            baseCrl = parse(base);
+        }
+
+        Assert.assertNull(baseCrl.getExtensionValue(Extension.deltaCRLIndicator.getId()));
+        CRLDistPoint freshest = CRLDistPoint.getInstance(ASN1OctetString.getInstance(
+            baseCrl.getExtensionValue(Extension.freshestCRL.getId())).getOctets());
+        GeneralName deltaName = GeneralNames.getInstance(
+            freshest.getDistributionPoints()[0].getDistributionPoint().getName()).getNames()[0];
+        Assert.assertEquals(DELTA_URL, deltaName.getName().toString());
+        Assert.assertEquals(1000, baseCrl.getRevokedCertificates().size());
+
+        BigInteger baseCrlNumber = crlNumber(baseCrl);
+        List<RevokedCertificate> deltaEntries = entries(1000, 5, LocalDateTime.now());
+        X509CRL deltaCrl;
+        try (StreamedCRL delta = ca.generateStreamingDeltaCRL(deltaEntries::forEach, baseCrlNumber.toString(),
+                 keyProvider, "ECDSA_P256", Duration.ofMinutes(30))) {
+            deltaCrl = parse(delta);
+        }
+
+        Assert.assertTrue(deltaCrl.getCriticalExtensionOIDs().contains(Extension.deltaCRLIndicator.getId()));
+        BigInteger indicator = ASN1Integer.getInstance(ASN1OctetString.getInstance(
+            deltaCrl.getExtensionValue(Extension.deltaCRLIndicator.getId())).getOctets()).getValue();
+        Assert.assertEquals(baseCrlNumber, indicator);
+        Assert.assertTrue(crlNumber(deltaCrl).compareTo(indicator) > 0);
+        Assert.assertEquals(5, deltaCrl.getRevokedCertificates().size());
+
+        log.info("基础CRL {} 字节({} 条), 增量CRL {} 字节({} 条)", baseCrl.getEncoded().length,
+            baseEntries.size(), deltaCrl.getEncoded().length, deltaEntries.size());
+        Assert.assertTrue(deltaCrl.getEncoded().length * 20 < baseCrl.getEncoded().length);
+    }
+
+    @Test
+    public void test_entryWithoutReasonOrDate() throws Exception {
+        CertificateAuthority ca = certificateAuthority();
+        RevokedCertificate legacy = new RevokedCertificate("abcdef", null, null);
+        X509CRL x509CRL;
+        try (StreamedCRL crl = ca.generateStreamingCRL(CRLType.FULL, consumer -> consumer.accept(legacy),
+                 new MockPrivateKeyProvider(), "ECDSA_P256", Duration.ofHours(24), null, null)) {
+            x509CRL = parse(crl);
+            Assert.assertEquals(1, crl.getEntryCount());
+        }
+        Assert.assertNotNull(x509CRL.getRevokedCertificate(new BigInteger("abcdef", 16)));
+    }
+
+    @Test
+    public void test_publishBaseAndDeltaSplit() throws Exception {
+        CertificateAuthority ca = certificateAuthority();
+        InMemoryRegistry registry = new InMemoryRegistry();
+        registry.register(ca);
+        InMemoryRevokedSource source = new InMemoryRevokedSource();
+        InMemoryStorage storage = new InMemoryStorage();
+        InMemoryBaseStateRepository baseStates = new InMemoryBaseStateRepository();
+        AtomicLong crlNumbers = new AtomicLong();
+        SigningService signingService = new SigningService(null, registry, storage, new MockPrivateKeyProvider(),
+            ca.getCertificateGenerator(), null, name -> crlNumbers.incrementAndGet(), null, null, baseStates,
+            source, null, null);
+
+        String issuerDN = ca.getCaCertificate().getSubjectDN();
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        entries(0, 100, yesterday).forEach(revoked -> source.add(issuerDN, revoked));
+        // 其他CA的吊销条目不得进入本CA的CRL
+        entries(500, 10, LocalDateTime.now()).forEach(revoked -> source.add("CN=Other CA,O=wyman", revoked));
+        // 吊销时间早于基础CRL读取, 但读取时尚未提交
+        RevokedCertificate late = new RevokedCertificate("fff01", LocalDateTime.now().minusSeconds(30),
+            RevocationReason.KEY_COMPROMISE);
+
+        CRL base = signingService.publishStreamingCRL("Delta CA", CRLType.BASE, "ECDSA_P256", Duration.ofHours(24));
+        X509CRL baseCrl = parseDer(storage.get(base.getCrlUrl()));
+        Assert.assertEquals(100, baseCrl.getRevokedCertificates().size());
+        Assert.assertNull(baseCrl.getRevokedCertificate(new BigInteger("fff01", 16)));
+        CRLBaseState baseState = baseStates.findByCaId(ca.getCaId());
+        Assert.assertTrue(baseState.getRevocationCutoff().isBefore(late.getRevocationDate()));
+
+        source.add(issuerDN, late);
+        source.add(issuerDN, new RevokedCertificate("fff02", LocalDateTime.now(), RevocationReason.SUPERSEDED));
+        CRL delta = signingService.publishDeltaCRL("Delta CA", "ECDSA_P256", Duration.ofHours(24), Duration.ofMinutes(30));
+        X509CRL deltaCrl = parseDer(storage.get(delta.getCrlUrl()));
+
+        Assert.assertEquals(CRLType.DELTA, delta.getCrlType());
+        Assert.assertEquals(base.getCrlNumber(), delta.getBaseCrlNumber());
+        Assert.assertEquals(2, delta.getRevokedCount());
+        Assert.assertEquals(2, deltaCrl.getRevokedCertificates().size());
+        Assert.assertNotNull(deltaCrl.getRevokedCertificate(new BigInteger("fff01", 16)));
+        Assert.assertNotNull(deltaCrl.getRevokedCertificate(new BigInteger("fff02", 16)));
+        Assert.assertEquals(delta.getCrlNumber(), baseStates.findByCaId(ca.getCaId()).getLastDeltaCrlNumber());
+        Assert.assertTrue(new BigInteger(delta.getCrlNumber()).compareTo(new BigInteger(base.getCrlNumber())) > 0);
+    }
+
+    @Test
+    public void test_partitionedCaBaseAndDeltaExcludePartitionedCertificates() throws Exception {
+        CertificateAuthority ca = certificateAuthority();
+        ca.setCrlPartitionCount(4);
+        InMemoryRegistry registry = new InMemoryRegistry();
+        registry.register(ca);
+        InMemoryRevokedSource source = new InMemoryRevokedSource();
+        InMemoryStorage storage = new InMemoryStorage();
+        InMemoryBaseStateRepository baseStates = new InMemoryBaseStateRepository();
+        AtomicLong crlNumbers = new AtomicLong();
+        SigningService signingService = new SigningService(null, registry, storage, new MockPrivateKeyProvider(),
+            ca.getCertificateGenerator(), null, name -> crlNumbers.incrementAndGet(), null, null, baseStates,
+            source, null, null);
+
+        // 启用分区前签发的证书只在基础/增量CRL中, 分区证书只在分区CRL中
+        String issuerDN = ca.getCaCertificate().getSubjectDN();
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        entries(0, 20, yesterday).forEach(revoked -> source.add(issuerDN, revoked));
+        entries(100, 30, yesterday).forEach(revoked -> source.addPartitioned(issuerDN, revoked));
+
+        CRL base = signingService.publishStreamingCRL("Delta CA", CRLType.BASE, "ECDSA_P256", Duration.ofHours(24));
+        X509CRL baseCrl = parseDer(storage.get(base.getCrlUrl()));
+        Assert.assertEquals(20, baseCrl.getRevokedCertificates().size());
+        Assert.assertNull(baseCrl.getRevokedCertificate(new BigInteger(Integer.toHexString(0x10000 + 100), 16)));
+
+        source.add(issuerDN, new RevokedCertificate("fff03", LocalDateTime.now(), RevocationReason.SUPERSEDED));
+        source.addPartitioned(issuerDN, new RevokedCertificate("fff04", LocalDateTime.now(), RevocationReason.SUPERSEDED));
+        X509CRL deltaCrl = parseDer(storage.get(signingService.publishDeltaCRL("Delta CA", "ECDSA_P256",
+            Duration.ofHours(24), Duration.ofMinutes(30)).getCrlUrl()));
+        Assert.assertEquals(1, deltaCrl.getRevokedCertificates().size());
+        Assert.assertNotNull(deltaCrl.getRevokedCertificate(new BigInteger("fff03", 16)));
+    }
+
+    private static CertificateAuthority certificateAuthority() {
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        Certificate caCertificate = new Certificate();
+        caCertificate.setSubjectDN("CN=Delta CA,O=wyman");
+        CertificateAuthority ca = new CertificateAuthority("delta-ca", "Delta CA", caCertificate);
+        ca.setCertificateGenerator(new BouncyCastleCertificateGenerator(signerPool,
+            new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig())));
+        ca.setNextCrlNumber(1);
+        return ca;
+    }
+
+    private static List<RevokedCertificate> entries(int from, int count, LocalDateTime revocationDate) {
+        List<RevokedCertificate> entries = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            entries.add(new RevokedCertificate(Integer.toHexString(0x10000 + i), revocationDate,
+                RevocationReason.KEY_COMPROMISE));
+        }
+        return entries;
+    }
+
+    private static X509CRL parse(StreamedCRL streamed) throws Exception {
+        try (InputStream in = streamed.openStream()) {
+            return (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(in);
+        }
+    }
+
+    private static BigInteger crlNumber(X509CRL crl) {
+        return ASN1Integer.getInstance(ASN1OctetString.getInstance(
+            crl.getExtensionValue(Extension.cRLNumber.getId())).getOctets()).getValue();
+    }
+
+    private static X509CRL parseDer(byte[] der) throws Exception {
+        return (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(new ByteArrayInputStream(der));
+    }
+
+    /**
+     * 内存CA注册表
+     */
+    private static class InMemoryRegistry implements ICertificateAuthorityRegistry {
+        private final Map<String, CertificateAuthority> byName = new ConcurrentHashMap<>();
+
+        @Override
+        public CertificateAuthority getByName(String caName) {
+            return byName.get(caName);
+        }
+
+        @Override
+        public CertificateAuthority getById(String caId) {
+            return byName.values().stream().filter(ca -> ca.getCaId().equals(caId)).findFirst().orElse(null);
+        }
+
+        @Override
+        public List<CertificateAuthority> getAll() {
+            return List.copyOf(byName.values());
+        }
+
+        @Override
+        public CertificateAuthority getByIssuerHash(String hashAlgorithm, byte[] issuerNameHash, byte[] issuerKeyHash) {
+            return null;
+        }
+
+        @Override
+        public void register(CertificateAuthority ca) {
+            byName.put(ca.getCaName(), ca);
+        }
+
+        @Override
+        public void invalidate(String caId) {
+        }
+    }
+
+    /**
+     * 内存吊销条目数据源, 按颁发者DN、吊销时间与是否分区过滤
+     */
+    private static class InMemoryRevokedSource implements IRevokedCertificateSource {
+        private final Map<String, List<RevokedCertificate>> byIssuer = new ConcurrentHashMap<>();
+        private final Set<String> partitioned = ConcurrentHashMap.newKeySet();
+
+        void add(String issuerDN, RevokedCertificate revoked) {
+            byIssuer.computeIfAbsent(issuerDN, key -> new CopyOnWriteArrayList<>()).add(revoked);
+        }
+
+        void addPartitioned(String issuerDN, RevokedCertificate revoked) {
+            add(issuerDN, revoked);
+            partitioned.add(revoked.getSerialNumber());
+        }
+
+        @Override
+        public void scan(String issuerDN, Consumer<RevokedCertificate> consumer) {
+            byIssuer.getOrDefault(issuerDN, List.of()).forEach(consumer);
+        }
+
+        @Override
+        public List<RevokedCertificate> findRevokedSince(String issuerDN, LocalDateTime since) {
+            return byIssuer.getOrDefault(issuerDN, List.of()).stream()
+                .filter(revoked -> since == null || !revoked.getRevocationDate().isBefore(since))
+                .toList();
+        }
+
+        @Override
+        public void scanUnpartitioned(String issuerDN, Consumer<RevokedCertificate> consumer) {
+            scan(issuerDN, revoked -> {
+                if (!partitioned.contains(revoked.getSerialNumber())) {
+                    consumer.accept(revoked);
+                }
+            });
+        }
+
+        @Override
+        public List<RevokedCertificate> findUnpartitionedRevokedSince(String issuerDN, LocalDateTime since) {
+            return findRevokedSince(issuerDN, since).stream()
+                .filter(revoked -> !partitioned.contains(revoked.getSerialNumber()))
+                .toList();
+        }
+
+        @Override
+        public void scan(String issuerDN, int partition, Consumer<RevokedCertificate> consumer) {
+        }
+
+        @Override
+        public Map<Integer, RevocationSummary> summarizeByPartition(String issuerDN) {
+            return Map.of();
+        }
+    }
+
+    /**
+     * 内存对象存储, 只保存CRL
+     */
+    private static class InMemoryStorage implements IObjectStorageGateway {
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+        byte[] get(String url) {
+            return objects.get(url);
+        }
+
+        @Override
+        public String uploadCRL(String crlNumber, String crlPem) {
+            return put("http://crl.example.com/" + crlNumber, crlPem.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String crlUrl(String caName, CRLType crlType) {
+            return "http://crl.example.com/" + caName.replace(" ", "%20") + "/" + crlType.getCode();
+        }
+
+        @Override
+        public String uploadCRL(String caName, CRLType crlType, String crlNumber, String crlPem) {
+            return put(crlUrl(caName, crlType), crlPem.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String uploadCRL(String caName, CRLType crlType, String crlNumber, InputStream derStream, long length) {
+            try {
+                return put(crlUrl(caName, crlType), derStream.readAllBytes());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String partitionCrlUrl(String caName, int partition) {
+            return "http://crl.example.com/" + caName.replace(" ", "%20") + "/partition-" + partition;
+        }
+
+        @Override
+        public String uploadPartitionCRL(String caName, int partition, String crlNumber, InputStream derStream, long length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String downloadCRL(String crlUrl) {
+            return new String(objects.get(crlUrl), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void deleteCRL(String crlUrl) {
+            objects.remove(crlUrl);
+        }
+
+        @Override
+        public String uploadSidecar(String serialNumber, String sidecarJson) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String downloadSidecar(String serialNumber) {
+            return null;
+        }
+
+        private String put(String url, byte[] content) {
+            objects.put(url, content);
+            return url;
+        }
+    }
+
+    /**
+     * 内存基础CRL状态仓储
+     */
+    private static class InMemoryBaseStateRepository implements ICRLBaseStateRepository {
+        private final Map<String, CRLBaseState> states = new ConcurrentHashMap<>();
+
+        @Override
+        public CRLBaseState findByCaId(String caId) {
+            return states.get(caId);
+        }
+
+        @Override
+        public void save(CRLBaseState state) {
+            states.put(state.getCaId(), state);
+        }
+    }
+}
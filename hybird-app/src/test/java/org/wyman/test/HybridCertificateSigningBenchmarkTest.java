@@ -0,0 +1,179 @@
+package org.wyman.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.operator.ContentSigner;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.constants.HybridCertificateOids;
+
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 混合证书单遍签名基准: 统计每张证书的经典签名次数(改造前为2次, 改造后为1次)
+ */
+@Slf4j
+public class HybridCertificateSigningBenchmarkTest {
+
+    private static final int CERT_COUNT = 200;
+
+    @Test
+    public void test_signaturesPerHybridCertificate() throws Exception {
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        CountingCertificateGenerator generator = new CountingCertificateGenerator(signerPool);
+        KeyPair caKeyPair = generator.generateKeyPair("ECDSA_P256");
+        KeyPair altKeyPair = generator.generateKeyPair("RSA2048");
+        KeyPair subjectKeyPair = generator.generateKeyPair("ECDSA_P256");
+
+        X500Name issuer = new X500Name("CN=Benchmark CA");
+        X500Name subject = new X500Name("CN=device-0001");
+        Date notBefore = new Date();
+        Date notAfter = new Date(notBefore.getTime() + 365L * 24 * 3600 * 1000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CERT_COUNT; i++) {
+            X509Certificate cert = generator.generateCertificate(issuer, subject, subjectKeyPair.getPublic(),
+                    caKeyPair.getPrivate(), notBefore, notAfter, BigInteger.valueOf(1000 + i), "ECDSA_P256",
+                    "http://crl.example.com/ca.crl", hybridContext(altKeyPair.getPrivate()));
+            Assert.assertTrue(generator.verifyCertificateSignature(cert, caKeyPair.getPublic()));
+            Assert.assertNotNull(cert.getExtensionValue(HybridCertificateOids.EXT_ALT_SIGNATURE_VALUE));
+            Assert.assertNotNull(cert.getExtensionValue(HybridCertificateOids.EXT_HYBRID_MERKLE_ROOT));
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        double signaturesPerCert = (double) generator.classicalSignatures.get() / CERT_COUNT;
+        log.info("混合证书签发 {} 张, 耗时 {}ms, 吞吐 {}/s, 每证书经典签名次数: 改造前 2, 改造后 {}",
+                CERT_COUNT, elapsedMs, CERT_COUNT * 1000L / Math.max(1, elapsedMs), signaturesPerCert);
+        Assert.assertEquals(1.0, signaturesPerCert, 0.0);
+
+        // 单线程顺序签发: 经典签名器与替代签名器各只初始化一次, 其余均命中签名器池
+        SignerPool.SignerPoolStatistics statistics = signerPool.getStatistics();
+        log.info("签名器池统计: {}", statistics);
+        Assert.assertEquals(2, statistics.misses());
+        Assert.assertEquals(2L * CERT_COUNT - 2, statistics.hits());
+    }
+
+    @Test
+    public void test_keyAliasCachedAndNonExtractableKeys() throws Exception {
+        KeyPair keyPair = new BouncyCastleCertificateGenerator(new SignerPool(new SignerPoolConfig()), null)
+                .generateKeyPair("ECDSA_P256");
+        Assert.assertSame(SignerPool.keyAlias(keyPair.getPrivate()), SignerPool.keyAlias(keyPair.getPrivate()));
+
+        // HSM等不可导出的私钥没有编码, 按对象分配密钥ID
+        PrivateKey hsmKey = new NonExtractableKey();
+        PrivateKey otherHsmKey = new NonExtractableKey();
+        Assert.assertEquals(SignerPool.keyAlias(hsmKey), SignerPool.keyAlias(hsmKey));
+        Assert.assertNotEquals(SignerPool.keyAlias(hsmKey), SignerPool.keyAlias(otherHsmKey));
+    }
+
+    @Test
+    public void test_failedSignatureIsResetBeforeRelease() throws Exception {
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        KeyPair keyPair = new BouncyCastleCertificateGenerator(signerPool, null).generateKeyPair("ECDSA_P256");
+        SignerPool.SignerKey signerKey = new SignerPool.SignerKey("CN=Reset CA", "SHA256withECDSA",
+                SignerPool.keyAlias(keyPair.getPrivate()));
+        SignerPool.SignerFactory<Signature> factory = () -> {
+            Signature created = Signature.getInstance("SHA256withECDSA");
+            created.initSign(keyPair.getPrivate());
+            return created;
+        };
+
+        // 写入部分数据后签名失败: 重置后归还, 下一次借出不带残留数据
+        Signature failed = signerPool.borrowSignature(signerKey, factory);
+        failed.update("partial".getBytes());
+        signerPool.releaseSignature(signerKey, SignerPool.reset(failed));
+
+        Signature reused = signerPool.borrowSignature(signerKey, factory);
+        Assert.assertSame(failed, reused);
+        byte[] data = "complete".getBytes();
+        reused.update(data);
+        byte[] value = reused.sign();
+        signerPool.releaseSignature(signerKey, reused);
+
+        Signature verifier = Signature.getInstance("SHA256withECDSA");
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(data);
+        Assert.assertTrue(verifier.verify(value));
+    }
+
+    private HybridCertificateRequestContext hybridContext(PrivateKey altPrivateKey) {
+        return HybridCertificateRequestContext.builder()
+                .hybridEnabled(true)
+                .altSignatureRequired(true)
+                .pqSignaturePublicKeyPem("-----BEGIN PUBLIC KEY-----\nMOCK-PQ-SIG\n-----END PUBLIC KEY-----")
+                .pqKekPublicKeyPem("-----BEGIN PUBLIC KEY-----\nMOCK-PQ-KEK\n-----END PUBLIC KEY-----")
+                .altSignatureAlgorithmOid("1.2.840.113549.1.1.11")
+                .altSignatureJcaName("SHA256withRSA")
+                .altSignaturePrivateKey(altPrivateKey)
+                .build();
+    }
+
+    /**
+     * 不可导出的私钥(getEncoded()返回null)
+     */
+    private static class NonExtractableKey implements PrivateKey {
+        @Override
+        public String getAlgorithm() {
+            return "EC";
+        }
+
+        @Override
+        public String getFormat() {
+            return null;
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            return null;
+        }
+    }
+
+    /**
+     * 统计经典签名器实际签名次数
+     */
+    private static class CountingCertificateGenerator extends BouncyCastleCertificateGenerator {
+
+        private final AtomicLong classicalSignatures = new AtomicLong();
+
+        private CountingCertificateGenerator(SignerPool signerPool) {
+            super(signerPool, new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+        }
+
+        @Override
+        protected ContentSigner createContentSigner(String signatureAlgorithm, PrivateKey privateKey) throws Exception {
+            ContentSigner delegate = super.createContentSigner(signatureAlgorithm, privateKey);
+            return new ContentSigner() {
+                @Override
+                public AlgorithmIdentifier getAlgorithmIdentifier() {
+                    return delegate.getAlgorithmIdentifier();
+                }
+
+                @Override
+                public OutputStream getOutputStream() {
+                    return delegate.getOutputStream();
+                }
+
+                @Override
+                public byte[] getSignature() {
+                    classicalSignatures.incrementAndGet();
+                    return delegate.getSignature();
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.wyman.test;
+
+import org.wyman.domain.status.adapter.port.IRevocationStatusCacheRepository;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 测试用内存吊销状态缓存仓储: 只保存最新快照(追加的增量直接并入), 并记录读取与写入次数; 可模拟共享存储确认失败
+ */
+class InMemoryRevocationStatusCacheRepository implements IRevocationStatusCacheRepository {
+
+    RevocationSnapshot latest;
+    int reads;
+    int appended;
+    int appendCalls;
+    int snapshots;
+    RuntimeException findRevokedFailure;
+
+    @Override
+    public void appendRevocations(String cacheId, Collection<RevocationStatusCache.RevocationDetail> revocations) {
+        appended += revocations.size();
+        appendCalls++;
+        latest = (latest != null ? latest : RevocationSnapshot.empty()).withRevocations(revocations);
+    }
+
+    @Override
+    public void saveSnapshot(RevocationSnapshot snapshot) {
+        snapshots++;
+        latest = snapshot;
+    }
+
+    @Override
+    public RevocationSnapshot loadLatest() {
+        reads++;
+        return latest;
+    }
+
+    @Override
+    public int compact(int minDeltas) {
+        return 0;
+    }
+
+    @Override
+    public Set<String> findRevoked(Collection<String> serialNumbers) {
+        if (findRevokedFailure != null) {
+            throw findRevokedFailure;
+        }
+        return Set.of();
+    }
+
+    @Override
+    public void subscribe(ChangeListener listener) {
+    }
+}
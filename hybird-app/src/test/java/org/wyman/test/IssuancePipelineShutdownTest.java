@@ -0,0 +1,65 @@
+package org.wyman.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.api.dto.CertificateApplyRequest;
+import org.wyman.api.dto.CertificateIssuanceResponse;
+import org.wyman.trigger.pipeline.CertificateIssuanceHandler;
+import org.wyman.trigger.pipeline.CertificateIssuancePipeline;
+import org.wyman.trigger.pipeline.IssuanceTicket;
+import org.wyman.trigger.pipeline.PipelineStage;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 签发流水线关闭: 持久化阶段关闭后提交的任务不得静默丢弃, 票据以失败结束
+ */
+public class IssuancePipelineShutdownTest {
+
+    @Test
+    public void test_ticketFailsWhenPersistStageShutDown() throws Exception {
+        PipelineStage validateStage = stage(new ThreadPoolExecutor.AbortPolicy());
+        PipelineStage signStage = stage(new ThreadPoolExecutor.AbortPolicy());
+        PipelineStage persistStage = stage(new PipelineStage.CallerRunsUnlessShutdownPolicy());
+        AtomicBoolean persisted = new AtomicBoolean();
+        CertificateIssuanceHandler handler = new CertificateIssuanceHandler(null, null, null, null, null) {
+            @Override
+            public PreparedIssuance validate(CertificateApplyRequest request) {
+                return new PreparedIssuance();
+            }
+
+            @Override
+            public PreparedIssuance sign(PreparedIssuance prepared) {
+                // 签名期间应用开始停止
+                persistStage.shutdown();
+                return prepared;
+            }
+
+            @Override
+            public CertificateIssuanceResponse persist(PreparedIssuance prepared) {
+                persisted.set(true);
+                return new CertificateIssuanceResponse();
+            }
+        };
+        CertificateIssuancePipeline pipeline = new CertificateIssuancePipeline(handler, validateStage, signStage, persistStage);
+
+        IssuanceTicket ticket = pipeline.submit(new CertificateApplyRequest());
+        ticket.getCompletion().get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(IssuanceTicket.Status.FAILED, ticket.getStatus());
+        Assert.assertEquals("签发服务正在停止, 请稍后重试", ticket.getErrorMessage());
+        Assert.assertFalse(persisted.get());
+        Assert.assertEquals(1, persistStage.metrics().rejected());
+        validateStage.shutdown();
+        signStage.shutdown();
+    }
+
+    private static PipelineStage stage(RejectedExecutionHandler handler) {
+        return new PipelineStage("test", new ThreadPoolExecutor(1, 1, 0L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(4), handler));
+    }
+}
@@ -0,0 +1,130 @@
+package org.wyman.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wyman.domain.status.valobj.PresignedOcspResponse;
+import org.wyman.infrastructure.adapter.port.MappedOcspResponseStore;
+import org.wyman.infrastructure.config.OcspConfig;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * 预签名OCSP响应存储: 乱序写入后按序列号查找、过期、重建期间的单条写入、增量段写满后合并
+ */
+public class MappedOcspResponseStoreTest {
+
+    private static final String CA_ID = "ca-1";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedOcspResponseStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        OcspConfig config = new OcspConfig();
+        config.setStoreDirectory(folder.getRoot().getPath());
+        config.setStoreDeltaCapacityBytes(4096);
+        store = new MappedOcspResponseStore(config);
+        store.init();
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    public void test_rebuildAndFind() {
+        LocalDateTime now = LocalDateTime.now();
+        Random random = new Random(7);
+        String[] serials = new String[5000];
+        for (int i = 0; i < serials.length; i++) {
+            // 随机的160位以内序列号, 写入顺序与排序顺序无关
+            serials[i] = new BigInteger(1 + random.nextInt(159), random).setBit(0).toString(16);
+        }
+        long count = store.rebuild(CA_ID, sink -> {
+            for (String serial : serials) {
+                sink.accept(response(serial, now.plusHours(1)));
+            }
+            sink.accept(response("abc", now.minusSeconds(1)));
+        });
+
+        Assert.assertEquals(serials.length + 1, count);
+        for (String serial : serials) {
+            ByteBuffer found = store.find(CA_ID, serial, now);
+            Assert.assertTrue(found.isReadOnly());
+            Assert.assertEquals("resp-" + serial, text(found));
+        }
+        // 已过nextUpdate的响应不再提供, 但仍计为存在
+        Assert.assertNull(store.find(CA_ID, "abc", now));
+        Assert.assertTrue(store.contains(CA_ID, "abc"));
+        Assert.assertNull(store.find(CA_ID, "ffffffff", now));
+        Assert.assertNull(store.find("other-ca", serials[0], now));
+    }
+
+    @Test
+    public void test_putDuringRebuildSurvivesSwap() {
+        LocalDateTime now = LocalDateTime.now();
+        store.rebuild(CA_ID, sink -> sink.accept(response("01", now.plusHours(1))));
+        store.put(CA_ID, response("02", now.plusHours(1)));
+
+        // 重建读取的是开始时的状态, 期间吊销重签的单条响应须保留
+        store.rebuild(CA_ID, sink -> {
+            store.put(CA_ID, new PresignedOcspResponse("0a", bytes("revoked-0a"), now.plusHours(1)));
+            sink.accept(response("0a", now.plusHours(1)));
+            sink.accept(response("0b", now.plusHours(1)));
+        });
+
+        Assert.assertEquals("revoked-0a", text(store.find(CA_ID, "0a", now)));
+        Assert.assertEquals("resp-0b", text(store.find(CA_ID, "0b", now)));
+        // 重建开始前的单条写入不属于新一代
+        Assert.assertFalse(store.contains(CA_ID, "01"));
+        Assert.assertFalse(store.contains(CA_ID, "02"));
+
+        store.remove(CA_ID, "0b");
+        Assert.assertNull(store.find(CA_ID, "0b", now));
+    }
+
+    @Test
+    public void test_deltaCompaction() {
+        LocalDateTime now = LocalDateTime.now();
+        store.rebuild(CA_ID, sink -> {
+            for (int i = 1; i <= 100; i++) {
+                sink.accept(response(Integer.toHexString(i), now.plusHours(1)));
+            }
+        });
+        // 4KB的增量段容纳不下500条, 写满后与基础段合并
+        for (int i = 50; i < 550; i++) {
+            String serial = Integer.toHexString(i);
+            store.put(CA_ID, new PresignedOcspResponse(serial, bytes("new-" + serial), now.plusHours(1)));
+        }
+
+        for (int i = 1; i < 550; i++) {
+            String serial = Integer.toHexString(i);
+            Assert.assertEquals((i < 50 ? "resp-" : "new-") + serial, text(store.find(CA_ID, serial, now)));
+        }
+    }
+
+    private static PresignedOcspResponse response(String serial, LocalDateTime nextUpdate) {
+        return new PresignedOcspResponse(serial, bytes("resp-" + serial), nextUpdate);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,232 @@
+package org.wyman.test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.infrastructure.adapter.port.AsyncSidecarPublisher;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.adapter.port.MockObjectStorageGateway;
+import org.wyman.infrastructure.adapter.port.MockPrivateKeyProvider;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SidecarConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.HybridMerkleTree;
+import org.wyman.infrastructure.crypto.MerkleSidecarBuilder;
+import org.wyman.infrastructure.crypto.SignerPool;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * sidecar测试: 每个叶子的认证路径可验证到Merkle根, sidecar签名覆盖规范JSON且可用内嵌的CA证书验证;
+ * 上传失败的sidecar在重试成功前始终可读; 上传队列满时转存本地而不阻塞签发, 停止后的发布立即失败
+ */
+public class MerkleSidecarTest {
+
+    private static final String ALGORITHM = "ECDSA_P256";
+
+    private final MockPrivateKeyProvider keyProvider = new MockPrivateKeyProvider();
+    private final SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+
+    @Test
+    public void test_sidecarProofsAndSignatureVerify() throws Exception {
+        HybridCertificateRequestContext context = HybridCertificateRequestContext.builder()
+            .pqSignaturePublicKeyPem("-----BEGIN PUBLIC KEY-----\nPQSIG\n-----END PUBLIC KEY-----")
+            .pqKekPublicKeyPem("-----BEGIN PUBLIC KEY-----\nPQKEK\n-----END PUBLIC KEY-----")
+            .altSignatureJcaName("SHA256withRSA")
+            .altSignatureValue(new byte[]{1, 2, 3, 4, 5})
+            .build();
+
+        MerkleSidecarBuilder builder = new MerkleSidecarBuilder(keyProvider, signerPool);
+        String sidecarJson = builder.build("1a2b", context, caCertificate(), ALGORITHM);
+        JSONObject sidecar = JSON.parseObject(sidecarJson);
+
+        byte[] root = Base64.getDecoder().decode(sidecar.getString("merkleRoot"));
+        Assert.assertArrayEquals(HybridMerkleTree.of(context, context.getAltSignatureValue()).root(), root);
+
+        JSONArray leaves = sidecar.getJSONArray("leaves");
+        JSONArray proofs = sidecar.getJSONArray("proofs");
+        Assert.assertEquals(HybridMerkleTree.LABELS.size(), leaves.size());
+        for (int i = 0; i < leaves.size(); i++) {
+            byte[] value = Base64.getDecoder().decode(leaves.getJSONObject(i).getString("valueB64"));
+            List<byte[]> path = new ArrayList<>();
+            for (Object node : proofs.getJSONObject(i).getJSONArray("pathB64")) {
+                path.add(Base64.getDecoder().decode((String) node));
+            }
+            Assert.assertTrue(HybridMerkleTree.verify(i, value, path, root));
+            value[0] ^= 1;
+            Assert.assertFalse(HybridMerkleTree.verify(i, value, path, root));
+        }
+
+        // 签名字段排在最后, 去掉后即为规范JSON
+        String canonical = sidecarJson.substring(0, sidecarJson.indexOf(",\"sidecarSignatureB64\"")) + "}";
+        Assert.assertTrue(canonical.endsWith("\"issuedAt\":\"" + sidecar.getString("issuedAt") + "\"}"));
+        // 以sidecar内嵌的CA证书公钥验证
+        X509Certificate signer = (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+            new ByteArrayInputStream(sidecar.getString("sidecarSigningCertPem").getBytes(StandardCharsets.UTF_8)));
+        Signature verifier = Signature.getInstance(BouncyCastleCertificateGenerator.getSignerAlgorithm(ALGORITHM));
+        verifier.initVerify(signer.getPublicKey());
+        verifier.update(canonical.getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(verifier.verify(Base64.getDecoder().decode(sidecar.getString("sidecarSignatureB64"))));
+    }
+
+    @Test
+    public void test_failedUploadsStayReadableUntilRetried() throws Exception {
+        AtomicInteger failures = new AtomicInteger(2);
+        MockObjectStorageGateway storage = new MockObjectStorageGateway() {
+            @Override
+            public List<String> uploadSidecars(Map<String, String> sidecars) {
+                return failures.getAndDecrement() > 0 ? new ArrayList<>(sidecars.keySet()) : super.uploadSidecars(sidecars);
+            }
+        };
+        SidecarConfig config = new SidecarConfig();
+        config.setFlushIntervalMs(10);
+        config.setRetryBackoffMs(10);
+        config.setMaxRetryBackoffMs(20);
+        config.setUploadQueueCapacity(4);
+        config.setPublishTimeoutMs(10_000);
+        config.setSpillDirectory(Files.createTempDirectory("sidecar-spill").toString());
+        AsyncSidecarPublisher publisher = new AsyncSidecarPublisher(
+            new MerkleSidecarBuilder(keyProvider, signerPool), storage, config);
+        publisher.init();
+        try {
+            Certificate caCertificate = caCertificate();
+            List<String> serials = new ArrayList<>();
+            // 超过未上传上限的发布在等待时限内等到前面的上传成功
+            for (int i = 0; i < 10; i++) {
+                String serial = Integer.toHexString(0x100 + i);
+                serials.add(serial);
+                publisher.publish(serial, context(i), caCertificate, ALGORITHM);
+                Assert.assertNotNull(publisher.getSidecar(serial));
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (publisher.getStatistics().pending() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            AsyncSidecarPublisher.SidecarPublisherStatistics statistics = publisher.getStatistics();
+            Assert.assertEquals(0, statistics.pending());
+            Assert.assertEquals(10, statistics.uploaded());
+            Assert.assertTrue(statistics.retried() > 0);
+            Assert.assertEquals(0, statistics.spilled());
+            for (String serial : serials) {
+                Assert.assertEquals(publisher.getSidecar(serial), storage.downloadSidecar(serial));
+            }
+        } finally {
+            publisher.destroy();
+        }
+    }
+
+    @Test
+    public void test_fullUploadQueueSpillsWithoutBlockingIssuance() throws Exception {
+        AtomicBoolean storageDown = new AtomicBoolean(true);
+        MockObjectStorageGateway storage = new MockObjectStorageGateway() {
+            @Override
+            public List<String> uploadSidecars(Map<String, String> sidecars) {
+                return storageDown.get() ? new ArrayList<>(sidecars.keySet()) : super.uploadSidecars(sidecars);
+            }
+        };
+        Path spillDirectory = Files.createTempDirectory("sidecar-spill");
+        SidecarConfig config = new SidecarConfig();
+        config.setFlushIntervalMs(10);
+        config.setRetryBackoffMs(10);
+        config.setMaxRetryBackoffMs(20);
+        config.setUploadQueueCapacity(2);
+        config.setPublishTimeoutMs(10);
+        config.setSpillDirectory(spillDirectory.toString());
+        AsyncSidecarPublisher publisher = new AsyncSidecarPublisher(
+            new MerkleSidecarBuilder(keyProvider, signerPool), storage, config);
+        publisher.init();
+        try {
+            Certificate caCertificate = caCertificate();
+            List<String> serials = new ArrayList<>();
+            // 对象存储不可用时, 超出上限的发布只等待publishTimeoutMs即转存本地, 仍可读取
+            long start = System.nanoTime();
+            for (int i = 0; i < 6; i++) {
+                String serial = Integer.toHexString(0x200 + i);
+                serials.add(serial);
+                publisher.publish(serial, context(i), caCertificate, ALGORITHM);
+            }
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            for (String serial : serials) {
+                Assert.assertNotNull(publisher.getSidecar(serial));
+            }
+            Assert.assertEquals(4, publisher.getStatistics().spilled());
+
+            // 恢复后本地日志中的sidecar补传完毕并删除
+            storageDown.set(false);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (publisher.getStatistics().uploaded() < serials.size() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(serials.size(), publisher.getStatistics().uploaded());
+            for (String serial : serials) {
+                Assert.assertEquals(publisher.getSidecar(serial), storage.downloadSidecar(serial));
+            }
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                Assert.assertEquals(0, files.count());
+            }
+        } finally {
+            publisher.destroy();
+        }
+    }
+
+    @Test
+    public void test_publishAfterShutdownFailsInsteadOfHanging() throws Exception {
+        SidecarConfig config = new SidecarConfig();
+        config.setSpillDirectory(Files.createTempDirectory("sidecar-spill").toString());
+        AsyncSidecarPublisher publisher = new AsyncSidecarPublisher(
+            new MerkleSidecarBuilder(keyProvider, signerPool), new MockObjectStorageGateway(), config);
+        publisher.init();
+        publisher.destroy();
+
+        publisher.publish("3ff", context(0), caCertificate(), ALGORITHM);
+        Assert.assertNull(publisher.getSidecar("3ff"));
+        Assert.assertEquals(1, publisher.getStatistics().failed());
+        Assert.assertEquals(0, publisher.getStatistics().pending());
+    }
+
+    private HybridCertificateRequestContext context(int i) {
+        return HybridCertificateRequestContext.builder()
+            .pqSignaturePublicKeyPem("PQSIG-" + i)
+            .pqKekPublicKeyPem("PQKEK-" + i)
+            .altSignatureJcaName("ML-DSA-65")
+            .altSignatureValue(new byte[]{(byte) i})
+            .build();
+    }
+
+    private Certificate caCertificate() throws Exception {
+        BouncyCastleCertificateGenerator generator =
+            new BouncyCastleCertificateGenerator(signerPool, new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+        KeyPair caKeyPair = new KeyPair(keyProvider.getPublicKey(ALGORITHM), keyProvider.getSigningPrivateKey(ALGORITHM));
+        Date notBefore = new Date();
+        X509Certificate x509 = generator.generateCACertificate(new X500Name("CN=Sidecar CA,O=wyman"), caKeyPair,
+            notBefore, new Date(notBefore.getTime() + 365L * 24 * 3600 * 1000), BigInteger.TEN,
+            ALGORITHM, "http://crl.example.com/ca.crl");
+        Certificate caCertificate = new Certificate();
+        caCertificate.setSubjectDN(x509.getSubjectX500Principal().getName());
+        caCertificate.setPemEncoded(generator.toPEM(x509));
+        return caCertificate;
+    }
+}
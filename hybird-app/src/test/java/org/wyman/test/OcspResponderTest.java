@@ -0,0 +1,390 @@
+package org.wyman.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.operator.DigestCalculator;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRegistry;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.service.SigningService;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.status.adapter.port.ICertificateStatusSource;
+import org.wyman.domain.status.service.OcspResponderService;
+import org.wyman.domain.status.service.RevocationStatusService;
+import org.wyman.domain.status.valobj.CertificateStatusEntry;
+import org.wyman.domain.status.valobj.OcspResponderSettings;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.adapter.port.BouncyCastleOcspCodec;
+import org.wyman.infrastructure.adapter.port.MappedOcspResponseStore;
+import org.wyman.infrastructure.adapter.port.MockPrivateKeyProvider;
+import org.wyman.infrastructure.adapter.port.StripedSerialNumberAllocator;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.OcspConfig;
+import org.wyman.infrastructure.config.SerialNumberAllocatorConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.enums.RevocationReason;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * OCSP响应器: 多证书请求(含从未签发的序列号)、委托响应器证书、nonce回显、响应缓存在吊销后失效、预签名响应
+ */
+@Slf4j
+public class OcspResponderTest {
+
+    private static final String ALGORITHM = "ECDSA_P256";
+
+    private static final OcspResponderSettings SETTINGS = OcspResponderSettings.builder()
+        .responseValidity(Duration.ofHours(1))
+        .caSignatureAlgorithm(ALGORITHM)
+        .responderKeyAlgorithm(ALGORITHM)
+        .responderValidity(Duration.ofHours(48))
+        .responderRenewBefore(Duration.ofHours(12))
+        .maxRequestCertificates(8)
+        .presignedValidity(Duration.ofHours(24))
+        .build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+    private final BouncyCastleCertificateGenerator generator =
+        new BouncyCastleCertificateGenerator(signerPool, new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+    private final MockPrivateKeyProvider keyProvider = new MockPrivateKeyProvider();
+    private final InMemoryRegistry registry = new InMemoryRegistry();
+    private final RevocationStatusService statusService = new RevocationStatusService(new InMemoryRevocationStatusCacheRepository(),
+        null, null, registry);
+    private final SigningService signingService = new SigningService(null, registry, null, keyProvider, generator,
+        new StripedSerialNumberAllocator(new SerialNumberAllocatorConfig()), null, generator::generateKeyPair,
+        null, null, null, null, null);
+    private final InMemoryStatusSource statusSource = new InMemoryStatusSource();
+    private MappedOcspResponseStore store;
+    private OcspResponderService responder;
+
+    @Before
+    public void setUp() throws Exception {
+        OcspConfig config = new OcspConfig();
+        config.setStoreDirectory(folder.getRoot().getPath());
+        config.setStoreDeltaCapacityBytes(64 * 1024);
+        store = new MappedOcspResponseStore(config);
+        store.init();
+        responder = new OcspResponderService(new BouncyCastleOcspCodec(signerPool), registry, signingService,
+            statusService, store, statusSource);
+    }
+
+    @Test
+    public void test_multiCertificateRequest() throws Exception {
+        CertificateAuthority ca = certificateAuthority("OCSP CA");
+        X509CertificateHolder caHolder = holder(ca.getCaCertificate().getPemEncoded());
+        BigInteger good = serialOf(issue(ca, "CN=good"));
+        BigInteger revoked = serialOf(issue(ca, "CN=revoked"));
+        statusService.recordRevocation(revoked.toString(16), LocalDateTime.now().minusMinutes(1),
+            RevocationReason.KEY_COMPROMISE.getDesc());
+
+        // 第二个CertID使用SHA-256, 第三个的颁发者不属于本系统
+        CertificateID goodId = new CertificateID(digest(false), caHolder, good);
+        CertificateID revokedId = new CertificateID(digest(true), caHolder, revoked);
+        CertificateID foreignId = new CertificateID(digest(false),
+            holder(certificateAuthority("Foreign CA").getCaCertificate().getPemEncoded()), BigInteger.TEN);
+        registry.byName.remove("Foreign CA");
+        // 颁发者属于本系统但序列号从未签发
+        CertificateID neverIssuedId = new CertificateID(digest(false), caHolder, BigInteger.valueOf(12345));
+        byte[] nonce = new byte[]{1, 2, 3, 4, 5, 6, 7, 8};
+
+        OCSPReqBuilder builder = new OCSPReqBuilder()
+            .addRequest(goodId).addRequest(revokedId).addRequest(foreignId).addRequest(neverIssuedId);
+        builder.setRequestExtensions(new Extensions(new Extension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce, false,
+            new DEROctetString(new DEROctetString(nonce)))));
+        OCSPResp response = new OCSPResp(bytes(responder.respond(builder.build().getEncoded(), SETTINGS)));
+
+        Assert.assertEquals(OCSPResp.SUCCESSFUL, response.getStatus());
+        BasicOCSPResp basic = (BasicOCSPResp) response.getResponseObject();
+        SingleResp[] singles = basic.getResponses();
+        Assert.assertEquals(4, singles.length);
+        Assert.assertEquals(goodId, singles[0].getCertID());
+        Assert.assertEquals(CertificateStatus.GOOD, singles[0].getCertStatus());
+        Assert.assertEquals(revokedId, singles[1].getCertID());
+        RevokedStatus revokedStatus = (RevokedStatus) singles[1].getCertStatus();
+        Assert.assertEquals(CRLReason.keyCompromise, revokedStatus.getRevocationReason());
+        Assert.assertTrue(singles[2].getCertStatus() instanceof UnknownStatus);
+        Assert.assertEquals(neverIssuedId, singles[3].getCertID());
+        Assert.assertTrue(singles[3].getCertStatus() instanceof UnknownStatus);
+        Assert.assertNotNull(singles[0].getNextUpdate());
+        Assert.assertArrayEquals(new DEROctetString(nonce).getEncoded(),
+            basic.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce).getExtnValue().getOctets());
+
+        // 委托响应器证书由CA签发, 响应由响应器密钥签名
+        X509CertificateHolder responderHolder = basic.getCerts()[0];
+        X509Certificate responderCert = new JcaX509CertificateConverter().getCertificate(responderHolder);
+        responderCert.verify(keyProvider.getPublicKey(ALGORITHM));
+        Assert.assertEquals(caHolder.getSubject(), responderHolder.getIssuer());
+        Assert.assertTrue(responderCert.getExtendedKeyUsage().contains(KeyPurposeId.id_kp_OCSPSigning.getId()));
+        Assert.assertNotNull(responderHolder.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nocheck));
+        Assert.assertTrue(basic.isSignatureValid(new JcaContentVerifierProviderBuilder().build(responderHolder)));
+    }
+
+    @Test
+    public void test_cachedResponseInvalidatedOnRevocation() throws Exception {
+        CertificateAuthority ca = certificateAuthority("OCSP CA");
+        BigInteger serial = serialOf(issue(ca, "CN=device"));
+        byte[] request = new OCSPReqBuilder()
+            .addRequest(new CertificateID(digest(false), holder(ca.getCaCertificate().getPemEncoded()), serial))
+            .build().getEncoded();
+
+        byte[] first = bytes(responder.respond(request, SETTINGS));
+        // 不带nonce的单证书请求命中缓存, 返回同一份已签名响应
+        Assert.assertArrayEquals(first, bytes(responder.respond(request, SETTINGS)));
+        Assert.assertEquals(CertificateStatus.GOOD, single(first).getCertStatus());
+
+        statusService.recordRevocation(serial.toString(16), LocalDateTime.now(), RevocationReason.SUPERSEDED.getDesc());
+        responder.refresh(serial.toString(16), SETTINGS);
+
+        SingleResp afterRevocation = single(bytes(responder.respond(request, SETTINGS)));
+        RevokedStatus status = (RevokedStatus) afterRevocation.getCertStatus();
+        Assert.assertEquals(CRLReason.superseded, status.getRevocationReason());
+    }
+
+    @Test
+    public void test_errorResponses() throws Exception {
+        CertificateAuthority foreign = certificateAuthority("Foreign CA");
+        byte[] request = new OCSPReqBuilder()
+            .addRequest(new CertificateID(digest(false), holder(foreign.getCaCertificate().getPemEncoded()),
+                BigInteger.ONE))
+            .build().getEncoded();
+        registry.byName.clear();
+
+        Assert.assertEquals(OCSPResp.UNAUTHORIZED, new OCSPResp(bytes(responder.respond(request, SETTINGS))).getStatus());
+        Assert.assertEquals(OCSPResp.MALFORMED_REQUEST,
+            new OCSPResp(bytes(responder.respond(new byte[]{0x30, 0x03, 0x02, 0x01}, SETTINGS))).getStatus());
+    }
+
+    @Test
+    public void test_presignedResponses() throws Exception {
+        CertificateAuthority ca = certificateAuthority("OCSP CA");
+        X509CertificateHolder caHolder = holder(ca.getCaCertificate().getPemEncoded());
+        String subjectDN = ca.getCaCertificate().getSubjectDN();
+        BigInteger good = serialOf(issue(ca, "CN=good"));
+        BigInteger revoked = serialOf(issue(ca, "CN=revoked"));
+        BigInteger later = serialOf(issue(ca, "CN=later"));
+        statusSource.add(subjectDN, new CertificateStatusEntry(good.toString(16),
+            org.wyman.types.enums.CertificateStatus.ACTIVE, LocalDateTime.now().minusDays(2), null));
+        statusSource.add(subjectDN, new CertificateStatusEntry(revoked.toString(16),
+            org.wyman.types.enums.CertificateStatus.REVOKED, LocalDateTime.now().minusDays(1), RevocationReason.CA_COMPROMISE));
+
+        Assert.assertEquals(2, responder.presignAll(ca.getCaName(), SETTINGS));
+        Assert.assertTrue(store.contains(ca.getCaId(), good.toString(16)));
+
+        // 规范SHA-1 CertID的请求直接返回存储中的响应(只读的映射切片)
+        byte[] goodRequest = request(new CertificateID(sha1WithNullParameters(), caHolder, good));
+        ByteBuffer served = responder.respond(goodRequest, SETTINGS);
+        Assert.assertTrue(served.isDirect() && served.isReadOnly());
+        Assert.assertEquals(store.find(ca.getCaId(), good.toString(16), LocalDateTime.now()), served);
+        SingleResp goodResponse = single(bytes(served));
+        Assert.assertEquals(CertificateStatus.GOOD, goodResponse.getCertStatus());
+        Assert.assertTrue(goodResponse.getNextUpdate().getTime() - System.currentTimeMillis() > Duration.ofHours(23).toMillis());
+        SingleResp revokedResponse = single(bytes(responder.respond(
+            request(new CertificateID(sha1WithNullParameters(), caHolder, revoked)), SETTINGS)));
+        Assert.assertEquals(CRLReason.cACompromise, ((RevokedStatus) revokedResponse.getCertStatus()).getRevocationReason());
+
+        // CertID编码不同(SHA-1不带NULL参数)时实时签名, 回显请求的CertID
+        CertificateID noParameters = new CertificateID(digest(false), caHolder, good);
+        ByteBuffer signed = responder.respond(request(noParameters), SETTINGS);
+        Assert.assertFalse(signed.isDirect());
+        Assert.assertEquals(noParameters, single(bytes(signed)).getCertID());
+
+        // 增量预签名加入新证书; 吊销后立即重签
+        statusSource.add(subjectDN, new CertificateStatusEntry(later.toString(16),
+            org.wyman.types.enums.CertificateStatus.ACTIVE, LocalDateTime.now(), null));
+        Assert.assertEquals(1, responder.presignChanged(ca.getCaName(), LocalDateTime.now().minusSeconds(5), SETTINGS));
+        Assert.assertNotNull(store.find(ca.getCaId(), later.toString(16), LocalDateTime.now()));
+
+        statusService.recordRevocation(good.toString(16), LocalDateTime.now(), RevocationReason.KEY_COMPROMISE.getDesc());
+        responder.refresh(good.toString(16), SETTINGS);
+        ByteBuffer afterRevocation = responder.respond(goodRequest, SETTINGS);
+        Assert.assertTrue(afterRevocation.isDirect());
+        Assert.assertEquals(CRLReason.keyCompromise,
+            ((RevokedStatus) single(bytes(afterRevocation)).getCertStatus()).getRevocationReason());
+    }
+
+    private CertificateAuthority certificateAuthority(String name) throws Exception {
+        KeyPair caKeyPair = new KeyPair(keyProvider.getPublicKey(ALGORITHM), keyProvider.getSigningPrivateKey(ALGORITHM));
+        Date notBefore = new Date();
+        X509Certificate x509 = generator.generateCACertificate(new X500Name("CN=" + name + ",O=wyman"), caKeyPair,
+            notBefore, new Date(notBefore.getTime() + 365L * 24 * 3600 * 1000), BigInteger.valueOf(name.hashCode() & 0xffff),
+            ALGORITHM, "http://crl.example.com/ca.crl");
+        Certificate caCertificate = new Certificate();
+        caCertificate.setSubjectDN(x509.getSubjectX500Principal().getName());
+        caCertificate.setPemEncoded(generator.toPEM(x509));
+        CertificateAuthority ca = new CertificateAuthority(name.toLowerCase().replace(' ', '-'), name, caCertificate);
+        registry.register(ca);
+        return ca;
+    }
+
+    private Certificate issue(CertificateAuthority ca, String subjectDN) throws Exception {
+        ca.setCertificateGenerator(generator);
+        ca.setSerialNumberAllocator(new StripedSerialNumberAllocator(new SerialNumberAllocatorConfig()));
+        KeyPair keyPair = generator.generateKeyPair(ALGORITHM);
+        Certificate certificate = ca.issueCertificate(subjectDN, keyPair.getPublic(), LocalDateTime.now(),
+            LocalDateTime.now().plusDays(30), ALGORITHM, null, keyProvider, null, null);
+        statusSource.issued.add(ca.getCaCertificate().getSubjectDN() + "|" + certificate.getSerialNumber());
+        return certificate;
+    }
+
+    private static byte[] request(CertificateID certificateID) throws Exception {
+        return new OCSPReqBuilder().addRequest(certificateID).build().getEncoded();
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static BigInteger serialOf(Certificate certificate) {
+        return new BigInteger(certificate.getSerialNumber(), 16);
+    }
+
+    private static SingleResp single(byte[] encoded) throws Exception {
+        BasicOCSPResp basic = (BasicOCSPResp) new OCSPResp(encoded).getResponseObject();
+        return basic.getResponses()[0];
+    }
+
+    private static DigestCalculator digest(boolean sha256) throws Exception {
+        return new JcaDigestCalculatorProviderBuilder().build().get(new AlgorithmIdentifier(
+            sha256 ? NISTObjectIdentifiers.id_sha256 : OIWObjectIdentifiers.idSHA1));
+    }
+
+    private static DigestCalculator sha1WithNullParameters() throws Exception {
+        return new JcaDigestCalculatorProviderBuilder().build().get(
+            new AlgorithmIdentifier(OIWObjectIdentifiers.idSHA1, DERNull.INSTANCE));
+    }
+
+    private static X509CertificateHolder holder(String pem) throws Exception {
+        return new JcaX509CertificateHolder((X509Certificate) java.security.cert.CertificateFactory.getInstance("X.509")
+            .generateCertificate(new java.io.ByteArrayInputStream(pem.getBytes())));
+    }
+
+    /**
+     * 内存CA注册表
+     */
+    private static class InMemoryRegistry implements ICertificateAuthorityRegistry {
+        private final Map<String, CertificateAuthority> byName = new ConcurrentHashMap<>();
+
+        @Override
+        public CertificateAuthority getByName(String caName) {
+            return byName.get(caName);
+        }
+
+        @Override
+        public CertificateAuthority getById(String caId) {
+            return byName.values().stream().filter(ca -> ca.getCaId().equals(caId)).findFirst().orElse(null);
+        }
+
+        @Override
+        public List<CertificateAuthority> getAll() {
+            return List.copyOf(byName.values());
+        }
+
+        @Override
+        public CertificateAuthority getByIssuerHash(String hashAlgorithm, byte[] issuerNameHash, byte[] issuerKeyHash) {
+            for (CertificateAuthority ca : byName.values()) {
+                CertificateID id;
+                try {
+                    id = new CertificateID(new JcaDigestCalculatorProviderBuilder().build().get(
+                            new AlgorithmIdentifier(new ASN1ObjectIdentifier(hashAlgorithm))),
+                        holder(ca.getCaCertificate().getPemEncoded()), BigInteger.ONE);
+                } catch (Exception e) {
+                    return null;
+                }
+                if (ca.isEnabled() && Arrays.equals(issuerNameHash, id.getIssuerNameHash())
+                    && Arrays.equals(issuerKeyHash, id.getIssuerKeyHash())) {
+                    return ca;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void register(CertificateAuthority ca) {
+            byName.put(ca.getCaName(), ca);
+        }
+
+        @Override
+        public void invalidate(String caId) {
+        }
+    }
+
+    /**
+     * 内存证书状态数据源
+     */
+    private static class InMemoryStatusSource implements ICertificateStatusSource {
+        private final Map<String, List<CertificateStatusEntry>> byIssuer = new ConcurrentHashMap<>();
+        private final Set<String> issued = ConcurrentHashMap.newKeySet();
+
+        void add(String issuerDN, CertificateStatusEntry entry) {
+            byIssuer.computeIfAbsent(issuerDN, dn -> new ArrayList<>()).add(entry);
+        }
+
+        @Override
+        public void scan(String issuerDN, Consumer<CertificateStatusEntry> consumer) {
+            byIssuer.getOrDefault(issuerDN, List.of()).forEach(consumer);
+        }
+
+        @Override
+        public List<CertificateStatusEntry> findChangedSince(String issuerDN, LocalDateTime since) {
+            return byIssuer.getOrDefault(issuerDN, List.of()).stream()
+                .filter(entry -> !entry.getUpdateTime().isBefore(since))
+                .toList();
+        }
+
+        @Override
+        public Set<String> findIssued(String issuerDN, Collection<String> serialNumbers) {
+            return serialNumbers.stream().filter(serial -> issued.contains(issuerDN + "|" + serial))
+                .collect(java.util.stream.Collectors.toSet());
+        }
+    }
+}
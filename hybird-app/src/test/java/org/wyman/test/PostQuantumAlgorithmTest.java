@@ -0,0 +1,150 @@
+package org.wyman.test;
+
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.DERBitString;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.jcajce.SecretKeyWithEncapsulation;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.adapter.port.MockPrivateKeyProvider;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.PostQuantumAlgorithms;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.constants.HybridCertificateOids;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 后量子算法: ML-DSA签名/验签与ML-KEM封装/解封装往返, 并验证CA指定ML-DSA后混合证书的备用签名使用真实后量子密钥
+ * (各算法每秒次数及与RSA-3072占位实现的对比见hybird-benchmark的PostQuantumAlgorithmBenchmark)
+ */
+public class PostQuantumAlgorithmTest {
+
+    @Test
+    public void test_mlDsaSignVerifyRoundTrip() throws Exception {
+        byte[] message = new byte[1024];
+        new SecureRandom().nextBytes(message);
+        for (String algorithm : new String[]{"ML-DSA-44", "ML-DSA-65", "ML-DSA-87"}) {
+            KeyPair keyPair = PostQuantumAlgorithms.generateKeyPair(algorithm);
+            KeyPair otherKeyPair = PostQuantumAlgorithms.generateKeyPair(algorithm);
+            Signature signer = Signature.getInstance(PostQuantumAlgorithms.jcaSignatureName(algorithm), "BC");
+            signer.initSign(keyPair.getPrivate());
+            signer.update(message);
+            byte[] value = signer.sign();
+
+            Assert.assertEquals(algorithm, keyPair.getPublic().getAlgorithm());
+            Assert.assertTrue(verify(keyPair.getPublic(), message, value));
+            Assert.assertFalse(verify(otherKeyPair.getPublic(), message, value));
+            byte[] tampered = message.clone();
+            tampered[0] ^= 1;
+            Assert.assertFalse(verify(keyPair.getPublic(), tampered, value));
+        }
+    }
+
+    @Test
+    public void test_mlKemEncapsulateDecapsulateRoundTrip() throws Exception {
+        for (String algorithm : new String[]{"ML-KEM-512", "ML-KEM-768", "ML-KEM-1024"}) {
+            KeyPair keyPair = PostQuantumAlgorithms.generateKeyPair(algorithm);
+            KeyPair otherKeyPair = PostQuantumAlgorithms.generateKeyPair(algorithm);
+            SecretKeyWithEncapsulation encapsulated = PostQuantumAlgorithms.encapsulate(keyPair.getPublic());
+
+            Assert.assertEquals(32, encapsulated.getEncoded().length);
+            Assert.assertArrayEquals(encapsulated.getEncoded(),
+                PostQuantumAlgorithms.decapsulate(keyPair.getPrivate(), encapsulated.getEncapsulation()));
+            // ML-KEM隐式拒绝: 错误私钥解出的是另一个伪随机密钥, 不抛异常
+            Assert.assertFalse(Arrays.equals(encapsulated.getEncoded(),
+                PostQuantumAlgorithms.decapsulate(otherKeyPair.getPrivate(), encapsulated.getEncapsulation())));
+        }
+    }
+
+    @Test
+    public void test_caSelectedMlDsaAltSignature() throws Exception {
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        BouncyCastleCertificateGenerator generator = new BouncyCastleCertificateGenerator(signerPool,
+            new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+        MockPrivateKeyProvider keyProvider = new MockPrivateKeyProvider();
+        CertificateAuthority pqCa = mlDsaCa("ca-pq-1", "PQ CA 1", generator, keyProvider);
+        CertificateAuthority otherCa = mlDsaCa("ca-pq-2", "PQ CA 2", generator, keyProvider);
+        KeyPair subjectKeyPair = generator.generateKeyPair("ECDSA_P256");
+        LocalDateTime notBefore = LocalDateTime.now();
+
+        // 请求指定的RSA备用签名由CA配置的ML-DSA-65覆盖, 备用私钥由CA向密钥提供者获取
+        HybridCertificateRequestContext context = HybridCertificateRequestContext.builder()
+            .hybridEnabled(true)
+            .altSignatureRequired(true)
+            .altSignatureAlgorithmOid(HybridCertificateOids.EXT_ALT_SIGNATURE_ALGORITHM)
+            .altSignatureJcaName("SHA256withRSA")
+            .build();
+        Certificate issued = pqCa.issueCertificate("CN=device-pq", subjectKeyPair.getPublic(), notBefore,
+            notBefore.plusDays(30), "ECDSA_P256", null, keyProvider, context);
+        X509Certificate cert = (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+            new ByteArrayInputStream(issued.getPemEncoded().getBytes(StandardCharsets.US_ASCII)));
+
+        Assert.assertEquals("ML-DSA-65", context.getAltSignatureJcaName());
+        Assert.assertTrue(generator.verifyCertificateSignature(cert, keyProvider.getPublicKey("ECDSA_P256")));
+        AlgorithmIdentifier altAlgorithm = AlgorithmIdentifier.getInstance(ASN1OctetString.getInstance(
+            cert.getExtensionValue(HybridCertificateOids.EXT_ALT_SIGNATURE_ALGORITHM)).getOctets());
+        Assert.assertEquals(PostQuantumAlgorithms.signatureOid("ML-DSA-65"), altAlgorithm.getAlgorithm().getId());
+        byte[] altSignature = DERBitString.getInstance(ASN1OctetString.getInstance(
+            cert.getExtensionValue(HybridCertificateOids.EXT_ALT_SIGNATURE_VALUE)).getOctets()).getOctets();
+        Assert.assertTrue(Arrays.equals(altSignature, context.getAltSignatureValue()));
+
+        // 备用签名覆盖预TBS, 只能用签发CA自己的ML-DSA公钥验证
+        PublicKey caAltPublicKey = keyProvider.getAltPublicKey("ca-pq-1", "ML-DSA-65");
+        PublicKey otherAltPublicKey = keyProvider.getAltPublicKey(otherCa.getCaId(), "ML-DSA-65");
+        Assert.assertEquals("ML-DSA-65", caAltPublicKey.getAlgorithm());
+        Assert.assertNotEquals(caAltPublicKey, otherAltPublicKey);
+        byte[] preTbs = AltSignatures.preTbs(cert);
+        Assert.assertTrue(verify(caAltPublicKey, preTbs, altSignature));
+        Assert.assertFalse(verify(otherAltPublicKey, preTbs, altSignature));
+        Assert.assertFalse(verify(caAltPublicKey, cert.getTBSCertificate(), altSignature));
+    }
+
+    private static CertificateAuthority mlDsaCa(String caId, String caName, BouncyCastleCertificateGenerator generator,
+                                                MockPrivateKeyProvider keyProvider) throws Exception {
+        Date notBefore = new Date();
+        X509Certificate caX509 = generator.generateCACertificate(new X500Name("CN=" + caName),
+            new KeyPair(keyProvider.getPublicKey("ECDSA_P256"), keyProvider.getSigningPrivateKey("ECDSA_P256")),
+            notBefore, new Date(notBefore.getTime() + 365L * 24 * 3600 * 1000), BigInteger.ONE, "ECDSA_P256",
+            "http://crl.example.com/ca.crl");
+        Certificate caCert = new Certificate();
+        caCert.setSerialNumber(caX509.getSerialNumber().toString(16));
+        caCert.setSubjectDN(caX509.getSubjectX500Principal().getName());
+        caCert.setIssuerDN(caX509.getIssuerX500Principal().getName());
+        caCert.setSignatureAlgorithm("ECDSA_P256");
+        caCert.setPemEncoded(generator.toPEM(caX509));
+
+        CertificateAuthority ca = new CertificateAuthority(caId, caName, caCert);
+        ca.setAltSignatureAlgorithm("ML-DSA-65");
+        ca.setCertificateGenerator(generator);
+        AtomicLong serials = new AtomicLong(100);
+        ca.setSerialNumberAllocator(() -> BigInteger.valueOf(serials.incrementAndGet()));
+        return ca;
+    }
+
+    private static boolean verify(PublicKey publicKey, byte[] signedData, byte[] signatureValue) throws Exception {
+        Signature verifier = Signature.getInstance(PostQuantumAlgorithms.jcaSignatureName("ML-DSA-65"), "BC");
+        verifier.initVerify(publicKey);
+        verifier.update(signedData);
+        return verifier.verify(signatureValue);
+    }
+}
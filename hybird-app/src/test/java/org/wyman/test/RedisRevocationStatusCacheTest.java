@@ -0,0 +1,516 @@
+package org.wyman.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.wyman.config.RedisConfig;
+import org.wyman.config.RevocationCacheConfig;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.service.RevocationStatusService;
+import org.wyman.domain.status.valobj.CRLMetadata;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+import org.wyman.infrastructure.adapter.repository.FileRevocationSnapshotStore;
+import org.wyman.infrastructure.adapter.repository.RedisRevocationStatusCacheRepository;
+import org.wyman.infrastructure.config.RevocationSnapshotConfig;
+import org.wyman.types.enums.RevocationReason;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Redis吊销状态缓存: 整体替换与加载、流水线批量确认、吊销同步写入、CRL核对只写入变化, 并经发布订阅同步其他节点快照
+ * (进程内的RESP服务端替身, 只实现本仓储用到的命令)
+ */
+public class RedisRevocationStatusCacheTest {
+
+    private static final String ISSUER_DN = "CN=Redis CA,O=wyman";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private InProcessRedisServer server;
+    private final List<LettuceConnectionFactory> factories = new ArrayList<>();
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new InProcessRedisServer();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+        for (LettuceConnectionFactory factory : factories) {
+            factory.destroy();
+        }
+        server.close();
+    }
+
+    @Test
+    public void test_snapshotRoundTripAndPipelinedBatchCheck() {
+        RedisRevocationStatusCacheRepository writer = newRepository(true);
+        List<RevocationStatusCache.RevocationDetail> details = new ArrayList<>();
+        for (int i = 1; i <= 3000; i++) {
+            details.add(Revocations.detail(Integer.toHexString(i), i % 2 == 0 ? RevocationReason.KEY_COMPROMISE : null));
+        }
+        writer.saveSnapshot(RevocationSnapshot.empty().withCRL(crlMetadata("9"), details));
+
+        RevocationSnapshot loaded = newRepository(true).loadLatest();
+        Assert.assertEquals(3000, loaded.size());
+        Assert.assertEquals("9", loaded.getCrlMetadata().getCrlNumber());
+        Assert.assertEquals(ISSUER_DN, loaded.getCrlMetadata().getIssuerDN());
+        Assert.assertEquals(RevocationReason.KEY_COMPROMISE.getDesc(), loaded.getDetail("2").getRevocationReason());
+        Assert.assertNull(loaded.getDetail("1").getRevocationReason());
+        Assert.assertEquals(details.get(0).getRevocationDate(), loaded.getDetail("1").getRevocationDate());
+
+        // 2500个序列号按1000个一块, 三条HMGET在同一流水线中发出
+        List<String> serials = new ArrayList<>();
+        Set<String> expected = new HashSet<>();
+        for (int i = 2001; i <= 4500; i++) {
+            serials.add(Integer.toHexString(i));
+            if (i <= 3000) {
+                expected.add(Integer.toHexString(i));
+            }
+        }
+        int before = server.count("HMGET");
+        Assert.assertEquals(expected, writer.findRevoked(serials));
+        Assert.assertEquals(3, server.count("HMGET") - before);
+    }
+
+    @Test
+    public void test_changesReachOtherNodes() {
+        RevocationStatusService nodeA = newService(newRepository(true), "a");
+        RevocationStatusService nodeB = newService(newRepository(true), "b");
+        List<String> changedOnA = new CopyOnWriteArrayList<>();
+        List<String> changedOnB = new CopyOnWriteArrayList<>();
+        nodeA.addStatusChangeListener(changedOnA::addAll);
+        nodeB.addStatusChangeListener(changedOnB::addAll);
+        nodeA.loadSnapshot();
+        nodeB.loadSnapshot();
+        awaitTrue(() -> server.subscribers() == 2);
+
+        // 吊销同步写入共享存储并通知, 不等待节点A的定时合并
+        nodeA.recordRevocation("0a", LocalDateTime.now(), RevocationReason.KEY_COMPROMISE.getDesc());
+        awaitTrue(() -> nodeB.checkRevocationStatus("0a"));
+        Assert.assertEquals(RevocationReason.KEY_COMPROMISE.getDesc(), nodeB.getRevocationDetail("0a").getRevocationReason());
+        // 远端吊销回调状态变化, 供OCSP响应缓存失效
+        awaitTrue(() -> changedOnB.contains("0a"));
+        // 合并只并入本地快照, 已写入的条目不再重复追加
+        int published = server.count("PUBLISH");
+        Assert.assertEquals(1, nodeA.flushPendingRevocations(500));
+        Assert.assertEquals(published, server.count("PUBLISH"));
+
+        // CRL核对只写入并发布变化部分, 不整体替换哈希, 其他节点也不重新加载
+        int renames = server.count("RENAME");
+        int scans = server.count("HSCAN") + server.count("HGETALL");
+        nodeB.updateCacheFromCRL(crlMetadata("12"), List.of(
+            nodeB.getRevocationDetail("0a"), Revocations.detail("0b", RevocationReason.SUPERSEDED)));
+        awaitTrue(() -> nodeA.getCacheStatistics().crlMetadata() != null);
+        Assert.assertEquals("12", nodeA.getCacheStatistics().crlMetadata().getCrlNumber());
+        Assert.assertTrue(nodeA.checkRevocationStatus("0b"));
+        Assert.assertEquals(2, nodeA.getCacheStatistics().revokedCount());
+        awaitTrue(() -> changedOnA.contains("0b"));
+        Assert.assertFalse(changedOnA.contains("0a"));
+
+        // 0a已早于下一份CRL的覆盖范围且不在其中, 从共享哈希与其他节点快照中移除
+        LocalDateTime later = LocalDateTime.now().plusMinutes(10);
+        nodeB.updateCacheFromCRL(new CRLMetadata("13", ISSUER_DN, later, later.plusDays(1),
+            "http://crl.example.com/13.crl", 1), List.of(nodeB.getRevocationDetail("0b")));
+        awaitTrue(() -> !nodeA.checkRevocationStatus("0a"));
+        Assert.assertEquals("13", nodeA.getCacheStatistics().crlMetadata().getCrlNumber());
+        Assert.assertEquals(1, nodeA.getCacheStatistics().revokedCount());
+        Assert.assertTrue(changedOnA.contains("0a"));
+        Assert.assertEquals(Set.of("0b"), newRepository(false).findRevoked(List.of("0a", "0b")));
+        Assert.assertEquals(renames, server.count("RENAME"));
+        Assert.assertEquals(scans, server.count("HSCAN") + server.count("HGETALL"));
+    }
+
+    @Test
+    public void test_batchCheckConfirmsAgainstSharedStore() {
+        // 节点B的订阅尚未建立(监听容器未启动), 本地快照还不知道节点A的吊销
+        RevocationStatusService nodeB = newService(newRepository(false), "b");
+        nodeB.loadSnapshot();
+        newRepository(true).appendRevocations(RevocationSnapshot.DEFAULT_CACHE_ID,
+            List.of(Revocations.detail("0c", RevocationReason.CESSATION_OF_OPERATION)));
+
+        Assert.assertFalse(nodeB.checkRevocationStatus("0c"));
+        Assert.assertEquals(Map.of("0c", true, "0d", false), nodeB.batchCheckRevocationStatus(List.of("0c", "0d")));
+
+        // 共享存储不可用时退回本地快照
+        server.close();
+        Assert.assertEquals(Map.of("0c", false), nodeB.batchCheckRevocationStatus(List.of("0c")));
+    }
+
+    private RedisRevocationStatusCacheRepository newRepository(boolean listening) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration("127.0.0.1", server.port()));
+        factory.afterPropertiesSet();
+        factory.start();
+        factories.add(factory);
+        RedisTemplate<String, String> template = new RedisConfig().redisTemplate(factory);
+        RedisMessageListenerContainer container = new RevocationCacheConfig().revocationListenerContainer(factory);
+        container.afterPropertiesSet();
+        if (listening) {
+            container.start();
+        }
+        containers.add(container);
+        return new RedisRevocationStatusCacheRepository(template, container);
+    }
+
+    private RevocationStatusService newService(RedisRevocationStatusCacheRepository repository, String node) {
+        RevocationSnapshotConfig config = new RevocationSnapshotConfig();
+        config.setFile(new File(folder.getRoot(), node + "/snapshot.bin").getPath());
+        return new RevocationStatusService(repository, new FileRevocationSnapshotStore(config), null, null);
+    }
+
+    private static CRLMetadata crlMetadata(String crlNumber) {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        return new CRLMetadata(crlNumber, ISSUER_DN, now, now.plusDays(1), "http://crl.example.com/" + crlNumber + ".crl", 0);
+    }
+
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assert.fail("等待超时");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Assert.fail("等待被中断");
+            }
+        }
+    }
+
+    /**
+     * 进程内RESP2服务端: 字符串、哈希、有序集合与发布订阅的最小子集, 所有命令串行执行
+     */
+    private static class InProcessRedisServer implements Closeable {
+        private final ServerSocket serverSocket;
+        private final Map<String, Object> data = new HashMap<>();
+        private final Map<String, AtomicInteger> commandCounts = new ConcurrentHashMap<>();
+        private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+        InProcessRedisServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "redis-standin-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        int count(String command) {
+            AtomicInteger count = commandCounts.get(command);
+            return count != null ? count.get() : 0;
+        }
+
+        int subscribers() {
+            return (int) clients.stream().filter(client -> !client.channels.isEmpty()).count();
+        }
+
+        @Override
+        public void close() {
+            try {
+                serverSocket.close();
+                for (Client client : clients) {
+                    client.socket.close();
+                }
+            } catch (IOException ignored) {
+                // 测试结束
+            }
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Client client = new Client(serverSocket.accept());
+                    clients.add(client);
+                    Thread thread = new Thread(client::serve, "redis-standin-client");
+                    thread.setDaemon(true);
+                    thread.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private class Client {
+            private final Socket socket;
+            private final InputStream in;
+            private final OutputStream out;
+            private final Set<String> channels = ConcurrentHashMap.newKeySet();
+
+            Client(Socket socket) throws IOException {
+                this.socket = socket;
+                this.in = new BufferedInputStream(socket.getInputStream());
+                this.out = new BufferedOutputStream(socket.getOutputStream());
+            }
+
+            void serve() {
+                try {
+                    while (true) {
+                        List<String> command = readCommand();
+                        String name = command.get(0).toUpperCase();
+                        commandCounts.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+                        synchronized (out) {
+                            execute(name, command);
+                            out.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    clients.remove(this);
+                }
+            }
+
+            private void execute(String name, List<String> args) throws IOException {
+                switch (name) {
+                    case "PING" -> writeSimple("PONG");
+                    case "CLIENT", "SELECT" -> writeSimple("OK");
+                    case "SUBSCRIBE" -> {
+                        for (String channel : args.subList(1, args.size())) {
+                            channels.add(channel);
+                            writeArray(List.of("subscribe", channel), channels.size());
+                        }
+                    }
+                    case "UNSUBSCRIBE" -> {
+                        List<String> targets = args.size() > 1 ? args.subList(1, args.size()) : new ArrayList<>(channels);
+                        for (String channel : targets) {
+                            channels.remove(channel);
+                            writeArray(List.of("unsubscribe", channel), channels.size());
+                        }
+                    }
+                    case "PUBLISH" -> {
+                        int receivers = 0;
+                        for (Client client : clients) {
+                            if (client.channels.contains(args.get(1))) {
+                                client.push(args.get(1), args.get(2));
+                                receivers++;
+                            }
+                        }
+                        writeInteger(receivers);
+                    }
+                    default -> {
+                        synchronized (data) {
+                            executeData(name, args);
+                        }
+                    }
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            private void executeData(String name, List<String> args) throws IOException {
+                switch (name) {
+                    case "DEL" -> {
+                        int removed = 0;
+                        for (String key : args.subList(1, args.size())) {
+                            removed += data.remove(key) != null ? 1 : 0;
+                        }
+                        writeInteger(removed);
+                    }
+                    case "EXISTS" -> writeInteger(data.containsKey(args.get(1)) ? 1 : 0);
+                    case "RENAME" -> {
+                        Object value = data.remove(args.get(1));
+                        if (value == null) {
+                            writeError("ERR no such key");
+                        } else {
+                            data.put(args.get(2), value);
+                            writeSimple("OK");
+                        }
+                    }
+                    case "HSET", "HMSET" -> {
+                        Map<String, String> hash = (Map<String, String>) data.computeIfAbsent(args.get(1), key -> new LinkedHashMap<>());
+                        int added = 0;
+                        for (int i = 2; i + 1 < args.size(); i += 2) {
+                            added += hash.put(args.get(i), args.get(i + 1)) == null ? 1 : 0;
+                        }
+                        if (name.equals("HSET")) {
+                            writeInteger(added);
+                        } else {
+                            writeSimple("OK");
+                        }
+                    }
+                    case "HDEL" -> {
+                        Map<String, String> hash = (Map<String, String>) data.getOrDefault(args.get(1), new HashMap<>());
+                        int removed = 0;
+                        for (String field : args.subList(2, args.size())) {
+                            removed += hash.remove(field) != null ? 1 : 0;
+                        }
+                        writeInteger(removed);
+                    }
+                    case "HMGET" -> {
+                        Map<String, String> hash = (Map<String, String>) data.getOrDefault(args.get(1), Map.of());
+                        List<String> values = new ArrayList<>();
+                        for (String field : args.subList(2, args.size())) {
+                            values.add(hash.get(field));
+                        }
+                        writeArray(values, -1);
+                    }
+                    case "HLEN" -> writeInteger(((Map<String, String>) data.getOrDefault(args.get(1), Map.of())).size());
+                    case "HGETALL", "HSCAN" -> {
+                        Map<String, String> hash = (Map<String, String>) data.getOrDefault(args.get(1), Map.of());
+                        List<String> flat = new ArrayList<>();
+                        hash.forEach((field, value) -> {
+                            flat.add(field);
+                            flat.add(value);
+                        });
+                        if (name.equals("HSCAN")) {
+                            // 一次返回全部字段, 游标归零
+                            writeRaw("*2\r\n");
+                            writeBulk("0");
+                        }
+                        writeArray(flat, -1);
+                    }
+                    case "ZADD" -> {
+                        Map<String, Double> zset = (Map<String, Double>) data.computeIfAbsent(args.get(1), key -> new HashMap<>());
+                        int added = 0;
+                        for (int i = 2; i + 1 < args.size(); i += 2) {
+                            added += zset.put(args.get(i + 1), parseScore(args.get(i))) == null ? 1 : 0;
+                        }
+                        writeInteger(added);
+                    }
+                    case "ZRANGEBYSCORE" -> {
+                        Map<String, Double> zset = (Map<String, Double>) data.getOrDefault(args.get(1), Map.of());
+                        double min = parseScore(args.get(2));
+                        double max = parseScore(args.get(3));
+                        writeArray(zset.entrySet().stream()
+                            .filter(entry -> entry.getValue() >= min && entry.getValue() <= max)
+                            .sorted(Map.Entry.comparingByValue())
+                            .map(Map.Entry::getKey)
+                            .toList(), -1);
+                    }
+                    case "ZREMRANGEBYSCORE" -> {
+                        Map<String, Double> zset = (Map<String, Double>) data.getOrDefault(args.get(1), new HashMap<>());
+                        double min = parseScore(args.get(2));
+                        double max = parseScore(args.get(3));
+                        int before = zset.size();
+                        zset.values().removeIf(score -> score >= min && score <= max);
+                        writeInteger(before - zset.size());
+                    }
+                    default -> writeError("ERR unknown command '" + name + "'");
+                }
+            }
+
+            private void push(String channel, String message) throws IOException {
+                synchronized (out) {
+                    writeArray(List.of("message", channel, message), -1);
+                    out.flush();
+                }
+            }
+
+            private double parseScore(String value) {
+                String score = value.startsWith("(") ? value.substring(1) : value;
+                return switch (score.toLowerCase()) {
+                    case "-inf" -> Double.NEGATIVE_INFINITY;
+                    case "+inf", "inf" -> Double.POSITIVE_INFINITY;
+                    default -> Double.parseDouble(score);
+                };
+            }
+
+            private List<String> readCommand() throws IOException {
+                String header = readLine();
+                if (!header.startsWith("*")) {
+                    return List.of(header.trim().split("\\s+"));
+                }
+                int count = Integer.parseInt(header.substring(1));
+                List<String> args = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int length = Integer.parseInt(readLine().substring(1));
+                    byte[] bytes = in.readNBytes(length);
+                    in.readNBytes(2);
+                    args.add(new String(bytes, StandardCharsets.UTF_8));
+                }
+                return args;
+            }
+
+            private String readLine() throws IOException {
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                int b;
+                while ((b = in.read()) != '\r') {
+                    if (b < 0) {
+                        throw new EOFException();
+                    }
+                    line.write(b);
+                }
+                in.read();
+                return line.toString(StandardCharsets.UTF_8);
+            }
+
+            /**
+             * 写数组; trailingInteger不小于0时追加一个整数元素(订阅确认)
+             */
+            private void writeArray(List<String> items, int trailingInteger) throws IOException {
+                writeRaw("*" + (items.size() + (trailingInteger >= 0 ? 1 : 0)) + "\r\n");
+                for (String item : items) {
+                    writeBulk(item);
+                }
+                if (trailingInteger >= 0) {
+                    writeInteger(trailingInteger);
+                }
+            }
+
+            private void writeBulk(String value) throws IOException {
+                if (value == null) {
+                    writeRaw("$-1\r\n");
+                    return;
+                }
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeRaw("$" + bytes.length + "\r\n");
+                out.write(bytes);
+                writeRaw("\r\n");
+            }
+
+            private void writeSimple(String value) throws IOException {
+                writeRaw("+" + value + "\r\n");
+            }
+
+            private void writeError(String message) throws IOException {
+                writeRaw("-" + message + "\r\n");
+            }
+
+            private void writeInteger(long value) throws IOException {
+                writeRaw(":" + value + "\r\n");
+            }
+
+            private void writeRaw(String value) throws IOException {
+                out.write(value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
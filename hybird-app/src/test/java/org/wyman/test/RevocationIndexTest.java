@@ -0,0 +1,60 @@
+package org.wyman.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.RevocationIndex;
+import org.wyman.types.enums.RevocationReason;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 紧凑吊销索引: 查询与归并的正确性
+ * (100万、1000万条目下的内存占用与查询耗时见hybird-benchmark的RevocationIndexBenchmark)
+ */
+public class RevocationIndexTest {
+
+    @Test
+    public void test_lookupAndMerge() {
+        LocalDateTime revokedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        // 160位上限、与分配器相同的约135位、短序列号, 以及非规范形式与无法识别的原因
+        String max = "f".repeat(40);
+        String allocated = new BigInteger(135, new java.util.Random(1)).setBit(134).toString(16);
+        List<RevocationStatusCache.RevocationDetail> details = List.of(
+            new RevocationStatusCache.RevocationDetail(max, revokedAt, RevocationReason.KEY_COMPROMISE.getDesc()),
+            new RevocationStatusCache.RevocationDetail(allocated, revokedAt, RevocationReason.AA_COMPROMISE.getDesc()),
+            new RevocationStatusCache.RevocationDetail("1", null, null),
+            new RevocationStatusCache.RevocationDetail("00AB", revokedAt, RevocationReason.SUPERSEDED.getDesc()),
+            new RevocationStatusCache.RevocationDetail("ab", revokedAt, "其他原因"),
+            new RevocationStatusCache.RevocationDetail("1" + max, revokedAt, null));
+        RevocationIndex.Builder builder = RevocationIndex.builder(2, RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+        details.forEach(builder::add);
+        RevocationIndex index = builder.build();
+
+        Assert.assertEquals(details.size(), index.size());
+        for (RevocationStatusCache.RevocationDetail detail : details) {
+            Assert.assertEquals(detail, index.get(detail.getSerialNumber()));
+        }
+        Assert.assertFalse(index.contains("2"));
+        Assert.assertFalse(index.contains("0ab"));
+        Assert.assertFalse(index.contains("not-hex"));
+        Map<String, RevocationStatusCache.RevocationDetail> iterated = new HashMap<>();
+        index.forEach(detail -> iterated.put(detail.getSerialNumber(), detail));
+        Assert.assertEquals(details.size(), iterated.size());
+
+        // 归并: 同一序列号以新条目为准
+        RevocationIndex merged = index.merge(Map.of(
+            "1", new RevocationStatusCache.RevocationDetail("1", revokedAt, RevocationReason.CA_COMPROMISE.getDesc()),
+            "2", new RevocationStatusCache.RevocationDetail("2", revokedAt, null)));
+        Assert.assertEquals(details.size() + 1, merged.size());
+        Assert.assertEquals(RevocationReason.CA_COMPROMISE.getDesc(), merged.get("1").getRevocationReason());
+        Assert.assertTrue(merged.contains("2"));
+        Assert.assertTrue(merged.contains(max));
+        Assert.assertNull(index.get("2"));
+    }
+}
@@ -0,0 +1,286 @@
+package org.wyman.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRegistry;
+import org.wyman.domain.signing.adapter.port.IRevokedCertificateSource;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.RevocationSummary;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.status.service.RevocationStatusService;
+import org.wyman.domain.status.valobj.CRLMetadata;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+import org.wyman.infrastructure.adapter.repository.FileRevocationSnapshotStore;
+import org.wyman.infrastructure.config.RevocationSnapshotConfig;
+import org.wyman.types.enums.RevocationReason;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 吊销状态快照: 查询不读仓储、本地快照恢复并补齐之后的吊销、快照缺失或损坏时从持久化缓存加载;
+ * 共享存储确认失败时以本地快照应答并计入降级统计
+ */
+public class RevocationSnapshotTest {
+
+    private static final String ISSUER_DN = "CN=Snapshot CA,O=wyman";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final InMemoryRevocationStatusCacheRepository repository = new InMemoryRevocationStatusCacheRepository();
+    private final ListRevokedSource revokedSource = new ListRevokedSource();
+    private final SingleCaRegistry registry = new SingleCaRegistry();
+    private FileRevocationSnapshotStore snapshotStore;
+    private File snapshotFile;
+
+    @Before
+    public void setUp() {
+        snapshotFile = new File(folder.getRoot(), "revocation/snapshot.bin");
+        RevocationSnapshotConfig config = new RevocationSnapshotConfig();
+        config.setFile(snapshotFile.getPath());
+        snapshotStore = new FileRevocationSnapshotStore(config);
+    }
+
+    @Test
+    public void test_lookupsReadSnapshotOnly() {
+        RevocationStatusService service = newService();
+        Assert.assertEquals(0, service.loadSnapshot());
+        service.recordRevocation("0a", LocalDateTime.now(), RevocationReason.KEY_COMPROMISE.getDesc());
+        service.recordRevocation("0b", LocalDateTime.now(), RevocationReason.SUPERSEDED.getDesc());
+        int reads = repository.reads;
+
+        Assert.assertTrue(service.checkRevocationStatus("0a"));
+        Assert.assertFalse(service.checkRevocationStatus("0c"));
+        Assert.assertEquals(Map.of("0a", true, "0c", false), service.batchCheckRevocationStatus(List.of("0a", "0c")));
+        Assert.assertEquals(RevocationReason.SUPERSEDED.getDesc(), service.getRevocationDetail("0b").getRevocationReason());
+        Assert.assertEquals(2, service.getCacheStatistics().revokedCount());
+        Assert.assertEquals(reads, repository.reads);
+        // 吊销先进入待合并队列, 合并时一批只追加一次增量, 不写完整快照
+        Assert.assertEquals(0, repository.appended);
+        Assert.assertEquals(2, service.flushPendingRevocations(500));
+        Assert.assertEquals(1, repository.appendCalls);
+        Assert.assertEquals(2, repository.appended);
+        Assert.assertEquals(0, repository.snapshots);
+        Assert.assertTrue(service.checkRevocationStatus("0a"));
+        Assert.assertEquals(2, service.getCacheStatistics().revokedCount());
+    }
+
+    @Test
+    public void test_revocationEventsCoalesceIntoBatches() {
+        RevocationStatusService service = newService();
+        service.loadSnapshot();
+        service.recordRevocation("0d", LocalDateTime.now(), RevocationReason.CERTIFICATE_HOLD.getDesc());
+        service.recordRevocation("0d", LocalDateTime.now(), RevocationReason.KEY_COMPROMISE.getDesc());
+        for (int i = 0; i < 5; i++) {
+            service.recordRevocation(Integer.toHexString(0x100 + i), LocalDateTime.now(), null);
+        }
+
+        // 同一序列号的多次事件合并为一条, 按每批2条分三批并入
+        Assert.assertEquals(6, service.flushPendingRevocations(2));
+        Assert.assertEquals(3, repository.appendCalls);
+        Assert.assertEquals(0, service.flushPendingRevocations(2));
+        Assert.assertEquals(RevocationReason.KEY_COMPROMISE.getDesc(), service.getRevocationDetail("0d").getRevocationReason());
+        Assert.assertEquals(6, repository.latest.size());
+    }
+
+    @Test
+    public void test_crlOnlyReconciles() {
+        RevocationStatusService service = newService();
+        service.loadSnapshot();
+        LocalDateTime earlier = LocalDateTime.now().minusDays(3);
+        service.recordRevocation("01", earlier, RevocationReason.KEY_COMPROMISE.getDesc());
+        service.recordRevocation("02", earlier, RevocationReason.KEY_COMPROMISE.getDesc());
+        service.flushPendingRevocations(500);
+        // CRL生成之后才到达的吊销事件
+        service.recordRevocation("03", LocalDateTime.now(), RevocationReason.SUPERSEDED.getDesc());
+
+        // CRL已不包含02(如解除挂起), 03晚于CRL查询而保留
+        service.updateCacheFromCRL(new CRLMetadata("8", ISSUER_DN, LocalDateTime.now(), LocalDateTime.now().plusDays(1),
+                "http://crl.example.com/8.crl", 1),
+            List.of(Revocations.detail("01", earlier, RevocationReason.KEY_COMPROMISE)));
+        Assert.assertTrue(service.checkRevocationStatus("01"));
+        Assert.assertFalse(service.checkRevocationStatus("02"));
+        Assert.assertTrue(service.checkRevocationStatus("03"));
+        Assert.assertEquals(2, service.getCacheStatistics().revokedCount());
+        Assert.assertEquals("8", service.getCacheStatistics().crlMetadata().getCrlNumber());
+
+        // 与CRL一致时沿用原索引, 只更新元数据
+        RevocationSnapshot current = repository.latest;
+        RevocationSnapshot reconciled = current.reconcile(new CRLMetadata("9", ISSUER_DN, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), "http://crl.example.com/9.crl", 2),
+            List.of(current.getDetail("01"), current.getDetail("03")), LocalDateTime.now().minusMinutes(5));
+        Assert.assertSame(current.getIndex(), reconciled.getIndex());
+        Assert.assertEquals(current.getRecent(), reconciled.getRecent());
+        Assert.assertEquals("9", reconciled.getCrlMetadata().getCrlNumber());
+    }
+
+    @Test
+    public void test_reconcileFromRevocationSource() {
+        RevocationStatusService service = newService();
+        service.loadSnapshot();
+        LocalDateTime earlier = LocalDateTime.now().minusDays(3);
+        service.recordRevocation("01", earlier, RevocationReason.KEY_COMPROMISE.getDesc());
+        service.recordRevocation("02", earlier, RevocationReason.KEY_COMPROMISE.getDesc());
+        service.flushPendingRevocations(500);
+        revokedSource.revoked.add(revoked("01", earlier, RevocationReason.KEY_COMPROMISE));
+        revokedSource.revoked.add(revoked("03", earlier, RevocationReason.AFFILIATION_CHANGED));
+
+        // 手动生成CRL后按各CA的吊销条目数据源核对, 游标条目直接写入索引构建器
+        service.updateCacheFromRevocationSource(new CRLMetadata("10", ISSUER_DN, LocalDateTime.now(),
+            LocalDateTime.now().plusDays(1), "http://crl.example.com/10.crl", 1));
+        Assert.assertTrue(service.checkRevocationStatus("01"));
+        Assert.assertFalse(service.checkRevocationStatus("02"));
+        Assert.assertTrue(service.checkRevocationStatus("03"));
+        Assert.assertEquals("10", service.getCacheStatistics().crlMetadata().getCrlNumber());
+    }
+
+    @Test
+    public void test_restoreFromLocalSnapshotAndReplay() {
+        RevocationStatusService service = newService();
+        service.loadSnapshot();
+        service.recordRevocation("01", LocalDateTime.now().minusDays(3), RevocationReason.KEY_COMPROMISE.getDesc());
+        service.updateCacheFromCRL(new CRLMetadata("7", ISSUER_DN, LocalDateTime.now(), LocalDateTime.now().plusDays(1),
+                "http://crl.example.com/7.crl", 1),
+            List.of(Revocations.detail("01", LocalDateTime.now().minusDays(3), RevocationReason.KEY_COMPROMISE)));
+        Assert.assertTrue(snapshotFile.exists());
+
+        // 快照写出之后又有吊销落库(本进程未收到事件), 重启时从证书表补齐
+        revokedSource.revoked.add(revoked("02", LocalDateTime.now(), RevocationReason.CESSATION_OF_OPERATION));
+        repository.latest = null;
+        repository.reads = 0;
+        RevocationStatusService restarted = newService();
+
+        Assert.assertEquals(2, restarted.loadSnapshot());
+        Assert.assertEquals(0, repository.reads);
+        Assert.assertEquals(RevocationReason.CESSATION_OF_OPERATION.getDesc(),
+            restarted.getRevocationDetail("02").getRevocationReason());
+        Assert.assertEquals("7", restarted.getCacheStatistics().crlMetadata().getCrlNumber());
+    }
+
+    @Test
+    public void test_fallBackToRepositoryWhenSnapshotUnreadable() throws Exception {
+        repository.latest = RevocationSnapshot.empty().withRevocations(
+            List.of(Revocations.detail("ff", LocalDateTime.now(), null)));
+        Files.createDirectories(snapshotFile.getParentFile().toPath());
+        Files.write(snapshotFile.toPath(), new byte[]{1, 2, 3});
+
+        RevocationStatusService service = newService();
+        Assert.assertEquals(1, service.loadSnapshot());
+        Assert.assertTrue(service.checkRevocationStatus("ff"));
+    }
+
+    @Test
+    public void test_sharedStoreOutageFallsBackVisibly() {
+        RevocationStatusService service = newService();
+        service.loadSnapshot();
+        service.recordRevocation("0c", LocalDateTime.now(), RevocationReason.KEY_COMPROMISE.getDesc());
+        repository.findRevokedFailure = new IllegalStateException("shared store down");
+
+        Map<String, Boolean> result = service.batchCheckRevocationStatus(List.of("0c", "0d"));
+        Assert.assertTrue(result.get("0c"));
+        Assert.assertFalse(result.get("0d"));
+        service.batchCheckRevocationStatus(List.of("0d"));
+        Assert.assertEquals(2, service.getCacheStatistics().sharedStoreFallbacks());
+    }
+
+    private RevocationStatusService newService() {
+        return new RevocationStatusService(repository, snapshotStore, revokedSource, registry);
+    }
+
+    private static RevokedCertificate revoked(String serialNumber, LocalDateTime date, RevocationReason reason) {
+        RevokedCertificate revoked = new RevokedCertificate();
+        revoked.setSerialNumber(serialNumber);
+        revoked.setRevocationDate(date);
+        revoked.setReason(reason);
+        return revoked;
+    }
+
+    /**
+     * 内存吊销条目数据源(单一颁发者)
+     */
+    private static class ListRevokedSource implements IRevokedCertificateSource {
+        private final List<RevokedCertificate> revoked = new ArrayList<>();
+
+        @Override
+        public void scan(String issuerDN, Consumer<RevokedCertificate> consumer) {
+            revoked.forEach(consumer);
+        }
+
+        @Override
+        public List<RevokedCertificate> findRevokedSince(String issuerDN, LocalDateTime since) {
+            return revoked.stream()
+                .filter(entry -> since == null || !entry.getRevocationDate().isBefore(since))
+                .toList();
+        }
+
+        @Override
+        public void scanUnpartitioned(String issuerDN, Consumer<RevokedCertificate> consumer) {
+            scan(issuerDN, consumer);
+        }
+
+        @Override
+        public List<RevokedCertificate> findUnpartitionedRevokedSince(String issuerDN, LocalDateTime since) {
+            return findRevokedSince(issuerDN, since);
+        }
+
+        @Override
+        public void scan(String issuerDN, int partition, Consumer<RevokedCertificate> consumer) {
+        }
+
+        @Override
+        public Map<Integer, RevocationSummary> summarizeByPartition(String issuerDN) {
+            return Map.of();
+        }
+    }
+
+    /**
+     * 只有一个CA的注册表
+     */
+    private static class SingleCaRegistry implements ICertificateAuthorityRegistry {
+        private final CertificateAuthority ca;
+
+        SingleCaRegistry() {
+            Certificate caCertificate = new Certificate();
+            caCertificate.setSubjectDN(ISSUER_DN);
+            ca = new CertificateAuthority("snapshot-ca", "Snapshot CA", caCertificate);
+        }
+
+        @Override
+        public CertificateAuthority getByName(String caName) {
+            return ca;
+        }
+
+        @Override
+        public CertificateAuthority getById(String caId) {
+            return ca;
+        }
+
+        @Override
+        public List<CertificateAuthority> getAll() {
+            return List.of(ca);
+        }
+
+        @Override
+        public CertificateAuthority getByIssuerHash(String hashAlgorithm, byte[] issuerNameHash, byte[] issuerKeyHash) {
+            return null;
+        }
+
+        @Override
+        public void register(CertificateAuthority ca) {
+        }
+
+        @Override
+        public void invalidate(String caId) {
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.wyman.test;
+
+import com.alibaba.fastjson.JSON;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.CRLMetadata;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+import org.wyman.infrastructure.adapter.repository.RevocationStatusCacheRepository;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusCacheMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusDeltaMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusSnapshotMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusSnapshotSegmentMapper;
+import org.wyman.infrastructure.dao.po.RevocationStatusCachePO;
+import org.wyman.infrastructure.dao.po.RevocationStatusDeltaPO;
+import org.wyman.infrastructure.dao.po.RevocationStatusSnapshotPO;
+import org.wyman.infrastructure.dao.po.RevocationStatusSnapshotSegmentPO;
+import org.wyman.types.enums.RevocationReason;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 吊销状态持久化: 单次吊销只追加一行增量, 分段快照+增量加载, 压缩与清理, 快照损坏或未写完时退回上一份, 旧版JSON缓存升级
+ */
+public class RevocationStatusPersistenceTest {
+
+    /**
+     * 小分段, 覆盖快照跨多个分段的写入与读取
+     */
+    private static final int SEGMENT_BYTES = 256;
+
+    private final InMemorySnapshotMapper snapshotMapper = new InMemorySnapshotMapper();
+    private final InMemorySegmentMapper segmentMapper = new InMemorySegmentMapper();
+    private final InMemoryDeltaMapper deltaMapper = new InMemoryDeltaMapper();
+    private final LegacyCacheMapper legacyMapper = new LegacyCacheMapper();
+    private final RevocationStatusCacheRepository repository =
+        new RevocationStatusCacheRepository(snapshotMapper, segmentMapper, deltaMapper, legacyMapper, SEGMENT_BYTES);
+
+    @Test
+    public void test_revocationsAppendDeltasOnly() {
+        repository.saveSnapshot(crlSnapshot(1000));
+        Assert.assertEquals(1, snapshotMapper.inserts);
+        // 快照按固定大小分段写入; 序列号以原始字节编码, 每条远小于十六进制字符串
+        int segments = snapshotMapper.latest().getSegmentCount();
+        Assert.assertTrue(segments > 1);
+        Assert.assertEquals(segments, segmentMapper.rows.size());
+        segmentMapper.rows.values().forEach(segment -> Assert.assertTrue(segment.getSegmentData().length <= SEGMENT_BYTES));
+        Assert.assertTrue(segments * SEGMENT_BYTES < 1000 * 32);
+
+        repository.appendRevocations(RevocationSnapshot.DEFAULT_CACHE_ID, List.of(Revocations.detail("f001", RevocationReason.KEY_COMPROMISE)));
+        repository.appendRevocations(RevocationSnapshot.DEFAULT_CACHE_ID, List.of(Revocations.detail("f002", RevocationReason.SUPERSEDED)));
+        // 已在快照中的序列号再次吊销, 以增量为准
+        repository.appendRevocations(RevocationSnapshot.DEFAULT_CACHE_ID, List.of(Revocations.detail("a", RevocationReason.CA_COMPROMISE)));
+
+        // 每次吊销写入一行增量, 与快照中的条目数无关
+        Assert.assertEquals(1, snapshotMapper.inserts);
+        Assert.assertEquals(3, deltaMapper.rows.size());
+        RevocationSnapshot loaded = repository.loadLatest();
+        Assert.assertEquals(1002, loaded.size());
+        Assert.assertEquals(RevocationReason.SUPERSEDED.getDesc(), loaded.getDetail("f002").getRevocationReason());
+        Assert.assertEquals(RevocationReason.CA_COMPROMISE.getDesc(), loaded.getDetail("a").getRevocationReason());
+        Assert.assertEquals("42", loaded.getCrlMetadata().getCrlNumber());
+    }
+
+    @Test
+    public void test_compactMergesAndCleansUp() {
+        repository.saveSnapshot(crlSnapshot(100));
+        for (int i = 0; i < 5; i++) {
+            repository.appendRevocations(RevocationSnapshot.DEFAULT_CACHE_ID,
+                List.of(Revocations.detail("e" + i, RevocationReason.KEY_COMPROMISE)));
+        }
+        // 刚追加的增量可能还有更小ID的增量未提交, 不并入
+        Assert.assertEquals(0, repository.compact(1));
+        deltaMapper.age();
+        Assert.assertEquals(0, repository.compact(10));
+        Assert.assertEquals(5, repository.compact(1));
+        Assert.assertEquals(0, repository.compact(1));
+        Assert.assertEquals(105, snapshotMapper.latest().getEntryCount().intValue());
+
+        repository.appendRevocations(RevocationSnapshot.DEFAULT_CACHE_ID, List.of(Revocations.detail("e5", RevocationReason.KEY_COMPROMISE)));
+        Assert.assertEquals(0, repository.compact(1));
+        Assert.assertEquals(106, repository.loadLatest().size());
+        deltaMapper.age();
+        Assert.assertEquals(1, repository.compact(1));
+        // 只保留最近两份快照, 以及上一份快照之后的增量
+        Assert.assertEquals(2, snapshotMapper.rows.size());
+        Assert.assertEquals(1, deltaMapper.rows.size());
+        Assert.assertEquals(106, repository.loadLatest().size());
+    }
+
+    @Test
+    public void test_corruptSnapshotFallsBackToPrevious() {
+        repository.saveSnapshot(crlSnapshot(10));
+        repository.appendRevocations(RevocationSnapshot.DEFAULT_CACHE_ID, List.of(Revocations.detail("d1", RevocationReason.KEY_COMPROMISE)));
+        deltaMapper.age();
+        repository.compact(1);
+        repository.appendRevocations(RevocationSnapshot.DEFAULT_CACHE_ID, List.of(Revocations.detail("d2", RevocationReason.KEY_COMPROMISE)));
+
+        RevocationStatusSnapshotPO latest = snapshotMapper.latest();
+        byte[] data = segmentMapper.rows.get(latest.getSnapshotId() + ":0").getSegmentData();
+        data[data.length / 2] ^= 0x5a;
+        // 写到一半的快照(尚未标记完成)不可见
+        snapshotMapper.insert(RevocationStatusSnapshotPO.builder().lastDeltaId(Long.MAX_VALUE).build());
+
+        RevocationSnapshot loaded = repository.loadLatest();
+        Assert.assertEquals(12, loaded.size());
+        Assert.assertTrue(loaded.isRevoked("d1"));
+        Assert.assertTrue(loaded.isRevoked("d2"));
+    }
+
+    @Test
+    public void test_upgradeFromLegacyJsonCache() {
+        RevocationStatusCache cache = new RevocationStatusCache("legacy-cache");
+        cache.addRevokedEntry(Revocations.detail("0c", RevocationReason.AFFILIATION_CHANGED));
+        legacyMapper.latest = RevocationStatusCachePO.builder()
+            .cacheId("legacy-cache")
+            .cacheData(JSON.toJSONString(cache))
+            .build();
+        Assert.assertNull(new RevocationStatusCacheRepository(snapshotMapper, segmentMapper, deltaMapper, new LegacyCacheMapper())
+            .loadLatest());
+
+        repository.appendRevocations("legacy-cache", List.of(Revocations.detail("0d", RevocationReason.KEY_COMPROMISE)));
+        RevocationSnapshot loaded = repository.loadLatest();
+        Assert.assertEquals(2, loaded.size());
+        Assert.assertEquals(RevocationReason.AFFILIATION_CHANGED.getDesc(), loaded.getDetail("0c").getRevocationReason());
+
+        // 首次压缩写出二进制快照, 此后不再读取旧版缓存
+        deltaMapper.age();
+        Assert.assertEquals(1, repository.compact(1));
+        legacyMapper.latest = null;
+        Assert.assertEquals(2, repository.loadLatest().size());
+    }
+
+    private static RevocationSnapshot crlSnapshot(int entries) {
+        List<RevocationStatusCache.RevocationDetail> details = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            details.add(Revocations.detail(Integer.toHexString(i + 1), RevocationReason.KEY_COMPROMISE));
+        }
+        return RevocationSnapshot.empty().withCRL(new CRLMetadata("42", "CN=Persistence CA", LocalDateTime.now(),
+            LocalDateTime.now().plusDays(1), "http://crl.example.com/42.crl", entries), details);
+    }
+
+
+    /**
+     * 内存吊销状态快照Mapper
+     */
+    private static class InMemorySnapshotMapper implements RevocationStatusSnapshotMapper {
+        private final TreeMap<Long, RevocationStatusSnapshotPO> rows = new TreeMap<>();
+        private final AtomicLong ids = new AtomicLong();
+        private int inserts;
+
+        @Override
+        public int insert(RevocationStatusSnapshotPO snapshot) {
+            snapshot.setSnapshotId(ids.incrementAndGet());
+            rows.put(snapshot.getSnapshotId(), snapshot);
+            inserts++;
+            return 1;
+        }
+
+        @Override
+        public int markComplete(long snapshotId, int segmentCount) {
+            rows.get(snapshotId).setSegmentCount(segmentCount);
+            return 1;
+        }
+
+        @Override
+        public List<RevocationStatusSnapshotPO> selectRecentHeaders(int limit) {
+            return rows.descendingMap().values().stream()
+                .filter(row -> row.getSegmentCount() != null)
+                .limit(limit)
+                .toList();
+        }
+
+        @Override
+        public int deleteBefore(long snapshotId) {
+            int before = rows.size();
+            rows.headMap(snapshotId).clear();
+            return before - rows.size();
+        }
+
+        RevocationStatusSnapshotPO latest() {
+            return rows.lastEntry().getValue();
+        }
+    }
+
+    /**
+     * 内存吊销状态快照分段Mapper
+     */
+    private static class InMemorySegmentMapper implements RevocationStatusSnapshotSegmentMapper {
+        private final TreeMap<String, RevocationStatusSnapshotSegmentPO> rows = new TreeMap<>();
+
+        @Override
+        public int insert(RevocationStatusSnapshotSegmentPO segment) {
+            rows.put(segment.getSnapshotId() + ":" + segment.getSegmentNo(), segment);
+            return 1;
+        }
+
+        @Override
+        public RevocationStatusSnapshotSegmentPO selectSegment(long snapshotId, int segmentNo) {
+            return rows.get(snapshotId + ":" + segmentNo);
+        }
+
+        @Override
+        public int deleteBefore(long snapshotId) {
+            int before = rows.size();
+            rows.values().removeIf(segment -> segment.getSnapshotId() < snapshotId);
+            return before - rows.size();
+        }
+    }
+
+    /**
+     * 内存吊销状态增量Mapper
+     */
+    private static class InMemoryDeltaMapper implements RevocationStatusDeltaMapper {
+        private final TreeMap<Long, RevocationStatusDeltaPO> rows = new TreeMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public int insertBatch(List<RevocationStatusDeltaPO> deltas) {
+            for (RevocationStatusDeltaPO delta : deltas) {
+                delta.setDeltaId(ids.incrementAndGet());
+                rows.put(delta.getDeltaId(), delta);
+            }
+            return deltas.size();
+        }
+
+        @Override
+        public void scanRange(long afterId, long upToId, ResultHandler<RevocationStatusDeltaPO> handler) {
+            DefaultResultContext<RevocationStatusDeltaPO> context = new DefaultResultContext<>();
+            for (RevocationStatusDeltaPO delta : rows.subMap(afterId, false, upToId, true).values()) {
+                context.nextResultObject(delta);
+                handler.handleResult(context);
+            }
+        }
+
+        @Override
+        public long countRange(long afterId, long upToId) {
+            return rows.subMap(afterId, false, upToId, true).size();
+        }
+
+        @Override
+        public Long selectMaxId() {
+            return rows.isEmpty() ? null : rows.lastKey();
+        }
+
+        @Override
+        public Long selectMaxIdBefore(LocalDateTime before) {
+            return rows.values().stream()
+                .filter(delta -> delta.getCreateTime().isBefore(before))
+                .map(RevocationStatusDeltaPO::getDeltaId)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        }
+
+        /**
+         * 已有增量的追加时间前移, 使其超出并入余量
+         */
+        void age() {
+            rows.values().forEach(delta -> delta.setCreateTime(delta.getCreateTime().minusMinutes(10)));
+        }
+
+        @Override
+        public int deleteUpTo(long deltaId) {
+            int before = rows.size();
+            rows.headMap(deltaId, true).clear();
+            return before - rows.size();
+        }
+    }
+
+    /**
+     * 旧版JSON缓存Mapper
+     */
+    private static class LegacyCacheMapper implements RevocationStatusCacheMapper {
+        private RevocationStatusCachePO latest;
+
+        @Override
+        public RevocationStatusCachePO selectLatest() {
+            return latest;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.wyman.test;
+
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.types.enums.RevocationReason;
+
+import java.time.LocalDateTime;
+
+/**
+ * 测试用吊销条目工厂
+ */
+final class Revocations {
+
+    private Revocations() {
+    }
+
+    /**
+     * 以当前时间(秒精度)为吊销时间的吊销条目, reason为空时不带原因
+     */
+    static RevocationStatusCache.RevocationDetail detail(String serialNumber, RevocationReason reason) {
+        return detail(serialNumber, LocalDateTime.now().withNano(0), reason);
+    }
+
+    static RevocationStatusCache.RevocationDetail detail(String serialNumber, LocalDateTime revocationDate,
+                                                         RevocationReason reason) {
+        return new RevocationStatusCache.RevocationDetail(serialNumber, revocationDate,
+            reason != null ? reason.getDesc() : null);
+    }
+}
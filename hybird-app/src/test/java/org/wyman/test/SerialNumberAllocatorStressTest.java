@@ -0,0 +1,98 @@
+package org.wyman.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.infrastructure.adapter.port.StripedSerialNumberAllocator;
+import org.wyman.infrastructure.config.SerialNumberAllocatorConfig;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 序列号分配器压力测试: 多个模拟节点、每节点多线程并发分配, 要求零重复且满足RFC 5280
+ */
+@Slf4j
+public class SerialNumberAllocatorStressTest {
+
+    private static final int NODES = 4;
+    private static final int THREADS_PER_NODE = 16;
+    private static final int SERIALS_PER_THREAD = 20_000;
+
+    @Test
+    public void test_noDuplicatesAcrossThreadsAndNodes() throws Exception {
+        List<StripedSerialNumberAllocator> allocators = new ArrayList<>();
+        for (int node = 0; node < NODES; node++) {
+            SerialNumberAllocatorConfig config = new SerialNumberAllocatorConfig();
+            config.setNodeId(node + 1);
+            // 条带数少于线程数, 覆盖多线程共享同一条带时的CAS竞争
+            config.setStripes(4);
+            allocators.add(new StripedSerialNumberAllocator(config));
+        }
+
+        Set<BigInteger> serials = ConcurrentHashMap.newKeySet(NODES * THREADS_PER_NODE * SERIALS_PER_THREAD);
+        // 去掉64位随机数后的结构化部分也必须唯一, 唯一性不依赖随机数碰撞概率
+        Set<BigInteger> structuredParts = ConcurrentHashMap.newKeySet(NODES * THREADS_PER_NODE * SERIALS_PER_THREAD);
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (StripedSerialNumberAllocator allocator : allocators) {
+            for (int t = 0; t < THREADS_PER_NODE; t++) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    int duplicates = 0;
+                    for (int i = 0; i < SERIALS_PER_THREAD; i++) {
+                        BigInteger serial = allocator.nextSerialNumber();
+                        Assert.assertEquals(1, serial.signum());
+                        // RFC 5280: 序列号不超过20字节
+                        Assert.assertTrue(serial.toByteArray().length <= 20);
+                        if (!serials.add(serial) | !structuredParts.add(serial.shiftRight(64))) {
+                            duplicates++;
+                        }
+                    }
+                    return duplicates;
+                }));
+            }
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        int duplicates = 0;
+        for (Future<Integer> future : futures) {
+            duplicates += future.get();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        executor.shutdown();
+
+        int total = NODES * THREADS_PER_NODE * SERIALS_PER_THREAD;
+        log.info("分配序列号 {} 个, 节点 {}, 线程 {}, 耗时 {}ms, 重复 {}",
+            total, NODES, NODES * THREADS_PER_NODE, elapsedMs, duplicates);
+        Assert.assertEquals(0, duplicates);
+        Assert.assertEquals(total, serials.size());
+        Assert.assertEquals(total, structuredParts.size());
+    }
+
+    @Test
+    public void test_multiNodeRequiresConfiguredNodeId() {
+        SerialNumberAllocatorConfig config = new SerialNumberAllocatorConfig();
+        config.setMultiNode(true);
+        try {
+            new StripedSerialNumberAllocator(config);
+            Assert.fail("多节点部署未配置节点ID应启动失败");
+        } catch (IllegalStateException expected) {
+            Assert.assertTrue(expected.getMessage().contains("node-id"));
+        }
+
+        config.setNodeId(7);
+        Assert.assertEquals(7, new StripedSerialNumberAllocator(config).getNodeId());
+    }
+
+}
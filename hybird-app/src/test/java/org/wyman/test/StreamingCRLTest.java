@@ -0,0 +1,133 @@
+package org.wyman.test;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.enums.RevocationReason;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 流式CRL编码: 与X509v2CRLBuilder生成的TBSCertList逐字节一致, 条目不在内存中物化
+ */
+@Slf4j
+public class StreamingCRLTest {
+
+    private static final X500Name ISSUER = new X500Name("CN=Streaming CA,O=wyman");
+    private static final String DELTA_URL = "http://crl.example.com/crl/Streaming%20CA/delta.crl";
+
+    private final BouncyCastleCertificateGenerator generator = generator();
+
+    @Test
+    public void test_matchesBuilderEncoding() throws Exception {
+        KeyPair keyPair = generator.generateKeyPair("ECDSA_P256");
+        Date thisUpdate = new Date();
+        Date nextUpdate = new Date(thisUpdate.getTime() + 24L * 3600 * 1000);
+        LocalDateTime latest = LocalDateTime.now().withNano(0);
+
+        List<RevokedCertificate> entries = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            RevocationReason reason = i % 7 == 0 ? null : RevocationReason.values()[i % RevocationReason.values().length];
+            entries.add(new RevokedCertificate(Integer.toHexString(0x100000 + i), latest.minusMinutes(i), reason));
+        }
+        // 缺少吊销时间的历史条目
+        entries.add(new RevokedCertificate("abcdef", null, null));
+
+        X509CRL expected = generator.generateCRL(ISSUER, keyPair.getPrivate(), thisUpdate, nextUpdate,
+            BigInteger.valueOf(42), "ECDSA_P256", entries, null, DELTA_URL);
+        try (StreamedCRL streamed = generator.generateStreamingCRL(ISSUER, keyPair.getPrivate(), thisUpdate,
+                nextUpdate, BigInteger.valueOf(42), "ECDSA_P256", entries::forEach, null, DELTA_URL, null)) {
+            X509CRL actual = parse(streamed);
+
+            Assert.assertArrayEquals(expected.getTBSCertList(), actual.getTBSCertList());
+            actual.verify(keyPair.getPublic());
+            Assert.assertEquals(actual.getEncoded().length, streamed.getLength());
+            Assert.assertEquals(entries.size(), streamed.getEntryCount());
+            Assert.assertEquals(latest, streamed.getLatestRevocationDate());
+            Assert.assertEquals(BigInteger.valueOf(42), generator.getCRLNumber(actual));
+        }
+    }
+
+    @Test
+    public void test_emptyCrlOmitsRevokedCertificates() throws Exception {
+        KeyPair keyPair = generator.generateKeyPair("ECDSA_P256");
+        Date thisUpdate = new Date();
+        Date nextUpdate = new Date(thisUpdate.getTime() + 3600 * 1000);
+
+        X509CRL expected = generator.generateCRL(ISSUER, keyPair.getPrivate(), thisUpdate, nextUpdate,
+            BigInteger.ONE, "ECDSA_P256", List.of());
+        try (StreamedCRL streamed = generator.generateStreamingCRL(ISSUER, keyPair.getPrivate(), thisUpdate,
+                nextUpdate, BigInteger.ONE, "ECDSA_P256", consumer -> { }, null, null, null)) {
+            X509CRL actual = parse(streamed);
+
+            Assert.assertArrayEquals(expected.getTBSCertList(), actual.getTBSCertList());
+            Assert.assertNull(actual.getRevokedCertificates());
+            Assert.assertNull(streamed.getLatestRevocationDate());
+            actual.verify(keyPair.getPublic());
+        }
+    }
+
+    @Test
+    public void test_largeCrlStreamsThroughTempFile() throws Exception {
+        KeyPair keyPair = generator.generateKeyPair("ECDSA_P256");
+        Date thisUpdate = new Date();
+        Date nextUpdate = new Date(thisUpdate.getTime() + 24L * 3600 * 1000);
+        LocalDateTime revocationDate = LocalDateTime.now().minusDays(1);
+        int count = 200_000;
+
+        // 条目按需生成, 模拟数据库游标
+        Consumer<Consumer<RevokedCertificate>> cursor = consumer -> {
+            for (int i = 0; i < count; i++) {
+                consumer.accept(new RevokedCertificate(Long.toHexString(0x1000000000L + i), revocationDate,
+                    RevocationReason.KEY_COMPROMISE));
+            }
+        };
+
+        long start = System.nanoTime();
+        StreamedCRL streamed = generator.generateStreamingCRL(ISSUER, keyPair.getPrivate(), thisUpdate, nextUpdate,
+            BigInteger.TEN, "ECDSA_P256", cursor, null, null, null);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        try (streamed) {
+            long streamedBytes;
+            try (InputStream in = streamed.openStream()) {
+                streamedBytes = in.transferTo(java.io.OutputStream.nullOutputStream());
+            }
+            log.info("流式CRL: {} 条, {} 字节, 耗时 {} ms", count, streamed.getLength(), elapsedMs);
+
+            Assert.assertEquals(count, streamed.getEntryCount());
+            Assert.assertEquals(streamed.getLength(), streamedBytes);
+            Assert.assertEquals(count, parse(streamed).getRevokedCertificates().size());
+        }
+        Assert.assertFalse(Files.exists(streamed.getEntriesFile()));
+    }
+
+    private static BouncyCastleCertificateGenerator generator() {
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        return new BouncyCastleCertificateGenerator(signerPool,
+            new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+    }
+
+    private static X509CRL parse(StreamedCRL streamed) throws Exception {
+        try (InputStream in = streamed.openStream()) {
+            return (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(in);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.wyman.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.PostQuantumAlgorithms;
+import org.wyman.infrastructure.crypto.SignerPool;
+
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AltSignatureBatcher: 不同批次大小下每秒可完成的证书备用签名数(ML-DSA-65备用密钥);
+ * 每次调用提交SIGNATURES条预TBS并等待全部完成, 条数是各批次大小的整数倍, 批次总是满批签名
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AltSignatureBatchBenchmark {
+
+    private static final int SIGNATURES = 4096;
+
+    @Param({"1", "16", "256", "4096"})
+    public int batchSize;
+
+    private AltSignatureBatcher batcher;
+    private KeyPair altKeyPair;
+    private SignerPool.SignerKey signerKey;
+    private String jcaName;
+    private byte[][] preTbs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        AltSignatureBatchConfig config = new AltSignatureBatchConfig();
+        config.setEnabled(true);
+        config.setMaxBatchSize(batchSize);
+        config.setFlushWindowMs(60_000);
+        batcher = new AltSignatureBatcher(new SignerPool(new SignerPoolConfig()), config);
+
+        altKeyPair = PostQuantumAlgorithms.generateKeyPair(BenchmarkFixtures.ALT_SIGNATURE_ALGORITHM);
+        jcaName = PostQuantumAlgorithms.jcaSignatureName(BenchmarkFixtures.ALT_SIGNATURE_ALGORITHM);
+        signerKey = new SignerPool.SignerKey(BenchmarkFixtures.ISSUER.toString(), jcaName,
+            SignerPool.keyAlias(altKeyPair.getPrivate()));
+        preTbs = new byte[SIGNATURES][];
+        for (int i = 0; i < SIGNATURES; i++) {
+            preTbs[i] = ByteBuffer.allocate(512).putInt(i).array();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        batcher.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIGNATURES)
+    public Object batchedAltSignatures() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[SIGNATURES];
+        for (int i = 0; i < SIGNATURES; i++) {
+            futures[i] = batcher.submit(signerKey, altKeyPair.getPrivate(), jcaName, preTbs[i]);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+}
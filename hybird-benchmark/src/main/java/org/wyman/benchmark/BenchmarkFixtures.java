@@ -0,0 +1,91 @@
+package org.wyman.benchmark;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.pkcs.PKCS10CertificationRequest;
+import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequestBuilder;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.PostQuantumAlgorithms;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.enums.RevocationReason;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 基准共用的构造: 证书生成器、混合证书上下文、CSR与吊销列表样本
+ */
+final class BenchmarkFixtures {
+
+    static final X500Name ISSUER = new X500Name("CN=Benchmark CA,O=wyman");
+    static final X500Name SUBJECT = new X500Name("CN=device-0001,O=wyman");
+    static final String CRL_DISTRIBUTION_POINT = "http://crl.example.com/benchmark.crl";
+
+    /**
+     * 混合证书备用签名算法
+     */
+    static final String ALT_SIGNATURE_ALGORITHM = PostQuantumAlgorithms.DEFAULT_ML_DSA;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 与应用内相同装配的证书生成器(签名器池 + 默认关闭的批量备用签名)
+     */
+    static BouncyCastleCertificateGenerator newGenerator() {
+        SignerPool signerPool = new SignerPool(new SignerPoolConfig());
+        return new BouncyCastleCertificateGenerator(signerPool,
+            new AltSignatureBatcher(signerPool, new AltSignatureBatchConfig()));
+    }
+
+    /**
+     * 混合证书上下文; 生成证书时会回写备用签名值, 每次签发需使用新实例
+     */
+    static HybridCertificateRequestContext hybridContext(PrivateKey altPrivateKey) {
+        return HybridCertificateRequestContext.builder()
+            .hybridEnabled(true)
+            .altSignatureRequired(true)
+            .pqSignaturePublicKeyPem("-----BEGIN PUBLIC KEY-----\nBENCHMARK-PQ-SIG\n-----END PUBLIC KEY-----")
+            .pqKekPublicKeyPem("-----BEGIN PUBLIC KEY-----\nBENCHMARK-PQ-KEK\n-----END PUBLIC KEY-----")
+            .altSignatureAlgorithmOid(PostQuantumAlgorithms.signatureOid(ALT_SIGNATURE_ALGORITHM))
+            .altSignatureJcaName(ALT_SIGNATURE_ALGORITHM)
+            .altSignaturePrivateKey(altPrivateKey)
+            .build();
+    }
+
+    /**
+     * 生成PEM格式的PKCS#10 CSR
+     */
+    static String csrPem(BouncyCastleCertificateGenerator generator, String algorithm) throws Exception {
+        KeyPair keyPair = generator.generateKeyPair(algorithm);
+        String jcaAlgorithm = algorithm.startsWith("RSA") ? "SHA256withRSA" : "SHA256withECDSA";
+        PKCS10CertificationRequest csr = new JcaPKCS10CertificationRequestBuilder(SUBJECT, keyPair.getPublic())
+            .build(new JcaContentSignerBuilder(jcaAlgorithm).build(keyPair.getPrivate()));
+        String base64 = Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(csr.getEncoded());
+        return "-----BEGIN CERTIFICATE REQUEST-----\n" + base64 + "\n-----END CERTIFICATE REQUEST-----";
+    }
+
+    /**
+     * 指定条目数的吊销列表, 序列号为十六进制字符串
+     */
+    static List<RevokedCertificate> revokedCertificates(int count) {
+        List<RevokedCertificate> revoked = new ArrayList<>(count);
+        LocalDateTime revocationDate = LocalDateTime.now().minusDays(1);
+        RevocationReason[] reasons = RevocationReason.values();
+        for (int i = 0; i < count; i++) {
+            revoked.add(new RevokedCertificate(BigInteger.valueOf(1_000_000L + i).toString(16),
+                revocationDate, reasons[i % reasons.length]));
+        }
+        return revoked;
+    }
+}
@@ -0,0 +1,68 @@
+package org.wyman.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BouncyCastleCertificateGenerator.generateCertificate: 各CA签名算法下经典证书与混合证书(ML-DSA备用签名)的签发吞吐
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CertificateGenerationBenchmark {
+
+    @Param({"ECDSA_P256", "RSA2048", "SM2", "ML-DSA-65"})
+    public String algorithm;
+
+    @Param({"classical", "hybrid"})
+    public String mode;
+
+    private BouncyCastleCertificateGenerator generator;
+    private KeyPair caKeyPair;
+    private KeyPair subjectKeyPair;
+    private KeyPair altKeyPair;
+    private Date notBefore;
+    private Date notAfter;
+    private final AtomicLong serial = new AtomicLong(1_000_000L);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        generator = BenchmarkFixtures.newGenerator();
+        caKeyPair = generator.generateKeyPair(algorithm);
+        subjectKeyPair = generator.generateKeyPair("ECDSA_P256");
+        altKeyPair = generator.generateKeyPair(BenchmarkFixtures.ALT_SIGNATURE_ALGORITHM);
+        notBefore = new Date();
+        notAfter = new Date(notBefore.getTime() + 365L * 24 * 3600 * 1000);
+    }
+
+    @Benchmark
+    public X509Certificate generateCertificate() throws Exception {
+        HybridCertificateRequestContext context = "hybrid".equals(mode)
+            ? BenchmarkFixtures.hybridContext(altKeyPair.getPrivate()) : null;
+        return generator.generateCertificate(BenchmarkFixtures.ISSUER, BenchmarkFixtures.SUBJECT,
+            subjectKeyPair.getPublic(), caKeyPair.getPrivate(), notBefore, notAfter,
+            BigInteger.valueOf(serial.incrementAndGet()), algorithm, BenchmarkFixtures.CRL_DISTRIBUTION_POINT, context);
+    }
+}
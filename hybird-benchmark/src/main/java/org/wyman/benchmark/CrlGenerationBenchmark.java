@@ -0,0 +1,72 @@
+package org.wyman.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.cert.X509CRL;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BouncyCastleCertificateGenerator.generateCRL: 1k/100k/1M吊销条目的单次生成耗时;
+ * streamingCRL为流式编码(含读完DER流, 模拟上传)的对照
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CrlGenerationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private BouncyCastleCertificateGenerator generator;
+    private KeyPair caKeyPair;
+    private List<RevokedCertificate> revokedCertificates;
+    private Date thisUpdate;
+    private Date nextUpdate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        generator = BenchmarkFixtures.newGenerator();
+        caKeyPair = generator.generateKeyPair("ECDSA_P256");
+        revokedCertificates = BenchmarkFixtures.revokedCertificates(entries);
+        thisUpdate = new Date();
+        nextUpdate = new Date(thisUpdate.getTime() + 7L * 24 * 3600 * 1000);
+    }
+
+    @Benchmark
+    public X509CRL generateCRL() throws Exception {
+        return generator.generateCRL(BenchmarkFixtures.ISSUER, caKeyPair.getPrivate(), thisUpdate, nextUpdate,
+            BigInteger.ONE, "ECDSA_P256", revokedCertificates);
+    }
+
+    @Benchmark
+    public long streamingCRL() throws Exception {
+        try (StreamedCRL crl = generator.generateStreamingCRL(BenchmarkFixtures.ISSUER, caKeyPair.getPrivate(),
+                thisUpdate, nextUpdate, BigInteger.ONE, "ECDSA_P256", revokedCertificates::forEach, null, null, null);
+             InputStream in = crl.openStream()) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.wyman.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wyman.domain.authentication.valobj.CertificateSigningRequest;
+import org.wyman.infrastructure.adapter.port.MockCSRParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MockCSRParser.parsePEM: PEM解码、PKCS#10解析与CSR自签名验证
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsrParseBenchmark {
+
+    @Param({"ECDSA_P256", "RSA2048"})
+    public String algorithm;
+
+    private MockCSRParser parser;
+    private String csrPem;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        parser = new MockCSRParser();
+        csrPem = BenchmarkFixtures.csrPem(BenchmarkFixtures.newGenerator(), algorithm);
+        if (!parser.parsePEM(csrPem).isSignatureValid()) {
+            throw new IllegalStateException("基准CSR签名无效: " + algorithm);
+        }
+    }
+
+    @Benchmark
+    public CertificateSigningRequest parsePEM() {
+        return parser.parsePEM(csrPem);
+    }
+}
@@ -0,0 +1,71 @@
+package org.wyman.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.infrastructure.crypto.BatchMerkleTree;
+import org.wyman.infrastructure.crypto.HybridMerkleTree;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merkle根计算: 单证书混合扩展树(4叶子)与批量备用签名树(按批次大小)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MerkleRootBenchmark {
+
+    /**
+     * ML-DSA-65签名值长度
+     */
+    private static final int ALT_SIGNATURE_LENGTH = 3309;
+
+    @Param({"16", "256", "4096"})
+    public int batchSize;
+
+    private HybridCertificateRequestContext context;
+    private byte[] altSignatureValue;
+    private List<byte[]> leafHashes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecureRandom random = new SecureRandom();
+        altSignatureValue = new byte[ALT_SIGNATURE_LENGTH];
+        random.nextBytes(altSignatureValue);
+        context = BenchmarkFixtures.hybridContext(null);
+
+        leafHashes = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            byte[] preTbs = new byte[512];
+            random.nextBytes(preTbs);
+            leafHashes.add(BatchMerkleTree.leafHash(preTbs));
+        }
+    }
+
+    @Benchmark
+    public byte[] hybridCertificateRoot() {
+        return HybridMerkleTree.of(context, altSignatureValue).root();
+    }
+
+    @Benchmark
+    public byte[] batchRoot() {
+        return new BatchMerkleTree(leafHashes).root();
+    }
+}
@@ -0,0 +1,66 @@
+package org.wyman.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BouncyCastleCertificateGenerator.toPEM: 混合证书与1000条目CRL的PEM编码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PemEncodingBenchmark {
+
+    private static final int CRL_ENTRIES = 1000;
+
+    private BouncyCastleCertificateGenerator generator;
+    private X509Certificate certificate;
+    private X509CRL crl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        generator = BenchmarkFixtures.newGenerator();
+        KeyPair caKeyPair = generator.generateKeyPair("ECDSA_P256");
+        KeyPair subjectKeyPair = generator.generateKeyPair("ECDSA_P256");
+        KeyPair altKeyPair = generator.generateKeyPair(BenchmarkFixtures.ALT_SIGNATURE_ALGORITHM);
+        Date notBefore = new Date();
+        Date notAfter = new Date(notBefore.getTime() + 365L * 24 * 3600 * 1000);
+
+        certificate = generator.generateCertificate(BenchmarkFixtures.ISSUER, BenchmarkFixtures.SUBJECT,
+            subjectKeyPair.getPublic(), caKeyPair.getPrivate(), notBefore, notAfter, BigInteger.TEN, "ECDSA_P256",
+            BenchmarkFixtures.CRL_DISTRIBUTION_POINT, BenchmarkFixtures.hybridContext(altKeyPair.getPrivate()));
+        crl = generator.generateCRL(BenchmarkFixtures.ISSUER, caKeyPair.getPrivate(), notBefore,
+            new Date(notBefore.getTime() + 7L * 24 * 3600 * 1000), BigInteger.ONE, "ECDSA_P256",
+            BenchmarkFixtures.revokedCertificates(CRL_ENTRIES));
+    }
+
+    @Benchmark
+    public String certificateToPEM() {
+        return generator.toPEM(certificate);
+    }
+
+    @Benchmark
+    public String crlToPEM() {
+        return generator.toPEM(crl);
+    }
+}
@@ -0,0 +1,158 @@
+package org.wyman.benchmark;
+
+import org.bouncycastle.jcajce.SecretKeyWithEncapsulation;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wyman.infrastructure.crypto.PostQuantumAlgorithms;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 后量子算法: ML-DSA密钥生成/签名/验签、ML-KEM密钥生成/封装/解封装每秒次数,
+ * 以RSA-3072(签名)与RSA-3072-OAEP包装AES密钥(密钥封装)为原占位实现的对照
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PostQuantumAlgorithmBenchmark {
+
+    private static final String RSA_3072 = "RSA-3072";
+    private static final String RSA_3072_OAEP = "RSA-3072-OAEP";
+    private static final String OAEP_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+
+    @Benchmark
+    public KeyPair signatureKeyGen(Signer signer) throws Exception {
+        return signer.generateKeyPair();
+    }
+
+    @Benchmark
+    public byte[] sign(Signer signer) throws Exception {
+        signer.signer.update(signer.message);
+        return signer.signer.sign();
+    }
+
+    @Benchmark
+    public boolean verify(Signer signer) throws Exception {
+        signer.verifier.update(signer.message);
+        return signer.verifier.verify(signer.signatureValue);
+    }
+
+    @Benchmark
+    public KeyPair kemKeyGen(Kem kem) throws Exception {
+        return kem.generateKeyPair();
+    }
+
+    @Benchmark
+    public Object encapsulate(Kem kem) throws Exception {
+        if (kem.wrapCipher != null) {
+            return kem.wrapCipher.wrap(kem.contentKey);
+        }
+        return PostQuantumAlgorithms.encapsulate(kem.keyPair.getPublic());
+    }
+
+    @Benchmark
+    public Object decapsulate(Kem kem) throws Exception {
+        if (kem.unwrapCipher != null) {
+            return kem.unwrapCipher.unwrap(kem.encapsulation, "AES", Cipher.SECRET_KEY);
+        }
+        return PostQuantumAlgorithms.decapsulate(kem.keyPair.getPrivate(), kem.encapsulation);
+    }
+
+    /**
+     * 签名算法, 对1KB消息签名与验签
+     */
+    @State(Scope.Thread)
+    public static class Signer {
+
+        @Param({RSA_3072, "ML-DSA-44", "ML-DSA-65", "ML-DSA-87"})
+        public String algorithm;
+
+        private byte[] message;
+        private Signature signer;
+        private Signature verifier;
+        private byte[] signatureValue;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            String jcaName = PostQuantumAlgorithms.isSignature(algorithm)
+                ? PostQuantumAlgorithms.jcaSignatureName(algorithm) : "SHA256withRSA";
+            KeyPair keyPair = generateKeyPair();
+            message = new byte[1024];
+            new SecureRandom().nextBytes(message);
+            signer = Signature.getInstance(jcaName, BouncyCastleProvider.PROVIDER_NAME);
+            signer.initSign(keyPair.getPrivate());
+            signer.update(message);
+            signatureValue = signer.sign();
+            verifier = Signature.getInstance(jcaName, BouncyCastleProvider.PROVIDER_NAME);
+            verifier.initVerify(keyPair.getPublic());
+        }
+
+        KeyPair generateKeyPair() throws Exception {
+            return RSA_3072.equals(algorithm) ? rsa3072() : PostQuantumAlgorithms.generateKeyPair(algorithm);
+        }
+    }
+
+    /**
+     * 密钥封装算法; RSA-3072-OAEP以包装/解包AES-256内容密钥作为封装/解封装
+     */
+    @State(Scope.Thread)
+    public static class Kem {
+
+        @Param({RSA_3072_OAEP, "ML-KEM-512", "ML-KEM-768", "ML-KEM-1024"})
+        public String kemAlgorithm;
+
+        private KeyPair keyPair;
+        private byte[] encapsulation;
+        private SecretKey contentKey;
+        private Cipher wrapCipher;
+        private Cipher unwrapCipher;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            keyPair = generateKeyPair();
+            if (RSA_3072_OAEP.equals(kemAlgorithm)) {
+                KeyGenerator aesGenerator = KeyGenerator.getInstance("AES");
+                aesGenerator.init(256);
+                contentKey = aesGenerator.generateKey();
+                wrapCipher = Cipher.getInstance(OAEP_TRANSFORMATION);
+                wrapCipher.init(Cipher.WRAP_MODE, keyPair.getPublic());
+                encapsulation = wrapCipher.wrap(contentKey);
+                unwrapCipher = Cipher.getInstance(OAEP_TRANSFORMATION);
+                unwrapCipher.init(Cipher.UNWRAP_MODE, keyPair.getPrivate());
+            } else {
+                SecretKeyWithEncapsulation encapsulated = PostQuantumAlgorithms.encapsulate(keyPair.getPublic());
+                encapsulation = encapsulated.getEncapsulation();
+            }
+        }
+
+        KeyPair generateKeyPair() throws Exception {
+            return RSA_3072_OAEP.equals(kemAlgorithm) ? rsa3072() : PostQuantumAlgorithms.generateKeyPair(kemAlgorithm);
+        }
+    }
+
+    private static KeyPair rsa3072() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(3072);
+        return generator.generateKeyPair();
+    }
+}
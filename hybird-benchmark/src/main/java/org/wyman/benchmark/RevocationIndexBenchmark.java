@@ -0,0 +1,159 @@
+package org.wyman.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.RevocationIndex;
+import org.wyman.types.enums.RevocationReason;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 紧凑吊销索引: 100万/1000万条目下的命中与未命中查询耗时(含不带布隆过滤器的对照);
+ * legacyContainsHit为原RevocationStatusCache(字符串集合 + 详情Map)在100万条目下的对照。
+ * 构建完成后输出索引数组大小与实测堆增长
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RevocationIndexBenchmark {
+
+    /**
+     * 查询样本数, 逐次循环使用
+     */
+    private static final int PROBES = 1 << 16;
+
+    @Benchmark
+    public boolean containsHit(Index index) {
+        return index.index.contains(index.hits[index.next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean containsMiss(Index index) {
+        return index.index.contains(index.misses[index.next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean legacyContainsHit(LegacyCache legacy) {
+        return legacy.cache.isRevoked(legacy.hits[legacy.next++ & (PROBES - 1)]);
+    }
+
+    /**
+     * 紧凑吊销索引, bloomBitsPerEntry=0为不带布隆过滤器的对照
+     */
+    @State(Scope.Benchmark)
+    public static class Index {
+
+        @Param({"1000000", "10000000"})
+        public int entries;
+
+        @Param({"10", "0"})
+        public int bloomBitsPerEntry;
+
+        private RevocationIndex index;
+        private String[] hits;
+        private String[] misses;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            long before = usedHeap();
+            RevocationIndex.Builder builder = RevocationIndex.builder(entries, bloomBitsPerEntry);
+            long epochMillis = System.currentTimeMillis();
+            for (int i = 0; i < entries; i++) {
+                SplittableRandom random = new SplittableRandom(i);
+                builder.add(random.nextInt(1, 128), random.nextLong(), random.nextLong(),
+                    RevocationReason.KEY_COMPROMISE, epochMillis - i);
+            }
+            index = builder.build();
+            System.out.printf("紧凑吊销索引 %d条: 数组%dMB(实测堆增长%dMB, 每条%d字节)%n", entries,
+                index.memoryBytes() >> 20, (usedHeap() - before) >> 20, index.memoryBytes() / entries);
+
+            hits = new String[PROBES];
+            misses = new String[PROBES];
+            SplittableRandom probe = new SplittableRandom(7);
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < PROBES; i++) {
+                hits[i] = serialAt(probe.nextInt(entries));
+                misses[i] = serial(random.nextInt(128), random.nextLong(), random.nextLong());
+            }
+        }
+    }
+
+    /**
+     * 原吊销状态缓存, 只在100万条目下对照
+     */
+    @State(Scope.Benchmark)
+    public static class LegacyCache {
+
+        @Param({"1000000"})
+        public int legacyEntries;
+
+        private RevocationStatusCache cache;
+        private String[] hits;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            long before = usedHeap();
+            cache = new RevocationStatusCache("benchmark");
+            LocalDateTime revokedAt = LocalDateTime.now();
+            for (int i = 0; i < legacyEntries; i++) {
+                cache.addRevokedEntry(new RevocationStatusCache.RevocationDetail(serialAt(i), revokedAt,
+                    RevocationReason.KEY_COMPROMISE.getDesc()));
+            }
+            long bytes = usedHeap() - before;
+            System.out.printf("原吊销状态缓存 %d条: 实测堆增长%dMB(每条%d字节)%n", legacyEntries, bytes >> 20,
+                bytes / legacyEntries);
+
+            hits = new String[PROBES];
+            SplittableRandom probe = new SplittableRandom(7);
+            for (int i = 0; i < PROBES; i++) {
+                hits[i] = serialAt(probe.nextInt(legacyEntries));
+            }
+        }
+    }
+
+    /**
+     * 按序号确定性地生成与分配器同宽(约135位)的序列号: 高7位 + 两个随机long
+     */
+    private static String serialAt(int i) {
+        SplittableRandom random = new SplittableRandom(i);
+        return serial(random.nextInt(1, 128), random.nextLong(), random.nextLong());
+    }
+
+    private static String serial(int top, long high, long low) {
+        byte[] bytes = new byte[20];
+        for (int i = 0; i < 8; i++) {
+            bytes[19 - i] = (byte) (low >>> (i * 8));
+            bytes[11 - i] = (byte) (high >>> (i * 8));
+        }
+        for (int i = 0; i < 4; i++) {
+            bytes[3 - i] = (byte) (top >>> (i * 8));
+        }
+        return new BigInteger(1, bytes).toString(16);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -14,6 +14,11 @@ public interface ICertificateRepository {
      */
     void save(Certificate certificate);
 
+    /**
+     * 批量保存新签发的证书(一次批量插入)
+     */
+    void saveAll(List<Certificate> certificates);
+
     /**
      * 根据序列号查询
      */
@@ -93,6 +93,11 @@ public class Certificate {
      */
     private RevocationInfo revocationInfo;
 
+    /**
+     * CRL分区号(签发时写入对应分区的CRL分发点), 未分区时为空
+     */
+    private Integer crlPartition;
+
     /**
      * 通知策略
      */
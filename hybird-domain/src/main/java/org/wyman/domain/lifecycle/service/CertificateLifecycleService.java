@@ -1,5 +1,6 @@
 package org.wyman.domain.lifecycle.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.wyman.domain.lifecycle.adapter.port.ICertificateRepository;
 import org.wyman.domain.lifecycle.model.aggregate.Certificate;
@@ -15,9 +16,12 @@ import java.util.List;
 public class CertificateLifecycleService {
 
     private final ICertificateRepository certificateRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CertificateLifecycleService(ICertificateRepository certificateRepository) {
+    public CertificateLifecycleService(ICertificateRepository certificateRepository,
+                                       ApplicationEventPublisher eventPublisher) {
         this.certificateRepository = certificateRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -45,6 +49,8 @@ public class CertificateLifecycleService {
         }
         certificate.revoke(reason, revokedBy, comments);
         certificateRepository.save(certificate);
+        // 吊销事件驱动吊销状态与OCSP响应缓存的即时更新
+        certificate.pullDomainEvents().forEach(eventPublisher::publishEvent);
     }
 
     /**
@@ -137,6 +143,13 @@ public class CertificateLifecycleService {
         certificateRepository.save(certificate);
     }
 
+    /**
+     * 批量保存新签发的证书
+     */
+    public void saveCertificates(List<Certificate> certificates) {
+        certificateRepository.saveAll(certificates);
+    }
+
     /**
      * 为续期标记证书
      */
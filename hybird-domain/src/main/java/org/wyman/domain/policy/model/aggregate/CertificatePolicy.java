@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.wyman.domain.policy.valobj.CryptographicRule;
+import org.wyman.domain.policy.valobj.ExtensionProfile;
 import org.wyman.domain.policy.valobj.SubjectDNRule;
 import org.wyman.domain.policy.valobj.ValidityPeriodRule;
 import org.wyman.types.enums.CertificateType;
@@ -47,6 +48,11 @@ public class CertificatePolicy {
      */
     private SubjectDNRule subjectDNRule;
 
+    /**
+     * 证书扩展配置
+     */
+    private ExtensionProfile extensionProfile;
+
     /**
      * 是否启用
      */
@@ -3,10 +3,19 @@ package org.wyman.domain.policy.service;
 import org.springframework.stereotype.Service;
 import org.wyman.domain.policy.adapter.port.ICertificatePolicyRepository;
 import org.wyman.domain.policy.model.aggregate.CertificatePolicy;
+import org.wyman.domain.policy.valobj.CryptographicRule;
+import org.wyman.domain.policy.valobj.ExtensionProfile;
 import org.wyman.domain.policy.valobj.ValidityPeriodRule;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
 import org.wyman.types.enums.CertificateType;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 证书策略领域服务
@@ -16,10 +25,50 @@ public class PolicyService {
 
     private final ICertificatePolicyRepository policyRepository;
 
+    /**
+     * 按策略ID缓存的已编译证书模板及编译时的规则快照
+     */
+    private final Map<String, CachedTemplate> profileTemplates = new ConcurrentHashMap<>();
+
+    /**
+     * 模板编译序号, 使每个编译出的模板键都不相同(CA按模板键缓存CRL分区模板)
+     */
+    private final AtomicLong templateGeneration = new AtomicLong();
+
     public PolicyService(ICertificatePolicyRepository policyRepository) {
         this.policyRepository = policyRepository;
     }
 
+    /**
+     * 获取策略编译后的证书模板
+     * 以模板所用规则的不可变快照作缓存键, 逐项比较而非比较哈希; 规则对象被原地修改或策略换版后重新编译
+     */
+    public CertificateProfileTemplate getProfileTemplate(CertificatePolicy policy) {
+        ProfileRules rules = ProfileRules.of(policy);
+        CachedTemplate cached = profileTemplates.get(policy.getPolicyId());
+        if (cached != null && cached.rules().equals(rules)) {
+            return cached.template();
+        }
+        String templateKey = policy.getPolicyId() + ":" + policy.getVersion() + "#" + templateGeneration.incrementAndGet();
+        CertificateProfileTemplate compiled = compileProfileTemplate(rules, templateKey);
+        profileTemplates.put(policy.getPolicyId(), new CachedTemplate(rules, compiled));
+        return compiled;
+    }
+
+    private CertificateProfileTemplate compileProfileTemplate(ProfileRules rules, String templateKey) {
+        return CertificateProfileTemplate.builder()
+            .templateKey(templateKey)
+            .keyUsages(rules.keyUsages())
+            .extendedKeyUsages(rules.extendedKeyUsages())
+            .crlDistributionPoint(rules.crlDistributionPoint())
+            .allowedSignatureAlgorithms(rules.allowedSignatureAlgorithms())
+            .allowedKemAlgorithms(rules.allowedKemAlgorithms())
+            .minValidityDays(rules.minValidityDays())
+            .maxValidityDays(rules.maxValidityDays())
+            .requireHybridSignature(rules.requireHybridSignature())
+            .build();
+    }
+
     /**
      * 获取证书类型的策略
      */
@@ -201,4 +250,42 @@ public class PolicyService {
             disablePolicy(policyId);
         }
     }
+
+    private record CachedTemplate(ProfileRules rules, CertificateProfileTemplate template) {
+    }
+
+    /**
+     * 编译证书模板用到的策略规则(不可变副本)
+     */
+    private record ProfileRules(String version,
+                                List<String> keyUsages,
+                                List<String> extendedKeyUsages,
+                                String crlDistributionPoint,
+                                List<String> allowedSignatureAlgorithms,
+                                List<String> allowedKemAlgorithms,
+                                Integer minValidityDays,
+                                Integer maxValidityDays,
+                                boolean requireHybridSignature) {
+
+        static ProfileRules of(CertificatePolicy policy) {
+            CryptographicRule cryptoRule = policy.getCryptographicRule();
+            ValidityPeriodRule validityRule = policy.getValidityPeriodRule();
+            ExtensionProfile profile = policy.getExtensionProfile() != null
+                ? policy.getExtensionProfile() : new ExtensionProfile();
+            return new ProfileRules(
+                policy.getVersion(),
+                copy(profile.getKeyUsages()),
+                copy(profile.getExtendedKeyUsages()),
+                profile.getCrlDistributionPoint(),
+                cryptoRule != null ? copy(cryptoRule.getAllowedSignatureAlgorithms()) : null,
+                cryptoRule != null ? copy(cryptoRule.getAllowedKeyEncapsulationAlgorithms()) : null,
+                validityRule != null ? validityRule.getMinDays() : null,
+                validityRule != null ? validityRule.getMaxDays() : null,
+                policy.requiresHybridSignature());
+        }
+
+        private static List<String> copy(List<String> values) {
+            return values != null ? Collections.unmodifiableList(new ArrayList<>(values)) : null;
+        }
+    }
 }
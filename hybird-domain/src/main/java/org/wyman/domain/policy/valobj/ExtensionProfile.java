@@ -0,0 +1,32 @@
+package org.wyman.domain.policy.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 证书扩展配置值对象
+ * 描述某类证书固定不变的扩展项, 由策略编译为预编码的证书模板
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtensionProfile {
+    /**
+     * 密钥用法(digitalSignature、keyEncipherment等)
+     */
+    private List<String> keyUsages = new ArrayList<>(List.of("digitalSignature", "keyEncipherment"));
+
+    /**
+     * 扩展密钥用法(serverAuth、clientAuth等名称或OID), 为空时不添加该扩展
+     */
+    private List<String> extendedKeyUsages = new ArrayList<>();
+
+    /**
+     * CRL分发点URL, 为空时不添加该扩展
+     */
+    private String crlDistributionPoint = "http://crl.example.com/ca.crl";
+}
@@ -0,0 +1,18 @@
+package org.wyman.domain.signing.adapter.port;
+
+import org.wyman.domain.signing.valobj.CRLBaseState;
+
+/**
+ * 基础CRL状态仓储接口(记录各CA已并入基础CRL的吊销范围)
+ */
+public interface ICRLBaseStateRepository {
+    /**
+     * 查询CA当前基础CRL状态, 尚未生成基础CRL时返回null
+     */
+    CRLBaseState findByCaId(String caId);
+
+    /**
+     * 保存(新增或覆盖)CA的基础CRL状态
+     */
+    void save(CRLBaseState state);
+}
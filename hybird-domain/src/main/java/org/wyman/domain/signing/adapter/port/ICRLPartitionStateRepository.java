@@ -0,0 +1,20 @@
+package org.wyman.domain.signing.adapter.port;
+
+import org.wyman.domain.signing.valobj.CRLPartitionState;
+
+import java.util.List;
+
+/**
+ * CRL分区发布状态仓储接口
+ */
+public interface ICRLPartitionStateRepository {
+    /**
+     * 查询CA各分区最近一次发布的状态
+     */
+    List<CRLPartitionState> findByCaId(String caId);
+
+    /**
+     * 保存(新增或覆盖)分区状态
+     */
+    void save(CRLPartitionState state);
+}
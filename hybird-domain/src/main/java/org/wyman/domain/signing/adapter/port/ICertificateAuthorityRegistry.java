@@ -0,0 +1,43 @@
+package org.wyman.domain.signing.adapter.port;
+
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+
+import java.util.List;
+
+/**
+ * CA注册表接口
+ * 在内存中持有已加载的CA聚合根, 签发热路径只查注册表不访问CA表
+ */
+public interface ICertificateAuthorityRegistry {
+    /**
+     * 根据CA名称获取
+     */
+    CertificateAuthority getByName(String caName);
+
+    /**
+     * 根据CA ID获取
+     */
+    CertificateAuthority getById(String caId);
+
+    /**
+     * 获取全部已加载的CA
+     */
+    List<CertificateAuthority> getAll();
+
+    /**
+     * 按OCSP CertID的颁发者名称哈希与公钥哈希查找已启用的CA, 找不到或哈希算法不支持时返回null
+     *
+     * @param hashAlgorithm CertID哈希算法OID
+     */
+    CertificateAuthority getByIssuerHash(String hashAlgorithm, byte[] issuerNameHash, byte[] issuerKeyHash);
+
+    /**
+     * 注册或替换CA(创建CA后调用)
+     */
+    void register(CertificateAuthority ca);
+
+    /**
+     * 使指定CA失效并从仓储重新加载(激活/停用/吊销后调用)
+     */
+    void invalidate(String caId);
+}
@@ -1,8 +1,10 @@
 package org.wyman.domain.signing.adapter.port;
 
 import org.bouncycastle.asn1.x500.X500Name;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
 import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
 import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
 
 import java.math.BigInteger;
 import java.security.*;
@@ -10,6 +12,7 @@ import java.security.cert.X509CRL;
 import java.security.cert.X509Certificate;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 证书生成器接口(Domain层定义)
@@ -37,6 +40,22 @@ public interface ICertificateGenerator {
             HybridCertificateRequestContext hybridContext
     ) throws Exception;
 
+    /**
+     * 按证书模板生成X.509证书, 模板中的预编码扩展直接写入, 仅补充逐证书字段
+     */
+    X509Certificate generateCertificate(
+            X500Name issuer,
+            X500Name subject,
+            PublicKey publicKey,
+            PrivateKey issuerPrivateKey,
+            Date notBefore,
+            Date notAfter,
+            BigInteger serialNumber,
+            String signatureAlgorithm,
+            CertificateProfileTemplate profile,
+            HybridCertificateRequestContext hybridContext
+    ) throws Exception;
+
     /**
      * 生成CA证书(自签名)
      */
@@ -63,6 +82,44 @@ public interface ICertificateGenerator {
             List<RevokedCertificate> revokedCerts
     ) throws Exception;
 
+    /**
+     * 生成基础或增量CRL
+     * baseCrlNumber非空时为增量CRL(写入关键的deltaCRLIndicator扩展);
+     * freshestCrlUrl非空时写入freshestCRL扩展, 指向对应的增量CRL
+     */
+    X509CRL generateCRL(
+            X500Name issuer,
+            PrivateKey issuerPrivateKey,
+            Date thisUpdate,
+            Date nextUpdate,
+            BigInteger crlNumber,
+            String signatureAlgorithm,
+            List<RevokedCertificate> revokedCerts,
+            BigInteger baseCrlNumber,
+            String freshestCrlUrl
+    ) throws Exception;
+
+    /**
+     * 流式生成完整或基础CRL(DER编码)
+     * 条目由entrySource逐条推送并立即编码写入临时文件, 内存占用与条目数无关;
+     * baseCrlNumber/freshestCrlUrl含义同{@link #generateCRL(X500Name, PrivateKey, Date, Date, BigInteger, String, List, BigInteger, String)}
+     *
+     * @param entrySource                接收条目消费者并依次推送全部条目, 例如数据库游标扫描
+     * @param issuingDistributionPointUrl 非空时写入关键的issuingDistributionPoint扩展(RFC 5280 5.2.5), 用于分区CRL
+     */
+    StreamedCRL generateStreamingCRL(
+            X500Name issuer,
+            PrivateKey issuerPrivateKey,
+            Date thisUpdate,
+            Date nextUpdate,
+            BigInteger crlNumber,
+            String signatureAlgorithm,
+            Consumer<Consumer<RevokedCertificate>> entrySource,
+            BigInteger baseCrlNumber,
+            String freshestCrlUrl,
+            String issuingDistributionPointUrl
+    ) throws Exception;
+
     /**
      * 转换证书为PEM格式
      */
@@ -0,0 +1,14 @@
+package org.wyman.domain.signing.adapter.port;
+
+import java.security.KeyPair;
+
+/**
+ * 密钥对池接口
+ * 预先生成密钥对, 取出即移除, 同一密钥对不会被发放两次
+ */
+public interface IKeyPairPool {
+    /**
+     * 取出一个指定算法的密钥对; 池为空时同步生成
+     */
+    KeyPair take(String algorithm) throws Exception;
+}
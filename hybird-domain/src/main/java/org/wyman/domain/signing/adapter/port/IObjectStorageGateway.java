@@ -1,7 +1,14 @@
 package org.wyman.domain.signing.adapter.port;
 
+import org.wyman.types.enums.CRLType;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
- * 对象存储网关接口(用于存储CRL)
+ * 对象存储网关接口(用于存储CRL和混合证书sidecar)
  */
 public interface IObjectStorageGateway {
     /**
@@ -9,6 +16,35 @@ public interface IObjectStorageGateway {
      */
     String uploadCRL(String crlNumber, String crlPem);
 
+    /**
+     * CA基础/增量CRL的固定访问URL, 每次发布覆盖同一对象
+     * 增量CRL的URL在基础CRL签名前写入其freshestCRL扩展, 因此需可预先确定
+     */
+    String crlUrl(String caName, CRLType crlType);
+
+    /**
+     * 上传CA的基础/增量CRL到固定对象, 返回访问URL
+     */
+    String uploadCRL(String caName, CRLType crlType, String crlNumber, String crlPem);
+
+    /**
+     * 以流的方式上传CA的CRL(DER编码)到固定对象, 返回访问URL
+     * 内容边读边传, 不在内存中整体缓冲
+     *
+     * @param length 流的总字节数
+     */
+    String uploadCRL(String caName, CRLType crlType, String crlNumber, InputStream derStream, long length);
+
+    /**
+     * CA分区CRL的固定访问URL, 签发证书时写入CRL分发点, 因此需可预先确定
+     */
+    String partitionCrlUrl(String caName, int partition);
+
+    /**
+     * 以流的方式上传CA的分区CRL(DER编码)到固定对象, 返回访问URL
+     */
+    String uploadPartitionCRL(String caName, int partition, String crlNumber, InputStream derStream, long length);
+
     /**
      * 下载CRL
      */
@@ -18,4 +54,29 @@ public interface IObjectStorageGateway {
      * 删除CRL
      */
     void deleteCRL(String crlUrl);
+
+    /**
+     * 上传混合证书sidecar(JSON), 返回访问URL
+     */
+    String uploadSidecar(String serialNumber, String sidecarJson);
+
+    /**
+     * 批量上传混合证书sidecar(序列号 -> JSON), 返回上传失败的序列号
+     */
+    default List<String> uploadSidecars(Map<String, String> sidecars) {
+        List<String> failed = new ArrayList<>();
+        sidecars.forEach((serialNumber, sidecarJson) -> {
+            try {
+                uploadSidecar(serialNumber, sidecarJson);
+            } catch (RuntimeException e) {
+                failed.add(serialNumber);
+            }
+        });
+        return failed;
+    }
+
+    /**
+     * 下载混合证书sidecar, 不存在时返回null
+     */
+    String downloadSidecar(String serialNumber);
 }
@@ -17,6 +17,16 @@ public interface IPrivateKeyProvider {
      */
     PrivateKey getAltSigningPrivateKey(String algorithm);
 
+    /**
+     * 获取指定CA的备用/PQ签名私钥, 各CA的备用密钥相互独立
+     */
+    PrivateKey getAltSigningPrivateKey(String caId, String algorithm);
+
+    /**
+     * 获取指定CA的备用/PQ签名公钥, 供验证方校验该CA签发证书的备用签名
+     */
+    PublicKey getAltPublicKey(String caId, String algorithm);
+
     /**
      * 获取对应的公钥
      */
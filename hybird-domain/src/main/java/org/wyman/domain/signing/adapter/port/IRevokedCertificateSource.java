@@ -0,0 +1,51 @@
+package org.wyman.domain.signing.adapter.port;
+
+import org.wyman.domain.signing.valobj.RevocationSummary;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 吊销条目数据源(用于流式生成CRL)
+ */
+public interface IRevokedCertificateSource {
+    /**
+     * 按颁发者逐条读取吊销条目(数据库游标), 条目读出即回调, 不在内存中累积
+     *
+     * @param issuerDN 颁发者DN(RFC 2253格式, 与CA证书主题一致)
+     */
+    void scan(String issuerDN, Consumer<RevokedCertificate> consumer);
+
+    /**
+     * 按颁发者查询吊销时间不早于since的吊销条目(用于增量CRL), 只取序列号、吊销时间与原因
+     *
+     * @param since 吊销时间下界(含), 为空时返回颁发者的全部吊销条目
+     */
+    List<RevokedCertificate> findRevokedSince(String issuerDN, LocalDateTime since);
+
+    /**
+     * 逐条读取未分区证书(签发时CA尚未启用CRL分区)的吊销条目;
+     * 启用分区的CA的完整/基础CRL只收录这部分, 分区证书只出现在所属分区CRL中
+     */
+    void scanUnpartitioned(String issuerDN, Consumer<RevokedCertificate> consumer);
+
+    /**
+     * 同{@link #findRevokedSince}, 只含未分区证书(用于启用分区的CA的增量CRL)
+     */
+    List<RevokedCertificate> findUnpartitionedRevokedSince(String issuerDN, LocalDateTime since);
+
+    /**
+     * 逐条读取某一CRL分区的吊销条目
+     */
+    void scan(String issuerDN, int partition, Consumer<RevokedCertificate> consumer);
+
+    /**
+     * 按CRL分区汇总吊销条目数与最晚吊销时间(用于判断分区是否有新吊销), 未分区的证书不计入
+     *
+     * @return 分区号到汇总的映射, 没有吊销条目的分区不出现
+     */
+    Map<Integer, RevocationSummary> summarizeByPartition(String issuerDN);
+}
@@ -0,0 +1,12 @@
+package org.wyman.domain.signing.adapter.port;
+
+/**
+ * 持久化单调序列分配器接口
+ * 用于CRL编号等需要跨重启、跨节点不回退且不重复的计数器
+ */
+public interface ISequenceAllocator {
+    /**
+     * 分配指定序列的下一个值(从1开始)
+     */
+    long next(String sequenceName);
+}
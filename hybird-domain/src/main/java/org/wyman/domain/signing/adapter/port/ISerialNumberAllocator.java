@@ -0,0 +1,14 @@
+package org.wyman.domain.signing.adapter.port;
+
+import java.math.BigInteger;
+
+/**
+ * 证书序列号分配器接口
+ * 实现需保证并发及多节点下序列号唯一, 且满足RFC 5280要求(正整数, 不超过20字节)
+ */
+public interface ISerialNumberAllocator {
+    /**
+     * 分配下一个证书序列号
+     */
+    BigInteger nextSerialNumber();
+}
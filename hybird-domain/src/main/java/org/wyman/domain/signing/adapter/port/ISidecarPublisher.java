@@ -0,0 +1,26 @@
+package org.wyman.domain.signing.adapter.port;
+
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+
+/**
+ * 混合证书sidecar发布接口
+ * 发布后立即可本地读取(签名与上传均在后台进行), 上传成功前不会丢弃; 积压达到上限时转存本地, 发布调用不阻塞
+ */
+public interface ISidecarPublisher {
+    /**
+     * 生成并发布sidecar
+     *
+     * @param serialNumber 证书序列号(十六进制)
+     * @param hybridContext 签发完成后的混合证书上下文(含Merkle根与替代签名值)
+     * @param signingCertificate 签发该证书的CA证书(sidecar以其私钥签名)
+     * @param signatureAlgorithm CA签发该证书使用的签名算法
+     */
+    void publish(String serialNumber, HybridCertificateRequestContext hybridContext,
+                 Certificate signingCertificate, String signatureAlgorithm);
+
+    /**
+     * 获取sidecar(JSON), 不存在时返回null
+     */
+    String getSidecar(String serialNumber);
+}
@@ -5,14 +5,24 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.wyman.domain.signing.adapter.port.ICertificateGenerator;
 import org.wyman.domain.signing.adapter.port.IPrivateKeyProvider;
-import org.wyman.domain.signing.valobj.CRL;
+import org.wyman.domain.signing.adapter.port.ISequenceAllocator;
+import org.wyman.domain.signing.adapter.port.ISerialNumberAllocator;
 import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.CertificateIssuanceCommand;
+import org.wyman.domain.signing.valobj.CertificateIssuanceResult;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
 import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
+import org.wyman.types.enums.CRLType;
 import org.wyman.types.event.CRLIssuedEvent;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * 证书颁发机构聚合根
@@ -21,6 +31,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class CertificateAuthority {
+    /**
+     * 未指定证书模板时的CRL分发点
+     */
+    private static final String DEFAULT_CRL_DISTRIBUTION_POINT = "http://crl.example.com/ca.crl";
+
     /**
      * CA ID
      */
@@ -37,7 +52,7 @@ public class CertificateAuthority {
     private Certificate caCertificate;
 
     /**
-     * 下一次CRL编号
+     * 下一次CRL编号(未注入序列分配器时使用的内存计数)
      */
     private long nextCrlNumber;
 
@@ -51,11 +66,72 @@ public class CertificateAuthority {
      */
     private boolean enabled = true;
 
+    /**
+     * 混合证书备用签名算法(如ML-DSA-65), 为空时沿用申请指定的算法
+     */
+    private String altSignatureAlgorithm;
+
+    /**
+     * CRL分区数, 大于0时新签发证书按序列号分配到分区并写入分区CRL分发点, 0表示不分区
+     * 已签发证书的分区号写入证书, 调整分区数只影响之后签发的证书
+     */
+    private int crlPartitionCount;
+
     /**
      * 证书生成器(通过依赖注入)
      */
     private transient ICertificateGenerator certificateGenerator;
 
+    /**
+     * 序列号分配器(通过依赖注入)
+     */
+    private transient ISerialNumberAllocator serialNumberAllocator;
+
+    /**
+     * CRL编号序列分配器(通过依赖注入)
+     */
+    private transient ISequenceAllocator crlNumberAllocator;
+
+    /**
+     * 分区CRL访问URL解析(通过依赖注入)
+     */
+    private transient java.util.function.IntFunction<String> crlPartitionUrlResolver;
+
+    /**
+     * 按分区缓存的CRL分发点URL
+     */
+    private transient Map<Integer, String> crlPartitionUrls = new ConcurrentHashMap<>();
+
+    /**
+     * 按模板与分区缓存的替换了CRL分发点的证书模板
+     */
+    private transient Map<String, CertificateProfileTemplate> partitionProfiles = new ConcurrentHashMap<>();
+
+    /**
+     * 已解析的CA证书(由CA注册表加载时填充, 可能为空)
+     */
+    private transient java.security.cert.X509Certificate caX509Certificate;
+
+    /**
+     * 颁发者DN(首次使用时解析后缓存)
+     */
+    private transient volatile org.bouncycastle.asn1.x500.X500Name issuerX500Name;
+
+    /**
+     * 按签名算法缓存的CA私钥句柄
+     */
+    private transient Map<String, java.security.PrivateKey> signingKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 按签名算法缓存的替代签名私钥句柄
+     */
+    private transient Map<String, java.security.PrivateKey> altSigningKeys = new ConcurrentHashMap<>();
+
+    /**
+     * CRL发布锁, 同一CA的各请求副本共享, 注册表重载时也由新实例沿用, 串行化同一CA的CRL生成
+     */
+    private transient Object crlLock = new Object();
+
     /**
      * 领域事件集合
      */
@@ -69,10 +145,97 @@ public class CertificateAuthority {
         this.createTime = LocalDateTime.now();
     }
 
+    /**
+     * 请求副本: 复制全部持久化字段, 共享已解析的CA证书、颁发者DN、私钥句柄、模板缓存与CRL发布锁;
+     * 注入的依赖与领域事件不复制, 由使用方按请求设置, 请求结束后随副本回收
+     */
+    public CertificateAuthority copy() {
+        CertificateAuthority copy = new CertificateAuthority();
+        copy.caId = this.caId;
+        copy.caName = this.caName;
+        copy.caCertificate = this.caCertificate;
+        copy.nextCrlNumber = this.nextCrlNumber;
+        copy.createTime = this.createTime;
+        copy.enabled = this.enabled;
+        copy.altSignatureAlgorithm = this.altSignatureAlgorithm;
+        copy.crlPartitionCount = this.crlPartitionCount;
+        copy.crlPartitionUrls = this.crlPartitionUrls;
+        copy.partitionProfiles = this.partitionProfiles;
+        copy.caX509Certificate = this.caX509Certificate;
+        copy.issuerX500Name = this.issuerX500Name;
+        copy.signingKeys = this.signingKeys;
+        copy.altSigningKeys = this.altSigningKeys;
+        copy.crlLock = this.crlLock;
+        return copy;
+    }
+
+    /**
+     * 沿用同一CA旧实例的CRL发布锁, 注册表以变更后的聚合根替换旧实例时调用, 使进行中的CRL发布与新请求仍互斥
+     */
+    public void inheritCrlLock(CertificateAuthority previous) {
+        this.crlLock = previous.crlLock;
+    }
+
     public void setCertificateGenerator(ICertificateGenerator certificateGenerator) {
         this.certificateGenerator = certificateGenerator;
     }
 
+    public void setSerialNumberAllocator(ISerialNumberAllocator serialNumberAllocator) {
+        this.serialNumberAllocator = serialNumberAllocator;
+    }
+
+    public void setCaCertificate(Certificate caCertificate) {
+        this.caCertificate = caCertificate;
+        this.issuerX500Name = null;
+    }
+
+    public void setCrlNumberAllocator(ISequenceAllocator crlNumberAllocator) {
+        this.crlNumberAllocator = crlNumberAllocator;
+    }
+
+    public void setCrlPartitionUrlResolver(java.util.function.IntFunction<String> crlPartitionUrlResolver) {
+        this.crlPartitionUrlResolver = crlPartitionUrlResolver;
+    }
+
+    /**
+     * 证书所属的CRL分区: 序列号低64位为CSPRNG随机数, 取模即均匀分布
+     */
+    public int crlPartitionOf(java.math.BigInteger serialNumber) {
+        return serialNumber.mod(java.math.BigInteger.valueOf(crlPartitionCount)).intValue();
+    }
+
+    /**
+     * 分区CRL的访问URL(写入证书CRL分发点与分区CRL的issuingDistributionPoint)
+     */
+    public String crlPartitionUrl(int partition) {
+        if (crlPartitionUrls == null) {
+            crlPartitionUrls = new ConcurrentHashMap<>();
+        }
+        return crlPartitionUrls.computeIfAbsent(partition, crlPartitionUrlResolver::apply);
+    }
+
+    /**
+     * 分配下一个CRL编号: 优先使用持久化序列, 保证跨重启、跨节点不回退不重复
+     */
+    private long allocateCrlNumber() {
+        if (crlNumberAllocator != null) {
+            return crlNumberAllocator.next("crl_number:" + caId);
+        }
+        return nextCrlNumber++;
+    }
+
+    /**
+     * 获取颁发者DN, 只解析一次
+     */
+    public org.bouncycastle.asn1.x500.X500Name getIssuerX500Name() {
+        org.bouncycastle.asn1.x500.X500Name name = issuerX500Name;
+        if (name == null) {
+            name = new org.bouncycastle.asn1.x500.X500Name(caCertificate.getSubjectDN());
+            issuerX500Name = name;
+        }
+        return name;
+    }
+
     /**
      * 签发证书(通过依赖注入的CertificateGenerator)
      */
@@ -84,128 +247,254 @@ public class CertificateAuthority {
                                        String kemAlgorithm,
                                        IPrivateKeyProvider keyProvider,
                                        org.wyman.domain.signing.valobj.HybridCertificateRequestContext hybridContext) {
+        return issueCertificate(subjectDN, publicKey, notBefore, notAfter, signatureAlgorithm, kemAlgorithm,
+            keyProvider, null, hybridContext);
+    }
+
+    /**
+     * 按证书模板签发证书, 模板为空时使用默认扩展
+     */
+    public Certificate issueCertificate(String subjectDN,
+                                       java.security.PublicKey publicKey,
+                                       LocalDateTime notBefore,
+                                       LocalDateTime notAfter,
+                                       String signatureAlgorithm,
+                                       String kemAlgorithm,
+                                       IPrivateKeyProvider keyProvider,
+                                       CertificateProfileTemplate profile,
+                                       org.wyman.domain.signing.valobj.HybridCertificateRequestContext hybridContext) {
         try {
-            // 获取CA私钥
-            java.security.PrivateKey caPrivateKey = keyProvider.getSigningPrivateKey(signatureAlgorithm);
-            if (hybridContext != null && hybridContext.isAltSignatureRequired()) {
-                if (hybridContext.getAltSignatureJcaName() == null) {
-                    hybridContext.setAltSignatureJcaName(signatureAlgorithm);
-                }
-                if (hybridContext.getAltSignaturePrivateKey() == null) {
-                    String altAlg = hybridContext.getAltSignatureJcaName();
-                    hybridContext.setAltSignaturePrivateKey(keyProvider.getAltSigningPrivateKey(altAlg));
+            // 获取CA私钥(按算法缓存)
+            java.security.PrivateKey caPrivateKey = signingKey(keyProvider, signatureAlgorithm);
+            prepareHybridContext(hybridContext, signatureAlgorithm, alg -> altSigningKey(keyProvider, alg));
+
+            return signCertificate(getIssuerX500Name(), caPrivateKey, subjectDN, publicKey, notBefore, notAfter,
+                signatureAlgorithm, profile, hybridContext);
+        } catch (Exception e) {
+            throw new RuntimeException("签发证书失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量签发证书
+     * CA私钥与颁发者DN复用聚合根上的缓存, 各项在executor上并行签名;
+     * 单项失败只记录在对应结果中, 不影响批次内其他证书
+     */
+    public List<CertificateIssuanceResult> issueCertificates(List<CertificateIssuanceCommand> commands,
+                                                             IPrivateKeyProvider keyProvider,
+                                                             java.util.concurrent.Executor executor) {
+        org.bouncycastle.asn1.x500.X500Name issuerX500Name = getIssuerX500Name();
+
+        List<CompletableFuture<CertificateIssuanceResult>> futures = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            final int index = i;
+            CertificateIssuanceCommand command = commands.get(i);
+            java.util.function.Supplier<CertificateIssuanceResult> task = () -> {
+                try {
+                    String signatureAlgorithm = command.getSignatureAlgorithm();
+                    java.security.PrivateKey caPrivateKey = signingKey(keyProvider, signatureAlgorithm);
+                    prepareHybridContext(command.getHybridContext(), signatureAlgorithm,
+                        alg -> altSigningKey(keyProvider, alg));
+
+                    Certificate cert = signCertificate(issuerX500Name, caPrivateKey, command.getSubjectDN(),
+                        command.getPublicKey(), command.getNotBefore(), command.getNotAfter(),
+                        signatureAlgorithm, command.getProfileTemplate(), command.getHybridContext());
+                    return CertificateIssuanceResult.success(index, cert);
+                } catch (Exception e) {
+                    return CertificateIssuanceResult.fail(index, "签发证书失败: " + e.getMessage());
                 }
+            };
+            try {
+                futures.add(CompletableFuture.supplyAsync(task, executor));
+            } catch (java.util.concurrent.RejectedExecutionException e) {
+                // 线程池饱和时在调用线程上签发
+                futures.add(CompletableFuture.completedFuture(task.get()));
             }
+        }
 
-            // 解析DN
-            org.bouncycastle.asn1.x500.X500Name issuerX500Name =
-                new org.bouncycastle.asn1.x500.X500Name(caCertificate.getSubjectDN());
-            org.bouncycastle.asn1.x500.X500Name subjectX500Name =
-                new org.bouncycastle.asn1.x500.X500Name(subjectDN);
-
-            // 转换日期
-            java.util.Date notBeforeDate = java.util.Date.from(
-                notBefore.atZone(java.time.ZoneId.systemDefault()).toInstant());
-            java.util.Date notAfterDate = java.util.Date.from(
-                notAfter.atZone(java.time.ZoneId.systemDefault()).toInstant());
-
-            // 生成序列号
-            java.math.BigInteger serialNumber = java.math.BigInteger.valueOf(System.currentTimeMillis());
-
-            // 使用依赖注入的CertificateGenerator
-            java.security.cert.X509Certificate x509Cert = certificateGenerator.generateCertificate(
-                issuerX500Name,
-                subjectX500Name,
-                publicKey,
-                caPrivateKey,
-                notBeforeDate,
-                notAfterDate,
-                serialNumber,
-                signatureAlgorithm,
-                "http://crl.example.com/ca.crl",
-                hybridContext
-            );
+        List<CertificateIssuanceResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<CertificateIssuanceResult> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
 
-            // 转换为领域模型
-            Certificate cert = new Certificate();
-            cert.setSerialNumber(serialNumber.toString(16));
-            cert.setIssuerDN(x509Cert.getIssuerX500Principal().getName());
-            cert.setSubjectDN(x509Cert.getSubjectX500Principal().getName());
-            cert.setPublicKey(publicKey);
-            cert.setNotBefore(notBefore);
-            cert.setNotAfter(notAfter);
-            cert.setSignatureAlgorithm(signatureAlgorithm);
-            cert.setCrlDistributionPoint("http://crl.example.com/ca.crl");
-            cert.setPemEncoded(certificateGenerator.toPEM(x509Cert));
-
-            if (hybridContext != null && hybridContext.isHybridEnabled()) {
-                cert.setPostQuantumPublicKeyPem(hybridContext.getPqSignaturePublicKeyPem());
-                cert.setPostQuantumKekPublicKeyPem(hybridContext.getPqKekPublicKeyPem());
-            }
+    /**
+     * 获取CA签名私钥, 同一算法只向密钥提供者获取一次
+     */
+    private java.security.PrivateKey signingKey(IPrivateKeyProvider keyProvider, String signatureAlgorithm) {
+        if (signingKeys == null) {
+            signingKeys = new ConcurrentHashMap<>();
+        }
+        return signingKeys.computeIfAbsent(signatureAlgorithm, keyProvider::getSigningPrivateKey);
+    }
 
-            return cert;
-        } catch (Exception e) {
-            throw new RuntimeException("签发证书失败: " + e.getMessage(), e);
+    /**
+     * 获取本CA的替代签名私钥, 同一算法只向密钥提供者获取一次
+     */
+    private java.security.PrivateKey altSigningKey(IPrivateKeyProvider keyProvider, String signatureAlgorithm) {
+        if (altSigningKeys == null) {
+            altSigningKeys = new ConcurrentHashMap<>();
         }
+        return altSigningKeys.computeIfAbsent(signatureAlgorithm, alg -> keyProvider.getAltSigningPrivateKey(caId, alg));
     }
 
+    /**
+     * 补全混合证书替代签名参数
+     */
+    private void prepareHybridContext(org.wyman.domain.signing.valobj.HybridCertificateRequestContext hybridContext,
+                                      String signatureAlgorithm,
+                                      java.util.function.Function<String, java.security.PrivateKey> altKeyResolver) {
+        if (hybridContext != null && hybridContext.isAltSignatureRequired()) {
+            if (altSignatureAlgorithm != null && !altSignatureAlgorithm.isBlank()) {
+                // CA配置了备用签名算法时以CA为准
+                hybridContext.setAltSignatureJcaName(altSignatureAlgorithm);
+            } else if (hybridContext.getAltSignatureJcaName() == null) {
+                hybridContext.setAltSignatureJcaName(signatureAlgorithm);
+            }
+            if (hybridContext.getAltSignaturePrivateKey() == null) {
+                String altAlg = hybridContext.getAltSignatureJcaName();
+                hybridContext.setAltSignaturePrivateKey(altKeyResolver.apply(altAlg));
+            }
+        }
+    }
 
+    /**
+     * 使用已解析的CA私钥签名并转换为领域模型
+     */
+    private Certificate signCertificate(org.bouncycastle.asn1.x500.X500Name issuerX500Name,
+                                        java.security.PrivateKey caPrivateKey,
+                                        String subjectDN,
+                                        java.security.PublicKey publicKey,
+                                        LocalDateTime notBefore,
+                                        LocalDateTime notAfter,
+                                        String signatureAlgorithm,
+                                        CertificateProfileTemplate profile,
+                                        org.wyman.domain.signing.valobj.HybridCertificateRequestContext hybridContext) throws Exception {
+        org.bouncycastle.asn1.x500.X500Name subjectX500Name =
+            new org.bouncycastle.asn1.x500.X500Name(subjectDN);
+
+        // 转换日期
+        java.util.Date notBeforeDate = java.util.Date.from(
+            notBefore.atZone(java.time.ZoneId.systemDefault()).toInstant());
+        java.util.Date notAfterDate = java.util.Date.from(
+            notAfter.atZone(java.time.ZoneId.systemDefault()).toInstant());
+
+        // 分配序列号
+        java.math.BigInteger serialNumber = serialNumberAllocator.nextSerialNumber();
+
+        // 使用依赖注入的CertificateGenerator; 有模板时只补充逐证书字段
+        String crlDistributionPoint = profile != null ? profile.getCrlDistributionPoint() : DEFAULT_CRL_DISTRIBUTION_POINT;
+        Integer crlPartition = null;
+        if (crlPartitionCount > 0 && crlPartitionUrlResolver != null) {
+            crlPartition = crlPartitionOf(serialNumber);
+            crlDistributionPoint = crlPartitionUrl(crlPartition);
+            if (profile != null) {
+                profile = partitionProfile(profile, crlPartition, crlDistributionPoint);
+            }
+        }
+        java.security.cert.X509Certificate x509Cert = profile != null
+            ? certificateGenerator.generateCertificate(issuerX500Name, subjectX500Name, publicKey, caPrivateKey,
+                notBeforeDate, notAfterDate, serialNumber, signatureAlgorithm, profile, hybridContext)
+            : certificateGenerator.generateCertificate(issuerX500Name, subjectX500Name, publicKey, caPrivateKey,
+                notBeforeDate, notAfterDate, serialNumber, signatureAlgorithm, crlDistributionPoint, hybridContext);
+
+        // 转换为领域模型
+        Certificate cert = new Certificate();
+        cert.setSerialNumber(serialNumber.toString(16));
+        cert.setIssuerDN(x509Cert.getIssuerX500Principal().getName());
+        cert.setSubjectDN(x509Cert.getSubjectX500Principal().getName());
+        cert.setPublicKey(publicKey);
+        cert.setNotBefore(notBefore);
+        cert.setNotAfter(notAfter);
+        cert.setSignatureAlgorithm(signatureAlgorithm);
+        cert.setCrlDistributionPoint(crlDistributionPoint);
+        cert.setCrlPartition(crlPartition);
+        cert.setPemEncoded(certificateGenerator.toPEM(x509Cert));
+
+        if (hybridContext != null && hybridContext.isHybridEnabled()) {
+            cert.setPostQuantumPublicKeyPem(hybridContext.getPqSignaturePublicKeyPem());
+            cert.setPostQuantumKekPublicKeyPem(hybridContext.getPqKekPublicKeyPem());
+        }
+
+        return cert;
+    }
+
+    private CertificateProfileTemplate partitionProfile(CertificateProfileTemplate profile,
+                                                        int crlPartition,
+                                                        String crlDistributionPoint) {
+        if (partitionProfiles == null) {
+            partitionProfiles = new ConcurrentHashMap<>();
+        }
+        return partitionProfiles.computeIfAbsent(profile.getTemplateKey() + "#" + crlPartition,
+            key -> profile.withCrlDistributionPoint(crlDistributionPoint));
+    }
 
     /**
-     * 生成CRL(通过依赖注入的CertificateGenerator)
+     * 流式生成完整或基础CRL: 条目由entrySource逐条推送, 不物化吊销列表, 适用于百万级条目
+     * issuingDistributionPoint非空时为分区CRL, 只覆盖分发点为该URL的证书
+     * 返回的StreamedCRL持有临时文件, 调用方上传后须关闭; 调用方须持有{@link #getCrlLock()}
      */
-    public CRL generateCRL(List<RevokedCertificate> revokedCerts,
-                          IPrivateKeyProvider keyProvider,
-                          String signatureAlgorithm) {
-        try {
-            // 获取CA私钥
-            java.security.PrivateKey caPrivateKey = keyProvider.getSigningPrivateKey(signatureAlgorithm);
+    public StreamedCRL generateStreamingCRL(CRLType crlType,
+                                            Consumer<Consumer<RevokedCertificate>> entrySource,
+                                            IPrivateKeyProvider keyProvider,
+                                            String signatureAlgorithm,
+                                            java.time.Duration validity,
+                                            String freshestCrlUrl,
+                                            String issuingDistributionPoint) {
+        if (crlType == CRLType.DELTA) {
+            throw new IllegalArgumentException("增量CRL请使用generateStreamingDeltaCRL生成");
+        }
+        return streamCRL(crlType, entrySource, keyProvider, signatureAlgorithm, validity, null, freshestCrlUrl,
+            issuingDistributionPoint);
+    }
 
-            // 解析发行者DN
-            org.bouncycastle.asn1.x500.X500Name issuerX500Name =
-                new org.bouncycastle.asn1.x500.X500Name(caCertificate.getSubjectDN());
+    /**
+     * 流式生成增量CRL: 只包含基础CRL之后的吊销条目, 关键的deltaCRLIndicator指向基础CRL编号
+     * 增量CRL与基础CRL共用同一CRL编号序列, 编号总是大于其基础CRL; 调用方须持有{@link #getCrlLock()}
+     */
+    public StreamedCRL generateStreamingDeltaCRL(Consumer<Consumer<RevokedCertificate>> entrySource,
+                                                 String baseCrlNumber,
+                                                 IPrivateKeyProvider keyProvider,
+                                                 String signatureAlgorithm,
+                                                 java.time.Duration validity) {
+        return streamCRL(CRLType.DELTA, entrySource, keyProvider, signatureAlgorithm, validity,
+            new java.math.BigInteger(baseCrlNumber), null, null);
+    }
 
-            // 转换日期
+    private StreamedCRL streamCRL(CRLType crlType,
+                                  Consumer<Consumer<RevokedCertificate>> entrySource,
+                                  IPrivateKeyProvider keyProvider,
+                                  String signatureAlgorithm,
+                                  java.time.Duration validity,
+                                  java.math.BigInteger baseCrlNumber,
+                                  String freshestCrlUrl,
+                                  String issuingDistributionPoint) {
+        try {
             java.util.Date thisUpdate = new java.util.Date();
-            java.util.Date nextUpdate = new java.util.Date(
-                System.currentTimeMillis() + 24 * 60 * 60 * 1000);
+            java.util.Date nextUpdate = new java.util.Date(thisUpdate.getTime() + validity.toMillis());
 
-            // 使用依赖注入的CertificateGenerator
-            java.security.cert.X509CRL x509CRL = certificateGenerator.generateCRL(
-                issuerX500Name,
-                caPrivateKey,
+            StreamedCRL streamedCRL = certificateGenerator.generateStreamingCRL(
+                getIssuerX500Name(),
+                signingKey(keyProvider, signatureAlgorithm),
                 thisUpdate,
                 nextUpdate,
-                java.math.BigInteger.valueOf(nextCrlNumber++),
+                java.math.BigInteger.valueOf(allocateCrlNumber()),
                 signatureAlgorithm,
-                revokedCerts
+                entrySource,
+                baseCrlNumber,
+                freshestCrlUrl,
+                issuingDistributionPoint
             );
 
-            // 获取CRL编号
-            java.math.BigInteger crlNum = certificateGenerator.getCRLNumber(x509CRL);
-
-            // 转换为领域模型
-            CRL crl = new CRL();
-            crl.setCrlNumber(crlNum.toString());
-            crl.setIssuerDN(x509CRL.getIssuerX500Principal().getName());
-            crl.setThisUpdate(LocalDateTime.ofInstant(
-                x509CRL.getThisUpdate().toInstant(), java.time.ZoneId.systemDefault()));
-            crl.setNextUpdate(LocalDateTime.ofInstant(
-                x509CRL.getNextUpdate().toInstant(), java.time.ZoneId.systemDefault()));
-            crl.setRevokedCertificates(revokedCerts);
-            crl.setSignatureAlgorithm(signatureAlgorithm);
-            crl.setPemEncoded(certificateGenerator.toPEM(x509CRL));
-
-            // 发布CRL事件
             addDomainEvent(new CRLIssuedEvent(
-                crl.getCrlNumber(),
-                "http://crl.example.com/crl-" + crl.getCrlNumber() + ".crl",
-                revokedCerts != null ? revokedCerts.size() : 0
+                streamedCRL.getCrlNumber().toString(),
+                "http://crl.example.com/crl-" + streamedCRL.getCrlNumber() + ".crl",
+                (int) streamedCRL.getEntryCount()
             ));
-
-            return crl;
+            return streamedCRL;
         } catch (Exception e) {
-            throw new RuntimeException("生成CRL失败: " + e.getMessage(), e);
+            throw new RuntimeException("生成" + crlType.getDesc() + "失败: " + e.getMessage(), e);
         }
     }
 
@@ -222,7 +511,7 @@ public class CertificateAuthority {
     /**
      * 获取并清空领域事件
      */
-    public List<Object> pullDomainEvents() {
+    public synchronized List<Object> pullDomainEvents() {
         List<Object> events = new ArrayList<>(this.domainEvents);
         this.domainEvents.clear();
         return events;
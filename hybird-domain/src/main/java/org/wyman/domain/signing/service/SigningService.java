@@ -1,17 +1,45 @@
 package org.wyman.domain.signing.service;
 
 import org.springframework.stereotype.Service;
+import org.wyman.domain.signing.adapter.port.ICRLBaseStateRepository;
+import org.wyman.domain.signing.adapter.port.ICRLPartitionStateRepository;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRegistry;
 import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRepository;
 import org.wyman.domain.signing.adapter.port.ICertificateGenerator;
+import org.wyman.domain.signing.adapter.port.IKeyPairPool;
 import org.wyman.domain.signing.adapter.port.IObjectStorageGateway;
 import org.wyman.domain.signing.adapter.port.IPrivateKeyProvider;
+import org.wyman.domain.signing.adapter.port.IRevokedCertificateSource;
+import org.wyman.domain.signing.adapter.port.ISequenceAllocator;
+import org.wyman.domain.signing.adapter.port.ISerialNumberAllocator;
+import org.wyman.domain.signing.adapter.port.ISidecarPublisher;
 import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
 import org.wyman.domain.signing.valobj.CRL;
+import org.wyman.domain.signing.valobj.CRLBaseState;
+import org.wyman.domain.signing.valobj.CRLPartitionState;
 import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.CertificateIssuanceCommand;
+import org.wyman.domain.signing.valobj.CertificateIssuanceResult;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.domain.signing.valobj.OcspResponderCredential;
+import org.wyman.domain.signing.valobj.RevocationSummary;
 import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
+import org.wyman.types.enums.CRLType;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 签名领域服务
@@ -20,22 +48,76 @@ import java.util.List;
 public class SigningService {
 
     private final ICertificateAuthorityRepository caRepository;
+    private final ICertificateAuthorityRegistry caRegistry;
     private final IObjectStorageGateway objectStorageGateway;
     private final IPrivateKeyProvider keyProvider;
     private final ICertificateGenerator certificateGenerator;
+    private final ISerialNumberAllocator serialNumberAllocator;
+    private final ISequenceAllocator sequenceAllocator;
+    private final IKeyPairPool keyPairPool;
+    private final ISidecarPublisher sidecarPublisher;
+    private final ICRLBaseStateRepository crlBaseStateRepository;
+    private final IRevokedCertificateSource revokedCertificateSource;
+    private final ICRLPartitionStateRepository crlPartitionStateRepository;
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    /**
+     * 基础CRL的增量起点相对读取开始时间的提前量
+     * 吊销时间取自update_time(语句执行时刻), 读取开始前执行、之后才提交的吊销不在基础CRL中, 须由增量CRL收录
+     */
+    private static final Duration BASE_CUTOFF_MARGIN = Duration.ofMinutes(5);
+
+    /**
+     * 单批签发的最大CSR数, 避免一个请求长时间占满签名线程池
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
 
     public SigningService(ICertificateAuthorityRepository caRepository,
+                          ICertificateAuthorityRegistry caRegistry,
                           IObjectStorageGateway objectStorageGateway,
                           IPrivateKeyProvider keyProvider,
-                          ICertificateGenerator certificateGenerator) {
+                          ICertificateGenerator certificateGenerator,
+                          ISerialNumberAllocator serialNumberAllocator,
+                          ISequenceAllocator sequenceAllocator,
+                          IKeyPairPool keyPairPool,
+                          ISidecarPublisher sidecarPublisher,
+                          ICRLBaseStateRepository crlBaseStateRepository,
+                          IRevokedCertificateSource revokedCertificateSource,
+                          ICRLPartitionStateRepository crlPartitionStateRepository,
+                          ThreadPoolExecutor threadPoolExecutor) {
         this.caRepository = caRepository;
+        this.caRegistry = caRegistry;
         this.objectStorageGateway = objectStorageGateway;
         this.keyProvider = keyProvider;
         this.certificateGenerator = certificateGenerator;
+        this.serialNumberAllocator = serialNumberAllocator;
+        this.sequenceAllocator = sequenceAllocator;
+        this.keyPairPool = keyPairPool;
+        this.sidecarPublisher = sidecarPublisher;
+        this.crlBaseStateRepository = crlBaseStateRepository;
+        this.revokedCertificateSource = revokedCertificateSource;
+        this.crlPartitionStateRepository = crlPartitionStateRepository;
+        this.threadPoolExecutor = threadPoolExecutor;
     }
 
     /**
      * 签发证书
+     * CA取自内存注册表, 签发不改变CA状态, 全程不访问CA表
+     */
+    public Certificate issueCertificate(String caName,
+                                       String subjectDN,
+                                       java.security.PublicKey publicKey,
+                                       LocalDateTime notBefore,
+                                       LocalDateTime notAfter,
+                                       String signatureAlgorithm,
+                                       String kemAlgorithm,
+                                       org.wyman.domain.signing.valobj.HybridCertificateRequestContext hybridContext) {
+        return issueCertificate(caName, subjectDN, publicKey, notBefore, notAfter, signatureAlgorithm, kemAlgorithm,
+            null, hybridContext);
+    }
+
+    /**
+     * 按证书模板签发证书
      */
     public Certificate issueCertificate(String caName,
                                        String subjectDN,
@@ -44,14 +126,17 @@ public class SigningService {
                                        LocalDateTime notAfter,
                                        String signatureAlgorithm,
                                        String kemAlgorithm,
+                                       CertificateProfileTemplate profile,
                                        org.wyman.domain.signing.valobj.HybridCertificateRequestContext hybridContext) {
-        CertificateAuthority ca = caRepository.findByName(caName);
+        CertificateAuthority ca = caRegistry.getByName(caName);
         if (ca == null) {
             throw new RuntimeException("CA不存在: " + caName);
         }
 
         // 设置certificateGenerator到聚合根
         ca.setCertificateGenerator(certificateGenerator);
+        ca.setSerialNumberAllocator(serialNumberAllocator);
+        ca.setCrlPartitionUrlResolver(partition -> objectStorageGateway.partitionCrlUrl(caName, partition));
 
         Certificate certificate = ca.issueCertificate(
             subjectDN,
@@ -61,38 +146,318 @@ public class SigningService {
             signatureAlgorithm,
             kemAlgorithm,
             keyProvider,
+            profile,
             hybridContext
         );
 
-        // 保存CA状态
-        caRepository.save(ca);
-
+        publishSidecar(ca, certificate, hybridContext);
         return certificate;
     }
 
     /**
-     * 生成CRL
+     * 批量签发证书
+     * CA取自内存注册表, 签名在线程池上并行执行, 返回逐项结果; 单批最多MAX_BATCH_SIZE项
      */
-    public CRL generateCRL(String caName,
-                           List<RevokedCertificate> revokedCerts,
-                           String signatureAlgorithm) {
-        CertificateAuthority ca = caRepository.findByName(caName);
+    public List<CertificateIssuanceResult> issueCertificates(String caName,
+                                                             List<CertificateIssuanceCommand> commands) {
+        if (commands.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("单批签发不能超过" + MAX_BATCH_SIZE + "个证书: " + commands.size());
+        }
+        CertificateAuthority ca = caRegistry.getByName(caName);
         if (ca == null) {
             throw new RuntimeException("CA不存在: " + caName);
         }
 
         // 设置certificateGenerator到聚合根
         ca.setCertificateGenerator(certificateGenerator);
+        ca.setSerialNumberAllocator(serialNumberAllocator);
+        ca.setCrlPartitionUrlResolver(partition -> objectStorageGateway.partitionCrlUrl(caName, partition));
+
+        List<CertificateIssuanceResult> results = ca.issueCertificates(commands, keyProvider, threadPoolExecutor);
+        for (CertificateIssuanceResult result : results) {
+            if (result.isSuccess()) {
+                publishSidecar(ca, result.getCertificate(), commands.get(result.getIndex()).getHybridContext());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 为CA签发OCSP委托响应器凭据: 生成响应器密钥对, 由CA按响应器模板签发短期证书
+     * 响应器证书只随OCSP响应下发, 不入证书表
+     *
+     * @param caSignatureAlgorithm CA签发响应器证书使用的签名算法
+     * @param responderKeyAlgorithm 响应器密钥算法
+     */
+    public OcspResponderCredential issueOcspResponderCredential(String caName,
+                                                                String caSignatureAlgorithm,
+                                                                String responderKeyAlgorithm,
+                                                                Duration validity) {
+        CertificateAuthority ca = caRegistry.getByName(caName);
+        if (ca == null) {
+            throw new RuntimeException("CA不存在: " + caName);
+        }
+        ca.setCertificateGenerator(certificateGenerator);
+        ca.setSerialNumberAllocator(serialNumberAllocator);
+        ca.setCrlPartitionUrlResolver(partition -> objectStorageGateway.partitionCrlUrl(caName, partition));
+
+        try {
+            java.security.KeyPair keyPair = keyPairPool.take(responderKeyAlgorithm);
+            LocalDateTime notBefore = LocalDateTime.now();
+            Certificate certificate = ca.issueCertificate(
+                "CN=OCSP Responder," + ca.getCaCertificate().getSubjectDN(),
+                keyPair.getPublic(),
+                notBefore,
+                notBefore.plus(validity),
+                caSignatureAlgorithm,
+                null,
+                keyProvider,
+                CertificateProfileTemplate.ocspResponder(),
+                null
+            );
+            return new OcspResponderCredential(ca.getCaId(), keyPair.getPrivate(), responderKeyAlgorithm,
+                decodePem(certificate.getPemEncoded()), certificate.getSerialNumber(), certificate.getNotAfter());
+        } catch (Exception e) {
+            throw new RuntimeException("签发OCSP响应器证书失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取混合证书sidecar(JSON), 不存在时返回null
+     */
+    public String getSidecar(String serialNumber) {
+        return sidecarPublisher.getSidecar(serialNumber);
+    }
 
-        CRL crl = ca.generateCRL(revokedCerts, keyProvider, signatureAlgorithm);
+    /**
+     * 流式发布完整或基础CRL(用于吊销条目数很大的CA)
+     * 条目从数据库游标逐条读出并编码到临时文件, 签名与上传均按顺序读取该文件, 内存占用与条目数无关;
+     * 启用CRL分区的CA只收录未分区证书, 分区证书由分区CRL覆盖;
+     * 返回的CRL不含PEM编码与条目列表, 只有元数据与访问URL
+     */
+    public CRL publishStreamingCRL(String caName,
+                                   CRLType crlType,
+                                   String signatureAlgorithm,
+                                   Duration validity) {
+        CertificateAuthority ca = prepareForCRL(caName);
+        synchronized (ca.getCrlLock()) {
+            String deltaCrlUrl = crlType == CRLType.BASE ? objectStorageGateway.crlUrl(caName, CRLType.DELTA) : null;
+            String issuerDN = ca.getCaCertificate().getSubjectDN();
+            boolean partitioned = ca.getCrlPartitionCount() > 0;
+            // 增量CRL从读取开始前BASE_CUTOFF_MARGIN起收录, 读取时尚未提交的吊销由增量CRL补发
+            LocalDateTime revocationCutoff = LocalDateTime.now().minus(BASE_CUTOFF_MARGIN);
 
-        // 上传CRL到对象存储
-        objectStorageGateway.uploadCRL(crl.getCrlNumber(), crl.getPemEncoded());
+            try (StreamedCRL streamedCRL = ca.generateStreamingCRL(crlType,
+                     consumer -> {
+                         if (partitioned) {
+                             revokedCertificateSource.scanUnpartitioned(issuerDN, consumer);
+                         } else {
+                             revokedCertificateSource.scan(issuerDN, consumer);
+                         }
+                     },
+                     keyProvider, signatureAlgorithm, validity, deltaCrlUrl, null);
+                 InputStream derStream = streamedCRL.openStream()) {
+                String crlNumber = streamedCRL.getCrlNumber().toString();
+                String crlUrl = objectStorageGateway.uploadCRL(caName, crlType, crlNumber, derStream,
+                    streamedCRL.getLength());
 
-        // 保存CA状态
-        caRepository.save(ca);
+                CRL crl = new CRL();
+                crl.setCrlNumber(crlNumber);
+                crl.setIssuerDN(issuerDN);
+                crl.setThisUpdate(streamedCRL.getThisUpdate());
+                crl.setNextUpdate(streamedCRL.getNextUpdate());
+                crl.setSignatureAlgorithm(signatureAlgorithm);
+                crl.setCrlType(crlType);
+                crl.setRevokedCount((int) streamedCRL.getEntryCount());
+                crl.setCrlUrl(crlUrl);
 
-        return crl;
+                if (crlType == CRLType.BASE) {
+                    crlBaseStateRepository.save(new CRLBaseState(
+                        ca.getCaId(),
+                        crlNumber,
+                        crl.getThisUpdate(),
+                        revocationCutoff,
+                        crl.getRevokedCount(),
+                        crlUrl,
+                        deltaCrlUrl,
+                        null
+                    ));
+                }
+                return crl;
+            } catch (IOException e) {
+                throw new RuntimeException("上传" + crlType.getDesc() + "失败: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 发布CA的分区CRL: 每个分区一个带issuingDistributionPoint的CRL, 只收录该分区证书的吊销条目
+     * 只重新生成有新吊销(条目数或最晚吊销时间变化)或将在refreshBefore内过期的分区;
+     * 尚未发布过的分区即使没有吊销条目也发布空CRL, 保证证书中的分发点可用
+     *
+     * @return 本次发布的分区CRL(不含PEM编码与条目列表), CA未启用分区时为空列表
+     */
+    public List<CRL> publishPartitionedCRLs(String caName,
+                                            String signatureAlgorithm,
+                                            Duration validity,
+                                            Duration refreshBefore) {
+        CertificateAuthority ca = prepareForCRL(caName);
+        if (ca.getCrlPartitionCount() <= 0) {
+            return List.of();
+        }
+        synchronized (ca.getCrlLock()) {
+            String issuerDN = ca.getCaCertificate().getSubjectDN();
+            Map<Integer, RevocationSummary> current = revokedCertificateSource.summarizeByPartition(issuerDN);
+            Map<Integer, CRLPartitionState> published = crlPartitionStateRepository.findByCaId(ca.getCaId()).stream()
+                .collect(Collectors.toMap(CRLPartitionState::getPartition, Function.identity()));
+
+            // 分区数调小后, 旧证书所在的分区仍需继续发布
+            TreeSet<Integer> partitions = new TreeSet<>(current.keySet());
+            partitions.addAll(published.keySet());
+            for (int i = 0; i < ca.getCrlPartitionCount(); i++) {
+                partitions.add(i);
+            }
+
+            LocalDateTime refreshDeadline = LocalDateTime.now().plus(refreshBefore);
+            List<CRL> crls = new ArrayList<>();
+            for (int partition : partitions) {
+                CRLPartitionState state = published.get(partition);
+                if (state != null && !state.isStale(current.getOrDefault(partition, new RevocationSummary()),
+                        refreshDeadline)) {
+                    continue;
+                }
+                crls.add(publishPartitionCRL(ca, issuerDN, partition, signatureAlgorithm, validity));
+            }
+            return crls;
+        }
+    }
+
+    private CRL publishPartitionCRL(CertificateAuthority ca,
+                                    String issuerDN,
+                                    int partition,
+                                    String signatureAlgorithm,
+                                    Duration validity) {
+        String partitionUrl = ca.crlPartitionUrl(partition);
+        try (StreamedCRL streamedCRL = ca.generateStreamingCRL(CRLType.FULL,
+                 consumer -> revokedCertificateSource.scan(issuerDN, partition, consumer),
+                 keyProvider, signatureAlgorithm, validity, null, partitionUrl);
+             InputStream derStream = streamedCRL.openStream()) {
+            String crlNumber = streamedCRL.getCrlNumber().toString();
+            String crlUrl = objectStorageGateway.uploadPartitionCRL(ca.getCaName(), partition, crlNumber, derStream,
+                streamedCRL.getLength());
+
+            // 以实际写入CRL的条目记录状态, 汇总之后新增的吊销在下一轮检查中发现
+            crlPartitionStateRepository.save(new CRLPartitionState(
+                ca.getCaId(),
+                partition,
+                crlNumber,
+                streamedCRL.getEntryCount(),
+                streamedCRL.getLatestRevocationDate(),
+                streamedCRL.getThisUpdate(),
+                streamedCRL.getNextUpdate(),
+                crlUrl
+            ));
+
+            CRL crl = new CRL();
+            crl.setCrlNumber(crlNumber);
+            crl.setIssuerDN(issuerDN);
+            crl.setThisUpdate(streamedCRL.getThisUpdate());
+            crl.setNextUpdate(streamedCRL.getNextUpdate());
+            crl.setSignatureAlgorithm(signatureAlgorithm);
+            crl.setCrlType(CRLType.FULL);
+            crl.setRevokedCount((int) streamedCRL.getEntryCount());
+            crl.setCrlUrl(crlUrl);
+            crl.setPartition(partition);
+            return crl;
+        } catch (IOException e) {
+            throw new RuntimeException("上传分区CRL失败: partition=" + partition + ", " + e.getMessage(), e);
+        }
+    }
+
+    private CRL generateDeltaCRL(CertificateAuthority ca,
+                                 CRLBaseState baseState,
+                                 List<RevokedCertificate> revokedCerts,
+                                 String signatureAlgorithm,
+                                 Duration deltaValidity) {
+        LocalDateTime cutoff = baseState.getRevocationCutoff();
+        Consumer<Consumer<RevokedCertificate>> deltaEntries = consumer -> revokedCerts.forEach(revoked -> {
+            if (cutoff == null || revoked.getRevocationDate() == null || !revoked.getRevocationDate().isBefore(cutoff)) {
+                consumer.accept(revoked);
+            }
+        });
+
+        try (StreamedCRL streamedCRL = ca.generateStreamingDeltaCRL(deltaEntries, baseState.getBaseCrlNumber(),
+                 keyProvider, signatureAlgorithm, deltaValidity);
+             InputStream derStream = streamedCRL.openStream()) {
+            String crlNumber = streamedCRL.getCrlNumber().toString();
+            CRL crl = new CRL();
+            crl.setCrlNumber(crlNumber);
+            crl.setIssuerDN(ca.getCaCertificate().getSubjectDN());
+            crl.setThisUpdate(streamedCRL.getThisUpdate());
+            crl.setNextUpdate(streamedCRL.getNextUpdate());
+            crl.setSignatureAlgorithm(signatureAlgorithm);
+            crl.setCrlType(CRLType.DELTA);
+            crl.setBaseCrlNumber(baseState.getBaseCrlNumber());
+            crl.setRevokedCount((int) streamedCRL.getEntryCount());
+            crl.setCrlUrl(objectStorageGateway.uploadCRL(ca.getCaName(), CRLType.DELTA, crlNumber, derStream,
+                streamedCRL.getLength()));
+
+            baseState.setLastDeltaCrlNumber(crlNumber);
+            crlBaseStateRepository.save(baseState);
+            return crl;
+        } catch (IOException e) {
+            throw new RuntimeException("上传增量CRL失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 发布增量CRL: 按颁发者只读取基础CRL之后的吊销条目(序列号、时间与原因), 不加载证书全量
+     * CA尚无基础CRL时流式发布基础CRL并返回之
+     */
+    public CRL publishDeltaCRL(String caName,
+                               String signatureAlgorithm,
+                               Duration baseValidity,
+                               Duration deltaValidity) {
+        CertificateAuthority ca = prepareForCRL(caName);
+        synchronized (ca.getCrlLock()) {
+            CRLBaseState baseState = crlBaseStateRepository.findByCaId(ca.getCaId());
+            if (baseState == null) {
+                return publishStreamingCRL(caName, CRLType.BASE, signatureAlgorithm, baseValidity);
+            }
+            // 与基础CRL范围一致: 启用分区的CA只收录未分区证书
+            String issuerDN = ca.getCaCertificate().getSubjectDN();
+            List<RevokedCertificate> entries = ca.getCrlPartitionCount() > 0
+                ? revokedCertificateSource.findUnpartitionedRevokedSince(issuerDN, baseState.getRevocationCutoff())
+                : revokedCertificateSource.findRevokedSince(issuerDN, baseState.getRevocationCutoff());
+            return generateDeltaCRL(ca, baseState, entries, signatureAlgorithm, deltaValidity);
+        }
+    }
+
+    /**
+     * 查询CA当前基础CRL状态, 尚无基础CRL时返回null
+     */
+    public CRLBaseState getCRLBaseState(String caName) {
+        CertificateAuthority ca = caRegistry.getByName(caName);
+        if (ca == null) {
+            throw new RuntimeException("CA不存在: " + caName);
+        }
+        return crlBaseStateRepository.findByCaId(ca.getCaId());
+    }
+
+    private static byte[] decodePem(String pem) {
+        String body = pem.replaceAll("-----[A-Z ]+-----", "");
+        return java.util.Base64.getMimeDecoder().decode(body);
+    }
+
+    private CertificateAuthority prepareForCRL(String caName) {
+        CertificateAuthority ca = caRegistry.getByName(caName);
+        if (ca == null) {
+            throw new RuntimeException("CA不存在: " + caName);
+        }
+        ca.setCertificateGenerator(certificateGenerator);
+        ca.setCrlNumberAllocator(sequenceAllocator);
+        ca.setCrlPartitionUrlResolver(partition -> objectStorageGateway.partitionCrlUrl(caName, partition));
+        return ca;
     }
 
     /**
@@ -116,12 +481,39 @@ public class SigningService {
                                                              String subjectDN,
                                                              String signatureAlgorithm,
                                                              Integer validityDays) {
+        return createCertificateAuthority(caName, subjectDN, signatureAlgorithm, validityDays, null);
+    }
+
+    /**
+     * 创建CA并指定混合证书备用签名算法(如ML-DSA-65)
+     */
+    public CertificateAuthority createCertificateAuthority(String caName,
+                                                             String subjectDN,
+                                                             String signatureAlgorithm,
+                                                             Integer validityDays,
+                                                             String altSignatureAlgorithm) {
+        return createCertificateAuthority(caName, subjectDN, signatureAlgorithm, validityDays, altSignatureAlgorithm,
+            0);
+    }
+
+    /**
+     * 创建CA并指定备用签名算法与CRL分区数(大于0时新证书按分区写入CRL分发点)
+     */
+    public CertificateAuthority createCertificateAuthority(String caName,
+                                                             String subjectDN,
+                                                             String signatureAlgorithm,
+                                                             Integer validityDays,
+                                                             String altSignatureAlgorithm,
+                                                             int crlPartitionCount) {
+        if (crlPartitionCount < 0) {
+            throw new IllegalArgumentException("CRL分区数不能为负: " + crlPartitionCount);
+        }
         try {
             String caId = java.util.UUID.randomUUID().toString();
 
             // 使用依赖注入的CertificateGenerator
-            // 生成CA密钥对
-            java.security.KeyPair keyPair = certificateGenerator.generateKeyPair(signatureAlgorithm);
+            // 从预生成池取出CA密钥对(池空时同步生成)
+            java.security.KeyPair keyPair = keyPairPool.take(signatureAlgorithm);
 
             // 计算有效期
             java.time.LocalDateTime notBefore = java.time.LocalDateTime.now();
@@ -141,7 +533,7 @@ public class SigningService {
                 keyPair,
                 notBeforeDate,
                 notAfterDate,
-                java.math.BigInteger.valueOf(System.currentTimeMillis()),
+                serialNumberAllocator.nextSerialNumber(),
                 signatureAlgorithm,
                 "http://crl.example.com/ca.crl"
             );
@@ -156,9 +548,17 @@ public class SigningService {
             caCert.setPemEncoded(certificateGenerator.toPEM(x509CACert));
 
             CertificateAuthority ca = new CertificateAuthority(caId, caName, caCert);
+            if (altSignatureAlgorithm != null && !altSignatureAlgorithm.isBlank()) {
+                // 预先取出备用签名私钥, 首次签发无需再生成
+                keyProvider.getAltSigningPrivateKey(caId, altSignatureAlgorithm);
+                ca.setAltSignatureAlgorithm(altSignatureAlgorithm);
+            }
+            ca.setCrlPartitionCount(crlPartitionCount);
             // 设置certificateGenerator到聚合根
             ca.setCertificateGenerator(certificateGenerator);
+            ca.setSerialNumberAllocator(serialNumberAllocator);
             caRepository.save(ca);
+            caRegistry.register(ca);
             return ca;
         } catch (Exception e) {
             throw new RuntimeException("创建CA失败: " + e.getMessage(), e);
@@ -175,6 +575,7 @@ public class SigningService {
         }
         // 简化实现，实际CA状态管理需要更复杂
         caRepository.save(ca);
+        caRegistry.invalidate(caId);
     }
 
     /**
@@ -187,5 +588,19 @@ public class SigningService {
         }
         // 简化实现，实际CA吊销需要更复杂
         caRepository.save(ca);
+        caRegistry.invalidate(caId);
+    }
+
+    /**
+     * 混合证书签发后发布sidecar, 上传在后台进行, 不计入签发耗时
+     */
+    private void publishSidecar(CertificateAuthority ca,
+                                Certificate certificate,
+                                HybridCertificateRequestContext hybridContext) {
+        if (hybridContext == null || hybridContext.getMerkleRoot() == null) {
+            return;
+        }
+        sidecarPublisher.publish(certificate.getSerialNumber(), hybridContext,
+            ca.getCaCertificate(), certificate.getSignatureAlgorithm());
     }
 }
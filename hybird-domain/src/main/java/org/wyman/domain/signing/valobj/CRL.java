@@ -3,6 +3,7 @@ package org.wyman.domain.signing.valobj;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.wyman.types.enums.CRLType;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -39,6 +40,11 @@ public class CRL {
      */
     private List<RevokedCertificate> revokedCertificates;
 
+    /**
+     * 吊销条目数(流式生成的CRL不保留条目列表, 以此记录数量)
+     */
+    private int revokedCount;
+
     /**
      * CRL编码(PEM格式)
      */
@@ -48,4 +54,24 @@ public class CRL {
      * 签名算法
      */
     private String signatureAlgorithm;
+
+    /**
+     * CRL类型(完整/基础/增量)
+     */
+    private CRLType crlType = CRLType.FULL;
+
+    /**
+     * 增量CRL所基于的基础CRL编号, 其他类型为空
+     */
+    private String baseCrlNumber;
+
+    /**
+     * 发布后的访问URL
+     */
+    private String crlUrl;
+
+    /**
+     * 分区CRL的分区号(issuingDistributionPoint限定范围), 非分区CRL为空
+     */
+    private Integer partition;
 }
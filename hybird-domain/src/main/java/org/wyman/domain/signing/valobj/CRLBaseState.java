@@ -0,0 +1,57 @@
+package org.wyman.domain.signing.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * CA当前基础CRL的状态
+ * 吊销时间不早于revocationCutoff的条目尚未确定已并入基础CRL, 由增量CRL发布;
+ * 增量CRL相对基础CRL累积, 下一次基础CRL生成后重新计起。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CRLBaseState {
+    /**
+     * CA ID
+     */
+    private String caId;
+
+    /**
+     * 基础CRL编号(增量CRL的deltaCRLIndicator取此值)
+     */
+    private String baseCrlNumber;
+
+    /**
+     * 基础CRL的本次更新时间
+     */
+    private LocalDateTime baseThisUpdate;
+
+    /**
+     * 并入基础CRL的吊销时间上界(含), 增量CRL收录吊销时间不早于此值的条目
+     */
+    private LocalDateTime revocationCutoff;
+
+    /**
+     * 基础CRL吊销条目数
+     */
+    private int baseRevokedCount;
+
+    /**
+     * 基础CRL的访问URL
+     */
+    private String baseCrlUrl;
+
+    /**
+     * 增量CRL的访问URL(写入基础CRL的freshestCRL扩展)
+     */
+    private String deltaCrlUrl;
+
+    /**
+     * 最近一次增量CRL编号
+     */
+    private String lastDeltaCrlNumber;
+}
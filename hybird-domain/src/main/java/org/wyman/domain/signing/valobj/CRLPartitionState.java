@@ -0,0 +1,66 @@
+package org.wyman.domain.signing.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * CA某一CRL分区最近一次发布的状态
+ * 分区的吊销条目数或最晚吊销时间变化即视为有新吊销, 需重新生成该分区CRL
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CRLPartitionState {
+    /**
+     * CA ID
+     */
+    private String caId;
+
+    /**
+     * 分区号
+     */
+    private int partition;
+
+    /**
+     * 最近一次发布的CRL编号
+     */
+    private String crlNumber;
+
+    /**
+     * 已发布CRL的吊销条目数
+     */
+    private long revokedCount;
+
+    /**
+     * 已发布CRL中最晚的吊销时间
+     */
+    private LocalDateTime latestRevocationDate;
+
+    /**
+     * 本次更新时间
+     */
+    private LocalDateTime thisUpdate;
+
+    /**
+     * 下次更新时间
+     */
+    private LocalDateTime nextUpdate;
+
+    /**
+     * 分区CRL的访问URL
+     */
+    private String crlUrl;
+
+    /**
+     * 是否需要重新生成: 分区内容有变化, 或已发布CRL将在refreshDeadline前过期
+     */
+    public boolean isStale(RevocationSummary current, LocalDateTime refreshDeadline) {
+        return revokedCount != current.getRevokedCount()
+            || !Objects.equals(latestRevocationDate, current.getLatestRevocationDate())
+            || nextUpdate == null || nextUpdate.isBefore(refreshDeadline);
+    }
+}
@@ -73,4 +73,9 @@ public class Certificate {
      * CRL分发点
      */
     private String crlDistributionPoint;
+
+    /**
+     * CRL分区号, CA未启用CRL分区时为空
+     */
+    private Integer crlPartition;
 }
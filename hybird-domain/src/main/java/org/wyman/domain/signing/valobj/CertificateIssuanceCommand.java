@@ -0,0 +1,58 @@
+package org.wyman.domain.signing.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.security.PublicKey;
+import java.time.LocalDateTime;
+
+/**
+ * 证书签发指令值对象(批量签发中的单项)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateIssuanceCommand {
+    /**
+     * 主题DN
+     */
+    private String subjectDN;
+
+    /**
+     * 申请者公钥
+     */
+    private PublicKey publicKey;
+
+    /**
+     * 有效期开始
+     */
+    private LocalDateTime notBefore;
+
+    /**
+     * 有效期结束
+     */
+    private LocalDateTime notAfter;
+
+    /**
+     * 签名算法
+     */
+    private String signatureAlgorithm;
+
+    /**
+     * 密钥封装算法
+     */
+    private String kemAlgorithm;
+
+    /**
+     * 证书模板(可为空, 为空时使用默认扩展)
+     */
+    private CertificateProfileTemplate profileTemplate;
+
+    /**
+     * 混合证书上下文(可为空)
+     */
+    private HybridCertificateRequestContext hybridContext;
+}
@@ -0,0 +1,41 @@
+package org.wyman.domain.signing.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 证书签发结果值对象(批量签发中的单项)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateIssuanceResult {
+    /**
+     * 在批次中的序号
+     */
+    private int index;
+
+    /**
+     * 是否签发成功
+     */
+    private boolean success;
+
+    /**
+     * 签发的证书(成功时)
+     */
+    private Certificate certificate;
+
+    /**
+     * 失败原因(失败时)
+     */
+    private String errorMessage;
+
+    public static CertificateIssuanceResult success(int index, Certificate certificate) {
+        return new CertificateIssuanceResult(index, true, certificate, null);
+    }
+
+    public static CertificateIssuanceResult fail(int index, String errorMessage) {
+        return new CertificateIssuanceResult(index, false, null, errorMessage);
+    }
+}
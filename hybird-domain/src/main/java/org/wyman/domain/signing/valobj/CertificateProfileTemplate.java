@@ -0,0 +1,251 @@
+package org.wyman.domain.signing.valobj;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.KeyUsage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 证书模板值对象(由证书策略编译而来, 不可变)
+ * 固定扩展项(CRL分发点、密钥用法、扩展密钥用法、基本约束)在编译时一次性DER编码,
+ * 签发时直接复用; 允许的算法编译为哈希查找表, 有效期上下限预先展开。
+ */
+@Getter
+public final class CertificateProfileTemplate {
+
+    private static final Map<String, Integer> KEY_USAGE_BITS = Map.of(
+        "digitalSignature", KeyUsage.digitalSignature,
+        "nonRepudiation", KeyUsage.nonRepudiation,
+        "contentCommitment", KeyUsage.nonRepudiation,
+        "keyEncipherment", KeyUsage.keyEncipherment,
+        "dataEncipherment", KeyUsage.dataEncipherment,
+        "keyAgreement", KeyUsage.keyAgreement,
+        "keyCertSign", KeyUsage.keyCertSign,
+        "cRLSign", KeyUsage.cRLSign,
+        "encipherOnly", KeyUsage.encipherOnly,
+        "decipherOnly", KeyUsage.decipherOnly
+    );
+
+    private static final Map<String, KeyPurposeId> KEY_PURPOSES = Map.of(
+        "serverAuth", KeyPurposeId.id_kp_serverAuth,
+        "clientAuth", KeyPurposeId.id_kp_clientAuth,
+        "codeSigning", KeyPurposeId.id_kp_codeSigning,
+        "emailProtection", KeyPurposeId.id_kp_emailProtection,
+        "timeStamping", KeyPurposeId.id_kp_timeStamping,
+        "OCSPSigning", KeyPurposeId.id_kp_OCSPSigning
+    );
+
+    /**
+     * 模板标识(策略ID、版本与规则指纹), 规则变化即生成新模板
+     */
+    private final String templateKey;
+
+    /**
+     * 预编码的固定扩展项
+     */
+    private final List<Extension> extensions;
+
+    /**
+     * CRL分发点URL
+     */
+    private final String crlDistributionPoint;
+
+    /**
+     * 允许的签名算法, 为空表示不限制
+     */
+    private final Set<String> allowedSignatureAlgorithms;
+
+    /**
+     * 允许的密钥封装算法, 为空表示不限制
+     */
+    private final Set<String> allowedKemAlgorithms;
+
+    /**
+     * 最短有效期(天), 为空表示不限制
+     */
+    private final Integer minValidityDays;
+
+    /**
+     * 最长有效期(天), 为空表示不限制
+     */
+    private final Integer maxValidityDays;
+
+    /**
+     * 是否要求混合签名
+     */
+    private final boolean requireHybridSignature;
+
+    @Builder
+    private CertificateProfileTemplate(String templateKey,
+                                       Collection<String> keyUsages,
+                                       Collection<String> extendedKeyUsages,
+                                       String crlDistributionPoint,
+                                       Collection<String> allowedSignatureAlgorithms,
+                                       Collection<String> allowedKemAlgorithms,
+                                       Integer minValidityDays,
+                                       Integer maxValidityDays,
+                                       boolean requireHybridSignature) {
+        this.templateKey = templateKey;
+        this.crlDistributionPoint = crlDistributionPoint;
+        this.allowedSignatureAlgorithms = lookupTable(allowedSignatureAlgorithms);
+        this.allowedKemAlgorithms = lookupTable(allowedKemAlgorithms);
+        this.minValidityDays = minValidityDays;
+        this.maxValidityDays = maxValidityDays;
+        this.requireHybridSignature = requireHybridSignature;
+        this.extensions = encodeExtensions(keyUsages, extendedKeyUsages, crlDistributionPoint);
+    }
+
+    private CertificateProfileTemplate(CertificateProfileTemplate source,
+                                       String templateKey,
+                                       String crlDistributionPoint,
+                                       List<Extension> extensions) {
+        this.templateKey = templateKey;
+        this.crlDistributionPoint = crlDistributionPoint;
+        this.allowedSignatureAlgorithms = source.allowedSignatureAlgorithms;
+        this.allowedKemAlgorithms = source.allowedKemAlgorithms;
+        this.minValidityDays = source.minValidityDays;
+        this.maxValidityDays = source.maxValidityDays;
+        this.requireHybridSignature = source.requireHybridSignature;
+        this.extensions = List.copyOf(extensions);
+    }
+
+    /**
+     * 替换CRL分发点后的模板(CRL分区时每个分区一个), 其余扩展沿用已编码结果
+     */
+    public CertificateProfileTemplate withCrlDistributionPoint(String crlDistributionPoint) {
+        List<Extension> encoded = new ArrayList<>(extensions.size() + 1);
+        encoded.add(distributionPointExtension(crlDistributionPoint));
+        for (Extension extension : extensions) {
+            if (!extension.getExtnId().equals(Extension.cRLDistributionPoints)) {
+                encoded.add(extension);
+            }
+        }
+        return new CertificateProfileTemplate(this, templateKey + "#crl:" + crlDistributionPoint,
+            crlDistributionPoint, encoded);
+    }
+
+    /**
+     * 未关联策略时使用的默认模板, 与原先固定写入的扩展项一致
+     */
+    public static CertificateProfileTemplate defaults(String crlDistributionPoint) {
+        return CertificateProfileTemplate.builder()
+            .templateKey("default:" + crlDistributionPoint)
+            .keyUsages(List.of("digitalSignature", "keyEncipherment"))
+            .crlDistributionPoint(crlDistributionPoint)
+            .build();
+    }
+
+    /**
+     * OCSP委托响应器证书模板: 仅数字签名, 扩展密钥用法为OCSPSigning,
+     * 并带id-pkix-ocsp-nocheck使客户端不再检查响应器证书自身的吊销状态(RFC 6960 第4.2.2.2.1节)
+     */
+    public static CertificateProfileTemplate ocspResponder() {
+        CertificateProfileTemplate base = CertificateProfileTemplate.builder()
+            .templateKey("ocsp-responder")
+            .keyUsages(List.of("digitalSignature"))
+            .extendedKeyUsages(List.of("OCSPSigning"))
+            .build();
+        List<Extension> encoded = new ArrayList<>(base.extensions);
+        encoded.add(encode(OCSPObjectIdentifiers.id_pkix_ocsp_nocheck, false, DERNull.INSTANCE));
+        return new CertificateProfileTemplate(base, base.templateKey, null, encoded);
+    }
+
+    /**
+     * 签名算法是否允许
+     */
+    public boolean allowsSignatureAlgorithm(String signatureAlgorithm) {
+        return allowedSignatureAlgorithms == null || allowedSignatureAlgorithms.contains(signatureAlgorithm);
+    }
+
+    /**
+     * 密钥封装算法是否允许(未指定时视为允许)
+     */
+    public boolean allowsKemAlgorithm(String kemAlgorithm) {
+        return kemAlgorithm == null || allowedKemAlgorithms == null || allowedKemAlgorithms.contains(kemAlgorithm);
+    }
+
+    /**
+     * 有效期是否在模板上下限内
+     */
+    public boolean allowsValidity(LocalDateTime notBefore, LocalDateTime notAfter) {
+        if (notBefore == null || notAfter == null) {
+            return false;
+        }
+        long days = ChronoUnit.DAYS.between(notBefore, notAfter);
+        return (minValidityDays == null || days >= minValidityDays)
+            && (maxValidityDays == null || days <= maxValidityDays);
+    }
+
+    private static Set<String> lookupTable(Collection<String> values) {
+        return values == null || values.isEmpty() ? null : Set.copyOf(values);
+    }
+
+    private static List<Extension> encodeExtensions(Collection<String> keyUsages,
+                                                    Collection<String> extendedKeyUsages,
+                                                    String crlDistributionPoint) {
+        List<Extension> encoded = new ArrayList<>();
+        if (crlDistributionPoint != null && !crlDistributionPoint.isBlank()) {
+            encoded.add(distributionPointExtension(crlDistributionPoint));
+        }
+        if (keyUsages != null && !keyUsages.isEmpty()) {
+            int bits = 0;
+            for (String usage : keyUsages) {
+                Integer bit = KEY_USAGE_BITS.get(usage.trim());
+                if (bit == null) {
+                    throw new IllegalArgumentException("不支持的密钥用法: " + usage);
+                }
+                bits |= bit;
+            }
+            encoded.add(encode(Extension.keyUsage, true, new KeyUsage(bits)));
+        }
+        if (extendedKeyUsages != null && !extendedKeyUsages.isEmpty()) {
+            KeyPurposeId[] purposes = extendedKeyUsages.stream()
+                .map(String::trim)
+                .map(usage -> KEY_PURPOSES.containsKey(usage)
+                    ? KEY_PURPOSES.get(usage)
+                    : KeyPurposeId.getInstance(new ASN1ObjectIdentifier(usage)))
+                .toArray(KeyPurposeId[]::new);
+            encoded.add(encode(Extension.extendedKeyUsage, false, new ExtendedKeyUsage(purposes)));
+        }
+        encoded.add(encode(Extension.basicConstraints, true, new BasicConstraints(false)));
+        return List.copyOf(encoded);
+    }
+
+    private static Extension distributionPointExtension(String crlDistributionPoint) {
+        DistributionPointName dpn = new DistributionPointName(
+            new GeneralNames(new GeneralName(GeneralName.uniformResourceIdentifier, crlDistributionPoint)));
+        return encode(Extension.cRLDistributionPoints, false,
+            new CRLDistPoint(new DistributionPoint[]{new DistributionPoint(dpn, null, null)}));
+    }
+
+    private static Extension encode(ASN1ObjectIdentifier oid, boolean critical, ASN1Encodable value) {
+        try {
+            return new Extension(oid, critical, new DEROctetString(value.toASN1Primitive().getEncoded(ASN1Encoding.DER)));
+        } catch (IOException e) {
+            throw new IllegalStateException("编码证书扩展失败: " + oid, e);
+        }
+    }
+}
@@ -38,6 +38,12 @@ public class HybridCertificateRequestContext {
     @Builder.Default
     private boolean altSignatureRequired = false;
 
+    /** 备用签名值（由证书生成器回填，用于生成 sidecar） */
+    private byte[] altSignatureValue;
+
+    /** 备用签名值是否为批量签名的包含证明（由证书生成器回填） */
+    private boolean altSignatureBatched;
+
     /** Merkle 根承诺（32字节 SHA-256） */
     private byte[] merkleRoot;
 
@@ -0,0 +1,54 @@
+package org.wyman.domain.signing.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.security.PrivateKey;
+import java.time.LocalDateTime;
+
+/**
+ * CA委托的OCSP响应器凭据(RFC 6960 第4.2.2.2节)
+ * 响应器证书由CA直接签发, 带id-kp-OCSPSigning与id-pkix-ocsp-nocheck, 有效期短并在到期前换发
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcspResponderCredential {
+    /**
+     * 委托方CA ID
+     */
+    private String caId;
+
+    /**
+     * 响应器私钥
+     */
+    private PrivateKey privateKey;
+
+    /**
+     * 响应器密钥算法(如ECDSA_P256、SM2)
+     */
+    private String keyAlgorithm;
+
+    /**
+     * 响应器证书DER编码, 随响应下发供客户端校验委托关系
+     */
+    private byte[] certificateEncoded;
+
+    /**
+     * 响应器证书序列号
+     */
+    private String serialNumber;
+
+    /**
+     * 响应器证书到期时间
+     */
+    private LocalDateTime notAfter;
+
+    /**
+     * 截止deadline时是否仍然有效(未到需要换发的时间)
+     */
+    public boolean isValidUntil(LocalDateTime deadline) {
+        return notAfter != null && notAfter.isAfter(deadline);
+    }
+}
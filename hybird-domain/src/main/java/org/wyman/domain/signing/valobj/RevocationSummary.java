@@ -0,0 +1,26 @@
+package org.wyman.domain.signing.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 吊销条目汇总(条目数与最晚吊销时间), 用于判断CRL内容是否变化
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationSummary {
+
+    /**
+     * 吊销条目数
+     */
+    private long revokedCount;
+
+    /**
+     * 最晚吊销时间
+     */
+    private LocalDateTime latestRevocationDate;
+}
@@ -0,0 +1,99 @@
+package org.wyman.domain.signing.valobj;
+
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 流式生成的CRL(DER编码)
+ * 吊销条目的DER编码保存在临时文件中, 完整CRL = head + 条目文件 + tail, 内存只保留首尾几百字节;
+ * 读取时按顺序拼接, 上传完成后须调用{@link #close()}删除临时文件
+ */
+@Getter
+public class StreamedCRL implements AutoCloseable {
+
+    /**
+     * CRL编号
+     */
+    private final BigInteger crlNumber;
+
+    /**
+     * 本次更新时间
+     */
+    private final LocalDateTime thisUpdate;
+
+    /**
+     * 下次更新时间
+     */
+    private final LocalDateTime nextUpdate;
+
+    /**
+     * 吊销条目数
+     */
+    private final long entryCount;
+
+    /**
+     * 条目中最晚的吊销时间, 无条目或均无吊销时间时为空
+     */
+    private final LocalDateTime latestRevocationDate;
+
+    /**
+     * DER编码总长度
+     */
+    private final long length;
+
+    private final byte[] head;
+    private final Path entriesFile;
+    private final byte[] tail;
+
+    public StreamedCRL(BigInteger crlNumber,
+                       LocalDateTime thisUpdate,
+                       LocalDateTime nextUpdate,
+                       long entryCount,
+                       LocalDateTime latestRevocationDate,
+                       byte[] head,
+                       Path entriesFile,
+                       byte[] tail) throws IOException {
+        this.crlNumber = crlNumber;
+        this.thisUpdate = thisUpdate;
+        this.nextUpdate = nextUpdate;
+        this.entryCount = entryCount;
+        this.latestRevocationDate = latestRevocationDate;
+        this.head = head;
+        this.entriesFile = entriesFile;
+        this.tail = tail;
+        this.length = head.length + Files.size(entriesFile) + tail.length;
+    }
+
+    /**
+     * 打开DER编码的顺序读取流, 可多次打开
+     */
+    public InputStream openStream() throws IOException {
+        return new SequenceInputStream(Collections.enumeration(List.of(
+            new ByteArrayInputStream(head),
+            Files.newInputStream(entriesFile),
+            new ByteArrayInputStream(tail))));
+    }
+
+    /**
+     * 删除临时文件
+     */
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(entriesFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("删除CRL临时文件失败: " + entriesFile, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.wyman.domain.status.adapter.port;
+
+import org.wyman.domain.status.valobj.CertificateStatusEntry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 证书状态数据源(用于预签名OCSP响应)
+ */
+public interface ICertificateStatusSource {
+    /**
+     * 按颁发者逐条读取激活与已吊销证书的状态(数据库游标), 条目读出即回调
+     *
+     * @param issuerDN 颁发者DN(RFC 2253格式, 与CA证书主题一致)
+     */
+    void scan(String issuerDN, Consumer<CertificateStatusEntry> consumer);
+
+    /**
+     * 按颁发者查询状态更新时间不早于since的激活与已吊销证书(两次全量预签名之间的增量)
+     */
+    List<CertificateStatusEntry> findChangedSince(String issuerDN, LocalDateTime since);
+
+    /**
+     * 返回给定序列号中确由该颁发者签发过的序列号(按需签名OCSP响应时区分GOOD与UNKNOWN)
+     */
+    Set<String> findIssued(String issuerDN, Collection<String> serialNumbers);
+}
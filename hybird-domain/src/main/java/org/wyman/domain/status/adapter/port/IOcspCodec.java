@@ -0,0 +1,52 @@
+package org.wyman.domain.status.adapter.port;
+
+import org.wyman.domain.signing.valobj.OcspResponderCredential;
+import org.wyman.domain.status.valobj.OcspCertId;
+import org.wyman.domain.status.valobj.OcspIssuerHash;
+import org.wyman.domain.status.valobj.OcspRequest;
+import org.wyman.domain.status.valobj.OcspSingleResponse;
+import org.wyman.types.enums.OcspResponseStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * OCSP协议编解码接口(RFC 6960, DER)
+ */
+public interface IOcspCodec {
+    /**
+     * 解码OCSP请求
+     *
+     * @throws IllegalArgumentException 请求格式错误
+     */
+    OcspRequest decodeRequest(byte[] encoded);
+
+    /**
+     * 按指定哈希算法计算CA证书的名称哈希与公钥哈希
+     *
+     * @param hashAlgorithm 哈希算法OID
+     * @return 不支持该哈希算法时返回null
+     */
+    OcspIssuerHash hashIssuer(String issuerCertificatePem, String hashAlgorithm);
+
+    /**
+     * 按颁发者哈希与序列号构造CertID(哈希算法参数为NULL, 与常见客户端一致)
+     */
+    OcspCertId encodeCertId(OcspIssuerHash issuerHash, String serialNumber);
+
+    /**
+     * 用委托响应器密钥签名并编码成功响应, 响应器证书随响应下发
+     *
+     * @param nonce 请求携带的nonce, 不为空时回显
+     */
+    byte[] encodeResponse(OcspResponderCredential credential,
+                          List<OcspSingleResponse> responses,
+                          byte[] nonce,
+                          LocalDateTime thisUpdate,
+                          LocalDateTime nextUpdate);
+
+    /**
+     * 编码不含响应体的错误响应
+     */
+    byte[] encodeErrorResponse(OcspResponseStatus status);
+}
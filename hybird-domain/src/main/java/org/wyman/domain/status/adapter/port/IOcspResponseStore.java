@@ -0,0 +1,42 @@
+package org.wyman.domain.status.adapter.port;
+
+import org.wyman.domain.status.valobj.PresignedOcspResponse;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * 预签名OCSP响应存储, 按CA分别存放并以序列号索引
+ */
+public interface IOcspResponseStore {
+    /**
+     * 查找预签名响应
+     *
+     * @return 只读缓冲区(直接引用存储内容, 不复制), 不存在或已过nextUpdate时返回null
+     */
+    ByteBuffer find(String caId, String serialNumber, LocalDateTime now);
+
+    /**
+     * 是否存有该序列号的响应(不论是否过期)
+     */
+    boolean contains(String caId, String serialNumber);
+
+    /**
+     * 用全量响应替换CA的存储内容, 替换前的查询仍读旧内容; 替换期间写入的单条响应会保留
+     *
+     * @param entrySource 逐条产出响应, 不在内存中累积
+     * @return 写入的响应数
+     */
+    long rebuild(String caId, Consumer<Consumer<PresignedOcspResponse>> entrySource);
+
+    /**
+     * 写入或替换单条响应
+     */
+    void put(String caId, PresignedOcspResponse response);
+
+    /**
+     * 移除单条响应(重签失败时调用, 之后的查询回退为实时签名)
+     */
+    void remove(String caId, String serialNumber);
+}
@@ -0,0 +1,20 @@
+package org.wyman.domain.status.adapter.port;
+
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+
+/**
+ * 吊销状态快照本地存储(用于启动时快速恢复, 不必读取并反序列化数据库中的完整缓存)
+ */
+public interface IRevocationSnapshotStore {
+    /**
+     * 读取快照
+     *
+     * @return 不存在或无法解析时返回null
+     */
+    RevocationSnapshot load();
+
+    /**
+     * 保存快照(整体替换)
+     */
+    void save(RevocationSnapshot snapshot);
+}
@@ -1,28 +1,89 @@
 package org.wyman.domain.status.adapter.port;
 
 import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.CRLMetadata;
+import org.wyman.domain.status.valobj.RevocationChanges;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+
+import java.util.Collection;
+import java.util.Set;
 
 /**
  * 吊销状态缓存仓储接口
+ * 单次吊销只追加增量, CRL更新时保存核对结果, 写入代价与变化量成正比, 而不是与吊销总数成正比。
+ * 数据库实现为"压缩快照 + 增量行", 定期把增量并入快照; Redis实现直接存为哈希, 并向其他节点发布变更通知
  */
 public interface IRevocationStatusCacheRepository {
     /**
-     * 保存缓存
+     * 追加吊销增量
+     */
+    void appendRevocations(String cacheId, Collection<RevocationStatusCache.RevocationDetail> revocations);
+
+    /**
+     * 保存快照(整体替换内容, 如CRL更新后)
+     * 早于快照时间的增量视为已并入; 临近快照时间的增量保留, 加载时再次并入(重复并入无副作用)
+     */
+    void saveSnapshot(RevocationSnapshot snapshot);
+
+    /**
+     * 保存CRL核对结果(snapshot为核对后的快照, changes为相对核对前的变化)
+     * 能按条目增删的实现只写入变化部分并以变化通知其他节点; 默认整体保存快照
+     */
+    default void saveChanges(RevocationSnapshot snapshot, RevocationChanges changes) {
+        saveSnapshot(snapshot);
+    }
+
+    /**
+     * 加载最新快照并重放之后的增量
+     *
+     * @return 没有持久化数据时返回null
      */
-    void save(RevocationStatusCache cache);
+    RevocationSnapshot loadLatest();
 
     /**
-     * 根据缓存ID查询
+     * 把最新快照之后的增量并入新快照
+     *
+     * @param minDeltas 增量少于该条数时不压缩
+     * @return 并入的增量条数, 未压缩时返回0
      */
-    RevocationStatusCache findById(String cacheId);
+    int compact(int minDeltas);
 
     /**
-     * 获取最新的缓存
+     * 在共享存储中批量确认哪些序列号已吊销, 弥补其他节点刚发生的吊销尚未通知到本节点的窗口
+     *
+     * @return 已吊销的序列号; 没有跨节点即时视图的实现返回空集合
      */
-    RevocationStatusCache findLatest();
+    Set<String> findRevoked(Collection<String> serialNumbers);
 
     /**
-     * 删除缓存
+     * 是否为多节点共享的存储: 是则吊销须同步写入(并通知其他节点), 不等待定时合并
      */
-    void delete(String cacheId);
+    default boolean isShared() {
+        return false;
+    }
+
+    /**
+     * 订阅其他节点的变更通知(本节点写入的变更不回调); 没有通知渠道的实现忽略
+     */
+    void subscribe(ChangeListener listener);
+
+    /**
+     * 吊销状态变更监听器
+     */
+    interface ChangeListener {
+        /**
+         * 其他节点追加了吊销条目
+         */
+        void onRevocations(Collection<RevocationStatusCache.RevocationDetail> revocations);
+
+        /**
+         * 其他节点保存了CRL核对结果, 只携带变化部分
+         */
+        void onChanges(CRLMetadata metadata, RevocationChanges changes);
+
+        /**
+         * 其他节点写入了新快照, 需重新加载
+         */
+        void onSnapshotReplaced();
+    }
 }
@@ -0,0 +1,402 @@
+package org.wyman.domain.status.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.stereotype.Service;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRegistry;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.service.SigningService;
+import org.wyman.domain.signing.valobj.OcspResponderCredential;
+import org.wyman.domain.status.adapter.port.ICertificateStatusSource;
+import org.wyman.domain.status.adapter.port.IOcspCodec;
+import org.wyman.domain.status.adapter.port.IOcspResponseStore;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.CertificateStatusEntry;
+import org.wyman.domain.status.valobj.OcspCertId;
+import org.wyman.domain.status.valobj.OcspIssuerHash;
+import org.wyman.domain.status.valobj.OcspRequest;
+import org.wyman.domain.status.valobj.OcspResponderSettings;
+import org.wyman.domain.status.valobj.OcspSingleResponse;
+import org.wyman.domain.status.valobj.PresignedOcspResponse;
+import org.wyman.types.enums.CertificateStatus;
+import org.wyman.types.enums.OcspCertStatus;
+import org.wyman.types.enums.OcspResponseStatus;
+import org.wyman.types.enums.RevocationReason;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OCSP响应领域服务(RFC 6960)
+ * 证书状态取自吊销状态缓存, 未吊销且从未由该CA签发的序列号答UNKNOWN; 响应由各CA的委托响应器密钥签名。
+ * 不带nonce的单证书请求优先读取后台预签名的响应(按CA存放、以序列号索引, 直接引用存储内容不复制),
+ * 其次读取按(颁发者公钥哈希, 序列号)缓存的按需签名响应, 有效期过半后重新签名;
+ * 多证书请求与带nonce的请求每次重新签名。证书吊销时缓存立即失效, 预签名响应立即重签。
+ */
+@Service
+public class OcspResponderService {
+
+    /**
+     * 缓存的单证书响应数上限
+     */
+    private static final int MAX_CACHED_RESPONSES = 100_000;
+
+    /**
+     * 不支持的哈希算法占位, 避免重复计算
+     */
+    private static final OcspIssuerHash UNSUPPORTED = new OcspIssuerHash();
+
+    private final IOcspCodec ocspCodec;
+    private final ICertificateAuthorityRegistry caRegistry;
+    private final SigningService signingService;
+    private final RevocationStatusService revocationStatusService;
+    private final IOcspResponseStore responseStore;
+    private final ICertificateStatusSource certificateStatusSource;
+
+    private final Cache<ResponseKey, CachedResponse> responseCache = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_RESPONSES)
+        .build();
+
+    /**
+     * 各CA的委托响应器凭据(caId -> 凭据)
+     */
+    private final Map<String, OcspResponderCredential> credentials = new ConcurrentHashMap<>();
+
+    /**
+     * 各CA证书按哈希算法的颁发者哈希(caId -> 哈希), CA证书变化时重新计算
+     */
+    private final Map<String, IssuerHashes> issuerHashes = new ConcurrentHashMap<>();
+
+    /**
+     * 曾写入缓存的颁发者公钥哈希, 吊销失效时逐个拼出缓存键
+     */
+    private final Set<String> cachedIssuerKeyHashes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 吊销计数, 签名期间发生吊销的响应不写入缓存
+     */
+    private final AtomicLong revocationEpoch = new AtomicLong();
+
+    public OcspResponderService(IOcspCodec ocspCodec,
+                                ICertificateAuthorityRegistry caRegistry,
+                                SigningService signingService,
+                                RevocationStatusService revocationStatusService,
+                                IOcspResponseStore responseStore,
+                                ICertificateStatusSource certificateStatusSource) {
+        this.ocspCodec = ocspCodec;
+        this.caRegistry = caRegistry;
+        this.signingService = signingService;
+        this.revocationStatusService = revocationStatusService;
+        this.responseStore = responseStore;
+        this.certificateStatusSource = certificateStatusSource;
+    }
+
+    /**
+     * 处理DER编码的OCSP请求, 返回DER编码的OCSP响应
+     * 请求格式错误返回malformedRequest, 没有可应答的颁发者返回unauthorized
+     *
+     * @return 只读缓冲区, 命中预签名响应时直接引用存储内容
+     */
+    public ByteBuffer respond(byte[] encodedRequest, OcspResponderSettings settings) {
+        OcspRequest request;
+        try {
+            request = ocspCodec.decodeRequest(encodedRequest);
+        } catch (IllegalArgumentException e) {
+            return errorResponse(OcspResponseStatus.MALFORMED_REQUEST);
+        }
+        List<OcspCertId> certIds = request.getCertIds();
+        if (certIds == null || certIds.isEmpty() || certIds.size() > settings.getMaxRequestCertificates()) {
+            return errorResponse(OcspResponseStatus.MALFORMED_REQUEST);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean cacheable = certIds.size() == 1 && request.getNonce() == null;
+        ResponseKey cacheKey = cacheable ? ResponseKey.of(certIds.get(0)) : null;
+        if (cacheable) {
+            CachedResponse cached = responseCache.getIfPresent(cacheKey);
+            if (cached != null && cached.matches(certIds.get(0), now)) {
+                return readOnly(cached.encoded());
+            }
+        }
+
+        long epoch = revocationEpoch.get();
+        // 一个响应只能由一个CA的委托响应器签名: 以第一个可识别的颁发者为准, 其他颁发者的证书答UNKNOWN
+        CertificateAuthority signer = null;
+        List<CertificateAuthority> issuers = new ArrayList<>(certIds.size());
+        for (OcspCertId certId : certIds) {
+            CertificateAuthority issuer = resolveIssuer(certId);
+            if (signer == null) {
+                signer = issuer;
+            }
+            issuers.add(issuer != null && issuer.getCaId().equals(signer.getCaId()) ? issuer : null);
+        }
+        if (signer == null) {
+            return errorResponse(OcspResponseStatus.UNAUTHORIZED);
+        }
+        if (cacheable) {
+            ByteBuffer presigned = findPresigned(signer, certIds.get(0), now);
+            if (presigned != null) {
+                return presigned;
+            }
+        }
+
+        Map<String, RevocationStatusCache.RevocationDetail> revoked = revocationStatusService.getRevocationDetails(
+            certIds.stream().map(OcspCertId::getSerialNumber).toList());
+        // 未吊销的序列号须确认确由该CA签发, 从未签发的答UNKNOWN而不是GOOD
+        List<String> unrevoked = new ArrayList<>();
+        for (int i = 0; i < certIds.size(); i++) {
+            String serialNumber = certIds.get(i).getSerialNumber();
+            if (issuers.get(i) != null && !revoked.containsKey(serialNumber)) {
+                unrevoked.add(serialNumber);
+            }
+        }
+        Set<String> issued = unrevoked.isEmpty() ? Set.of()
+            : certificateStatusSource.findIssued(signer.getCaCertificate().getSubjectDN(), unrevoked);
+        List<OcspSingleResponse> responses = new ArrayList<>(certIds.size());
+        for (int i = 0; i < certIds.size(); i++) {
+            responses.add(singleResponse(certIds.get(i), issuers.get(i) != null, revoked, issued));
+        }
+
+        LocalDateTime nextUpdate = now.plus(settings.getResponseValidity());
+        byte[] encoded = ocspCodec.encodeResponse(credentialFor(signer, settings), responses, request.getNonce(),
+            now, nextUpdate);
+
+        if (cacheable && responses.get(0).getCertStatus() != OcspCertStatus.UNKNOWN) {
+            cachedIssuerKeyHashes.add(cacheKey.issuerKeyHash());
+            responseCache.put(cacheKey, new CachedResponse(certIds.get(0), encoded,
+                now.plus(settings.getResponseValidity().dividedBy(2))));
+            // 签名期间发生了吊销, 刚写入的响应可能已过时
+            if (revocationEpoch.get() != epoch) {
+                responseCache.invalidate(cacheKey);
+            }
+        }
+        return readOnly(encoded);
+    }
+
+    /**
+     * 编码错误响应(供调用方在处理失败时返回internalError等状态)
+     */
+    public ByteBuffer errorResponse(OcspResponseStatus status) {
+        return readOnly(ocspCodec.encodeErrorResponse(status));
+    }
+
+    /**
+     * 证书状态变化(吊销)后使其缓存的响应失效, 并立即重签其预签名响应
+     */
+    public void refresh(String serialNumber, OcspResponderSettings settings) {
+        revocationEpoch.incrementAndGet();
+        for (String issuerKeyHash : cachedIssuerKeyHashes) {
+            responseCache.invalidate(new ResponseKey(issuerKeyHash, serialNumber));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextUpdate = now.plus(settings.getPresignedValidity());
+        for (CertificateAuthority ca : caRegistry.getAll()) {
+            if (!responseStore.contains(ca.getCaId(), serialNumber)) {
+                continue;
+            }
+            OcspIssuerHash issuerHash = issuerHash(ca, OcspCertId.SHA1);
+            if (issuerHash == null) {
+                continue;
+            }
+            OcspCertId certId = ocspCodec.encodeCertId(issuerHash, serialNumber);
+            try {
+                // 预签名存储中有该序列号, 即为该CA签发的证书
+                OcspSingleResponse response = singleResponse(certId, true,
+                    revocationStatusService.getRevocationDetails(List.of(serialNumber)), Set.of(serialNumber));
+                responseStore.put(ca.getCaId(), presign(credentialFor(ca, settings, nextUpdate), response, now, nextUpdate));
+            } catch (RuntimeException e) {
+                // 不能继续提供旧状态的预签名响应
+                responseStore.remove(ca.getCaId(), serialNumber);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 全量预签名: 为CA的全部激活与已吊销证书重新签名响应并替换其存储内容
+     *
+     * @return 预签名的响应数
+     */
+    public long presignAll(String caName, OcspResponderSettings settings) {
+        CertificateAuthority ca = presignableCa(caName);
+        OcspIssuerHash issuerHash = issuerHash(ca, OcspCertId.SHA1);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextUpdate = now.plus(settings.getPresignedValidity());
+        OcspResponderCredential credential = credentialFor(ca, settings, nextUpdate);
+        return responseStore.rebuild(ca.getCaId(), sink ->
+            certificateStatusSource.scan(ca.getCaCertificate().getSubjectDN(), entry ->
+                sink.accept(presign(credential, singleResponse(issuerHash, entry), now, nextUpdate))));
+    }
+
+    /**
+     * 增量预签名: 只重签状态更新时间不早于since的证书(两次全量预签名之间调用)
+     *
+     * @return 重签的响应数
+     */
+    public int presignChanged(String caName, LocalDateTime since, OcspResponderSettings settings) {
+        CertificateAuthority ca = presignableCa(caName);
+        List<CertificateStatusEntry> changed = certificateStatusSource.findChangedSince(
+            ca.getCaCertificate().getSubjectDN(), since);
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        OcspIssuerHash issuerHash = issuerHash(ca, OcspCertId.SHA1);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextUpdate = now.plus(settings.getPresignedValidity());
+        OcspResponderCredential credential = credentialFor(ca, settings, nextUpdate);
+        for (CertificateStatusEntry entry : changed) {
+            responseStore.put(ca.getCaId(), presign(credential, singleResponse(issuerHash, entry), now, nextUpdate));
+        }
+        return changed.size();
+    }
+
+    /**
+     * 读取预签名响应; 预签名响应按SHA-1 CertID生成, 请求的CertID编码须与之完全一致才能回显
+     */
+    private ByteBuffer findPresigned(CertificateAuthority ca, OcspCertId certId, LocalDateTime now) {
+        if (!OcspCertId.SHA1.equals(certId.getHashAlgorithm())) {
+            return null;
+        }
+        ByteBuffer presigned = responseStore.find(ca.getCaId(), certId.getSerialNumber(), now);
+        if (presigned == null) {
+            return null;
+        }
+        OcspCertId canonical = ocspCodec.encodeCertId(issuerHash(ca, OcspCertId.SHA1), certId.getSerialNumber());
+        return Arrays.equals(canonical.getEncoded(), certId.getEncoded()) ? presigned : null;
+    }
+
+    private CertificateAuthority presignableCa(String caName) {
+        CertificateAuthority ca = caRegistry.getByName(caName);
+        if (ca == null) {
+            throw new RuntimeException("CA不存在: " + caName);
+        }
+        if (issuerHash(ca, OcspCertId.SHA1) == null) {
+            throw new IllegalStateException("CA证书不可用: " + caName);
+        }
+        return ca;
+    }
+
+    private PresignedOcspResponse presign(OcspResponderCredential credential,
+                                          OcspSingleResponse response,
+                                          LocalDateTime thisUpdate,
+                                          LocalDateTime nextUpdate) {
+        byte[] encoded = ocspCodec.encodeResponse(credential, List.of(response), null, thisUpdate, nextUpdate);
+        return new PresignedOcspResponse(response.getCertId().getSerialNumber(), encoded, nextUpdate);
+    }
+
+    private OcspSingleResponse singleResponse(OcspIssuerHash issuerHash, CertificateStatusEntry entry) {
+        OcspCertId certId = ocspCodec.encodeCertId(issuerHash, entry.getSerialNumber());
+        if (entry.getStatus() == CertificateStatus.REVOKED) {
+            return new OcspSingleResponse(certId, OcspCertStatus.REVOKED, entry.getUpdateTime(),
+                entry.getRevocationReason());
+        }
+        return new OcspSingleResponse(certId, OcspCertStatus.GOOD, null, null);
+    }
+
+    private static ByteBuffer readOnly(byte[] encoded) {
+        return ByteBuffer.wrap(encoded).asReadOnlyBuffer();
+    }
+
+    private OcspSingleResponse singleResponse(OcspCertId certId,
+                                              boolean knownIssuer,
+                                              Map<String, RevocationStatusCache.RevocationDetail> revoked,
+                                              Set<String> issued) {
+        if (!knownIssuer) {
+            return new OcspSingleResponse(certId, OcspCertStatus.UNKNOWN, null, null);
+        }
+        RevocationStatusCache.RevocationDetail detail = revoked.get(certId.getSerialNumber());
+        if (detail == null) {
+            return new OcspSingleResponse(certId,
+                issued.contains(certId.getSerialNumber()) ? OcspCertStatus.GOOD : OcspCertStatus.UNKNOWN, null, null);
+        }
+        return new OcspSingleResponse(certId, OcspCertStatus.REVOKED, detail.getRevocationDate(),
+            RevocationReason.fromDesc(detail.getRevocationReason()));
+    }
+
+    /**
+     * 按CertID的颁发者哈希从注册表索引查找已启用的CA, 找不到返回null
+     */
+    private CertificateAuthority resolveIssuer(OcspCertId certId) {
+        return caRegistry.getByIssuerHash(certId.getHashAlgorithm(), certId.getIssuerNameHash(),
+            certId.getIssuerKeyHash());
+    }
+
+    private OcspIssuerHash issuerHash(CertificateAuthority ca, String hashAlgorithm) {
+        if (ca.getCaCertificate() == null || ca.getCaCertificate().getPemEncoded() == null) {
+            return null;
+        }
+        String pem = ca.getCaCertificate().getPemEncoded();
+        IssuerHashes hashes = issuerHashes.get(ca.getCaId());
+        if (hashes == null || !hashes.pem().equals(pem)) {
+            hashes = new IssuerHashes(pem, new ConcurrentHashMap<>());
+            issuerHashes.put(ca.getCaId(), hashes);
+        }
+        OcspIssuerHash hash = hashes.byAlgorithm().computeIfAbsent(hashAlgorithm, algorithm -> {
+            OcspIssuerHash computed = ocspCodec.hashIssuer(pem, algorithm);
+            return computed != null ? computed : UNSUPPORTED;
+        });
+        return hash == UNSUPPORTED ? null : hash;
+    }
+
+    /**
+     * 获取CA的委托响应器凭据, 不存在或即将到期时重新签发
+     */
+    private OcspResponderCredential credentialFor(CertificateAuthority ca, OcspResponderSettings settings) {
+        return credentialFor(ca, settings, LocalDateTime.now().plus(settings.getResponderRenewBefore()));
+    }
+
+    /**
+     * 获取在renewDeadline之前不会到期的委托响应器凭据(预签名响应的nextUpdate不能晚于响应器证书到期时间)
+     */
+    private OcspResponderCredential credentialFor(CertificateAuthority ca,
+                                                  OcspResponderSettings settings,
+                                                  LocalDateTime renewDeadline) {
+        // 签发在compute之外进行, 不在签名期间占用ConcurrentHashMap的桶锁; 并发续期时以先发布的凭据为准
+        OcspResponderCredential issued = null;
+        while (true) {
+            OcspResponderCredential current = credentials.get(ca.getCaId());
+            if (current != null && current.isValidUntil(renewDeadline)) {
+                return current;
+            }
+            if (issued == null) {
+                issued = signingService.issueOcspResponderCredential(ca.getCaName(), settings.getCaSignatureAlgorithm(),
+                    settings.getResponderKeyAlgorithm(), settings.getResponderValidity());
+            }
+            boolean published = current == null
+                ? credentials.putIfAbsent(ca.getCaId(), issued) == null
+                : credentials.replace(ca.getCaId(), current, issued);
+            if (published) {
+                return issued;
+            }
+        }
+    }
+
+    /**
+     * 响应缓存键
+     */
+    private record ResponseKey(String issuerKeyHash, String serialNumber) {
+        static ResponseKey of(OcspCertId certId) {
+            return new ResponseKey(HexFormat.of().formatHex(certId.getIssuerKeyHash()), certId.getSerialNumber());
+        }
+    }
+
+    /**
+     * 缓存的已签名响应, 请求的CertID编码须与缓存时一致(响应回显CertID)
+     */
+    private record CachedResponse(OcspCertId certId, byte[] encoded, LocalDateTime refreshAt) {
+        boolean matches(OcspCertId requested, LocalDateTime now) {
+            return now.isBefore(refreshAt) && Arrays.equals(certId.getEncoded(), requested.getEncoded());
+        }
+    }
+
+    private record IssuerHashes(String pem, Map<String, OcspIssuerHash> byAlgorithm) {}
+}
@@ -1,97 +1,451 @@
 package org.wyman.domain.status.service;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRegistry;
+import org.wyman.domain.signing.adapter.port.IRevokedCertificateSource;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.status.adapter.port.IRevocationSnapshotStore;
 import org.wyman.domain.status.adapter.port.IRevocationStatusCacheRepository;
 import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
 import org.wyman.domain.status.valobj.CRLMetadata;
+import org.wyman.domain.status.valobj.RevocationChanges;
+import org.wyman.domain.status.valobj.RevocationIndex;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 吊销状态查询领域服务
+ * 查询读取进程内的不可变快照(原子引用), 不访问数据库; 吊销与CRL更新时复制出新快照后整体替换。
+ * 吊销事件以O(1)代价进入待合并队列(同一序列号合并为一条), 查询立即可见; 定时任务把队列分小批并入快照并追加到持久化缓存。
+ * 持久化缓存为多节点共享存储(Redis)时, 吊销同步写入并通知其他节点, 定时任务只负责并入本地快照。
+ * CRL更新只做核对: 补上缺失条目、移除CRL已不再包含的条目, 没有移除时不重建索引; 其余增量由定时压缩并入持久化快照。
+ * 启动时优先从本地快照文件恢复, 再补上快照之后数据库中的吊销; 没有本地快照时从持久化缓存(快照+增量)加载。
+ * 持久化缓存支持变更通知时(Redis), 其他节点的吊销与CRL更新即时反映到本节点快照; 批量查询对本地未吊销的序列号再向共享存储确认一次,
+ * 共享存储不可用时以本地快照应答, 降级次数计入统计并按间隔记录告警日志。
  */
+@Slf4j
 @Service
 public class RevocationStatusService {
 
+    /**
+     * 补齐本地快照时向前多查的时长, 覆盖快照保存时已写库但尚未进入快照的吊销
+     */
+    private static final Duration REPLAY_MARGIN = Duration.ofMinutes(5);
+
+    /**
+     * 共享存储确认失败告警日志的最小间隔(毫秒), 故障期间不逐请求记录
+     */
+    private static final long FALLBACK_LOG_INTERVAL_MS = 60_000;
+
     private final IRevocationStatusCacheRepository cacheRepository;
+    private final IRevocationSnapshotStore snapshotStore;
+    private final IRevokedCertificateSource revokedCertificateSource;
+    private final ICertificateAuthorityRegistry caRegistry;
+
+    private final AtomicReference<RevocationSnapshot> snapshot = new AtomicReference<>(RevocationSnapshot.empty());
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * 尚未并入快照的吊销(序列号 -> 详情)
+     */
+    private final ConcurrentHashMap<String, RevocationStatusCache.RevocationDetail> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 已同步写入共享存储、合并时无需再追加的待合并条目
+     */
+    private final Set<RevocationStatusCache.RevocationDetail> writtenThrough = ConcurrentHashMap.newKeySet();
 
-    public RevocationStatusService(IRevocationStatusCacheRepository cacheRepository) {
+    /**
+     * 其他节点引起的状态变化的监听器(如使OCSP响应缓存失效)
+     */
+    private final List<StatusChangeListener> statusChangeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 共享存储确认失败、以本地快照应答的次数
+     */
+    private final LongAdder sharedStoreFallbacks = new LongAdder();
+    private final AtomicLong lastFallbackLogMillis = new AtomicLong();
+
+    public RevocationStatusService(IRevocationStatusCacheRepository cacheRepository,
+                                   IRevocationSnapshotStore snapshotStore,
+                                   IRevokedCertificateSource revokedCertificateSource,
+                                   ICertificateAuthorityRegistry caRegistry) {
         this.cacheRepository = cacheRepository;
+        this.snapshotStore = snapshotStore;
+        this.revokedCertificateSource = revokedCertificateSource;
+        this.caRegistry = caRegistry;
+    }
+
+    /**
+     * 加载快照(启动时调用, 须在对外提供查询之前完成)
+     *
+     * @return 加载的吊销条目数
+     */
+    public synchronized int loadSnapshot() {
+        // 先订阅再读取, 读取期间到达的通知在加载完成后(同一把锁)再应用, 不会遗漏
+        if (subscribed.compareAndSet(false, true)) {
+            cacheRepository.subscribe(new RemoteChangeListener());
+        }
+        RevocationSnapshot loaded = snapshotStore.load();
+        if (loaded != null) {
+            LocalDateTime since = loaded.getLastUpdateTime().minus(REPLAY_MARGIN);
+            List<RevocationStatusCache.RevocationDetail> replayed = new ArrayList<>();
+            for (CertificateAuthority ca : caRegistry.getAll()) {
+                for (RevokedCertificate revoked : revokedCertificateSource.findRevokedSince(
+                    ca.getCaCertificate().getSubjectDN(), since)) {
+                    replayed.add(toDetail(revoked));
+                }
+            }
+            loaded = replayed.isEmpty() ? loaded : loaded.withRevocations(replayed);
+        } else {
+            loaded = cacheRepository.loadLatest();
+            loaded = loaded != null ? loaded : RevocationSnapshot.empty();
+        }
+        snapshot.set(loaded);
+        return loaded.size();
+    }
+
+    /**
+     * 注册状态变化监听器: 其他节点的吊销或CRL核对改变了本节点快照时, 以变化的序列号回调(不持有服务锁)
+     */
+    public void addStatusChangeListener(StatusChangeListener listener) {
+        statusChangeListeners.add(listener);
+    }
+
+    /**
+     * 把当前快照写入本地快照文件(CRL更新后与停机时调用)
+     */
+    public void saveSnapshot() {
+        snapshotStore.save(snapshot.get());
     }
 
     /**
      * 查询证书吊销状态
      */
     public boolean checkRevocationStatus(String serialNumber) {
-        RevocationStatusCache cache = cacheRepository.findLatest();
-        if (cache == null) {
-            return false;
-        }
-        return cache.isRevoked(serialNumber);
+        return isRevoked(snapshot.get(), serialNumber);
     }
 
     /**
-     * 批量查询证书吊销状态
+     * 批量查询证书吊销状态, 全部结果取自同一快照
      */
     public Map<String, Boolean> batchCheckRevocationStatus(List<String> serialNumbers) {
-        RevocationStatusCache cache = cacheRepository.findLatest();
-        if (cache == null) {
-            // 如果缓存不存在,返回全部未吊销
-            return serialNumbers.stream()
-                .collect(java.util.stream.Collectors.toMap(
-                    sn -> sn,
-                    sn -> false
-                ));
+        RevocationSnapshot current = snapshot.get();
+        Map<String, Boolean> result = new HashMap<>();
+        List<String> notRevoked = new ArrayList<>();
+        for (String serialNumber : serialNumbers) {
+            boolean revoked = isRevoked(current, serialNumber);
+            result.put(serialNumber, revoked);
+            if (!revoked) {
+                notRevoked.add(serialNumber);
+            }
+        }
+        if (!notRevoked.isEmpty()) {
+            try {
+                for (String serialNumber : cacheRepository.findRevoked(notRevoked)) {
+                    result.put(serialNumber, true);
+                }
+            } catch (RuntimeException e) {
+                // 共享存储不可用时以本地快照为准
+                onSharedStoreFallback(e);
+            }
         }
-        return cache.batchCheckRevocation(serialNumbers);
+        return result;
+    }
+
+    /**
+     * 按顺序查询一批序列号(批量流式查询的一个分块), 只读进程内快照, 不向共享存储确认
+     *
+     * @return 与输入顺序对齐的吊销标志
+     */
+    public boolean[] checkRevocationStatuses(List<String> serialNumbers) {
+        RevocationSnapshot current = snapshot.get();
+        boolean[] revoked = new boolean[serialNumbers.size()];
+        for (int i = 0; i < revoked.length; i++) {
+            String serialNumber = serialNumbers.get(i);
+            revoked[i] = serialNumber != null && isRevoked(current, serialNumber);
+        }
+        return revoked;
     }
 
     /**
      * 查询吊销详情
      */
     public RevocationStatusCache.RevocationDetail getRevocationDetail(String serialNumber) {
-        RevocationStatusCache cache = cacheRepository.findLatest();
-        if (cache == null) {
-            return null;
+        return findDetail(snapshot.get(), serialNumber);
+    }
+
+    /**
+     * 批量查询吊销详情, 全部结果取自同一快照
+     *
+     * @return 序列号到吊销详情的映射, 未吊销的序列号不出现
+     */
+    public Map<String, RevocationStatusCache.RevocationDetail> getRevocationDetails(Collection<String> serialNumbers) {
+        RevocationSnapshot current = snapshot.get();
+        Map<String, RevocationStatusCache.RevocationDetail> details = new HashMap<>();
+        for (String serialNumber : serialNumbers) {
+            RevocationStatusCache.RevocationDetail detail = findDetail(current, serialNumber);
+            if (detail != null) {
+                details.put(serialNumber, detail);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * 记录单个吊销条目(证书吊销事件触发, 无需等待下一次CRL生成)
+     * 放入待合并队列, 查询立即可见; 由flushPendingRevocations批量并入快照并持久化。
+     * 共享存储同步写入并通知其他节点, 本节点在合并前宕机也不会丢失; 写入失败时抛出异常, 条目留在队列中由合并重试
+     */
+    public void recordRevocation(String serialNumber, LocalDateTime revocationDate, String revocationReason) {
+        RevocationStatusCache.RevocationDetail detail =
+            new RevocationStatusCache.RevocationDetail(serialNumber, revocationDate, revocationReason);
+        RevocationStatusCache.RevocationDetail previous = pending.put(serialNumber, detail);
+        if (previous != null) {
+            writtenThrough.remove(previous);
+        }
+        if (cacheRepository.isShared()) {
+            cacheRepository.appendRevocations(snapshot.get().getCacheId(), List.of(detail));
+            writtenThrough.add(detail);
         }
-        return cache.getRevocationDetail(serialNumber);
     }
 
     /**
-     * 更新吊销状态缓存
+     * 把待合并的吊销分批并入快照, 并追加到持久化缓存(定时调用)
+     * 先替换快照再移出队列, 查询在任何时刻都能在两者之一中查到; 持久化失败的批次放回队列, 下次重试
+     *
+     * @param batchSize 每批条数
+     * @return 并入的条数
+     */
+    public synchronized int flushPendingRevocations(int batchSize) {
+        int flushed = 0;
+        while (!pending.isEmpty()) {
+            List<RevocationStatusCache.RevocationDetail> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            for (RevocationStatusCache.RevocationDetail detail : pending.values()) {
+                batch.add(detail);
+                if (batch.size() >= batchSize) {
+                    break;
+                }
+            }
+            RevocationSnapshot updated = snapshot.get().withRevocations(batch);
+            snapshot.set(updated);
+            // 合并期间同一序列号再次吊销时保留较新的一条
+            batch.forEach(detail -> pending.remove(detail.getSerialNumber(), detail));
+            List<RevocationStatusCache.RevocationDetail> unwritten = batch.stream()
+                .filter(detail -> !writtenThrough.remove(detail))
+                .toList();
+            try {
+                if (!unwritten.isEmpty()) {
+                    cacheRepository.appendRevocations(updated.getCacheId(), unwritten);
+                }
+            } catch (RuntimeException e) {
+                unwritten.forEach(detail -> pending.putIfAbsent(detail.getSerialNumber(), detail));
+                throw e;
+            }
+            flushed += batch.size();
+        }
+        return flushed;
+    }
+
+    /**
+     * 以新生成的CRL核对吊销状态缓存
+     * 先并入待合并的吊销; CRL生成前REPLAY_MARGIN之内的吊销可能未被CRL查到, 不因CRL中缺少而移除
      */
     public void updateCacheFromCRL(CRLMetadata crlMetadata,
-                                    List<RevocationStatusCache.RevocationDetail> revokedDetails) {
-        RevocationStatusCache cache = cacheRepository.findLatest();
-        if (cache == null) {
-            cache = new RevocationStatusCache("default-cache");
+                                   List<RevocationStatusCache.RevocationDetail> revokedDetails) {
+        int expectedSize = revokedDetails != null ? revokedDetails.size() : 0;
+        RevocationIndex.Builder builder = RevocationIndex.builder(expectedSize, RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+        if (revokedDetails != null) {
+            revokedDetails.forEach(builder::add);
         }
-        cache.updateFromCRL(crlMetadata, revokedDetails);
-        cacheRepository.save(cache);
+        updateCacheFromCRL(crlMetadata, builder.build());
+    }
+
+    /**
+     * 以按CRL条目构建的索引核对吊销状态缓存(规则同上)
+     */
+    public synchronized void updateCacheFromCRL(CRLMetadata crlMetadata, RevocationIndex revoked) {
+        flushPendingRevocations(Integer.MAX_VALUE);
+        LocalDateTime thisUpdate = crlMetadata.getThisUpdate() != null ? crlMetadata.getThisUpdate() : LocalDateTime.now();
+        RevocationSnapshot current = snapshot.get();
+        RevocationChanges changes = current.diff(revoked, thisUpdate.minus(REPLAY_MARGIN));
+        RevocationSnapshot updated = current.apply(crlMetadata, changes);
+        snapshot.set(updated);
+        cacheRepository.saveChanges(updated, changes);
+        snapshotStore.save(updated);
+    }
+
+    /**
+     * 以吊销条目数据源核对吊销状态缓存(手动生成CRL后调用)
+     * 缓存覆盖全部CA, 逐个CA按颁发者游标读取吊销条目, 只取序列号、吊销时间与原因,
+     * 直接写入索引构建器(定长并行数组), 不在堆上汇总成条目列表; 以当前快照条目数预估容量
+     */
+    public void updateCacheFromRevocationSource(CRLMetadata crlMetadata) {
+        RevocationIndex.Builder builder = RevocationIndex.builder(snapshot.get().size(), RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+        for (CertificateAuthority ca : caRegistry.getAll()) {
+            if (ca.getCaCertificate() != null) {
+                revokedCertificateSource.scan(ca.getCaCertificate().getSubjectDN(),
+                    revoked -> builder.add(toDetail(revoked)));
+            }
+        }
+        updateCacheFromCRL(crlMetadata, builder.build());
+    }
+
+    /**
+     * 把持久化缓存中累积的吊销增量并入新快照(定时调用)
+     *
+     * @param minDeltas 增量少于该条数时不压缩
+     * @return 并入的增量条数
+     */
+    public int compactCache(int minDeltas) {
+        return cacheRepository.compact(minDeltas);
     }
 
     /**
      * 获取缓存统计信息
      */
     public CacheStatistics getCacheStatistics() {
-        RevocationStatusCache cache = cacheRepository.findLatest();
-        if (cache == null) {
-            return new CacheStatistics(0, null, null);
+        RevocationSnapshot current = snapshot.get();
+        int pendingCount = 0;
+        for (String serialNumber : pending.keySet()) {
+            pendingCount += current.isRevoked(serialNumber) ? 0 : 1;
         }
         return new CacheStatistics(
-            cache.getRevokedCount(),
-            cache.getLastUpdateTime(),
-            cache.getCrlMetadata()
+            current.size() + pendingCount,
+            current.getLastUpdateTime(),
+            current.getCrlMetadata(),
+            sharedStoreFallbacks.sum()
         );
     }
 
+    private void onSharedStoreFallback(RuntimeException e) {
+        sharedStoreFallbacks.increment();
+        long now = System.currentTimeMillis();
+        long last = lastFallbackLogMillis.get();
+        if (now - last >= FALLBACK_LOG_INTERVAL_MS && lastFallbackLogMillis.compareAndSet(last, now)) {
+            log.warn("共享吊销存储确认失败, 批量查询以本地快照应答: 累计降级次数={}", sharedStoreFallbacks.sum(), e);
+        }
+    }
+
+    private static RevocationStatusCache.RevocationDetail toDetail(RevokedCertificate revoked) {
+        return new RevocationStatusCache.RevocationDetail(revoked.getSerialNumber(),
+            revoked.getRevocationDate(), revoked.getReason() != null ? revoked.getReason().getDesc() : null);
+    }
+
+    private boolean isRevoked(RevocationSnapshot current, String serialNumber) {
+        if (!pending.isEmpty() && pending.containsKey(serialNumber)) {
+            return true;
+        }
+        if (current.isRevoked(serialNumber)) {
+            return true;
+        }
+        // 读取期间恰好发生合并: 条目已移出队列, 但不在较早取得的快照中
+        RevocationSnapshot latest = snapshot.get();
+        return latest != current && latest.isRevoked(serialNumber);
+    }
+
+    private RevocationStatusCache.RevocationDetail findDetail(RevocationSnapshot current, String serialNumber) {
+        RevocationStatusCache.RevocationDetail detail = pending.isEmpty() ? null : pending.get(serialNumber);
+        if (detail == null) {
+            detail = current.getDetail(serialNumber);
+        }
+        RevocationSnapshot latest;
+        if (detail == null && (latest = snapshot.get()) != current) {
+            detail = latest.getDetail(serialNumber);
+        }
+        return detail;
+    }
+
+    /**
+     * 其他节点的变更通知: 吊销与CRL核对的变化直接应用到快照, 整体替换时重新加载
+     */
+    private class RemoteChangeListener implements IRevocationStatusCacheRepository.ChangeListener {
+
+        @Override
+        public void onRevocations(Collection<RevocationStatusCache.RevocationDetail> revocations) {
+            synchronized (RevocationStatusService.this) {
+                snapshot.set(snapshot.get().withRevocations(revocations));
+            }
+            notifyStatusChanged(revocations.stream().map(RevocationStatusCache.RevocationDetail::getSerialNumber).toList());
+        }
+
+        @Override
+        public void onChanges(CRLMetadata metadata, RevocationChanges changes) {
+            synchronized (RevocationStatusService.this) {
+                snapshot.set(snapshot.get().apply(metadata, changes));
+            }
+            List<String> changed = new ArrayList<>(changes.getRemoved());
+            changes.getUpserted().forEach(detail -> changed.add(detail.getSerialNumber()));
+            notifyStatusChanged(changed);
+        }
+
+        @Override
+        public void onSnapshotReplaced() {
+            List<String> changed = new ArrayList<>();
+            synchronized (RevocationStatusService.this) {
+                RevocationSnapshot latest = cacheRepository.loadLatest();
+                if (latest == null) {
+                    return;
+                }
+                RevocationSnapshot previous = snapshot.getAndSet(latest);
+                latest.forEach(detail -> {
+                    if (!previous.isRevoked(detail.getSerialNumber())) {
+                        changed.add(detail.getSerialNumber());
+                    }
+                });
+                previous.forEach(detail -> {
+                    if (!latest.isRevoked(detail.getSerialNumber())) {
+                        changed.add(detail.getSerialNumber());
+                    }
+                });
+            }
+            notifyStatusChanged(changed);
+        }
+    }
+
+    private void notifyStatusChanged(List<String> serialNumbers) {
+        if (serialNumbers.isEmpty()) {
+            return;
+        }
+        for (StatusChangeListener listener : statusChangeListeners) {
+            listener.onStatusChanged(serialNumbers);
+        }
+    }
+
+    /**
+     * 吊销状态变化监听器
+     */
+    @FunctionalInterface
+    public interface StatusChangeListener {
+        /**
+         * 这些序列号的吊销状态已变化
+         */
+        void onStatusChanged(Collection<String> serialNumbers);
+    }
+
     /**
      * 缓存统计信息
      */
     public record CacheStatistics(
         int revokedCount,
         java.time.LocalDateTime lastUpdateTime,
-        CRLMetadata crlMetadata
+        CRLMetadata crlMetadata,
+        long sharedStoreFallbacks
     ) {}
 }
@@ -0,0 +1,31 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.wyman.types.enums.CertificateStatus;
+import org.wyman.types.enums.RevocationReason;
+
+import java.time.LocalDateTime;
+
+/**
+ * 证书状态条目(预签名OCSP响应的数据来源), 只含序列号、状态与吊销信息
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateStatusEntry {
+    private String serialNumber;
+
+    private CertificateStatus status;
+
+    /**
+     * 状态更新时间, 吊销证书即吊销时间
+     */
+    private LocalDateTime updateTime;
+
+    /**
+     * 吊销原因, 仅REVOKED时可能有值
+     */
+    private RevocationReason revocationReason;
+}
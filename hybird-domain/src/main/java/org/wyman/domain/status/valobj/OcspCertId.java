@@ -0,0 +1,44 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OCSP请求中的证书标识(CertID)
+ * 响应须原样回显请求的CertID(含哈希算法参数的编码形式), 因此同时保留DER编码
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcspCertId {
+    /**
+     * SHA-1算法OID, RFC 5019轻量级客户端使用的CertID哈希算法, 预签名响应只按该算法生成
+     */
+    public static final String SHA1 = "1.3.14.3.2.26";
+
+    /**
+     * 哈希算法OID
+     */
+    private String hashAlgorithm;
+
+    /**
+     * 颁发者名称哈希
+     */
+    private byte[] issuerNameHash;
+
+    /**
+     * 颁发者公钥哈希
+     */
+    private byte[] issuerKeyHash;
+
+    /**
+     * 证书序列号(十六进制小写, 与证书表一致)
+     */
+    private String serialNumber;
+
+    /**
+     * CertID的DER编码
+     */
+    private byte[] encoded;
+}
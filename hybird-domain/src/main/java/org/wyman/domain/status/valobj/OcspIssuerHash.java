@@ -0,0 +1,30 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * CA证书按某一哈希算法计算的名称哈希与公钥哈希, 用于匹配请求CertID的颁发者
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcspIssuerHash {
+    private String hashAlgorithm;
+
+    private byte[] issuerNameHash;
+
+    private byte[] issuerKeyHash;
+
+    /**
+     * CertID是否由该颁发者签发
+     */
+    public boolean matches(OcspCertId certId) {
+        return hashAlgorithm.equals(certId.getHashAlgorithm())
+            && Arrays.equals(issuerKeyHash, certId.getIssuerKeyHash())
+            && Arrays.equals(issuerNameHash, certId.getIssuerNameHash());
+    }
+}
@@ -0,0 +1,25 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 解码后的OCSP请求
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcspRequest {
+    /**
+     * 请求查询的证书, 一个请求可包含多个
+     */
+    private List<OcspCertId> certIds;
+
+    /**
+     * nonce扩展值, 未携带时为空; 携带nonce的响应须回显且不能缓存
+     */
+    private byte[] nonce;
+}
@@ -0,0 +1,52 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * OCSP响应器参数(由配置构建, 调用方传入)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcspResponderSettings {
+    /**
+     * 响应有效期, 即nextUpdate与thisUpdate之差; 缓存的响应在有效期过半后重新签名
+     */
+    private Duration responseValidity;
+
+    /**
+     * CA签发委托响应器证书使用的签名算法
+     */
+    private String caSignatureAlgorithm;
+
+    /**
+     * 委托响应器密钥算法, 即OCSP响应的签名算法
+     */
+    private String responderKeyAlgorithm;
+
+    /**
+     * 委托响应器证书有效期
+     */
+    private Duration responderValidity;
+
+    /**
+     * 委托响应器证书剩余有效期不足该时长时换发, 应大于响应有效期
+     */
+    private Duration responderRenewBefore;
+
+    /**
+     * 预签名响应有效期, 应大于全量预签名间隔
+     */
+    private Duration presignedValidity;
+
+    /**
+     * 单个请求最多查询的证书数
+     */
+    private int maxRequestCertificates;
+}
@@ -0,0 +1,31 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.wyman.types.enums.OcspCertStatus;
+import org.wyman.types.enums.RevocationReason;
+
+import java.time.LocalDateTime;
+
+/**
+ * OCSP响应中单个证书的状态
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcspSingleResponse {
+    private OcspCertId certId;
+
+    private OcspCertStatus certStatus;
+
+    /**
+     * 吊销时间, 仅REVOKED时有值
+     */
+    private LocalDateTime revocationTime;
+
+    /**
+     * 吊销原因, 仅REVOKED时可能有值
+     */
+    private RevocationReason revocationReason;
+}
@@ -0,0 +1,30 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 预签名的单证书OCSP响应(SHA-1 CertID, 不带nonce)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedOcspResponse {
+    /**
+     * 证书序列号(十六进制)
+     */
+    private String serialNumber;
+
+    /**
+     * DER编码的完整OCSPResponse
+     */
+    private byte[] encoded;
+
+    /**
+     * 响应的nextUpdate, 过期后不再对外提供
+     */
+    private LocalDateTime nextUpdate;
+}
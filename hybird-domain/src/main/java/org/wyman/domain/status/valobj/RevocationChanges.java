@@ -0,0 +1,30 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+
+import java.util.List;
+
+/**
+ * CRL核对得出的吊销状态变化: 需要补上(或修正)的条目与需要移除的序列号
+ * 持久化与节点间同步只传递变化部分, 代价与变化量成正比
+ */
+@Getter
+@AllArgsConstructor
+public class RevocationChanges {
+
+    /**
+     * 补上或修正的吊销条目
+     */
+    private final List<RevocationStatusCache.RevocationDetail> upserted;
+
+    /**
+     * 移除的序列号
+     */
+    private final List<String> removed;
+
+    public boolean isEmpty() {
+        return upserted.isEmpty() && removed.isEmpty();
+    }
+}
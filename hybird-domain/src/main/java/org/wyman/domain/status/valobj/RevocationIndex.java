@@ -0,0 +1,480 @@
+package org.wyman.domain.status.valobj;
+
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.types.enums.RevocationReason;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 紧凑吊销索引(不可变)
+ * 序列号按160位定长无符号整数(RFC 5280 第4.1.2.2节上限20字节)拆成int + 两个long, 存于按序列号排序的并行基本类型数组,
+ * 吊销原因代码与吊销时间(纪元毫秒)存于同下标的并行数组, 每条约29字节且不产生对象; 查询为二分查找。
+ * 可选布隆过滤器在二分查找之前快速排除"一定未吊销"的序列号。
+ * 非规范形式的序列号(大写、前导零、超过20字节等)或无法识别的吊销原因放入普通Map, 保持原样。
+ */
+public final class RevocationIndex {
+
+    /**
+     * 默认布隆过滤器每条目位数, 误判率约1%
+     */
+    public static final int DEFAULT_BLOOM_BITS_PER_ENTRY = 10;
+
+    private static final int MAX_HEX_DIGITS = 40;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final byte NULL_REASON = -1;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final RevocationReason[] REASONS_BY_CODE = new RevocationReason[16];
+
+    static {
+        for (RevocationReason reason : RevocationReason.values()) {
+            REASONS_BY_CODE[reason.getCode()] = reason;
+        }
+    }
+
+    private final int count;
+    private final int[] top;
+    private final long[] high;
+    private final long[] low;
+    private final byte[] reasons;
+    private final long[] times;
+    private final Map<String, RevocationStatusCache.RevocationDetail> irregular;
+    private final int bloomBitsPerEntry;
+    private final long[] bloom;
+    private final int bloomHashes;
+
+    private RevocationIndex(int count, int[] top, long[] high, long[] low, byte[] reasons, long[] times,
+                            Map<String, RevocationStatusCache.RevocationDetail> irregular, int bloomBitsPerEntry) {
+        this.count = count;
+        this.top = top;
+        this.high = high;
+        this.low = low;
+        this.reasons = reasons;
+        this.times = times;
+        this.irregular = Collections.unmodifiableMap(irregular);
+        this.bloomBitsPerEntry = bloomBitsPerEntry;
+        if (bloomBitsPerEntry > 0 && count > 0) {
+            int bits = Integer.highestOneBit((int) Math.min(1L << 30, Math.max(64L, (long) count * bloomBitsPerEntry) * 2 - 1));
+            this.bloom = new long[Math.max(1, bits >>> 6)];
+            this.bloomHashes = Math.max(1, (int) Math.round(bloomBitsPerEntry * Math.log(2)));
+            for (int i = 0; i < count; i++) {
+                addToBloom(top[i], high[i], low[i]);
+            }
+        } else {
+            this.bloom = null;
+            this.bloomHashes = 0;
+        }
+    }
+
+    public static RevocationIndex empty() {
+        return builder(0, DEFAULT_BLOOM_BITS_PER_ENTRY).build();
+    }
+
+    /**
+     * @param expectedSize      预计条目数, 准确时构建过程不扩容也不复制数组
+     * @param bloomBitsPerEntry 布隆过滤器每条目位数, 0为不使用
+     */
+    public static Builder builder(int expectedSize, int bloomBitsPerEntry) {
+        return new Builder(expectedSize, bloomBitsPerEntry);
+    }
+
+    public boolean contains(String serialNumber) {
+        if (!irregular.isEmpty() && irregular.containsKey(serialNumber)) {
+            return true;
+        }
+        Key key = Key.parse(serialNumber);
+        return key != null && indexOf(key.top, key.high, key.low) >= 0;
+    }
+
+    /**
+     * 查询吊销详情, 未吊销返回null
+     */
+    public RevocationStatusCache.RevocationDetail get(String serialNumber) {
+        if (!irregular.isEmpty()) {
+            RevocationStatusCache.RevocationDetail detail = irregular.get(serialNumber);
+            if (detail != null) {
+                return detail;
+            }
+        }
+        Key key = Key.parse(serialNumber);
+        if (key == null) {
+            return null;
+        }
+        int i = indexOf(key.top, key.high, key.low);
+        return i >= 0 ? detail(serialNumber, i) : null;
+    }
+
+    /**
+     * 按定长键查询(不经过字符串), 返回下标, 不存在返回负数
+     */
+    public int indexOf(int topWord, long highWord, long lowWord) {
+        if (bloom != null && !mightContain(topWord, highWord, lowWord)) {
+            return -1;
+        }
+        int from = 0;
+        int to = count - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            int cmp = compare(top[mid], high[mid], low[mid], topWord, highWord, lowWord);
+            if (cmp < 0) {
+                from = mid + 1;
+            } else if (cmp > 0) {
+                to = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return count + irregular.size();
+    }
+
+    /**
+     * 逐条访问全部吊销条目(定长部分按序列号升序)
+     */
+    public void forEach(Consumer<RevocationStatusCache.RevocationDetail> consumer) {
+        for (int i = 0; i < count; i++) {
+            consumer.accept(detail(Key.format(top[i], high[i], low[i]), i));
+        }
+        irregular.values().forEach(consumer);
+    }
+
+    /**
+     * 数组与布隆过滤器占用的字节数(不含非规范条目)
+     */
+    public long memoryBytes() {
+        return (long) top.length * Integer.BYTES + (long) high.length * Long.BYTES * 2
+            + reasons.length + (long) times.length * Long.BYTES
+            + (bloom != null ? (long) bloom.length * Long.BYTES : 0);
+    }
+
+    /**
+     * 合并一批吊销条目, 返回新索引(同一序列号以updates为准); 线性归并, 不重新排序已有条目
+     */
+    public RevocationIndex merge(Map<String, RevocationStatusCache.RevocationDetail> updates) {
+        Builder additions = builder(updates.size(), 0);
+        updates.values().forEach(additions::add);
+        additions.sortAndDeduplicate();
+
+        int total = count + additions.count;
+        int[] mergedTop = new int[total];
+        long[] mergedHigh = new long[total];
+        long[] mergedLow = new long[total];
+        byte[] mergedReasons = new byte[total];
+        long[] mergedTimes = new long[total];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < count || j < additions.count) {
+            int cmp = i >= count ? 1 : j >= additions.count ? -1
+                : compare(top[i], high[i], low[i], additions.top[j], additions.high[j], additions.low[j]);
+            if (cmp < 0) {
+                mergedTop[n] = top[i];
+                mergedHigh[n] = high[i];
+                mergedLow[n] = low[i];
+                mergedReasons[n] = reasons[i];
+                mergedTimes[n++] = times[i++];
+            } else {
+                if (cmp == 0) {
+                    i++;
+                }
+                mergedTop[n] = additions.top[j];
+                mergedHigh[n] = additions.high[j];
+                mergedLow[n] = additions.low[j];
+                mergedReasons[n] = additions.reasons[j];
+                mergedTimes[n++] = additions.times[j++];
+            }
+        }
+        Map<String, RevocationStatusCache.RevocationDetail> mergedIrregular = new HashMap<>(irregular);
+        mergedIrregular.putAll(additions.irregular);
+        if (n < total) {
+            mergedTop = Arrays.copyOf(mergedTop, n);
+            mergedHigh = Arrays.copyOf(mergedHigh, n);
+            mergedLow = Arrays.copyOf(mergedLow, n);
+            mergedReasons = Arrays.copyOf(mergedReasons, n);
+            mergedTimes = Arrays.copyOf(mergedTimes, n);
+        }
+        return new RevocationIndex(n, mergedTop, mergedHigh, mergedLow, mergedReasons, mergedTimes,
+            mergedIrregular, bloomBitsPerEntry);
+    }
+
+    private RevocationStatusCache.RevocationDetail detail(String serialNumber, int i) {
+        RevocationReason reason = reasons[i] == NULL_REASON ? null : REASONS_BY_CODE[reasons[i]];
+        LocalDateTime time = times[i] == NULL_TIME ? null
+            : LocalDateTime.ofInstant(Instant.ofEpochMilli(times[i]), ZoneId.systemDefault());
+        return new RevocationStatusCache.RevocationDetail(serialNumber, time, reason != null ? reason.getDesc() : null);
+    }
+
+    private boolean mightContain(int topWord, long highWord, long lowWord) {
+        long hash = hash(topWord, highWord, lowWord);
+        long step = mix(hash + 0x9E3779B97F4A7C15L) | 1;
+        long mask = ((long) bloom.length << 6) - 1;
+        for (int k = 0; k < bloomHashes; k++) {
+            long bit = (hash + k * step) & mask;
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addToBloom(int topWord, long highWord, long lowWord) {
+        long hash = hash(topWord, highWord, lowWord);
+        long step = mix(hash + 0x9E3779B97F4A7C15L) | 1;
+        long mask = ((long) bloom.length << 6) - 1;
+        for (int k = 0; k < bloomHashes; k++) {
+            long bit = (hash + k * step) & mask;
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static long hash(int topWord, long highWord, long lowWord) {
+        return mix(mix(lowWord ^ 0x9E3779B97F4A7C15L) ^ highWord ^ ((long) topWord << 17));
+    }
+
+    /**
+     * MurmurHash3 fmix64
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int compare(int topA, long highA, long lowA, int topB, long highB, long lowB) {
+        int cmp = Integer.compareUnsigned(topA, topB);
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(highA, highB);
+        }
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(lowA, lowB);
+        }
+        return cmp;
+    }
+
+    /**
+     * 160位定长序列号; 只接受BigInteger.toString(16)的规范形式(小写、无前导零、非负)
+     */
+    private record Key(int top, long high, long low) {
+
+        static Key parse(String serialNumber) {
+            if (serialNumber == null) {
+                return null;
+            }
+            int length = serialNumber.length();
+            if (length == 0 || length > MAX_HEX_DIGITS || (length > 1 && serialNumber.charAt(0) == '0')) {
+                return null;
+            }
+            long[] words = new long[3];
+            for (int i = 0; i < length; i++) {
+                int digit = digit(serialNumber.charAt(length - 1 - i));
+                if (digit < 0) {
+                    return null;
+                }
+                words[i >>> 4] |= (long) digit << ((i & 15) << 2);
+            }
+            return new Key((int) words[2], words[1], words[0]);
+        }
+
+        static String format(int top, long high, long low) {
+            if (top != 0) {
+                return Integer.toHexString(top) + pad(high) + pad(low);
+            }
+            if (high != 0) {
+                return Long.toHexString(high) + pad(low);
+            }
+            return Long.toHexString(low);
+        }
+
+        private static String pad(long word) {
+            String hex = Long.toHexString(word);
+            return "0".repeat(16 - hex.length()) + hex;
+        }
+
+        private static int digit(char c) {
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            }
+            if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 索引构建器: 条目追加到可扩容的并行数组, build时原地排序去重
+     */
+    public static final class Builder {
+        private final int bloomBitsPerEntry;
+        private final Map<String, RevocationStatusCache.RevocationDetail> irregular = new HashMap<>();
+        private int count;
+        private int[] top;
+        private long[] high;
+        private long[] low;
+        private byte[] reasons;
+        private long[] times;
+
+        private Builder(int expectedSize, int bloomBitsPerEntry) {
+            int capacity = Math.max(16, expectedSize);
+            this.bloomBitsPerEntry = bloomBitsPerEntry;
+            this.top = new int[capacity];
+            this.high = new long[capacity];
+            this.low = new long[capacity];
+            this.reasons = new byte[capacity];
+            this.times = new long[capacity];
+        }
+
+        public Builder add(RevocationStatusCache.RevocationDetail detail) {
+            Key key = Key.parse(detail.getSerialNumber());
+            RevocationReason reason = RevocationReason.fromDesc(detail.getRevocationReason());
+            if (key == null || (detail.getRevocationReason() != null && reason == null)) {
+                irregular.put(detail.getSerialNumber(), detail);
+                return this;
+            }
+            long time = detail.getRevocationDate() != null
+                ? detail.getRevocationDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : NULL_TIME;
+            return add(key.top, key.high, key.low, reason, time);
+        }
+
+        /**
+         * 按定长键追加
+         *
+         * @param revocationTime 吊销时间(纪元毫秒), 未知时为Long.MIN_VALUE
+         */
+        public Builder add(int topWord, long highWord, long lowWord, RevocationReason reason, long revocationTime) {
+            if (count == top.length) {
+                int capacity = count + (count >> 1);
+                top = Arrays.copyOf(top, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                reasons = Arrays.copyOf(reasons, capacity);
+                times = Arrays.copyOf(times, capacity);
+            }
+            top[count] = topWord;
+            high[count] = highWord;
+            low[count] = lowWord;
+            reasons[count] = reason != null ? (byte) reason.getCode() : NULL_REASON;
+            times[count++] = revocationTime;
+            return this;
+        }
+
+        public RevocationIndex build() {
+            sortAndDeduplicate();
+            if (count < top.length) {
+                top = Arrays.copyOf(top, count);
+                high = Arrays.copyOf(high, count);
+                low = Arrays.copyOf(low, count);
+                reasons = Arrays.copyOf(reasons, count);
+                times = Arrays.copyOf(times, count);
+            }
+            return new RevocationIndex(count, top, high, low, reasons, times, irregular, bloomBitsPerEntry);
+        }
+
+        /**
+         * 排序后相邻的重复序列号只保留一条
+         */
+        private void sortAndDeduplicate() {
+            sort(0, count - 1);
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (n > 0 && compare(top[n - 1], high[n - 1], low[n - 1], top[i], high[i], low[i]) == 0) {
+                    n--;
+                }
+                if (n != i) {
+                    move(i, n);
+                }
+                n++;
+            }
+            count = n;
+        }
+
+        /**
+         * 并行数组上的快速排序(三数取中 + Hoare划分, 小区间插入排序)
+         */
+        private void sort(int lo, int hi) {
+            while (hi - lo > INSERTION_SORT_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                int pivot = median(lo, mid, hi);
+                int pivotTop = top[pivot];
+                long pivotHigh = high[pivot];
+                long pivotLow = low[pivot];
+                int i = lo - 1;
+                int j = hi + 1;
+                while (true) {
+                    do {
+                        i++;
+                    } while (compare(top[i], high[i], low[i], pivotTop, pivotHigh, pivotLow) < 0);
+                    do {
+                        j--;
+                    } while (compare(top[j], high[j], low[j], pivotTop, pivotHigh, pivotLow) > 0);
+                    if (i >= j) {
+                        break;
+                    }
+                    swap(i, j);
+                }
+                // 先递归较小的一侧, 栈深度不超过log(n)
+                if (j - lo < hi - j) {
+                    sort(lo, j);
+                    lo = j + 1;
+                } else {
+                    sort(j + 1, hi);
+                    hi = j;
+                }
+            }
+            for (int i = lo + 1; i <= hi; i++) {
+                for (int k = i; k > lo && compareAt(k - 1, k) > 0; k--) {
+                    swap(k - 1, k);
+                }
+            }
+        }
+
+        private int median(int a, int b, int c) {
+            if (compareAt(a, b) < 0) {
+                return compareAt(b, c) < 0 ? b : compareAt(a, c) < 0 ? c : a;
+            }
+            return compareAt(a, c) < 0 ? a : compareAt(b, c) < 0 ? c : b;
+        }
+
+        private int compareAt(int a, int b) {
+            return compare(top[a], high[a], low[a], top[b], high[b], low[b]);
+        }
+
+        private void swap(int a, int b) {
+            int t = top[a];
+            top[a] = top[b];
+            top[b] = t;
+            long h = high[a];
+            high[a] = high[b];
+            high[b] = h;
+            long l = low[a];
+            low[a] = low[b];
+            low[b] = l;
+            byte r = reasons[a];
+            reasons[a] = reasons[b];
+            reasons[b] = r;
+            long time = times[a];
+            times[a] = times[b];
+            times[b] = time;
+        }
+
+        private void move(int from, int to) {
+            top[to] = top[from];
+            high[to] = high[from];
+            low[to] = low[from];
+            reasons[to] = reasons[from];
+            times[to] = times[from];
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.wyman.domain.status.valobj;
+
+import lombok.Getter;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 吊销状态快照(不可变)
+ * 查询直接读取快照, 不访问数据库也不反序列化; 变更时复制出新快照后整体替换, 正在进行的查询不受影响。
+ * 条目存于紧凑吊销索引; 之后的单条吊销先进入小的近期Map(复制代价与其大小成正比), 超过阈值时归并入新索引。
+ */
+@Getter
+public final class RevocationSnapshot {
+
+    public static final String DEFAULT_CACHE_ID = "default-cache";
+
+    /**
+     * 近期吊销超过该条数时归并入索引
+     */
+    private static final int RECENT_MERGE_THRESHOLD = 4096;
+
+    /**
+     * 对应的持久化缓存ID
+     */
+    private final String cacheId;
+
+    /**
+     * 快照生成时间
+     */
+    private final LocalDateTime lastUpdateTime;
+
+    /**
+     * 最近一次CRL的元数据
+     */
+    private final CRLMetadata crlMetadata;
+
+    /**
+     * 吊销条目索引
+     */
+    private final RevocationIndex index;
+
+    /**
+     * 尚未归并入索引的近期吊销(只读)
+     */
+    private final Map<String, RevocationStatusCache.RevocationDetail> recent;
+
+    private final int size;
+
+    public RevocationSnapshot(String cacheId,
+                              LocalDateTime lastUpdateTime,
+                              CRLMetadata crlMetadata,
+                              RevocationIndex index) {
+        this(cacheId, lastUpdateTime, crlMetadata, index, Map.of(), index.size());
+    }
+
+    private RevocationSnapshot(String cacheId,
+                               LocalDateTime lastUpdateTime,
+                               CRLMetadata crlMetadata,
+                               RevocationIndex index,
+                               Map<String, RevocationStatusCache.RevocationDetail> recent,
+                               int size) {
+        this.cacheId = cacheId;
+        this.lastUpdateTime = lastUpdateTime;
+        this.crlMetadata = crlMetadata;
+        this.index = index;
+        this.recent = Collections.unmodifiableMap(recent);
+        this.size = size;
+    }
+
+    public static RevocationSnapshot empty() {
+        return new RevocationSnapshot(DEFAULT_CACHE_ID, LocalDateTime.now(), null, RevocationIndex.empty());
+    }
+
+    /**
+     * 由持久化的吊销状态缓存构造快照
+     */
+    public static RevocationSnapshot of(RevocationStatusCache cache) {
+        Map<String, RevocationStatusCache.RevocationDetail> details = cache.getRevocationDetails() != null
+            ? cache.getRevocationDetails() : Map.of();
+        RevocationIndex.Builder builder = RevocationIndex.builder(details.size(), RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+        details.values().forEach(builder::add);
+        // 只有序列号没有详情的历史条目补一条空详情, 保证isRevoked与集合一致
+        if (cache.getRevokedSerialNumbers() != null) {
+            for (String serialNumber : cache.getRevokedSerialNumbers()) {
+                if (!details.containsKey(serialNumber)) {
+                    builder.add(new RevocationStatusCache.RevocationDetail(serialNumber, null, null));
+                }
+            }
+        }
+        return new RevocationSnapshot(cache.getCacheId() != null ? cache.getCacheId() : DEFAULT_CACHE_ID,
+            cache.getLastUpdateTime() != null ? cache.getLastUpdateTime() : LocalDateTime.now(),
+            cache.getCrlMetadata(), builder.build());
+    }
+
+    public boolean isRevoked(String serialNumber) {
+        return recent.containsKey(serialNumber) || index.contains(serialNumber);
+    }
+
+    public RevocationStatusCache.RevocationDetail getDetail(String serialNumber) {
+        RevocationStatusCache.RevocationDetail detail = recent.get(serialNumber);
+        return detail != null ? detail : index.get(serialNumber);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 逐条访问全部吊销条目
+     */
+    public void forEach(Consumer<RevocationStatusCache.RevocationDetail> consumer) {
+        recent.values().forEach(consumer);
+        index.forEach(detail -> {
+            if (!recent.containsKey(detail.getSerialNumber())) {
+                consumer.accept(detail);
+            }
+        });
+    }
+
+    /**
+     * 复制出加入若干吊销条目的新快照
+     */
+    public RevocationSnapshot withRevocations(Collection<RevocationStatusCache.RevocationDetail> revocations) {
+        Map<String, RevocationStatusCache.RevocationDetail> updated = new HashMap<>(recent);
+        int updatedSize = size;
+        for (RevocationStatusCache.RevocationDetail detail : revocations) {
+            if (updated.put(detail.getSerialNumber(), detail) == null && !index.contains(detail.getSerialNumber())) {
+                updatedSize++;
+            }
+        }
+        if (updated.size() > RECENT_MERGE_THRESHOLD) {
+            return new RevocationSnapshot(cacheId, LocalDateTime.now(), crlMetadata, index.merge(updated));
+        }
+        return new RevocationSnapshot(cacheId, LocalDateTime.now(), crlMetadata, index, updated, updatedSize);
+    }
+
+    /**
+     * 以CRL的吊销条目替换全部内容(与RevocationStatusCache.updateFromCRL一致)
+     */
+    public RevocationSnapshot withCRL(CRLMetadata metadata,
+                                      Collection<RevocationStatusCache.RevocationDetail> revocations) {
+        int expectedSize = revocations != null ? revocations.size() : 0;
+        RevocationIndex.Builder builder = RevocationIndex.builder(expectedSize, RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+        if (revocations != null) {
+            revocations.forEach(builder::add);
+        }
+        return new RevocationSnapshot(cacheId, LocalDateTime.now(), metadata, builder.build());
+    }
+
+    /**
+     * 以CRL的吊销条目核对当前内容: 只补上缺失或不一致的条目; 快照中有而CRL中没有的条目,
+     * 吊销时间早于coveredBefore的视为已移除, 之后的视为CRL生成时尚未查到的新吊销而保留。
+     * 没有需要移除的条目时沿用现有索引, 不重建。
+     */
+    public RevocationSnapshot reconcile(CRLMetadata metadata,
+                                        Collection<RevocationStatusCache.RevocationDetail> revocations,
+                                        LocalDateTime coveredBefore) {
+        return apply(metadata, diff(revocations, coveredBefore));
+    }
+
+    /**
+     * 以CRL的吊销条目核对当前内容得出的变化(规则同reconcile)
+     */
+    public RevocationChanges diff(Collection<RevocationStatusCache.RevocationDetail> revocations,
+                                  LocalDateTime coveredBefore) {
+        int expectedSize = revocations != null ? revocations.size() : 0;
+        RevocationIndex.Builder builder = RevocationIndex.builder(expectedSize, RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+        if (revocations != null) {
+            revocations.forEach(builder::add);
+        }
+        return diff(builder.build(), coveredBefore);
+    }
+
+    /**
+     * 以按CRL条目构建的索引核对当前内容得出的变化(规则同reconcile)
+     * 数据源游标可直接写入RevocationIndex.Builder, 不必先在堆上汇总成列表
+     */
+    public RevocationChanges diff(RevocationIndex listed, LocalDateTime coveredBefore) {
+        List<RevocationStatusCache.RevocationDetail> upserted = new ArrayList<>();
+        listed.forEach(detail -> {
+            if (!sameEntry(detail, getDetail(detail.getSerialNumber()))) {
+                upserted.add(detail);
+            }
+        });
+        List<String> removed = new ArrayList<>();
+        forEach(detail -> {
+            if (!listed.contains(detail.getSerialNumber()) && isCovered(detail, coveredBefore)) {
+                removed.add(detail.getSerialNumber());
+            }
+        });
+        return new RevocationChanges(upserted, removed);
+    }
+
+    /**
+     * 复制出应用变化并更新CRL元数据的新快照; 没有需要移除的条目时沿用现有索引, 不重建
+     */
+    public RevocationSnapshot apply(CRLMetadata metadata, RevocationChanges changes) {
+        if (!changes.getRemoved().isEmpty()) {
+            Set<String> removed = new HashSet<>(changes.getRemoved());
+            Map<String, RevocationStatusCache.RevocationDetail> upserted = new HashMap<>();
+            changes.getUpserted().forEach(detail -> upserted.put(detail.getSerialNumber(), detail));
+            RevocationIndex.Builder builder = RevocationIndex.builder(size + upserted.size(), RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+            upserted.values().forEach(builder::add);
+            forEach(detail -> {
+                if (!removed.contains(detail.getSerialNumber()) && !upserted.containsKey(detail.getSerialNumber())) {
+                    builder.add(detail);
+                }
+            });
+            return new RevocationSnapshot(cacheId, LocalDateTime.now(), metadata, builder.build());
+        }
+        RevocationSnapshot updated = changes.getUpserted().isEmpty() ? this : withRevocations(changes.getUpserted());
+        return new RevocationSnapshot(cacheId, LocalDateTime.now(), metadata, updated.index, updated.recent, updated.size);
+    }
+
+    /**
+     * 索引中的吊销时间精确到毫秒
+     */
+    private static boolean sameEntry(RevocationStatusCache.RevocationDetail expected, RevocationStatusCache.RevocationDetail actual) {
+        return actual != null
+            && Objects.equals(expected.getRevocationReason(), actual.getRevocationReason())
+            && Objects.equals(truncate(expected.getRevocationDate()), truncate(actual.getRevocationDate()));
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+
+    private static boolean isCovered(RevocationStatusCache.RevocationDetail detail, LocalDateTime coveredBefore) {
+        return detail.getRevocationDate() == null || detail.getRevocationDate().isBefore(coveredBefore);
+    }
+}
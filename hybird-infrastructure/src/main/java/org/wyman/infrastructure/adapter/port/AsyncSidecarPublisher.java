@@ -0,0 +1,428 @@
+package org.wyman.infrastructure.adapter.port;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.signing.adapter.port.IObjectStorageGateway;
+import org.wyman.domain.signing.adapter.port.ISidecarPublisher;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.infrastructure.config.SidecarConfig;
+import org.wyman.infrastructure.crypto.MerkleSidecarBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异步批量sidecar发布器
+ * 签发线程只登记待发布的sidecar; 签名在独立线程池上以CA私钥执行(任务队列满时由签发线程自行签名),
+ * 上传由单个后台线程按批次并行执行, 失败按指数退避持续重试。
+ * 上传成功前sidecar始终保留在本地可读; 未上传数量达到上限时发布调用只等待publishTimeoutMs,
+ * 超时后sidecar写入本地日志目录, 上传队列腾出空间后由上传线程补传, 对象存储故障不会阻塞签发,
+ * 已公布的sidecar URL也不会因积压而丢失。停止后提交的sidecar立即以异常结束, 读取方不会无限等待。
+ */
+@Slf4j
+@Component
+public class AsyncSidecarPublisher implements ISidecarPublisher {
+
+    private final MerkleSidecarBuilder sidecarBuilder;
+    private final IObjectStorageGateway objectStorageGateway;
+    private final SidecarConfig config;
+
+    private final Semaphore capacity;
+    private final Map<String, CompletableFuture<String>> pendingSidecars = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingUpload> readyQueue = new LinkedBlockingQueue<>();
+    private final DelayQueue<PendingUpload> retryQueue = new DelayQueue<>();
+    private final Map<String, String> localSidecars;
+    private final Set<String> requeuedSpills = ConcurrentHashMap.newKeySet();
+    private final Path spillDirectory;
+    private final ThreadPoolExecutor signExecutor;
+    private ScheduledExecutorService uploadExecutor;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder uploaded = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+
+    public AsyncSidecarPublisher(MerkleSidecarBuilder sidecarBuilder,
+                                 IObjectStorageGateway objectStorageGateway,
+                                 SidecarConfig config) {
+        this.sidecarBuilder = sidecarBuilder;
+        this.objectStorageGateway = objectStorageGateway;
+        this.config = config;
+        this.capacity = new Semaphore(Math.max(1, config.getUploadQueueCapacity()));
+        this.spillDirectory = Paths.get(config.getSpillDirectory());
+        int cacheSize = Math.max(1, config.getLocalCacheSize());
+        this.localSidecars = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        int signThreads = Math.max(1, config.getSignThreads());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.signExecutor = new ThreadPoolExecutor(signThreads, signThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, config.getUploadBatchSize())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "sidecar-signer-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, executor) -> {
+                // 队列满时由签发线程自行签名; 停止后直接拒绝, 不能像CallerRunsPolicy那样静默丢弃
+                if (executor.isShutdown()) {
+                    ((BuildTask) runnable).reject();
+                } else {
+                    runnable.run();
+                }
+            });
+    }
+
+    @PostConstruct
+    public void init() {
+        uploadExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sidecar-uploader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        uploadExecutor.scheduleWithFixedDelay(this::flushSafely,
+            config.getFlushIntervalMs(), config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        signExecutor.shutdown();
+        try {
+            signExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (uploadExecutor != null) {
+            uploadExecutor.shutdown();
+        }
+        // 停机前尽量把已就绪的sidecar上传完
+        while (!readyQueue.isEmpty()) {
+            if (flush() == 0) {
+                break;
+            }
+        }
+        if (!pendingSidecars.isEmpty()) {
+            log.warn("sidecar发布器停止时仍有未上传的sidecar: count={}", pendingSidecars.size());
+        }
+        log.info("sidecar发布器停止: {}", getStatistics());
+    }
+
+    @Override
+    public void publish(String serialNumber, HybridCertificateRequestContext hybridContext,
+                        Certificate signingCertificate, String signatureAlgorithm) {
+        boolean queued;
+        try {
+            queued = capacity.tryAcquire(config.getPublishTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待sidecar上传队列时被中断: " + serialNumber, e);
+        }
+        CompletableFuture<String> sidecar = new CompletableFuture<>();
+        pendingSidecars.put(serialNumber, sidecar);
+        published.increment();
+        signExecutor.execute(new BuildTask(serialNumber, hybridContext, signingCertificate, signatureAlgorithm,
+            sidecar, queued));
+    }
+
+    @Override
+    public String getSidecar(String serialNumber) {
+        CompletableFuture<String> pending = pendingSidecars.get(serialNumber);
+        if (pending != null) {
+            String sidecarJson = await(serialNumber, pending);
+            if (sidecarJson != null) {
+                return sidecarJson;
+            }
+        }
+        String sidecarJson = localSidecars.get(serialNumber);
+        if (sidecarJson != null) {
+            return sidecarJson;
+        }
+        sidecarJson = readSpilled(serialNumber);
+        if (sidecarJson != null) {
+            return sidecarJson;
+        }
+        sidecarJson = objectStorageGateway.downloadSidecar(serialNumber);
+        if (sidecarJson != null) {
+            localSidecars.put(serialNumber, sidecarJson);
+        }
+        return sidecarJson;
+    }
+
+    /**
+     * 上传一批sidecar, 返回本批处理数量
+     */
+    int flush() {
+        List<PendingUpload> batch = new ArrayList<>(config.getUploadBatchSize());
+        retryQueue.drainTo(batch, config.getUploadBatchSize());
+        readyQueue.drainTo(batch, config.getUploadBatchSize() - batch.size());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<String, String> sidecars = new LinkedHashMap<>();
+        batch.forEach(upload -> sidecars.put(upload.serialNumber, upload.sidecarJson));
+        Set<String> failedSerials;
+        try {
+            failedSerials = new HashSet<>(objectStorageGateway.uploadSidecars(sidecars));
+        } catch (Exception e) {
+            log.warn("sidecar批量上传失败: size={}, error={}", batch.size(), e.getMessage());
+            failedSerials = sidecars.keySet();
+        }
+        for (PendingUpload upload : batch) {
+            if (failedSerials.contains(upload.serialNumber)) {
+                handleFailure(upload);
+                continue;
+            }
+            // 先进入本地缓存再移出待上传表和本地日志, 读取方始终能拿到
+            localSidecars.put(upload.serialNumber, upload.sidecarJson);
+            pendingSidecars.remove(upload.serialNumber);
+            if (upload.spilled) {
+                deleteSpilled(upload.serialNumber);
+                requeuedSpills.remove(upload.serialNumber);
+            }
+            capacity.release();
+            uploaded.increment();
+        }
+        return batch.size();
+    }
+
+    public SidecarPublisherStatistics getStatistics() {
+        return new SidecarPublisherStatistics(published.sum(), uploaded.sum(), retried.sum(),
+            failed.sum(), spilled.sum(), pendingSidecars.size());
+    }
+
+    /**
+     * 把本地日志目录中的sidecar按上传队列空位重新排入上传, 返回本次排入数量
+     */
+    int requeueSpilled() {
+        if (!Files.isDirectory(spillDirectory)) {
+            return 0;
+        }
+        int requeued = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory, "*.json")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String serialNumber = fileName.substring(0, fileName.length() - ".json".length());
+                if (requeuedSpills.contains(serialNumber)) {
+                    continue;
+                }
+                if (!capacity.tryAcquire()) {
+                    break;
+                }
+                String sidecarJson = readSpilled(serialNumber);
+                if (sidecarJson == null) {
+                    capacity.release();
+                    continue;
+                }
+                requeuedSpills.add(serialNumber);
+                readyQueue.add(new PendingUpload(serialNumber, sidecarJson, true));
+                requeued++;
+            }
+        } catch (IOException e) {
+            log.warn("扫描sidecar本地日志目录失败: {}", spillDirectory, e);
+        }
+        return requeued;
+    }
+
+    private void build(BuildTask task) {
+        try {
+            String sidecarJson = sidecarBuilder.build(task.serialNumber, task.hybridContext,
+                task.signingCertificate, task.signatureAlgorithm);
+            if (task.queued) {
+                task.sidecar.complete(sidecarJson);
+                readyQueue.add(new PendingUpload(task.serialNumber, sidecarJson, false));
+                return;
+            }
+            // 上传队列已满: 先落本地日志再移出待上传表, 由上传线程在腾出空间后补传
+            spill(task.serialNumber, sidecarJson);
+            task.sidecar.complete(sidecarJson);
+            pendingSidecars.remove(task.serialNumber);
+        } catch (Exception e) {
+            failed.increment();
+            log.error("构建sidecar失败: serialNumber={}", task.serialNumber, e);
+            pendingSidecars.remove(task.serialNumber);
+            if (task.queued) {
+                capacity.release();
+            }
+            task.sidecar.complete(null);
+        }
+    }
+
+    private String await(String serialNumber, CompletableFuture<String> pending) {
+        try {
+            return pending.get(config.getReadTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("等待sidecar签名超时: serialNumber={}", serialNumber);
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void spill(String serialNumber, String sidecarJson) throws IOException {
+        Files.createDirectories(spillDirectory);
+        Path temp = Files.createTempFile(spillDirectory, serialNumber, ".tmp");
+        Files.writeString(temp, sidecarJson, StandardCharsets.UTF_8);
+        Files.move(temp, spillDirectory.resolve(serialNumber + ".json"),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        spilled.increment();
+        log.warn("sidecar上传队列已满, 转存本地日志: serialNumber={}", serialNumber);
+    }
+
+    private String readSpilled(String serialNumber) {
+        try {
+            return Files.readString(spillDirectory.resolve(serialNumber + ".json"), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("读取sidecar本地日志失败: serialNumber={}", serialNumber, e);
+            return null;
+        }
+    }
+
+    private void deleteSpilled(String serialNumber) {
+        try {
+            Files.deleteIfExists(spillDirectory.resolve(serialNumber + ".json"));
+        } catch (IOException e) {
+            log.warn("删除sidecar本地日志失败: serialNumber={}", serialNumber, e);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            requeueSpilled();
+            // 队列积压时连续上传, 直到本批不满
+            while (flush() >= config.getUploadBatchSize()) {
+                Thread.yield();
+            }
+        } catch (Exception e) {
+            log.error("sidecar批量上传异常", e);
+        }
+    }
+
+    private void handleFailure(PendingUpload upload) {
+        int attempts = upload.attempts + 1;
+        long backoff = Math.min(config.getRetryBackoffMs() << Math.min(attempts - 1, 16), config.getMaxRetryBackoffMs());
+        retried.increment();
+        log.warn("sidecar上传失败, {}ms后重试: serialNumber={}, attempts={}", backoff, upload.serialNumber, attempts);
+        retryQueue.put(new PendingUpload(upload.serialNumber, upload.sidecarJson, upload.spilled, attempts,
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff)));
+    }
+
+    private final class BuildTask implements Runnable {
+        private final String serialNumber;
+        private final HybridCertificateRequestContext hybridContext;
+        private final Certificate signingCertificate;
+        private final String signatureAlgorithm;
+        private final CompletableFuture<String> sidecar;
+        private final boolean queued;
+
+        private BuildTask(String serialNumber, HybridCertificateRequestContext hybridContext,
+                          Certificate signingCertificate, String signatureAlgorithm,
+                          CompletableFuture<String> sidecar, boolean queued) {
+            this.serialNumber = serialNumber;
+            this.hybridContext = hybridContext;
+            this.signingCertificate = signingCertificate;
+            this.signatureAlgorithm = signatureAlgorithm;
+            this.sidecar = sidecar;
+            this.queued = queued;
+        }
+
+        @Override
+        public void run() {
+            build(this);
+        }
+
+        private void reject() {
+            failed.increment();
+            log.warn("sidecar发布器已停止, 拒绝发布: serialNumber={}", serialNumber);
+            pendingSidecars.remove(serialNumber);
+            if (queued) {
+                capacity.release();
+            }
+            sidecar.completeExceptionally(new RejectedExecutionException("sidecar发布器已停止: " + serialNumber));
+        }
+    }
+
+    private static final class PendingUpload implements Delayed {
+        private final String serialNumber;
+        private final String sidecarJson;
+        private final boolean spilled;
+        private final int attempts;
+        private final long dueNanos;
+
+        private PendingUpload(String serialNumber, String sidecarJson, boolean spilled) {
+            this(serialNumber, sidecarJson, spilled, 0, System.nanoTime());
+        }
+
+        private PendingUpload(String serialNumber, String sidecarJson, boolean spilled, int attempts, long dueNanos) {
+            this.serialNumber = serialNumber;
+            this.sidecarJson = sidecarJson;
+            this.spilled = spilled;
+            this.attempts = attempts;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * sidecar发布统计
+     */
+    public record SidecarPublisherStatistics(
+        long published,
+        long uploaded,
+        long retried,
+        long failed,
+        long spilled,
+        int pending
+    ) {
+    }
+}
@@ -1,12 +1,14 @@
 package org.wyman.infrastructure.adapter.port;
 
-import org.bouncycastle.asn1.ASN1Encodable;
-import org.bouncycastle.asn1.ASN1InputStream;
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
 import org.bouncycastle.asn1.ASN1Integer;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.ASN1OctetString;
 import org.bouncycastle.asn1.DERBitString;
 import org.bouncycastle.asn1.DERIA5String;
 import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERSequence;
 import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x509.*;
 import org.bouncycastle.cert.X509CertificateHolder;
@@ -21,20 +23,33 @@ import org.bouncycastle.operator.ContentSigner;
 import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.springframework.stereotype.Component;
 import org.wyman.domain.signing.adapter.port.ICertificateGenerator;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
 import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
 import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
+import org.wyman.infrastructure.crypto.AltSignatureBatcher;
+import org.wyman.infrastructure.crypto.HybridMerkleTree;
+import org.wyman.infrastructure.crypto.PostQuantumAlgorithms;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.infrastructure.crypto.StreamingCRLEncoder;
 import org.wyman.types.constants.HybridCertificateOids;
 
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.nio.ByteBuffer;
 import java.security.*;
 import java.security.cert.CRLException;
 import java.security.cert.X509CRL;
 import java.security.cert.X509Certificate;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * Bouncy Castle证书生成器实现(Infrastructure层)
@@ -48,6 +63,19 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         }
     }
 
+    private final SignerPool signerPool;
+    private final AltSignatureBatcher altSignatureBatcher;
+
+    /**
+     * 未指定模板时按CRL分发点缓存的默认模板
+     */
+    private final Map<String, CertificateProfileTemplate> defaultProfiles = new ConcurrentHashMap<>();
+
+    public BouncyCastleCertificateGenerator(SignerPool signerPool, AltSignatureBatcher altSignatureBatcher) {
+        this.signerPool = signerPool;
+        this.altSignatureBatcher = altSignatureBatcher;
+    }
+
     @Override
     public X509Certificate generateCertificate(
             X500Name issuer,
@@ -61,49 +89,70 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
             String crlDistributionPoint,
             HybridCertificateRequestContext hybridContext
     ) throws Exception {
-        HybridCertificateRequestContext context = hybridContext;
-        X509CertificateHolder certHolder = buildCertificate(
-                issuer,
-                subject,
-                publicKey,
-                issuerPrivateKey,
-                notBefore,
-                notAfter,
-                serialNumber,
-                signatureAlgorithm,
-                crlDistributionPoint,
-                context,
-                null
-        );
-
-        if (context != null && context.isHybridEnabled() && context.isAltSignatureRequired()) {
-            byte[] tbs = certHolder.toASN1Structure().getTBSCertificate().getEncoded();
-            String altAlgorithm = context.getAltSignatureJcaName() != null ? context.getAltSignatureJcaName() : signatureAlgorithm;
-            PrivateKey altSigningKey = context.getAltSignaturePrivateKey() != null ?
-                context.getAltSignaturePrivateKey() : issuerPrivateKey;
-            byte[] altSignature = computeAltSignature(tbs, altSigningKey, altAlgorithm);
+        CertificateProfileTemplate profile = defaultProfiles.computeIfAbsent(
+                crlDistributionPoint != null ? crlDistributionPoint : "", CertificateProfileTemplate::defaults);
+        return generateCertificate(issuer, subject, publicKey, issuerPrivateKey, notBefore, notAfter,
+                serialNumber, signatureAlgorithm, profile, hybridContext);
+    }
 
-            // 计算 Merkle 根（若未提供）并默认填充 Sidecar URL
-            if (context.getMerkleRoot() == null) {
-                context.setMerkleRoot(computeMerkleRoot(context, altSignature));
-            }
-            if (context.getSidecarUrl() == null) {
-                context.setSidecarUrl(defaultSidecarUrl(serialNumber));
+    @Override
+    public X509Certificate generateCertificate(
+            X500Name issuer,
+            X500Name subject,
+            PublicKey publicKey,
+            PrivateKey issuerPrivateKey,
+            Date notBefore,
+            Date notAfter,
+            BigInteger serialNumber,
+            String signatureAlgorithm,
+            CertificateProfileTemplate profile,
+            HybridCertificateRequestContext hybridContext
+    ) throws Exception {
+        HybridCertificateRequestContext context = hybridContext;
+        SignerPool.SignerKey signerKey = signerKey(issuer, signatureAlgorithm, issuerPrivateKey);
+        ContentSigner signer = signerPool.borrowContentSigner(signerKey,
+                () -> createContentSigner(signatureAlgorithm, issuerPrivateKey));
+        X509CertificateHolder certHolder;
+        try {
+            SubjectPublicKeyInfo subjectPublicKeyInfo = SubjectPublicKeyInfo.getInstance(publicKey.getEncoded());
+
+            // 预TBS模板: 除替代签名值(及其派生的Merkle根/侧载URL)外的全部字段只构建一次
+            byte[] altSignature = null;
+            if (context != null && context.isHybridEnabled() && context.isAltSignatureRequired()) {
+                String altAlgorithm = context.getAltSignatureJcaName() != null ? context.getAltSignatureJcaName() : signatureAlgorithm;
+                if (PostQuantumAlgorithms.isSignature(altAlgorithm)) {
+                    // ML-DSA备用签名写入真实算法标识, 供验证方选择验签算法
+                    context.setAltSignatureAlgorithmOid(PostQuantumAlgorithms.signatureOid(altAlgorithm));
+                }
+                TBSCertificate preTbs = buildTbsCertificate(issuer, subject, subjectPublicKeyInfo, notBefore, notAfter,
+                        serialNumber, signer.getAlgorithmIdentifier(), profile, context, null);
+                PrivateKey altSigningKey = context.getAltSignaturePrivateKey() != null ?
+                    context.getAltSignaturePrivateKey() : issuerPrivateKey;
+                boolean batched = altSignatureBatcher.isEnabled();
+                altSignature = batched
+                        ? batchAltSignature(issuer, preTbs.getEncoded(ASN1Encoding.DER), altSigningKey, altAlgorithm)
+                        : computeAltSignature(issuer, preTbs.getEncoded(ASN1Encoding.DER), altSigningKey, altAlgorithm);
+
+                // 计算 Merkle 根（若未提供）并默认填充 Sidecar URL; 替代签名值回填上下文, 供生成sidecar
+                context.setAltSignatureValue(altSignature);
+                context.setAltSignatureBatched(batched);
+                if (context.getMerkleRoot() == null) {
+                    context.setMerkleRoot(HybridMerkleTree.of(context, altSignature).root());
+                }
+                if (context.getSidecarUrl() == null) {
+                    context.setSidecarUrl(defaultSidecarUrl(serialNumber));
+                }
             }
 
-            certHolder = buildCertificate(
-                    issuer,
-                    subject,
-                    publicKey,
-                    issuerPrivateKey,
-                    notBefore,
-                    notAfter,
-                    serialNumber,
-                    signatureAlgorithm,
-                    crlDistributionPoint,
-                    context,
-                    altSignature
-            );
+            // 最终TBS只由经典签名器签名一次
+            TBSCertificate tbs = buildTbsCertificate(issuer, subject, subjectPublicKeyInfo, notBefore, notAfter,
+                    serialNumber, signer.getAlgorithmIdentifier(), profile, context, altSignature);
+            certHolder = signTbsCertificate(tbs, signer);
+        } catch (Exception e) {
+            signer = SignerPool.reset(signer);
+            throw e;
+        } finally {
+            signerPool.releaseContentSigner(signerKey, signer);
         }
 
         return new JcaX509CertificateConverter()
@@ -111,53 +160,71 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
                 .getCertificate(certHolder);
     }
 
-    private X509CertificateHolder buildCertificate(
+    private SignerPool.SignerKey signerKey(X500Name issuer, String signatureAlgorithm, PrivateKey privateKey) {
+        return new SignerPool.SignerKey(issuer.toString(), getSignerAlgorithm(signatureAlgorithm),
+                SignerPool.keyAlias(privateKey));
+    }
+
+    /**
+     * 创建经典签名器
+     */
+    protected ContentSigner createContentSigner(String signatureAlgorithm, PrivateKey privateKey) throws Exception {
+        return new JcaContentSignerBuilder(getSignerAlgorithm(signatureAlgorithm))
+                .setProvider(BouncyCastleProvider.PROVIDER_NAME)
+                .build(privateKey);
+    }
+
+    /**
+     * 构建TBS证书结构(不签名)
+     */
+    private TBSCertificate buildTbsCertificate(
             X500Name issuer,
             X500Name subject,
-            PublicKey publicKey,
-            PrivateKey issuerPrivateKey,
+            SubjectPublicKeyInfo subjectPublicKeyInfo,
             Date notBefore,
             Date notAfter,
             BigInteger serialNumber,
-            String signatureAlgorithm,
-            String crlDistributionPoint,
+            AlgorithmIdentifier signatureAlgorithmId,
+            CertificateProfileTemplate profile,
             HybridCertificateRequestContext context,
             byte[] altSignatureValue
     ) throws Exception {
-        X509v3CertificateBuilder certBuilder = new X509v3CertificateBuilder(
-                issuer,
-                serialNumber,
-                notBefore,
-                notAfter,
-                subject,
-                SubjectPublicKeyInfo.getInstance(publicKey.getEncoded())
-        );
+        ExtensionsGenerator extGen = new ExtensionsGenerator();
 
-        if (crlDistributionPoint != null) {
-            DistributionPointName dpn = new DistributionPointName(
-                    new GeneralNames(new GeneralName(GeneralName.uniformResourceIdentifier, crlDistributionPoint))
-            );
-            certBuilder.addExtension(Extension.cRLDistributionPoints, false,
-                    new CRLDistPoint(new DistributionPoint[]{new DistributionPoint(dpn, null, null)}));
+        // 模板中的固定扩展已预编码, 直接复用
+        for (Extension extension : profile.getExtensions()) {
+            extGen.addExtension(extension);
         }
 
-        certBuilder.addExtension(Extension.keyUsage, true,
-                new KeyUsage(KeyUsage.digitalSignature | KeyUsage.keyEncipherment));
-
-        certBuilder.addExtension(Extension.basicConstraints, true, new BasicConstraints(false));
-
-        addHybridExtensions(certBuilder, context, altSignatureValue);
-
-        String signerAlgorithm = getSignerAlgorithm(signatureAlgorithm);
-
-        ContentSigner signer = new JcaContentSignerBuilder(signerAlgorithm)
-                .setProvider(BouncyCastleProvider.PROVIDER_NAME)
-                .build(issuerPrivateKey);
+        addHybridExtensions(extGen, context, altSignatureValue);
+
+        V3TBSCertificateGenerator tbsGen = new V3TBSCertificateGenerator();
+        tbsGen.setSerialNumber(new ASN1Integer(serialNumber));
+        tbsGen.setSignature(signatureAlgorithmId);
+        tbsGen.setIssuer(issuer);
+        tbsGen.setStartDate(new Time(notBefore));
+        tbsGen.setEndDate(new Time(notAfter));
+        tbsGen.setSubject(subject);
+        tbsGen.setSubjectPublicKeyInfo(subjectPublicKeyInfo);
+        tbsGen.setExtensions(extGen.generate());
+        return tbsGen.generateTBSCertificate();
+    }
 
-        return certBuilder.build(signer);
+    /**
+     * 使用经典签名器对TBS签名并组装证书
+     */
+    private X509CertificateHolder signTbsCertificate(TBSCertificate tbs, ContentSigner signer) throws Exception {
+        try (OutputStream out = signer.getOutputStream()) {
+            tbs.encodeTo(out, ASN1Encoding.DER);
+        }
+        ASN1EncodableVector v = new ASN1EncodableVector(3);
+        v.add(tbs);
+        v.add(signer.getAlgorithmIdentifier());
+        v.add(new DERBitString(signer.getSignature()));
+        return new X509CertificateHolder(org.bouncycastle.asn1.x509.Certificate.getInstance(new DERSequence(v)));
     }
 
-    private void addHybridExtensions(X509v3CertificateBuilder certBuilder,
+    private void addHybridExtensions(ExtensionsGenerator extGen,
                                      HybridCertificateRequestContext context,
                                      byte[] altSignatureValue) throws Exception {
         if (context == null || !context.isHybridEnabled()) {
@@ -165,7 +232,7 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         }
 
         if (context.getPqSignaturePublicKeyPem() != null) {
-            certBuilder.addExtension(
+            extGen.addExtension(
                     new ASN1ObjectIdentifier(HybridCertificateOids.EXT_PQC_SIGNATURE_PUBLIC_KEY_INFO),
                     false,
                     new DEROctetString(context.getPqSignaturePublicKeyPem().getBytes(StandardCharsets.UTF_8))
@@ -173,7 +240,7 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         }
 
         if (context.getPqKekPublicKeyPem() != null) {
-            certBuilder.addExtension(
+            extGen.addExtension(
                     new ASN1ObjectIdentifier(HybridCertificateOids.EXT_PQC_KEK_DISTRIBUTION_KEY_INFO),
                     false,
                     new DEROctetString(context.getPqKekPublicKeyPem().getBytes(StandardCharsets.UTF_8))
@@ -183,7 +250,7 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         if (context.getAltSignatureAlgorithmOid() != null) {
             AlgorithmIdentifier altAlg = new AlgorithmIdentifier(
                     new ASN1ObjectIdentifier(context.getAltSignatureAlgorithmOid()));
-            certBuilder.addExtension(
+            extGen.addExtension(
                     new ASN1ObjectIdentifier(HybridCertificateOids.EXT_ALT_SIGNATURE_ALGORITHM),
                     false,
                     altAlg
@@ -191,7 +258,7 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         }
 
         if (context.getMerkleRoot() != null) {
-            certBuilder.addExtension(
+            extGen.addExtension(
                     new ASN1ObjectIdentifier(HybridCertificateOids.EXT_HYBRID_MERKLE_ROOT),
                     false,
                     new DEROctetString(context.getMerkleRoot())
@@ -199,7 +266,7 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         }
 
         if (context.getSidecarUrl() != null) {
-            certBuilder.addExtension(
+            extGen.addExtension(
                     new ASN1ObjectIdentifier(HybridCertificateOids.EXT_HYBRID_SIDECAR_URL),
                     false,
                     new DERIA5String(context.getSidecarUrl())
@@ -207,65 +274,55 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         }
 
         if (context.isAltSignatureRequired() && altSignatureValue != null) {
-            certBuilder.addExtension(
-                    new ASN1ObjectIdentifier(HybridCertificateOids.EXT_ALT_SIGNATURE_VALUE),
+            String altSignatureOid = context.isAltSignatureBatched()
+                    ? HybridCertificateOids.EXT_ALT_SIGNATURE_BATCH
+                    : HybridCertificateOids.EXT_ALT_SIGNATURE_VALUE;
+            extGen.addExtension(
+                    new ASN1ObjectIdentifier(altSignatureOid),
                     false,
                     new DERBitString(altSignatureValue)
             );
         }
     }
 
-    private byte[] computeAltSignature(byte[] tbs, PrivateKey altSigningKey, String altAlgorithm) throws Exception {
+    private byte[] computeAltSignature(X500Name issuer, byte[] tbs, PrivateKey altSigningKey, String altAlgorithm) throws Exception {
         String signerAlgorithm = getSignerAlgorithm(altAlgorithm);
-        Signature signature = Signature.getInstance(signerAlgorithm, BouncyCastleProvider.PROVIDER_NAME);
-        signature.initSign(altSigningKey);
-        signature.update(tbs);
-        return signature.sign();
-    }
-
-    private byte[] computeMerkleRoot(HybridCertificateRequestContext context, byte[] altSignatureValue) throws Exception {
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-        List<byte[]> leaves = new ArrayList<>();
-        leaves.add(hashLeaf(md, "pqSigPub", context.getPqSignaturePublicKeyPem() != null
-                ? context.getPqSignaturePublicKeyPem().getBytes(StandardCharsets.UTF_8)
-                : new byte[0]));
-        leaves.add(hashLeaf(md, "pqKekPub", context.getPqKekPublicKeyPem() != null
-                ? context.getPqKekPublicKeyPem().getBytes(StandardCharsets.UTF_8)
-                : new byte[0]));
-        leaves.add(hashLeaf(md, "altSigValue", altSignatureValue != null ? altSignatureValue : new byte[0]));
-        leaves.add(hashLeaf(md, "altSigAlg", context.getAltSignatureJcaName() != null
-                ? context.getAltSignatureJcaName().getBytes(StandardCharsets.UTF_8)
-                : new byte[0]));
-
-        List<byte[]> level = leaves;
-        while (level.size() > 1) {
-            List<byte[]> next = new ArrayList<>();
-            for (int i = 0; i < level.size(); i += 2) {
-                byte[] left = level.get(i);
-                byte[] right = (i + 1 < level.size()) ? level.get(i + 1) : left;
-                md.reset();
-                md.update(left);
-                md.update(right);
-                next.add(md.digest());
-            }
-            level = next;
+        SignerPool.SignerKey signerKey = signerKey(issuer, altAlgorithm, altSigningKey);
+        Signature signature = signerPool.borrowSignature(signerKey, () -> {
+            Signature created = Signature.getInstance(signerAlgorithm, BouncyCastleProvider.PROVIDER_NAME);
+            created.initSign(altSigningKey);
+            return created;
+        });
+        try {
+            signature.update(tbs);
+            return signature.sign();
+        } catch (Exception e) {
+            signature = SignerPool.reset(signature);
+            throw e;
+        } finally {
+            signerPool.releaseSignature(signerKey, signature);
         }
-        return level.get(0);
     }
 
-    private byte[] hashLeaf(MessageDigest md, String label, byte[] value) {
-        md.reset();
-        byte[] labelBytes = label.getBytes(StandardCharsets.UTF_8);
-        ByteBuffer lenBuf = ByteBuffer.allocate(4).putInt(value.length);
-        md.update(labelBytes);
-        md.update((byte) 0x00);
-        md.update(lenBuf.array());
-        md.update(value);
-        return md.digest();
+    /**
+     * 批量备用签名: 在超时时间内等待所在批次签名完成, 返回编码后的包含证明
+     */
+    private byte[] batchAltSignature(X500Name issuer, byte[] tbs, PrivateKey altSigningKey, String altAlgorithm) throws Exception {
+        CompletableFuture<byte[]> future = altSignatureBatcher.submit(signerKey(issuer, altAlgorithm, altSigningKey),
+                altSigningKey, getSignerAlgorithm(altAlgorithm), tbs);
+        try {
+            return future.get(altSignatureBatcher.getSignTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (TimeoutException e) {
+            // 批次稍后签完时不再回填已放弃的请求
+            future.cancel(false);
+            throw new TimeoutException("等待批量备用签名超时: " + altSignatureBatcher.getSignTimeoutMs() + "ms");
+        }
     }
 
     private String defaultSidecarUrl(BigInteger serialNumber) {
-        return "https://ca.example.com/sidecar/" + serialNumber.toString() + ".json";
+        return "https://ca.example.com/sidecar/" + serialNumber.toString(16) + ".json";
     }
 
     @Override
@@ -310,11 +367,7 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         certBuilder.addExtension(Extension.authorityKeyIdentifier, false,
                 extUtils.createAuthorityKeyIdentifier(keyPair.getPublic()));
 
-        String signerAlgorithm = getSignerAlgorithm(signatureAlgorithm);
-
-        ContentSigner signer = new JcaContentSignerBuilder(signerAlgorithm)
-                .setProvider(BouncyCastleProvider.PROVIDER_NAME)
-                .build(keyPair.getPrivate());
+        ContentSigner signer = createContentSigner(signatureAlgorithm, keyPair.getPrivate());
 
         X509CertificateHolder certHolder = certBuilder.build(signer);
         return new JcaX509CertificateConverter()
@@ -331,6 +384,22 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
             BigInteger crlNumber,
             String signatureAlgorithm,
             List<RevokedCertificate> revokedCerts
+    ) throws Exception {
+        return generateCRL(issuer, issuerPrivateKey, thisUpdate, nextUpdate, crlNumber, signatureAlgorithm,
+                revokedCerts, null, null);
+    }
+
+    @Override
+    public X509CRL generateCRL(
+            X500Name issuer,
+            PrivateKey issuerPrivateKey,
+            Date thisUpdate,
+            Date nextUpdate,
+            BigInteger crlNumber,
+            String signatureAlgorithm,
+            List<RevokedCertificate> revokedCerts,
+            BigInteger baseCrlNumber,
+            String freshestCrlUrl
     ) throws Exception {
         X509v2CRLBuilder crlBuilder = new X509v2CRLBuilder(issuer, thisUpdate);
         crlBuilder.setNextUpdate(nextUpdate);
@@ -338,14 +407,36 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         // 添加CRL编号扩展
         crlBuilder.addExtension(Extension.cRLNumber, false, new ASN1Integer(crlNumber));
 
+        // 增量CRL: deltaCRLIndicator必须为关键扩展(RFC 5280 5.2.4)
+        if (baseCrlNumber != null) {
+            crlBuilder.addExtension(Extension.deltaCRLIndicator, true, new ASN1Integer(baseCrlNumber));
+        }
+
+        // 基础CRL: freshestCRL指向增量CRL(RFC 5280 5.2.6)
+        if (freshestCrlUrl != null) {
+            DistributionPoint deltaPoint = new DistributionPoint(
+                    new DistributionPointName(new GeneralNames(
+                            new GeneralName(GeneralName.uniformResourceIdentifier, freshestCrlUrl))),
+                    null, null);
+            crlBuilder.addExtension(Extension.freshestCRL, false,
+                    new CRLDistPoint(new DistributionPoint[]{deltaPoint}));
+        }
+
         // 添加吊销证书列表
         if (revokedCerts != null) {
             for (RevokedCertificate revokedCert : revokedCerts) {
-                Date revocationDate = Date.from(revokedCert.getRevocationDate()
-                        .atZone(java.time.ZoneId.systemDefault()).toInstant());
-                BigInteger serial = new BigInteger(revokedCert.getSerialNumber());
-
-                // 添加吊销原因扩展
+                // 缺少吊销时间的历史数据以本次更新时间代替
+                Date revocationDate = revokedCert.getRevocationDate() != null
+                        ? Date.from(revokedCert.getRevocationDate().atZone(java.time.ZoneId.systemDefault()).toInstant())
+                        : thisUpdate;
+                // 证书序列号以十六进制字符串存储
+                BigInteger serial = new BigInteger(revokedCert.getSerialNumber(), 16);
+
+                // 添加吊销原因扩展(原因未知时省略)
+                if (revokedCert.getReason() == null) {
+                    crlBuilder.addCRLEntry(serial, revocationDate, (Extensions) null);
+                    continue;
+                }
                 ExtensionsGenerator extGen = new ExtensionsGenerator();
                 extGen.addExtension(Extension.reasonCode, false,
                         CRLReason.lookup(revokedCert.getReason().getCode()));
@@ -354,25 +445,62 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
             }
         }
 
-        String signerAlgorithm = getSignerAlgorithm(signatureAlgorithm);
+        SignerPool.SignerKey signerKey = signerKey(issuer, signatureAlgorithm, issuerPrivateKey);
+        ContentSigner signer = signerPool.borrowContentSigner(signerKey,
+                () -> createContentSigner(signatureAlgorithm, issuerPrivateKey));
 
-        ContentSigner signer = new JcaContentSignerBuilder(signerAlgorithm)
-                .setProvider(BouncyCastleProvider.PROVIDER_NAME)
-                .build(issuerPrivateKey);
-
-        X509CRLHolder crlHolder = crlBuilder.build(signer);
+        X509CRLHolder crlHolder;
+        try {
+            crlHolder = crlBuilder.build(signer);
+        } catch (Exception e) {
+            signer = SignerPool.reset(signer);
+            throw e;
+        } finally {
+            signerPool.releaseContentSigner(signerKey, signer);
+        }
         return new JcaX509CRLConverter()
                 .setProvider(BouncyCastleProvider.PROVIDER_NAME)
                 .getCRL(crlHolder);
     }
 
+    @Override
+    public StreamedCRL generateStreamingCRL(
+            X500Name issuer,
+            PrivateKey issuerPrivateKey,
+            Date thisUpdate,
+            Date nextUpdate,
+            BigInteger crlNumber,
+            String signatureAlgorithm,
+            Consumer<Consumer<RevokedCertificate>> entrySource,
+            BigInteger baseCrlNumber,
+            String freshestCrlUrl,
+            String issuingDistributionPointUrl
+    ) throws Exception {
+        SignerPool.SignerKey signerKey = signerKey(issuer, signatureAlgorithm, issuerPrivateKey);
+        ContentSigner signer = signerPool.borrowContentSigner(signerKey,
+                () -> createContentSigner(signatureAlgorithm, issuerPrivateKey));
+
+        try {
+            return StreamingCRLEncoder.encode(issuer, thisUpdate, nextUpdate, crlNumber, entrySource,
+                    baseCrlNumber, freshestCrlUrl, issuingDistributionPointUrl, signer);
+        } catch (Exception e) {
+            signer = SignerPool.reset(signer);
+            throw e;
+        } finally {
+            signerPool.releaseContentSigner(signerKey, signer);
+        }
+    }
+
     /**
      * 获取签名算法标识
      */
-    private String getSignerAlgorithm(String signatureAlgorithm) {
+    public static String getSignerAlgorithm(String signatureAlgorithm) {
         if (signatureAlgorithm == null) {
             return "SHA256withRSA";
         }
+        if (PostQuantumAlgorithms.isSignature(signatureAlgorithm)) {
+            return PostQuantumAlgorithms.jcaSignatureName(signatureAlgorithm);
+        }
         if (signatureAlgorithm.toLowerCase().contains("with")) {
             return signatureAlgorithm;
         }
@@ -423,6 +551,9 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
 
     @Override
     public KeyPair generateKeyPair(String algorithm) throws Exception {
+        if (PostQuantumAlgorithms.isSignature(algorithm) || PostQuantumAlgorithms.isKem(algorithm)) {
+            return PostQuantumAlgorithms.generateKeyPair(algorithm);
+        }
         KeyPairGenerator keyPairGenerator;
 
         switch (algorithm) {
@@ -465,10 +596,8 @@ public class BouncyCastleCertificateGenerator implements ICertificateGenerator {
         try {
             byte[] crlNumberExt = crl.getExtensionValue(Extension.cRLNumber.getId());
             if (crlNumberExt != null) {
-                ASN1InputStream asn1In = new ASN1InputStream(crlNumberExt);
-                ASN1Encodable obj = asn1In.readObject();
-                asn1In.close();
-                return ASN1Integer.getInstance(obj).getValue();
+                // 扩展值外层为OCTET STRING, 内层才是CRLNumber INTEGER
+                return ASN1Integer.getInstance(ASN1OctetString.getInstance(crlNumberExt).getOctets()).getValue();
             }
             return BigInteger.ZERO;
         } catch (Exception e) {
@@ -0,0 +1,204 @@
+package org.wyman.infrastructure.adapter.port;
+
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1GeneralizedTime;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.ocsp.CertID;
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.ocsp.RevokedInfo;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.Req;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculator;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.signing.valobj.OcspResponderCredential;
+import org.wyman.domain.status.adapter.port.IOcspCodec;
+import org.wyman.domain.status.valobj.OcspCertId;
+import org.wyman.domain.status.valobj.OcspIssuerHash;
+import org.wyman.domain.status.valobj.OcspRequest;
+import org.wyman.domain.status.valobj.OcspSingleResponse;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.types.enums.OcspResponseStatus;
+
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 基于Bouncy Castle的OCSP编解码实现
+ * 响应器ID使用公钥哈希(byKey), 响应签名器经签名器池复用
+ */
+@Component
+public class BouncyCastleOcspCodec implements IOcspCodec {
+
+    private final SignerPool signerPool;
+    private final DigestCalculatorProvider digestCalculatorProvider;
+
+    public BouncyCastleOcspCodec(SignerPool signerPool) {
+        this.signerPool = signerPool;
+        try {
+            this.digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder()
+                .setProvider(BouncyCastleProvider.PROVIDER_NAME)
+                .build();
+        } catch (OperatorCreationException e) {
+            throw new IllegalStateException("初始化摘要计算器失败", e);
+        }
+    }
+
+    @Override
+    public OcspRequest decodeRequest(byte[] encoded) {
+        try {
+            OCSPReq request = new OCSPReq(encoded);
+            List<OcspCertId> certIds = new ArrayList<>();
+            for (Req req : request.getRequestList()) {
+                CertificateID id = req.getCertID();
+                certIds.add(new OcspCertId(
+                    id.getHashAlgOID().getId(),
+                    id.getIssuerNameHash(),
+                    id.getIssuerKeyHash(),
+                    id.getSerialNumber().toString(16),
+                    id.toASN1Primitive().getEncoded(ASN1Encoding.DER)));
+            }
+            Extension nonce = request.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce);
+            return new OcspRequest(certIds, nonce != null ? nonce.getExtnValue().getOctets() : null);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("OCSP请求格式错误: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public OcspIssuerHash hashIssuer(String issuerCertificatePem, String hashAlgorithm) {
+        DigestCalculator digestCalculator;
+        try {
+            digestCalculator = digestCalculatorProvider.get(
+                new AlgorithmIdentifier(new ASN1ObjectIdentifier(hashAlgorithm)));
+        } catch (OperatorCreationException | IllegalArgumentException e) {
+            return null;
+        }
+        try (PEMParser parser = new PEMParser(new StringReader(issuerCertificatePem))) {
+            X509CertificateHolder issuer = (X509CertificateHolder) parser.readObject();
+            // 序列号不参与哈希, 任取一个值
+            CertificateID id = new CertificateID(digestCalculator, issuer, BigInteger.ONE);
+            return new OcspIssuerHash(hashAlgorithm, id.getIssuerNameHash(), id.getIssuerKeyHash());
+        } catch (Exception e) {
+            throw new IllegalStateException("计算颁发者哈希失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public OcspCertId encodeCertId(OcspIssuerHash issuerHash, String serialNumber) {
+        try {
+            CertID certId = new CertID(
+                new AlgorithmIdentifier(new ASN1ObjectIdentifier(issuerHash.getHashAlgorithm()), DERNull.INSTANCE),
+                new DEROctetString(issuerHash.getIssuerNameHash()),
+                new DEROctetString(issuerHash.getIssuerKeyHash()),
+                new ASN1Integer(new BigInteger(serialNumber, 16)));
+            return new OcspCertId(issuerHash.getHashAlgorithm(), issuerHash.getIssuerNameHash(),
+                issuerHash.getIssuerKeyHash(), serialNumber, certId.getEncoded(ASN1Encoding.DER));
+        } catch (Exception e) {
+            throw new IllegalStateException("编码CertID失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] encodeResponse(OcspResponderCredential credential,
+                                 List<OcspSingleResponse> responses,
+                                 byte[] nonce,
+                                 LocalDateTime thisUpdate,
+                                 LocalDateTime nextUpdate) {
+        try {
+            X509CertificateHolder responderCertificate = new X509CertificateHolder(credential.getCertificateEncoded());
+            BasicOCSPRespBuilder builder = new BasicOCSPRespBuilder(new RespID(
+                responderCertificate.getSubjectPublicKeyInfo(),
+                digestCalculatorProvider.get(RespID.HASH_SHA1)));
+
+            Date thisUpdateDate = toDate(thisUpdate);
+            Date nextUpdateDate = toDate(nextUpdate);
+            for (OcspSingleResponse response : responses) {
+                builder.addResponse(new CertificateID(CertID.getInstance(response.getCertId().getEncoded())),
+                    certificateStatus(response), thisUpdateDate, nextUpdateDate, null);
+            }
+            if (nonce != null) {
+                builder.setResponseExtensions(new Extensions(
+                    new Extension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce, false, new DEROctetString(nonce))));
+            }
+
+            String algorithm = BouncyCastleCertificateGenerator.getSignerAlgorithm(credential.getKeyAlgorithm());
+            SignerPool.SignerKey signerKey = new SignerPool.SignerKey("ocsp:" + credential.getCaId(), algorithm,
+                SignerPool.keyAlias(credential.getPrivateKey()));
+            ContentSigner signer = signerPool.borrowContentSigner(signerKey, () -> new JcaContentSignerBuilder(algorithm)
+                .setProvider(BouncyCastleProvider.PROVIDER_NAME)
+                .build(credential.getPrivateKey()));
+            try {
+                return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL,
+                        builder.build(signer, new X509CertificateHolder[]{responderCertificate}, thisUpdateDate))
+                    .getEncoded();
+            } catch (Exception e) {
+                signer = SignerPool.reset(signer);
+                throw e;
+            } finally {
+                signerPool.releaseContentSigner(signerKey, signer);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("签名OCSP响应失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] encodeErrorResponse(OcspResponseStatus status) {
+        try {
+            return new OCSPRespBuilder().build(status.getCode(), null).getEncoded();
+        } catch (Exception e) {
+            throw new RuntimeException("编码OCSP错误响应失败: " + e.getMessage(), e);
+        }
+    }
+
+    private CertificateStatus certificateStatus(OcspSingleResponse response) {
+        switch (response.getCertStatus()) {
+            case GOOD:
+                return CertificateStatus.GOOD;
+            case REVOKED:
+                // 吊销时间缺失的历史条目以纪元时间代替
+                Date revocationTime = response.getRevocationTime() != null
+                    ? toDate(response.getRevocationTime()) : new Date(0);
+                CRLReason reason = response.getRevocationReason() != null
+                    ? CRLReason.lookup(response.getRevocationReason().getCode()) : null;
+                return new RevokedStatus(new RevokedInfo(new ASN1GeneralizedTime(revocationTime), reason));
+            default:
+                return new UnknownStatus();
+        }
+    }
+
+    /**
+     * GeneralizedTime不得带小数秒(RFC 5280 第4.1.2.5.2节), 先截断到秒
+     */
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
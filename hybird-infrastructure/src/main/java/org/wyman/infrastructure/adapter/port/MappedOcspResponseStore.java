@@ -0,0 +1,564 @@
+package org.wyman.infrastructure.adapter.port;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.status.adapter.port.IOcspResponseStore;
+import org.wyman.domain.status.valobj.PresignedOcspResponse;
+import org.wyman.infrastructure.config.OcspConfig;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 基于内存映射文件的预签名OCSP响应存储
+ * 每个CA一代文件: 不可变的基础段(响应数据文件 + 按序列号排序的索引文件, 二分查找)与只追加的增量段(堆内索引)。
+ * 查询返回映射区域的只读切片, 响应字节不进入堆; 全量重建写入新一代文件后整体切换, 增量段写满时合并为新的基础段。
+ * 启动时不加载旧文件, 避免服务已过时的good响应, 由预签名任务重新生成。
+ */
+@Slf4j
+@Component
+public class MappedOcspResponseStore implements IOcspResponseStore {
+
+    /**
+     * 数据文件按1GB分块映射, 单条响应不跨块
+     */
+    private static final long CHUNK_SIZE = 1L << 30;
+    private static final int MAGIC = 0x4F435350;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    /**
+     * 索引条目: 序列号(20字节, 无符号大端、左补零) + 数据偏移(8) + 长度(4) + nextUpdate纪元秒(8)
+     */
+    private static final int KEY_SIZE = 20;
+    private static final int ENTRY_SIZE = 40;
+    private static final String DATA_SUFFIX = ".dat";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String DELTA_SUFFIX = ".delta";
+
+    private final Path directory;
+    private final int deltaCapacity;
+    private final Map<String, CaStore> stores = new ConcurrentHashMap<>();
+    private final AtomicLong generationCounter = new AtomicLong();
+
+    public MappedOcspResponseStore(OcspConfig config) {
+        this.directory = Paths.get(config.getStoreDirectory());
+        this.deltaCapacity = config.getStoreDeltaCapacityBytes();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        deleteStoreFiles();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        stores.clear();
+        try {
+            deleteStoreFiles();
+        } catch (IOException e) {
+            log.warn("清理预签名OCSP响应文件失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public ByteBuffer find(String caId, String serialNumber, LocalDateTime now) {
+        CaStore store = stores.get(caId);
+        BigInteger serial = serialOf(serialNumber);
+        if (store == null || serial == null) {
+            return null;
+        }
+        Generation generation = store.current;
+        long nowSeconds = epochSeconds(now);
+        DeltaEntry delta = generation.delta.entries.get(serial);
+        if (delta != null) {
+            return delta.isTombstone() || delta.nextUpdate <= nowSeconds ? null : generation.delta.slice(delta);
+        }
+        return generation.base != null ? generation.base.find(keyOf(serial), nowSeconds) : null;
+    }
+
+    @Override
+    public boolean contains(String caId, String serialNumber) {
+        CaStore store = stores.get(caId);
+        BigInteger serial = serialOf(serialNumber);
+        if (store == null || serial == null) {
+            return false;
+        }
+        Generation generation = store.current;
+        return generation.delta.entries.containsKey(serial)
+            || (generation.base != null && generation.base.indexOf(keyOf(serial)) >= 0);
+    }
+
+    @Override
+    public long rebuild(String caId, Consumer<Consumer<PresignedOcspResponse>> entrySource) {
+        CaStore store = store(caId);
+        store.rebuildLock.lock();
+        try {
+            long startSequence;
+            synchronized (store) {
+                startSequence = store.sequence;
+            }
+            BaseSegment base = BaseSegment.write(directory, fileName(caId), entrySource);
+
+            Generation previous;
+            synchronized (store) {
+                previous = store.current;
+                DeltaSegment delta = DeltaSegment.create(directory, fileName(caId), deltaCapacity);
+                // 重建期间写入的单条响应比重建读到的状态新, 搬入新一代的增量段
+                previous.delta.entries.forEach((serial, entry) -> {
+                    if (entry.sequence > startSequence) {
+                        delta.copyFrom(previous.delta, serial, entry);
+                    }
+                });
+                store.current = new Generation(base, delta);
+            }
+            previous.delete();
+            log.info("预签名OCSP响应存储重建完成 caId={} count={}", caId, base.count);
+            return base.count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("重建预签名OCSP响应存储失败: " + caId, e);
+        } finally {
+            store.rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    public void put(String caId, PresignedOcspResponse response) {
+        BigInteger serial = serialOf(response.getSerialNumber());
+        if (serial == null) {
+            return;
+        }
+        CaStore store = store(caId);
+        synchronized (store) {
+            long sequence = ++store.sequence;
+            long nextUpdate = epochSeconds(response.getNextUpdate());
+            if (store.current.delta.append(serial, response.getEncoded(), nextUpdate, sequence)) {
+                return;
+            }
+            // 增量段已满: 无全量重建进行时合并为新的基础段; 否则记为已移除, 由调用方实时签名直至重建完成
+            if (store.rebuildLock.tryLock()) {
+                try {
+                    compact(caId, store);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("合并预签名OCSP响应存储失败: " + caId, e);
+                } finally {
+                    store.rebuildLock.unlock();
+                }
+                if (store.current.delta.append(serial, response.getEncoded(), nextUpdate, sequence)) {
+                    return;
+                }
+            }
+            store.current.delta.entries.put(serial, DeltaEntry.tombstone(sequence));
+        }
+    }
+
+    @Override
+    public void remove(String caId, String serialNumber) {
+        BigInteger serial = serialOf(serialNumber);
+        CaStore store = stores.get(caId);
+        if (store == null || serial == null) {
+            return;
+        }
+        synchronized (store) {
+            store.current.delta.entries.put(serial, DeltaEntry.tombstone(++store.sequence));
+        }
+    }
+
+    /**
+     * 把当前基础段与增量段合并为新一代(调用方持有store锁与重建锁), 已过期的响应不再保留
+     */
+    private void compact(String caId, CaStore store) throws IOException {
+        Generation previous = store.current;
+        long nowSeconds = epochSeconds(LocalDateTime.now());
+        BaseSegment base = BaseSegment.write(directory, fileName(caId), sink -> {
+            if (previous.base != null) {
+                previous.base.forEach((serial, buffer, nextUpdate) -> {
+                    if (nextUpdate > nowSeconds && !previous.delta.entries.containsKey(serial)) {
+                        sink.accept(toResponse(serial, buffer, nextUpdate));
+                    }
+                });
+            }
+            previous.delta.entries.forEach((serial, entry) -> {
+                if (!entry.isTombstone() && entry.nextUpdate > nowSeconds) {
+                    sink.accept(toResponse(serial, previous.delta.slice(entry), entry.nextUpdate));
+                }
+            });
+        });
+        store.current = new Generation(base, DeltaSegment.create(directory, fileName(caId), deltaCapacity));
+        previous.delete();
+        log.info("预签名OCSP响应增量段已合并 caId={} count={}", caId, base.count);
+    }
+
+    private CaStore store(String caId) {
+        return stores.computeIfAbsent(caId, id -> {
+            try {
+                return new CaStore(new Generation(null, DeltaSegment.create(directory, fileName(id), deltaCapacity)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("创建预签名OCSP响应存储失败: " + id, e);
+            }
+        });
+    }
+
+    private String fileName(String caId) {
+        return caId.replaceAll("[^A-Za-z0-9_-]", "_") + "-" + generationCounter.incrementAndGet();
+    }
+
+    private void deleteStoreFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+            "*{" + DATA_SUFFIX + "," + INDEX_SUFFIX + "," + DELTA_SUFFIX + "}")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static PresignedOcspResponse toResponse(BigInteger serial, ByteBuffer buffer, long nextUpdate) {
+        byte[] encoded = new byte[buffer.remaining()];
+        buffer.get(encoded);
+        return new PresignedOcspResponse(serial.toString(16), encoded,
+            LocalDateTime.ofInstant(Instant.ofEpochSecond(nextUpdate), ZoneId.systemDefault()));
+    }
+
+    /**
+     * 序列号须为正数且不超过20字节(RFC 5280 第4.1.2.2节), 否则不入存储
+     */
+    private static BigInteger serialOf(String serialNumber) {
+        try {
+            BigInteger serial = new BigInteger(serialNumber, 16);
+            return serial.signum() > 0 && serial.bitLength() <= KEY_SIZE * 8 ? serial : null;
+        } catch (NumberFormatException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    private static byte[] keyOf(BigInteger serial) {
+        byte[] magnitude = serial.toByteArray();
+        byte[] key = new byte[KEY_SIZE];
+        int length = Math.min(magnitude.length, KEY_SIZE);
+        System.arraycopy(magnitude, magnitude.length - length, key, KEY_SIZE - length, length);
+        return key;
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    /**
+     * 单个CA的存储, 写入与换代在该对象上同步; 查询只读volatile引用, 不加锁
+     */
+    private static final class CaStore {
+        private final ReentrantLock rebuildLock = new ReentrantLock();
+        private volatile Generation current;
+        private long sequence;
+
+        private CaStore(Generation current) {
+            this.current = current;
+        }
+    }
+
+    private record Generation(BaseSegment base, DeltaSegment delta) {
+        /**
+         * 删除文件不影响已建立的映射, 正在输出的旧切片仍然有效
+         */
+        void delete() {
+            if (base != null) {
+                base.delete();
+            }
+            delta.delete();
+        }
+    }
+
+    private record DeltaEntry(int offset, int length, long nextUpdate, long sequence) {
+        static DeltaEntry tombstone(long sequence) {
+            return new DeltaEntry(0, -1, 0L, sequence);
+        }
+
+        boolean isTombstone() {
+            return length < 0;
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryVisitor {
+        void visit(BigInteger serial, ByteBuffer buffer, long nextUpdate);
+    }
+
+    /**
+     * 增量段: 预分配的映射文件只追加不覆盖, 已返回的切片不会被改写; 索引在堆内
+     */
+    private static final class DeltaSegment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final Map<BigInteger, DeltaEntry> entries = new ConcurrentHashMap<>();
+        private int position;
+
+        private DeltaSegment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        static DeltaSegment create(Path directory, String name, int capacity) throws IOException {
+            Path path = directory.resolve(name + DELTA_SUFFIX);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new DeltaSegment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            }
+        }
+
+        /**
+         * 追加一条响应(调用方持有store锁), 空间不足时返回false
+         */
+        boolean append(BigInteger serial, byte[] encoded, long nextUpdate, long sequence) {
+            if (encoded.length > buffer.capacity() - position) {
+                return false;
+            }
+            buffer.put(position, encoded);
+            // 先写数据后发布索引, ConcurrentHashMap保证读者看到完整的数据
+            entries.put(serial, new DeltaEntry(position, encoded.length, nextUpdate, sequence));
+            position += encoded.length;
+            return true;
+        }
+
+        void copyFrom(DeltaSegment source, BigInteger serial, DeltaEntry entry) {
+            if (entry.isTombstone()) {
+                entries.put(serial, entry);
+                return;
+            }
+            ByteBuffer data = source.slice(entry);
+            buffer.put(position, data, 0, entry.length);
+            entries.put(serial, new DeltaEntry(position, entry.length, entry.nextUpdate, entry.sequence));
+            position += entry.length;
+        }
+
+        ByteBuffer slice(DeltaEntry entry) {
+            return buffer.slice(entry.offset, entry.length).asReadOnlyBuffer();
+        }
+
+        void delete() {
+            deleteQuietly(path);
+        }
+    }
+
+    /**
+     * 基础段: 写入后不再修改; 数据文件分块只读映射, 索引文件按序列号排序后只读映射
+     */
+    private static final class BaseSegment {
+        private final Path dataPath;
+        private final Path indexPath;
+        private final MappedByteBuffer[] chunks;
+        private final MappedByteBuffer index;
+        private final int count;
+
+        private BaseSegment(Path dataPath, Path indexPath, MappedByteBuffer[] chunks, MappedByteBuffer index, int count) {
+            this.dataPath = dataPath;
+            this.indexPath = indexPath;
+            this.chunks = chunks;
+            this.index = index;
+            this.count = count;
+        }
+
+        static BaseSegment write(Path directory, String name,
+                                 Consumer<Consumer<PresignedOcspResponse>> entrySource) throws IOException {
+            Path dataPath = directory.resolve(name + DATA_SUFFIX);
+            Path indexPath = directory.resolve(name + INDEX_SUFFIX);
+            long dataSize;
+            long count;
+            try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dataPath), 1 << 16));
+                 DataOutputStream index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath), 1 << 16))) {
+                index.write(new byte[HEADER_SIZE]);
+                long[] state = new long[2];
+                entrySource.accept(response -> {
+                    BigInteger serial = serialOf(response.getSerialNumber());
+                    if (serial == null) {
+                        return;
+                    }
+                    byte[] encoded = response.getEncoded();
+                    try {
+                        long within = state[0] % CHUNK_SIZE;
+                        if (within + encoded.length > CHUNK_SIZE) {
+                            data.write(new byte[(int) (CHUNK_SIZE - within)]);
+                            state[0] += CHUNK_SIZE - within;
+                        }
+                        data.write(encoded);
+                        index.write(keyOf(serial));
+                        index.writeLong(state[0]);
+                        index.writeInt(encoded.length);
+                        index.writeLong(epochSeconds(response.getNextUpdate()));
+                        state[0] += encoded.length;
+                        state[1]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                dataSize = state[0];
+                count = state[1];
+            }
+            if (count * ENTRY_SIZE > Integer.MAX_VALUE - HEADER_SIZE) {
+                deleteQuietly(dataPath);
+                deleteQuietly(indexPath);
+                throw new IOException("预签名响应数超出单个索引文件上限: " + count);
+            }
+
+            MappedByteBuffer index;
+            try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer writable = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + count * ENTRY_SIZE);
+                writable.putInt(0, MAGIC);
+                writable.putInt(4, VERSION);
+                writable.putLong(8, count);
+                writable.putLong(16, System.currentTimeMillis());
+                heapSort(writable, (int) count);
+                writable.force();
+                index = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + count * ENTRY_SIZE);
+            }
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((dataSize + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+                for (int i = 0; i < chunks.length; i++) {
+                    long start = i * CHUNK_SIZE;
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, dataSize - start));
+                }
+            }
+            return new BaseSegment(dataPath, indexPath, chunks, index, (int) count);
+        }
+
+        ByteBuffer find(byte[] key, long nowSeconds) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return null;
+            }
+            int entry = HEADER_SIZE + i * ENTRY_SIZE;
+            return index.getLong(entry + 32) <= nowSeconds ? null : data(entry);
+        }
+
+        int indexOf(byte[] key) {
+            long high = ByteBuffer.wrap(key).getLong(0);
+            long middle = ByteBuffer.wrap(key).getLong(8);
+            int low = ByteBuffer.wrap(key).getInt(16);
+            int from = 0;
+            int to = count - 1;
+            while (from <= to) {
+                int mid = (from + to) >>> 1;
+                int cmp = compare(index, HEADER_SIZE + mid * ENTRY_SIZE, high, middle, low);
+                if (cmp < 0) {
+                    from = mid + 1;
+                } else if (cmp > 0) {
+                    to = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        void forEach(EntryVisitor visitor) {
+            byte[] key = new byte[KEY_SIZE];
+            for (int i = 0; i < count; i++) {
+                int entry = HEADER_SIZE + i * ENTRY_SIZE;
+                index.get(entry, key);
+                visitor.visit(new BigInteger(1, key), data(entry), index.getLong(entry + 32));
+            }
+        }
+
+        private ByteBuffer data(int entry) {
+            long offset = index.getLong(entry + KEY_SIZE);
+            int length = index.getInt(entry + 28);
+            return chunks[(int) (offset / CHUNK_SIZE)].slice((int) (offset % CHUNK_SIZE), length).asReadOnlyBuffer();
+        }
+
+        void delete() {
+            deleteQuietly(dataPath);
+            deleteQuietly(indexPath);
+        }
+
+        /**
+         * 条目所在位置的序列号与给定键比较(无符号)
+         */
+        private static int compare(ByteBuffer index, int entry, long high, long middle, int low) {
+            int cmp = Long.compareUnsigned(index.getLong(entry), high);
+            if (cmp == 0) {
+                cmp = Long.compareUnsigned(index.getLong(entry + 8), middle);
+            }
+            if (cmp == 0) {
+                cmp = Integer.compareUnsigned(index.getInt(entry + 16), low);
+            }
+            return cmp;
+        }
+
+        /**
+         * 在映射的索引上原地堆排序, 不在堆内复制整个索引
+         */
+        private static void heapSort(MappedByteBuffer index, int count) {
+            byte[] a = new byte[ENTRY_SIZE];
+            byte[] b = new byte[ENTRY_SIZE];
+            for (int i = count / 2 - 1; i >= 0; i--) {
+                siftDown(index, i, count, a, b);
+            }
+            for (int end = count - 1; end > 0; end--) {
+                swap(index, 0, end, a, b);
+                siftDown(index, 0, end, a, b);
+            }
+        }
+
+        private static void siftDown(MappedByteBuffer index, int i, int count, byte[] a, byte[] b) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < count && compareEntries(index, left, largest) > 0) {
+                    largest = left;
+                }
+                if (right < count && compareEntries(index, right, largest) > 0) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(index, i, largest, a, b);
+                i = largest;
+            }
+        }
+
+        private static int compareEntries(ByteBuffer index, int i, int j) {
+            int entry = HEADER_SIZE + j * ENTRY_SIZE;
+            return compare(index, HEADER_SIZE + i * ENTRY_SIZE,
+                index.getLong(entry), index.getLong(entry + 8), index.getInt(entry + 16));
+        }
+
+        private static void swap(MappedByteBuffer index, int i, int j, byte[] a, byte[] b) {
+            int first = HEADER_SIZE + i * ENTRY_SIZE;
+            int second = HEADER_SIZE + j * ENTRY_SIZE;
+            index.get(first, a);
+            index.get(second, b);
+            index.put(first, b);
+            index.put(second, a);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除预签名OCSP响应文件失败: {}", path, e);
+        }
+    }
+}
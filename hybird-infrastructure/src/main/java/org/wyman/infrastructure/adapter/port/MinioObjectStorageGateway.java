@@ -8,10 +8,17 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.wyman.domain.signing.adapter.port.IObjectStorageGateway;
 import org.wyman.infrastructure.config.MinioConfig;
+import org.wyman.types.enums.CRLType;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -23,9 +30,12 @@ import java.util.concurrent.TimeUnit;
 public class MinioObjectStorageGateway implements IObjectStorageGateway {
 
     private final MinioClient minioClient;
+    private final MinioAsyncClient minioAsyncClient;
+    private final String endpoint;
     private final String bucketName;
     private final String crlPath;
     private final String certPath;
+    private final String sidecarPath;
 
     public MinioObjectStorageGateway(MinioConfig config) {
         try {
@@ -33,9 +43,15 @@ public class MinioObjectStorageGateway implements IObjectStorageGateway {
                 .endpoint(config.getEndpoint())
                 .credentials(config.getAccessKey(), config.getSecretKey())
                 .build();
+            this.minioAsyncClient = MinioAsyncClient.builder()
+                .endpoint(config.getEndpoint())
+                .credentials(config.getAccessKey(), config.getSecretKey())
+                .build();
+            this.endpoint = config.getEndpoint();
             this.bucketName = config.getBucketName();
             this.crlPath = config.getCrlPath();
             this.certPath = config.getCertPath();
+            this.sidecarPath = config.getSidecarPath();
             ensureBucketExists();
             log.info("MinIO对象存储网关初始化成功: endpoint={}, bucket={}", config.getEndpoint(), bucketName);
         } catch (Exception e) {
@@ -67,17 +83,14 @@ public class MinioObjectStorageGateway implements IObjectStorageGateway {
     public String uploadCRL(String crlNumber, String crlPem) {
         try {
             String objectName = crlPath + "crl-" + crlNumber + ".crl";
+            byte[] content = crlPem.getBytes(StandardCharsets.UTF_8);
 
             minioClient.putObject(
                 PutObjectArgs.builder()
                     .bucket(bucketName)
                     .object(objectName)
                     .contentType("application/pkix-crl")
-                    .stream(
-                        new ByteArrayInputStream(crlPem.getBytes(StandardCharsets.UTF_8)),
-                        crlPem.getBytes(StandardCharsets.UTF_8).length,
-                        -1
-                    )
+                    .stream(new ByteArrayInputStream(content), content.length, -1)
                     .build()
             );
 
@@ -99,6 +112,72 @@ public class MinioObjectStorageGateway implements IObjectStorageGateway {
         }
     }
 
+    @Override
+    public String crlUrl(String caName, CRLType crlType) {
+        // CA名称可能含空格等字符, URL中按路径段编码(写入CRL扩展的URI须合法)
+        return endpoint + "/" + bucketName + "/" + crlPath
+            + java.net.URLEncoder.encode(caName, StandardCharsets.UTF_8).replace("+", "%20")
+            + "/" + crlType.getCode().toLowerCase() + ".crl";
+    }
+
+    @Override
+    public String uploadCRL(String caName, CRLType crlType, String crlNumber, String crlPem) {
+        // 固定URL按RFC 5280 4.2.1.13以DER发布, 与流式上传的内容格式一致
+        String base64 = crlPem.replace("-----BEGIN X509 CRL-----", "").replace("-----END X509 CRL-----", "");
+        byte[] der = java.util.Base64.getMimeDecoder().decode(base64);
+        return uploadCRL(caName, crlType, crlNumber, new ByteArrayInputStream(der), der.length);
+    }
+
+    @Override
+    public String uploadCRL(String caName, CRLType crlType, String crlNumber, InputStream derStream, long length) {
+        try {
+            String objectName = crlObjectName(caName, crlType);
+            putCRLObject(objectName, derStream, length);
+
+            log.info("上传{}到MinIO成功: objectName={}, crlNumber={}, size={}",
+                crlType.getDesc(), objectName, crlNumber, length);
+            return crlUrl(caName, crlType);
+        } catch (Exception e) {
+            log.error("上传{}到MinIO失败: caName={}, crlNumber={}", crlType.getDesc(), caName, crlNumber, e);
+            throw new RuntimeException("上传CRL到MinIO失败", e);
+        }
+    }
+
+    @Override
+    public String partitionCrlUrl(String caName, int partition) {
+        return endpoint + "/" + bucketName + "/" + crlPath
+            + java.net.URLEncoder.encode(caName, StandardCharsets.UTF_8).replace("+", "%20")
+            + "/partition-" + partition + ".crl";
+    }
+
+    @Override
+    public String uploadPartitionCRL(String caName, int partition, String crlNumber, InputStream derStream, long length) {
+        try {
+            String objectName = crlPath + caName + "/partition-" + partition + ".crl";
+            putCRLObject(objectName, derStream, length);
+
+            log.info("上传分区CRL到MinIO成功: objectName={}, crlNumber={}, size={}", objectName, crlNumber, length);
+            return partitionCrlUrl(caName, partition);
+        } catch (Exception e) {
+            log.error("上传分区CRL到MinIO失败: caName={}, partition={}, crlNumber={}", caName, partition, crlNumber, e);
+            throw new RuntimeException("上传CRL到MinIO失败", e);
+        }
+    }
+
+    private void putCRLObject(String objectName, InputStream derStream, long length) throws Exception {
+        minioClient.putObject(
+            PutObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .contentType("application/pkix-crl")
+                // 固定对象名每次发布被覆盖, 禁止下游长期缓存
+                .headers(java.util.Map.of("Cache-Control", "no-cache"))
+                // 长度已知, 大对象由客户端自动分片上传, 不整体缓冲
+                .stream(derStream, length, -1)
+                .build()
+        );
+    }
+
     @Override
     public String downloadCRL(String crlUrl) {
         try {
@@ -140,6 +219,88 @@ public class MinioObjectStorageGateway implements IObjectStorageGateway {
         }
     }
 
+    @Override
+    public String uploadSidecar(String serialNumber, String sidecarJson) {
+        try {
+            String objectName = sidecarPath + serialNumber + ".json";
+            minioClient.putObject(sidecarPutArgs(objectName, sidecarJson));
+
+            log.debug("上传sidecar到MinIO成功: objectName={}", objectName);
+            return objectName;
+        } catch (Exception e) {
+            log.error("上传sidecar到MinIO失败: serialNumber={}", serialNumber, e);
+            throw new RuntimeException("上传sidecar到MinIO失败", e);
+        }
+    }
+
+    /**
+     * 一批sidecar通过异步客户端同时发出, 全部完成后汇总失败项
+     */
+    @Override
+    public List<String> uploadSidecars(Map<String, String> sidecars) {
+        Map<String, CompletableFuture<ObjectWriteResponse>> uploads = new LinkedHashMap<>();
+        List<String> failed = new ArrayList<>();
+        sidecars.forEach((serialNumber, sidecarJson) -> {
+            try {
+                uploads.put(serialNumber, minioAsyncClient.putObject(
+                    sidecarPutArgs(sidecarPath + serialNumber + ".json", sidecarJson)));
+            } catch (Exception e) {
+                log.warn("提交sidecar上传失败: serialNumber={}, error={}", serialNumber, e.getMessage());
+                failed.add(serialNumber);
+            }
+        });
+        uploads.forEach((serialNumber, upload) -> {
+            try {
+                upload.join();
+            } catch (CompletionException e) {
+                log.warn("上传sidecar到MinIO失败: serialNumber={}, error={}", serialNumber, e.getCause().getMessage());
+                failed.add(serialNumber);
+            }
+        });
+        log.debug("批量上传sidecar到MinIO: total={}, failed={}", sidecars.size(), failed.size());
+        return failed;
+    }
+
+    private PutObjectArgs sidecarPutArgs(String objectName, String sidecarJson) {
+        byte[] content = sidecarJson.getBytes(StandardCharsets.UTF_8);
+        return PutObjectArgs.builder()
+            .bucket(bucketName)
+            .object(objectName)
+            .contentType("application/json")
+            // sidecar签发后内容不变, 允许下游永久缓存
+            .headers(Map.of("Cache-Control", "public, max-age=31536000, immutable"))
+            .stream(new ByteArrayInputStream(content), content.length, -1)
+            .build();
+    }
+
+    @Override
+    public String downloadSidecar(String serialNumber) {
+        String objectName = sidecarPath + serialNumber + ".json";
+        try (InputStream stream = minioClient.getObject(
+            GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build()
+        )) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        } catch (io.minio.errors.ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            throw new RuntimeException("从MinIO下载sidecar失败", e);
+        } catch (Exception e) {
+            log.error("从MinIO下载sidecar失败: serialNumber={}", serialNumber, e);
+            throw new RuntimeException("从MinIO下载sidecar失败", e);
+        }
+    }
+
+    /**
+     * 基础/增量CRL的固定对象名: {crlPath}{caName}/base.crl 或 delta.crl
+     */
+    private String crlObjectName(String caName, CRLType crlType) {
+        return crlPath + caName + "/" + crlType.getCode().toLowerCase() + ".crl";
+    }
+
     /**
      * 从URL中提取对象名称
      */
@@ -4,6 +4,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.wyman.domain.signing.adapter.port.IObjectStorageGateway;
+import org.wyman.types.enums.CRLType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 模拟对象存储网关实现
@@ -13,6 +21,11 @@ import org.wyman.domain.signing.adapter.port.IObjectStorageGateway;
 @ConditionalOnProperty(name = "object-storage.provider", havingValue = "mock")
 public class MockObjectStorageGateway implements IObjectStorageGateway {
 
+    /**
+     * 模拟存储的sidecar
+     */
+    private final Map<String, String> sidecars = new ConcurrentHashMap<>();
+
     @Override
     public String uploadCRL(String crlNumber, String crlPem) {
         // 简化实现:返回模拟的URL
@@ -21,6 +34,52 @@ public class MockObjectStorageGateway implements IObjectStorageGateway {
         return url;
     }
 
+    @Override
+    public String crlUrl(String caName, CRLType crlType) {
+        return "http://mock-storage.example.com/crl/"
+            + java.net.URLEncoder.encode(caName, java.nio.charset.StandardCharsets.UTF_8).replace("+", "%20")
+            + "/" + crlType.getCode().toLowerCase() + ".crl";
+    }
+
+    @Override
+    public String uploadCRL(String caName, CRLType crlType, String crlNumber, String crlPem) {
+        String url = crlUrl(caName, crlType);
+        log.info("上传{}到: {}, crlNumber={}", crlType.getDesc(), url, crlNumber);
+        return url;
+    }
+
+    @Override
+    public String uploadCRL(String caName, CRLType crlType, String crlNumber, InputStream derStream, long length) {
+        String url = crlUrl(caName, crlType);
+        try {
+            // 读完流以模拟上传, 不保留内容
+            long transferred = derStream.transferTo(OutputStream.nullOutputStream());
+            log.info("上传{}到: {}, crlNumber={}, size={}", crlType.getDesc(), url, crlNumber, transferred);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取CRL流失败", e);
+        }
+        return url;
+    }
+
+    @Override
+    public String partitionCrlUrl(String caName, int partition) {
+        return "http://mock-storage.example.com/crl/"
+            + java.net.URLEncoder.encode(caName, java.nio.charset.StandardCharsets.UTF_8).replace("+", "%20")
+            + "/partition-" + partition + ".crl";
+    }
+
+    @Override
+    public String uploadPartitionCRL(String caName, int partition, String crlNumber, InputStream derStream, long length) {
+        String url = partitionCrlUrl(caName, partition);
+        try {
+            long transferred = derStream.transferTo(OutputStream.nullOutputStream());
+            log.info("上传分区CRL到: {}, crlNumber={}, size={}", url, crlNumber, transferred);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取CRL流失败", e);
+        }
+        return url;
+    }
+
     @Override
     public String downloadCRL(String crlUrl) {
         // 简化实现:返回模拟的CRL内容
@@ -33,4 +92,17 @@ public class MockObjectStorageGateway implements IObjectStorageGateway {
         // 简化实现:打印删除日志
         log.info("删除CRL: {}", crlUrl);
     }
+
+    @Override
+    public String uploadSidecar(String serialNumber, String sidecarJson) {
+        sidecars.put(serialNumber, sidecarJson);
+        String url = "http://mock-storage.example.com/sidecar/" + serialNumber + ".json";
+        log.debug("上传sidecar到: {}", url);
+        return url;
+    }
+
+    @Override
+    public String downloadSidecar(String serialNumber) {
+        return sidecars.get(serialNumber);
+    }
 }
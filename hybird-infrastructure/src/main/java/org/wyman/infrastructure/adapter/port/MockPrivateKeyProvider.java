@@ -3,6 +3,7 @@ package org.wyman.infrastructure.adapter.port;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.springframework.stereotype.Component;
 import org.wyman.domain.signing.adapter.port.IPrivateKeyProvider;
+import org.wyman.infrastructure.crypto.PostQuantumAlgorithms;
 
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
@@ -10,6 +11,8 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.Security;
 import java.security.spec.ECGenParameterSpec;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 模拟私钥提供者实现
@@ -25,6 +28,16 @@ public class MockPrivateKeyProvider implements IPrivateKeyProvider {
      */
     private final KeyPair pqcAltSignKeyPair;
 
+    /**
+     * ML-DSA/ML-KEM密钥对, 按(CA, 参数集)首次使用时生成; 不指定CA时使用提供者级密钥对
+     */
+    private final Map<String, KeyPair> postQuantumKeyPairs = new ConcurrentHashMap<>();
+
+    /**
+     * 提供者级(不属于任何CA)后量子密钥对的键前缀
+     */
+    private static final String PROVIDER_KEY = "";
+
     static {
         // 注册 Bouncy Castle 提供者
         if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
@@ -72,12 +85,31 @@ public class MockPrivateKeyProvider implements IPrivateKeyProvider {
 
     @Override
     public PrivateKey getAltSigningPrivateKey(String algorithm) {
-        // 此处返回独立的“PQC”私钥，占位用 RSA。生产中请接入真实 PQC/HSM。
+        return getAltSigningPrivateKey(PROVIDER_KEY, algorithm);
+    }
+
+    @Override
+    public PrivateKey getAltSigningPrivateKey(String caId, String algorithm) {
+        if (PostQuantumAlgorithms.isSignature(algorithm)) {
+            return postQuantumKeyPair(caId, algorithm).getPrivate();
+        }
+        // 未指定ML-DSA时仍返回占位的 RSA 备用私钥。生产中请接入真实 PQC/HSM。
         return pqcAltSignKeyPair.getPrivate();
     }
 
+    @Override
+    public PublicKey getAltPublicKey(String caId, String algorithm) {
+        if (PostQuantumAlgorithms.isSignature(algorithm)) {
+            return postQuantumKeyPair(caId, algorithm).getPublic();
+        }
+        return pqcAltSignKeyPair.getPublic();
+    }
+
     @Override
     public PublicKey getPublicKey(String algorithm) {
+        if (PostQuantumAlgorithms.isSignature(algorithm) || PostQuantumAlgorithms.isKem(algorithm)) {
+            return postQuantumKeyPair(PROVIDER_KEY, algorithm).getPublic();
+        }
         if (algorithm.equals("SM2")) {
             return sm2KeyPair.getPublic();
         } else if (algorithm.equals("RSA2048") || algorithm.equals("RSA4096")) {
@@ -92,4 +124,15 @@ public class MockPrivateKeyProvider implements IPrivateKeyProvider {
     public String getKeyAlias(String algorithm) {
         return "key-" + algorithm.toLowerCase();
     }
+
+    private KeyPair postQuantumKeyPair(String caId, String algorithm) {
+        String name = PostQuantumAlgorithms.normalize(algorithm);
+        return postQuantumKeyPairs.computeIfAbsent(caId + "|" + name, key -> {
+            try {
+                return PostQuantumAlgorithms.generateKeyPair(name);
+            } catch (Exception e) {
+                throw new RuntimeException("生成后量子密钥对失败: " + key, e);
+            }
+        });
+    }
 }
@@ -0,0 +1,196 @@
+package org.wyman.infrastructure.adapter.port;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.signing.adapter.port.ICertificateGenerator;
+import org.wyman.domain.signing.adapter.port.IKeyPairPool;
+import org.wyman.infrastructure.config.KeyPairPoolConfig;
+
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密钥对预生成池
+ * 每个算法一个有界队列, 取出为O(1)的poll且不会放回, 保证密钥不被复用;
+ * 低于低水位时由低优先级后台线程补充, 池空时退化为同步生成并记为一次饥饿。
+ */
+@Slf4j
+@Component
+public class PreGeneratedKeyPairPool implements IKeyPairPool {
+
+    private final ICertificateGenerator certificateGenerator;
+    private final KeyPairPoolConfig config;
+
+    private final Map<String, AlgorithmPool> pools = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor refillExecutor;
+
+    public PreGeneratedKeyPairPool(ICertificateGenerator certificateGenerator, KeyPairPoolConfig config) {
+        this.certificateGenerator = certificateGenerator;
+        this.config = config;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        int threads = Math.max(1, config.getRefillThreads());
+        refillExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "keypair-refill-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        config.getDepth().forEach((algorithm, depth) -> {
+            if (depth != null && depth > 0) {
+                pools.put(algorithm, new AlgorithmPool(algorithm, depth,
+                    Math.max(1, (int) Math.ceil(depth * config.getLowWatermarkRatio()))));
+            }
+        });
+        pools.values().forEach(this::triggerRefill);
+        log.info("密钥对预生成池初始化: {}", config.getDepth());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (refillExecutor != null) {
+            refillExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public KeyPair take(String algorithm) throws Exception {
+        AlgorithmPool pool = pools.get(algorithm);
+        if (pool == null) {
+            return certificateGenerator.generateKeyPair(algorithm);
+        }
+        KeyPair keyPair = pool.keyPairs.poll();
+        if (keyPair != null) {
+            pool.handedOut.increment();
+        } else {
+            pool.starvations.increment();
+            log.warn("密钥对池已空, 同步生成: algorithm={}", algorithm);
+            keyPair = certificateGenerator.generateKeyPair(algorithm);
+        }
+        if (pool.keyPairs.size() < pool.lowWatermark) {
+            triggerRefill(pool);
+        }
+        return keyPair;
+    }
+
+    /**
+     * 定期补满各池(兜底), 并输出池状态
+     */
+    @Scheduled(fixedDelayString = "${key.pool.report-interval-ms:300000}")
+    public void topUpAndReport() {
+        pools.values().forEach(this::triggerRefill);
+        if (!pools.isEmpty()) {
+            log.info("密钥对池统计: {}", getStatistics());
+        }
+    }
+
+    /**
+     * 获取各算法池统计
+     */
+    public List<KeyPairPoolStatistics> getStatistics() {
+        List<KeyPairPoolStatistics> statistics = new ArrayList<>();
+        for (AlgorithmPool pool : pools.values()) {
+            long generated = pool.generated.sum();
+            long generateNanos = pool.generateNanos.sum();
+            statistics.add(new KeyPairPoolStatistics(
+                pool.algorithm,
+                pool.keyPairs.size(),
+                pool.capacity,
+                generated,
+                pool.handedOut.sum(),
+                pool.starvations.sum(),
+                generateNanos == 0 ? 0D : generated * 1_000_000_000D / generateNanos
+            ));
+        }
+        return statistics;
+    }
+
+    private void triggerRefill(AlgorithmPool pool) {
+        if (refillExecutor == null || pool.keyPairs.remainingCapacity() == 0
+            || !pool.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refillExecutor.execute(() -> refill(pool));
+        } catch (Exception e) {
+            pool.refilling.set(false);
+            log.warn("提交密钥对补充任务失败: algorithm={}", pool.algorithm, e);
+        }
+    }
+
+    private void refill(AlgorithmPool pool) {
+        try {
+            while (pool.keyPairs.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                KeyPair keyPair = certificateGenerator.generateKeyPair(pool.algorithm);
+                pool.generateNanos.add(System.nanoTime() - start);
+                pool.generated.increment();
+                if (!pool.keyPairs.offer(keyPair)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("后台生成密钥对失败: algorithm={}", pool.algorithm, e);
+        } finally {
+            pool.refilling.set(false);
+        }
+    }
+
+    /**
+     * 单个算法的密钥对池
+     */
+    private static final class AlgorithmPool {
+        private final String algorithm;
+        private final int capacity;
+        private final int lowWatermark;
+        private final BlockingQueue<KeyPair> keyPairs;
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private final LongAdder generated = new LongAdder();
+        private final LongAdder generateNanos = new LongAdder();
+        private final LongAdder handedOut = new LongAdder();
+        private final LongAdder starvations = new LongAdder();
+
+        private AlgorithmPool(String algorithm, int capacity, int lowWatermark) {
+            this.algorithm = algorithm;
+            this.capacity = capacity;
+            this.lowWatermark = lowWatermark;
+            this.keyPairs = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    /**
+     * 密钥对池统计
+     *
+     * @param refillRatePerSecond 后台单线程生成速率(个/秒)
+     */
+    public record KeyPairPoolStatistics(
+        String algorithm,
+        int depth,
+        int capacity,
+        long generated,
+        long handedOut,
+        long starvations,
+        double refillRatePerSecond
+    ) {}
+}
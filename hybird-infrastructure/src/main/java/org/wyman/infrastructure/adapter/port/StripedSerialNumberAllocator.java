@@ -0,0 +1,142 @@
+package org.wyman.infrastructure.adapter.port;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.signing.adapter.port.ISerialNumberAllocator;
+import org.wyman.infrastructure.config.SerialNumberAllocatorConfig;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁条带化证书序列号分配器
+ * 序列号布局(自高位起, 共136位, 17字节, 恒为正):
+ * 42位毫秒时间戳 | 10位节点ID | 6位条带ID | 14位条带内序号 | 64位CSPRNG随机数
+ * 前72位在(节点, 条带)内单调递增保证唯一, 后64位满足CA/B论坛对序列号熵的要求。
+ * 节点间的唯一性以各节点配置不同的节点ID为前提: 多节点部署(multiNode)未配置节点ID时启动失败;
+ * 单节点部署未配置时取主机名哈希的低10位, 不同主机可能相同, 此时跨节点唯一只能依赖64位随机数。
+ * 每个条带的(时间戳, 序号)打包在一个AtomicLong中通过CAS推进, 同一毫秒序号用尽时借用下一毫秒。
+ */
+@Slf4j
+@Component
+public class StripedSerialNumberAllocator implements ISerialNumberAllocator {
+
+    /**
+     * 自定义纪元 2024-01-01T00:00:00Z
+     */
+    private static final long EPOCH_MILLIS = 1704067200000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int STRIPE_BITS = 6;
+    private static final int SEQUENCE_BITS = 14;
+    private static final int ENTROPY_BITS = 64;
+
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final int MAX_STRIPES = 1 << STRIPE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final Stripe[] stripes;
+    private final AtomicInteger stripeCursor = new AtomicInteger();
+    private final ThreadLocal<Stripe> threadStripe;
+
+    public StripedSerialNumberAllocator(SerialNumberAllocatorConfig config) {
+        if (config.isMultiNode() && config.getNodeId() == null) {
+            throw new IllegalStateException("多节点部署必须配置序列号分配器节点ID(serial.allocator.node-id), 各节点不同");
+        }
+        this.nodeId = resolveNodeId(config.getNodeId());
+        int stripeCount = Math.max(1, Math.min(MAX_STRIPES, config.getStripes()));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(i);
+        }
+        this.threadStripe = ThreadLocal.withInitial(
+            () -> stripes[Math.floorMod(stripeCursor.getAndIncrement(), stripes.length)]);
+        log.info("序列号分配器初始化: nodeId={}, stripes={}", nodeId, stripeCount);
+    }
+
+    @Override
+    public BigInteger nextSerialNumber() {
+        Stripe stripe = threadStripe.get();
+        long state = stripe.next();
+        long timestamp = state >>> SEQUENCE_BITS;
+        long sequence = state & SEQUENCE_MASK;
+
+        // 时间戳之后的30位: 节点ID | 条带ID | 序号
+        long uniquifier = (nodeId << (STRIPE_BITS + SEQUENCE_BITS))
+            | ((long) stripe.id << SEQUENCE_BITS)
+            | sequence;
+        long entropy = stripe.random.nextLong();
+
+        return BigInteger.valueOf(timestamp)
+            .shiftLeft(NODE_BITS + STRIPE_BITS + SEQUENCE_BITS).or(BigInteger.valueOf(uniquifier))
+            .shiftLeft(ENTROPY_BITS).or(new BigInteger(1, longToBytes(entropy)));
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    private long resolveNodeId(Integer configured) {
+        if (configured != null) {
+            if (configured < 0 || configured > MAX_NODE_ID) {
+                throw new IllegalArgumentException("序列号分配器节点ID超出范围(0-" + MAX_NODE_ID + "): " + configured);
+            }
+            return configured;
+        }
+        // 仅单节点部署: 哈希只有10位, 不保证与其他主机不同
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode() & MAX_NODE_ID;
+        } catch (Exception e) {
+            log.warn("无法获取主机名, 序列号分配器节点ID使用随机值", e);
+            return new SecureRandom().nextInt((int) MAX_NODE_ID + 1);
+        }
+    }
+
+    private static byte[] longToBytes(long value) {
+        byte[] bytes = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * 条带状态: 打包的(毫秒时间戳, 序号)与独立的随机源
+     */
+    private static final class Stripe {
+
+        private final int id;
+        private final AtomicLong state = new AtomicLong();
+        private final SecureRandom random = new SecureRandom();
+
+        private Stripe(int id) {
+            this.id = id;
+        }
+
+        private long next() {
+            while (true) {
+                long current = state.get();
+                long lastTimestamp = current >>> SEQUENCE_BITS;
+                long now = System.currentTimeMillis() - EPOCH_MILLIS;
+                long next;
+                if (now > lastTimestamp) {
+                    next = now << SEQUENCE_BITS;
+                } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                    // 同一毫秒或时钟回拨: 沿用上次时间戳递增序号
+                    next = current + 1;
+                } else {
+                    // 序号用尽: 借用下一毫秒
+                    next = (lastTimestamp + 1) << SEQUENCE_BITS;
+                }
+                if (state.compareAndSet(current, next)) {
+                    return next;
+                }
+            }
+        }
+    }
+}
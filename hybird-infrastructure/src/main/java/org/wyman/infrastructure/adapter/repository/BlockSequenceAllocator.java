@@ -0,0 +1,74 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.signing.adapter.port.ISequenceAllocator;
+import org.wyman.infrastructure.config.SequenceAllocatorConfig;
+import org.wyman.infrastructure.dao.mapper.SequenceBlockMapper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 号段预留(hi/lo)持久化序列分配器
+ * 每个节点通过对sequence_block行做比较并设置, 一次预留 [next, next + blockSize) 整段,
+ * 之后在内存中逐个分配, 号段用尽才再次访问数据库; 整个过程不持有行锁。
+ * 预留即持久化, 节点重启后未用完的号段直接丢弃(产生空洞), 因此数值不会回退也不会重复。
+ * 不同节点的号段互不重叠, 单节点内严格递增; 需要集群内全局严格递增的序列(如CRL编号)号段大小为1。
+ */
+@Slf4j
+@Component
+public class BlockSequenceAllocator implements ISequenceAllocator {
+
+    private static final long INITIAL_VALUE = 1L;
+
+    private final SequenceBlockMapper sequenceBlockMapper;
+    private final SequenceAllocatorConfig config;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public BlockSequenceAllocator(SequenceBlockMapper sequenceBlockMapper, SequenceAllocatorConfig config) {
+        this.sequenceBlockMapper = sequenceBlockMapper;
+        this.config = config;
+    }
+
+    @Override
+    public long next(String sequenceName) {
+        Block block = blocks.computeIfAbsent(sequenceName, name -> new Block());
+        synchronized (block) {
+            if (block.next >= block.limit) {
+                reserve(sequenceName, block);
+            }
+            return block.next++;
+        }
+    }
+
+    /**
+     * 向数据库预留新号段
+     */
+    private void reserve(String sequenceName, Block block) {
+        int blockSize = config.blockSizeOf(sequenceName);
+        for (int attempt = 0; attempt < Math.max(1, config.getMaxRetries()); attempt++) {
+            Long current = sequenceBlockMapper.selectNextValue(sequenceName);
+            if (current == null) {
+                sequenceBlockMapper.insertIfAbsent(sequenceName, INITIAL_VALUE);
+                continue;
+            }
+            if (sequenceBlockMapper.compareAndSet(sequenceName, current, current + blockSize) == 1) {
+                block.next = current;
+                block.limit = current + blockSize;
+                log.debug("预留序列号段: sequence={}, range=[{}, {})", sequenceName, block.next, block.limit);
+                return;
+            }
+        }
+        throw new RuntimeException("预留序列号段失败, 并发冲突次数过多: " + sequenceName);
+    }
+
+    /**
+     * 当前节点持有的号段 [next, limit)
+     */
+    private static final class Block {
+        private long next;
+        private long limit;
+    }
+}
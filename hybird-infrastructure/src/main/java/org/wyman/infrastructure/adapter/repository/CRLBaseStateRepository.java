@@ -0,0 +1,55 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import org.springframework.stereotype.Repository;
+import org.wyman.domain.signing.adapter.port.ICRLBaseStateRepository;
+import org.wyman.domain.signing.valobj.CRLBaseState;
+import org.wyman.infrastructure.dao.mapper.CrlBaseStateMapper;
+import org.wyman.infrastructure.dao.po.CrlBaseStatePO;
+
+import java.time.LocalDateTime;
+
+/**
+ * 基础CRL状态仓储MyBatis实现
+ */
+@Repository
+public class CRLBaseStateRepository implements ICRLBaseStateRepository {
+
+    private final CrlBaseStateMapper crlBaseStateMapper;
+
+    public CRLBaseStateRepository(CrlBaseStateMapper crlBaseStateMapper) {
+        this.crlBaseStateMapper = crlBaseStateMapper;
+    }
+
+    @Override
+    public CRLBaseState findByCaId(String caId) {
+        CrlBaseStatePO po = crlBaseStateMapper.selectByCaId(caId);
+        if (po == null) {
+            return null;
+        }
+        return new CRLBaseState(
+            po.getCaId(),
+            po.getBaseCrlNumber(),
+            po.getBaseThisUpdate(),
+            po.getRevocationCutoff(),
+            po.getBaseRevokedCount() != null ? po.getBaseRevokedCount() : 0,
+            po.getBaseCrlUrl(),
+            po.getDeltaCrlUrl(),
+            po.getLastDeltaCrlNumber()
+        );
+    }
+
+    @Override
+    public void save(CRLBaseState state) {
+        crlBaseStateMapper.upsert(CrlBaseStatePO.builder()
+            .caId(state.getCaId())
+            .baseCrlNumber(state.getBaseCrlNumber())
+            .baseThisUpdate(state.getBaseThisUpdate())
+            .revocationCutoff(state.getRevocationCutoff())
+            .baseRevokedCount(state.getBaseRevokedCount())
+            .baseCrlUrl(state.getBaseCrlUrl())
+            .deltaCrlUrl(state.getDeltaCrlUrl())
+            .lastDeltaCrlNumber(state.getLastDeltaCrlNumber())
+            .updateTime(LocalDateTime.now())
+            .build());
+    }
+}
@@ -0,0 +1,54 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import org.springframework.stereotype.Repository;
+import org.wyman.domain.signing.adapter.port.ICRLPartitionStateRepository;
+import org.wyman.domain.signing.valobj.CRLPartitionState;
+import org.wyman.infrastructure.dao.mapper.CrlPartitionStateMapper;
+import org.wyman.infrastructure.dao.po.CrlPartitionStatePO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * CRL分区状态仓储MyBatis实现
+ */
+@Repository
+public class CRLPartitionStateRepository implements ICRLPartitionStateRepository {
+
+    private final CrlPartitionStateMapper crlPartitionStateMapper;
+
+    public CRLPartitionStateRepository(CrlPartitionStateMapper crlPartitionStateMapper) {
+        this.crlPartitionStateMapper = crlPartitionStateMapper;
+    }
+
+    @Override
+    public List<CRLPartitionState> findByCaId(String caId) {
+        return crlPartitionStateMapper.selectByCaId(caId).stream()
+            .map(po -> new CRLPartitionState(
+                po.getCaId(),
+                po.getPartitionNo(),
+                po.getCrlNumber(),
+                po.getRevokedCount() != null ? po.getRevokedCount() : 0L,
+                po.getLatestRevocationDate(),
+                po.getThisUpdate(),
+                po.getNextUpdate(),
+                po.getCrlUrl()))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void save(CRLPartitionState state) {
+        crlPartitionStateMapper.upsert(CrlPartitionStatePO.builder()
+            .caId(state.getCaId())
+            .partitionNo(state.getPartition())
+            .crlNumber(state.getCrlNumber())
+            .revokedCount(state.getRevokedCount())
+            .latestRevocationDate(state.getLatestRevocationDate())
+            .thisUpdate(state.getThisUpdate())
+            .nextUpdate(state.getNextUpdate())
+            .crlUrl(state.getCrlUrl())
+            .updateTime(LocalDateTime.now())
+            .build());
+    }
+}
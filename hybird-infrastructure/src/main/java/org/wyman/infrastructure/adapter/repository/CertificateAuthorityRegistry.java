@@ -0,0 +1,289 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRegistry;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRepository;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.infrastructure.crypto.SignerPool;
+import org.wyman.infrastructure.dao.mapper.CertificateAuthorityMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CA注册表内存实现
+ * 以不可变快照持有已加载的CA聚合根(含已解析的CA证书、颁发者DN和私钥句柄), 读路径无锁且不访问数据库;
+ * 查询返回的是请求副本(共享已解析状态, 注入的依赖和领域事件各自独立), 调用方的修改不会影响注册表中的实例;
+ * 写操作(注册/失效/重载)串行地构造新快照后整体替换。
+ * 快照按OCSP CertID哈希算法惰性建立已启用CA的颁发者哈希索引, OCSP请求按哈希直接定位颁发者而不遍历复制全部CA。
+ * 跨节点失效: 定期查询CA表版本戳(记录数|最大更新时间), 与上次不同即重载全部CA,
+ * 加载的各列均未变化的CA沿用原聚合根, 发生变化的同时清理其在签名器池中的签名器;
+ * 替换后的聚合根沿用原CRL发布锁, 重载前后取得的副本仍互斥地发布CRL。
+ */
+@Slf4j
+@Component
+public class CertificateAuthorityRegistry implements ICertificateAuthorityRegistry {
+
+    private final ICertificateAuthorityRepository caRepository;
+    private final CertificateAuthorityMapper certificateAuthorityMapper;
+    private final SignerPool signerPool;
+
+    private volatile Snapshot snapshot;
+    private volatile String versionStamp;
+
+    public CertificateAuthorityRegistry(ICertificateAuthorityRepository caRepository,
+                                        CertificateAuthorityMapper certificateAuthorityMapper,
+                                        SignerPool signerPool) {
+        this.caRepository = caRepository;
+        this.certificateAuthorityMapper = certificateAuthorityMapper;
+        this.signerPool = signerPool;
+    }
+
+    @Override
+    public CertificateAuthority getByName(String caName) {
+        CertificateAuthority ca = snapshot().byName.get(caName);
+        if (ca != null) {
+            return ca.copy();
+        }
+        // 未命中: 可能是其他节点刚创建且尚未轮询到的CA, 按名称单独加载一次
+        ca = caRepository.findByName(caName);
+        return ca != null ? put(ca).copy() : null;
+    }
+
+    @Override
+    public CertificateAuthority getById(String caId) {
+        CertificateAuthority ca = snapshot().byId.get(caId);
+        if (ca != null) {
+            return ca.copy();
+        }
+        ca = caRepository.findById(caId);
+        return ca != null ? put(ca).copy() : null;
+    }
+
+    @Override
+    public List<CertificateAuthority> getAll() {
+        List<CertificateAuthority> all = new ArrayList<>();
+        snapshot().byId.values().forEach(ca -> all.add(ca.copy()));
+        return all;
+    }
+
+    @Override
+    public CertificateAuthority getByIssuerHash(String hashAlgorithm, byte[] issuerNameHash, byte[] issuerKeyHash) {
+        Map<String, CertificateAuthority> index = snapshot().issuerHashIndex(hashAlgorithm);
+        CertificateAuthority ca = index != null ? index.get(issuerHashKey(issuerNameHash, issuerKeyHash)) : null;
+        return ca != null ? ca.copy() : null;
+    }
+
+    @Override
+    public void register(CertificateAuthority ca) {
+        put(ca);
+    }
+
+    @Override
+    public synchronized void invalidate(String caId) {
+        Map<String, CertificateAuthority> byId = new HashMap<>(snapshot().byId);
+        CertificateAuthority previous = byId.remove(caId);
+        if (previous != null) {
+            evictSigners(previous);
+        }
+        CertificateAuthority reloaded = caRepository.findById(caId);
+        if (reloaded != null) {
+            if (previous != null) {
+                reloaded.inheritCrlLock(previous);
+            }
+            prepare(reloaded);
+            byId.put(caId, reloaded);
+        }
+        snapshot = new Snapshot(byId);
+        log.info("CA注册表失效: caId={}, 重新加载={}", caId, reloaded != null);
+    }
+
+    /**
+     * 轮询CA表版本戳, 检测其他节点对CA的创建/激活/吊销
+     */
+    @Scheduled(fixedDelayString = "${ca.registry.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        try {
+            String stamp = certificateAuthorityMapper.selectVersionStamp();
+            if (snapshot != null && Objects.equals(stamp, versionStamp)) {
+                return;
+            }
+            reload(stamp);
+        } catch (Exception e) {
+            log.warn("检查CA表版本失败, 继续使用当前注册表", e);
+        }
+    }
+
+    /**
+     * 注册CA的副本(调用方之后对传入实例的修改不进入注册表), 返回注册表持有的实例
+     */
+    private synchronized CertificateAuthority put(CertificateAuthority ca) {
+        CertificateAuthority registered = ca.copy();
+        prepare(registered);
+        Map<String, CertificateAuthority> byId = new HashMap<>(snapshot().byId);
+        CertificateAuthority previous = byId.put(registered.getCaId(), registered);
+        if (previous != null) {
+            registered.inheritCrlLock(previous);
+            if (!sameColumns(previous, registered)) {
+                evictSigners(previous);
+            }
+        }
+        snapshot = new Snapshot(byId);
+        log.info("CA注册表更新: caId={}, caName={}", registered.getCaId(), registered.getCaName());
+        return registered;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload(certificateAuthorityMapper.selectVersionStamp());
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private synchronized void reload(String stamp) {
+        Map<String, CertificateAuthority> previous = snapshot != null ? snapshot.byId : Map.of();
+        Map<String, CertificateAuthority> byId = new HashMap<>();
+        int changed = 0;
+        for (CertificateAuthority loaded : caRepository.findAll()) {
+            CertificateAuthority existing = previous.get(loaded.getCaId());
+            if (existing != null && sameColumns(existing, loaded)) {
+                byId.put(existing.getCaId(), existing);
+                continue;
+            }
+            if (existing != null) {
+                loaded.inheritCrlLock(existing);
+                evictSigners(existing);
+            }
+            prepare(loaded);
+            byId.put(loaded.getCaId(), loaded);
+            changed++;
+        }
+        for (CertificateAuthority removed : previous.values()) {
+            if (!byId.containsKey(removed.getCaId())) {
+                evictSigners(removed);
+                changed++;
+            }
+        }
+        snapshot = new Snapshot(byId);
+        versionStamp = stamp;
+        log.info("CA注册表加载完成: 共{}个CA, 变更{}个, 版本戳={}", byId.size(), changed, stamp);
+    }
+
+    /**
+     * 预先解析CA证书和颁发者DN, 使签发时无需再解析
+     */
+    private void prepare(CertificateAuthority ca) {
+        if (ca.getCaCertificate() == null) {
+            return;
+        }
+        String pem = ca.getCaCertificate().getPemEncoded();
+        if (pem != null && ca.getCaX509Certificate() == null) {
+            try {
+                CertificateFactory factory = CertificateFactory.getInstance("X.509");
+                ca.setCaX509Certificate((X509Certificate) factory.generateCertificate(
+                    new ByteArrayInputStream(pem.getBytes(StandardCharsets.US_ASCII))));
+            } catch (Exception e) {
+                log.warn("解析CA证书失败: caName={}", ca.getCaName(), e);
+            }
+        }
+        if (ca.getCaCertificate().getSubjectDN() != null) {
+            ca.getIssuerX500Name();
+        }
+    }
+
+    private void evictSigners(CertificateAuthority ca) {
+        if (ca.getCaCertificate() != null && ca.getCaCertificate().getSubjectDN() != null) {
+            // 签名器池以颁发者DN作为CA标识
+            signerPool.invalidate(ca.getIssuerX500Name().toString());
+        }
+    }
+
+    /**
+     * 比较从CA表加载的全部列, 任一列变化都视为CA已变更
+     */
+    private boolean sameColumns(CertificateAuthority a, CertificateAuthority b) {
+        Certificate certA = a.getCaCertificate();
+        Certificate certB = b.getCaCertificate();
+        return Objects.equals(a.getCaName(), b.getCaName())
+            && Objects.equals(certA != null ? certA.getPemEncoded() : null, certB != null ? certB.getPemEncoded() : null)
+            && Objects.equals(certA != null ? certA.getSubjectDN() : null, certB != null ? certB.getSubjectDN() : null)
+            && Objects.equals(a.getAltSignatureAlgorithm(), b.getAltSignatureAlgorithm())
+            && a.getCrlPartitionCount() == b.getCrlPartitionCount()
+            && a.isEnabled() == b.isEnabled()
+            && Objects.equals(a.getCreateTime(), b.getCreateTime());
+    }
+
+    private static String issuerHashKey(byte[] issuerNameHash, byte[] issuerKeyHash) {
+        HexFormat hex = HexFormat.of();
+        return hex.formatHex(issuerNameHash) + ":" + hex.formatHex(issuerKeyHash);
+    }
+
+    /**
+     * 注册表快照, 构造后只读(颁发者哈希索引按算法惰性建立, 建立后同样只读)
+     */
+    private static final class Snapshot {
+        private final Map<String, CertificateAuthority> byId;
+        private final Map<String, CertificateAuthority> byName;
+        private final Map<String, Map<String, CertificateAuthority>> byIssuerHash = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, CertificateAuthority> byId) {
+            this.byId = Map.copyOf(byId);
+            Map<String, CertificateAuthority> names = new HashMap<>();
+            byId.values().forEach(ca -> names.put(ca.getCaName(), ca));
+            this.byName = Map.copyOf(names);
+        }
+
+        /**
+         * 某一哈希算法下"名称哈希:公钥哈希"到已启用CA的索引, 算法不支持时返回null且不缓存
+         */
+        private Map<String, CertificateAuthority> issuerHashIndex(String hashAlgorithm) {
+            if (hashAlgorithm == null) {
+                return null;
+            }
+            return byIssuerHash.computeIfAbsent(hashAlgorithm, this::buildIssuerHashIndex);
+        }
+
+        private Map<String, CertificateAuthority> buildIssuerHashIndex(String hashAlgorithm) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance(hashAlgorithm);
+            } catch (NoSuchAlgorithmException e) {
+                return null;
+            }
+            Map<String, CertificateAuthority> index = new HashMap<>();
+            for (CertificateAuthority ca : byId.values()) {
+                X509Certificate certificate = ca.getCaX509Certificate();
+                if (!ca.isEnabled() || certificate == null) {
+                    continue;
+                }
+                // RFC 6960 CertID: 颁发者DN的DER编码与公钥BIT STRING内容(不含标签、长度和未用位数)的哈希
+                byte[] nameHash = digest.digest(certificate.getSubjectX500Principal().getEncoded());
+                byte[] keyHash = digest.digest(SubjectPublicKeyInfo.getInstance(certificate.getPublicKey().getEncoded())
+                    .getPublicKeyData().getBytes());
+                index.put(issuerHashKey(nameHash, keyHash), ca);
+            }
+            return Map.copyOf(index);
+        }
+    }
+}
@@ -26,11 +26,7 @@ public class CertificateAuthorityRepository implements ICertificateAuthorityRepo
         CertificateAuthorityPO po = toPO(ca);
 
         // 先按名称查询是否存在
-        CertificateAuthorityPO existingByName = certificateAuthorityMapper.selectAll()
-            .stream()
-            .filter(p -> p.getCaName().equals(ca.getCaName()))
-            .findFirst()
-            .orElse(null);
+        CertificateAuthorityPO existingByName = certificateAuthorityMapper.selectByName(ca.getCaName());
 
         if (existingByName != null) {
             // 如果按名称找到记录,使用该记录的ID进行更新
@@ -49,13 +45,7 @@ public class CertificateAuthorityRepository implements ICertificateAuthorityRepo
 
     @Override
     public CertificateAuthority findByName(String caName) {
-        // 简化实现:实际应该在Mapper中添加按名称查询的方法
-        List<CertificateAuthorityPO> poList = certificateAuthorityMapper.selectAll();
-        return poList.stream()
-                .filter(po -> po.getCaName().equals(caName))
-                .findFirst()
-                .map(this::toDomain)
-                .orElse(null);
+        return toDomain(certificateAuthorityMapper.selectByName(caName));
     }
 
     @Override
@@ -79,6 +69,8 @@ public class CertificateAuthorityRepository implements ICertificateAuthorityRepo
                 .privateKeyAlias(null)
                 .keyType(null)
                 .keySize(null)
+                .altSignatureAlgorithm(ca.getAltSignatureAlgorithm())
+                .crlPartitionCount(ca.getCrlPartitionCount())
                 .enabled(true)
                 .createTime(ca.getCreateTime() != null ? ca.getCreateTime() : java.time.LocalDateTime.now())
                 .build();
@@ -99,6 +91,8 @@ public class CertificateAuthorityRepository implements ICertificateAuthorityRepo
                 po.getCertificatePem() != null ? createMockCertificate(po.getCertificatePem()) : null
         );
         ca.setCreateTime(po.getCreateTime());
+        ca.setAltSignatureAlgorithm(po.getAltSignatureAlgorithm());
+        ca.setCrlPartitionCount(po.getCrlPartitionCount() != null ? po.getCrlPartitionCount() : 0);
 
         return ca;
     }
@@ -6,6 +6,7 @@ import org.wyman.domain.policy.model.aggregate.CertificatePolicy;
 import org.wyman.domain.policy.valobj.CryptographicRule;
 import org.wyman.domain.policy.valobj.SubjectDNRule;
 import org.wyman.domain.policy.valobj.ValidityPeriodRule;
+import org.wyman.infrastructure.config.CertificateProfileConfig;
 import org.wyman.infrastructure.dao.mapper.CertificatePolicyMapper;
 import org.wyman.infrastructure.dao.po.CertificatePolicyPO;
 import org.wyman.types.enums.CertificateType;
@@ -20,9 +21,12 @@ import java.util.stream.Collectors;
 public class CertificatePolicyRepository implements ICertificatePolicyRepository {
 
     private final CertificatePolicyMapper certificatePolicyMapper;
+    private final CertificateProfileConfig certificateProfileConfig;
 
-    public CertificatePolicyRepository(CertificatePolicyMapper certificatePolicyMapper) {
+    public CertificatePolicyRepository(CertificatePolicyMapper certificatePolicyMapper,
+                                       CertificateProfileConfig certificateProfileConfig) {
         this.certificatePolicyMapper = certificatePolicyMapper;
+        this.certificateProfileConfig = certificateProfileConfig;
     }
 
     @Override
@@ -131,6 +135,9 @@ public class CertificatePolicyRepository implements ICertificatePolicyRepository
             policy.setSubjectDNRule(subjectRule);
         }
 
+        // 扩展项按证书类型取自配置
+        policy.setExtensionProfile(certificateProfileConfig.profileFor(po.getCertificateType()));
+
         policy.setEnabled(po.getEnabled() != null ? po.getEnabled() : true);
         policy.setVersion(po.getVersion());
         policy.setCreateTime(po.getCreateTime());
@@ -33,9 +33,21 @@ public class CertificateRepository implements ICertificateRepository {
             certificateMapper.insert(po);
         } else {
             certificateMapper.update(po);
+            if (po.getRevocationReason() != null) {
+                certificateMapper.updateRevocationInfo(po);
+            }
         }
     }
 
+    @Override
+    public void saveAll(List<Certificate> certificates) {
+        if (certificates == null || certificates.isEmpty()) {
+            return;
+        }
+        List<CertificatePO> poList = certificates.stream().map(this::toPO).collect(Collectors.toList());
+        certificateMapper.insertBatch(poList);
+    }
+
     @Override
     public Certificate findBySerialNumber(String serialNumber) {
         CertificatePO po = certificateMapper.selectBySerialNumber(serialNumber);
@@ -89,6 +101,7 @@ public class CertificateRepository implements ICertificateRepository {
                 .postQuantumKekPublicKeyPem(certificate.getPostQuantumKekPublicKeyPem())
                 .renewalNoticeDays(certificate.getNotificationPolicy() != null ?
                         certificate.getNotificationPolicy().getExpiryNotificationDays() : 30)
+                .crlPartition(certificate.getCrlPartition())
                 .createTime(certificate.getCreateTime() != null ? certificate.getCreateTime() : LocalDateTime.now())
                 .updateTime(certificate.getUpdateTime() != null ? certificate.getUpdateTime() : LocalDateTime.now())
                 .build();
@@ -121,12 +134,17 @@ public class CertificateRepository implements ICertificateRepository {
         certificate.setPostQuantumCsrPem(po.getPostQuantumCsrPem());
         certificate.setPostQuantumPublicKeyPem(po.getPostQuantumPublicKeyPem());
         certificate.setPostQuantumKekPublicKeyPem(po.getPostQuantumKekPublicKeyPem());
+        certificate.setCrlPartition(po.getCrlPartition());
         certificate.setCreateTime(po.getCreateTime());
         certificate.setUpdateTime(po.getUpdateTime());
 
         if (po.getRevocationReason() != null) {
             RevocationInfo revocationInfo = new RevocationInfo(po.getRevocationReason(), po.getRevokedBy());
             revocationInfo.setComments(po.getRevocationComments());
+            // 吊销时写入update_time, 吊销后该行不再变更, 以此作为吊销时间
+            if (po.getUpdateTime() != null) {
+                revocationInfo.setRevocationTime(po.getUpdateTime());
+            }
             certificate.setRevocationInfo(revocationInfo);
         }
 
@@ -0,0 +1,60 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import org.springframework.stereotype.Repository;
+import org.wyman.domain.status.adapter.port.ICertificateStatusSource;
+import org.wyman.domain.status.valobj.CertificateStatusEntry;
+import org.wyman.infrastructure.dao.mapper.CertificateMapper;
+import org.wyman.infrastructure.dao.po.CertificatePO;
+import org.wyman.types.enums.CertificateStatus;
+import org.wyman.types.enums.RevocationReason;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 证书状态数据源MyBatis实现: 全量扫描走数据库游标逐行读取
+ */
+@Repository
+public class CertificateStatusSource implements ICertificateStatusSource {
+
+    private final CertificateMapper certificateMapper;
+
+    public CertificateStatusSource(CertificateMapper certificateMapper) {
+        this.certificateMapper = certificateMapper;
+    }
+
+    @Override
+    public void scan(String issuerDN, Consumer<CertificateStatusEntry> consumer) {
+        certificateMapper.scanStatusEntries(issuerDN, context -> consumer.accept(toEntry(context.getResultObject())));
+    }
+
+    @Override
+    public List<CertificateStatusEntry> findChangedSince(String issuerDN, LocalDateTime since) {
+        return certificateMapper.selectStatusEntriesSince(issuerDN, since).stream().map(this::toEntry).toList();
+    }
+
+    @Override
+    public Set<String> findIssued(String issuerDN, Collection<String> serialNumbers) {
+        if (serialNumbers.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(certificateMapper.selectIssuedSerialNumbers(issuerDN, serialNumbers));
+    }
+
+    private CertificateStatusEntry toEntry(CertificatePO po) {
+        CertificateStatus status = CertificateStatus.valueOf(po.getStatus());
+        RevocationReason reason = null;
+        if (status == CertificateStatus.REVOKED && po.getRevocationReason() != null) {
+            // 吊销原因以描述存储, 无法识别时按密钥泄露处理(与CRL一致)
+            reason = RevocationReason.fromDesc(po.getRevocationReason());
+            if (reason == null) {
+                reason = RevocationReason.KEY_COMPROMISE;
+            }
+        }
+        return new CertificateStatusEntry(po.getSerialNumber(), status, po.getUpdateTime(), reason);
+    }
+}
@@ -0,0 +1,62 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import org.wyman.domain.status.adapter.port.IRevocationSnapshotStore;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+import org.wyman.infrastructure.config.RevocationSnapshotConfig;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 吊销状态快照的本地文件实现
+ * 文件内容为RevocationSnapshotCodec的二进制格式(带版本与校验和);
+ * 先写临时文件再原子替换, 中途失败不会留下半个快照
+ */
+@Slf4j
+@Repository
+public class FileRevocationSnapshotStore implements IRevocationSnapshotStore {
+
+    private final Path file;
+
+    public FileRevocationSnapshotStore(RevocationSnapshotConfig config) {
+        this.file = Paths.get(config.getFile());
+    }
+
+    @Override
+    public RevocationSnapshot load() {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            return RevocationSnapshotCodec.read(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("读取吊销状态快照失败, 忽略: {}", file, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void save(RevocationSnapshot snapshot) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+                RevocationSnapshotCodec.write(snapshot, out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("保存吊销状态快照失败: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.wyman.domain.status.adapter.port.IRevocationStatusCacheRepository;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.CRLMetadata;
+import org.wyman.domain.status.valobj.RevocationChanges;
+import org.wyman.domain.status.valobj.RevocationIndex;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 吊销状态缓存仓储Redis实现(cache.type=redis)
+ * 吊销条目存于哈希revocation:status:entries(序列号 -> "吊销时间毫秒|原因"), 快照元数据存于哈希revocation:status:meta;
+ * 批量确认按块以HMGET流水线执行, 只需一次往返。
+ * CRL核对只HSET补上的条目、HDEL移除的条目, 并只发布这部分变化, 写入与其他节点的更新代价都与变化量成正比;
+ * 整体替换(共享存储尚无条目时)先写临时哈希再RENAME, 随后把近期追加的吊销从有序集合revocation:status:recent补回, 替换期间其他节点的吊销不会丢失;
+ * 每次变更向revocation:status:changes发布通知, 其他节点据此更新本地快照
+ */
+@Slf4j
+public class RedisRevocationStatusCacheRepository implements IRevocationStatusCacheRepository {
+
+    static final String ENTRIES_KEY = "revocation:status:entries";
+    static final String META_KEY = "revocation:status:meta";
+    static final String RECENT_KEY = "revocation:status:recent";
+    static final String CHANNEL = "revocation:status:changes";
+
+    private static final String TYPE_REVOKED = "REVOKED";
+    private static final String TYPE_SNAPSHOT = "SNAPSHOT";
+    private static final String TYPE_CHANGES = "CHANGES";
+
+    /**
+     * CHANGES通知中CRL元数据占用的行数
+     */
+    private static final int META_LINES = 6;
+
+    /**
+     * 近期吊销的保留时长, 整体替换时补回该时长内追加的条目
+     */
+    private static final Duration RECENT_RETENTION = Duration.ofMinutes(5);
+
+    /**
+     * 每条HMSET/HMGET的字段数
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * 整体替换时每个流水线写入的条目数
+     */
+    private static final int PIPELINE_ENTRIES = 50_000;
+
+    private static final int SCAN_COUNT = 10_000;
+
+    private static final byte[] ENTRIES = bytes(ENTRIES_KEY);
+    private static final byte[] RECENT = bytes(RECENT_KEY);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 本节点标识, 用于忽略自己发布的通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisRevocationStatusCacheRepository(RedisTemplate<String, String> redisTemplate,
+                                                RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public void appendRevocations(String cacheId, Collection<RevocationStatusCache.RevocationDetail> revocations) {
+        if (revocations == null || revocations.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<RevocationStatusCache.RevocationDetail> details = new ArrayList<>(revocations);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            // 同一连接上的命令按序执行: 先ZADD再HSET, 与整体替换交错时落在旧哈希里的条目一定能从近期集合补回
+            for (RevocationStatusCache.RevocationDetail detail : details) {
+                connection.zSetCommands().zAdd(RECENT, now, bytes(encodeDetail(detail)));
+            }
+            writeEntries(connection, ENTRIES, details);
+            connection.hashCommands().hSet(bytes(META_KEY), bytes("lastUpdateTime"), bytes(String.valueOf(now)));
+            return null;
+        });
+        publish(TYPE_REVOKED, details);
+    }
+
+    @Override
+    public void saveSnapshot(RevocationSnapshot snapshot) {
+        String tempKey = ENTRIES_KEY + ":" + nodeId;
+        byte[] temp = bytes(tempKey);
+        redisTemplate.delete(tempKey);
+        List<RevocationStatusCache.RevocationDetail> buffer = new ArrayList<>(PIPELINE_ENTRIES);
+        snapshot.forEach(detail -> {
+            buffer.add(detail);
+            if (buffer.size() >= PIPELINE_ENTRIES) {
+                flush(temp, buffer);
+            }
+        });
+        flush(temp, buffer);
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(tempKey))) {
+            redisTemplate.rename(tempKey, ENTRIES_KEY);
+        } else {
+            redisTemplate.delete(ENTRIES_KEY);
+        }
+
+        // 补回替换期间追加到旧哈希的吊销(重复写入无副作用)
+        long since = toMillis(snapshot.getLastUpdateTime()) - RECENT_RETENTION.toMillis();
+        Set<String> recent = redisTemplate.opsForZSet().rangeByScore(RECENT_KEY, since, Double.POSITIVE_INFINITY);
+        if (recent != null && !recent.isEmpty()) {
+            List<RevocationStatusCache.RevocationDetail> replayed = new ArrayList<>(recent.size());
+            recent.forEach(member -> replayed.add(decodeDetail(member)));
+            flush(ENTRIES, replayed);
+        }
+        trimRecent();
+        writeMeta(snapshot);
+        publish(TYPE_SNAPSHOT, List.of());
+    }
+
+    @Override
+    public void saveChanges(RevocationSnapshot snapshot, RevocationChanges changes) {
+        if (snapshot.size() > 0 && !Boolean.TRUE.equals(redisTemplate.hasKey(ENTRIES_KEY))) {
+            // 共享存储尚无条目(首次使用或已被清空), 变化部分不足以还原全部内容
+            saveSnapshot(snapshot);
+            return;
+        }
+        List<RevocationStatusCache.RevocationDetail> upserted = changes.getUpserted();
+        for (int from = 0; from < upserted.size(); from += PIPELINE_ENTRIES) {
+            flush(ENTRIES, new ArrayList<>(upserted.subList(from, Math.min(from + PIPELINE_ENTRIES, upserted.size()))));
+        }
+        List<String> removed = changes.getRemoved();
+        for (int from = 0; from < removed.size(); from += PIPELINE_ENTRIES) {
+            List<String> chunk = removed.subList(from, Math.min(from + PIPELINE_ENTRIES, removed.size()));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int batch = 0; batch < chunk.size(); batch += BATCH_SIZE) {
+                    List<String> serials = chunk.subList(batch, Math.min(batch + BATCH_SIZE, chunk.size()));
+                    byte[][] fields = new byte[serials.size()][];
+                    for (int i = 0; i < fields.length; i++) {
+                        fields[i] = bytes(serials.get(i));
+                    }
+                    connection.hashCommands().hDel(ENTRIES, fields);
+                }
+                return null;
+            });
+        }
+        writeMeta(snapshot);
+        publishChanges(snapshot.getCrlMetadata(), changes);
+    }
+
+    @Override
+    public RevocationSnapshot loadLatest() {
+        Map<Object, Object> meta = redisTemplate.opsForHash().entries(META_KEY);
+        Long size = redisTemplate.opsForHash().size(ENTRIES_KEY);
+        if (meta.isEmpty() && (size == null || size == 0)) {
+            return null;
+        }
+        RevocationIndex.Builder builder = RevocationIndex.builder(size != null ? size.intValue() : 0,
+            RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+        // HSCAN可能重复返回同一字段, 构建索引时去重
+        try (Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash()
+            .scan(ENTRIES_KEY, ScanOptions.scanOptions().count(SCAN_COUNT).build())) {
+            while (cursor.hasNext()) {
+                Map.Entry<Object, Object> entry = cursor.next();
+                builder.add(decodeEntry((String) entry.getKey(), (String) entry.getValue()));
+            }
+        }
+        String cacheId = (String) meta.get("cacheId");
+        LocalDateTime lastUpdateTime = toTime((String) meta.get("lastUpdateTime"));
+        String crlNumber = (String) meta.get("crlNumber");
+        CRLMetadata crlMetadata = crlNumber == null || crlNumber.isEmpty() ? null : new CRLMetadata(
+            crlNumber,
+            emptyToNull((String) meta.get("issuerDN")),
+            toTime((String) meta.get("thisUpdate")),
+            toTime((String) meta.get("nextUpdate")),
+            emptyToNull((String) meta.get("crlUrl")),
+            Integer.parseInt((String) meta.getOrDefault("revokedCount", "0")));
+        return new RevocationSnapshot(cacheId != null ? cacheId : RevocationSnapshot.DEFAULT_CACHE_ID,
+            lastUpdateTime != null ? lastUpdateTime : LocalDateTime.now(), crlMetadata, builder.build());
+    }
+
+    /**
+     * 哈希本身即最新状态, 没有需要并入的增量; 只清理过期的近期吊销
+     */
+    @Override
+    public int compact(int minDeltas) {
+        trimRecent();
+        return 0;
+    }
+
+    @Override
+    public Set<String> findRevoked(Collection<String> serialNumbers) {
+        if (serialNumbers.isEmpty()) {
+            return Set.of();
+        }
+        List<String> serials = new ArrayList<>(serialNumbers);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < serials.size(); from += BATCH_SIZE) {
+                List<String> chunk = serials.subList(from, Math.min(from + BATCH_SIZE, serials.size()));
+                byte[][] fields = new byte[chunk.size()][];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = bytes(chunk.get(i));
+                }
+                connection.hashCommands().hMGet(ENTRIES, fields);
+            }
+            return null;
+        });
+        Set<String> revoked = new HashSet<>();
+        int index = 0;
+        for (Object result : results) {
+            for (Object value : (List<?>) result) {
+                if (value != null) {
+                    revoked.add(serials.get(index));
+                }
+                index++;
+            }
+        }
+        return revoked;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public void subscribe(ChangeListener listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                dispatch(new String(message.getBody(), StandardCharsets.UTF_8), listener);
+            } catch (Exception e) {
+                log.error("处理吊销状态变更通知失败", e);
+            }
+        }, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 通知格式: 第一行节点标识, 第二行类型, 其后每行一个吊销条目
+     */
+    private void publish(String type, List<RevocationStatusCache.RevocationDetail> revocations) {
+        StringBuilder message = new StringBuilder(64 + revocations.size() * 64)
+            .append(nodeId).append('\n').append(type);
+        for (RevocationStatusCache.RevocationDetail detail : revocations) {
+            message.append('\n').append(encodeDetail(detail));
+        }
+        redisTemplate.convertAndSend(CHANNEL, message.toString());
+    }
+
+    /**
+     * CHANGES通知: 类型行之后依次为CRL元数据的6行, 其后"+"开头的行为补上的条目, "-"开头的行为移除的序列号
+     */
+    private void publishChanges(CRLMetadata metadata, RevocationChanges changes) {
+        StringBuilder message = new StringBuilder(256 + (changes.getUpserted().size() + changes.getRemoved().size()) * 64)
+            .append(nodeId).append('\n').append(TYPE_CHANGES)
+            .append('\n').append(metadata != null ? nullToEmpty(metadata.getCrlNumber()) : "")
+            .append('\n').append(metadata != null ? nullToEmpty(metadata.getIssuerDN()) : "")
+            .append('\n').append(metadata != null && metadata.getThisUpdate() != null ? toMillis(metadata.getThisUpdate()) : "")
+            .append('\n').append(metadata != null && metadata.getNextUpdate() != null ? toMillis(metadata.getNextUpdate()) : "")
+            .append('\n').append(metadata != null ? nullToEmpty(metadata.getCrlUrl()) : "")
+            .append('\n').append(metadata != null ? metadata.getRevokedCount() : 0);
+        for (RevocationStatusCache.RevocationDetail detail : changes.getUpserted()) {
+            message.append("\n+").append(encodeDetail(detail));
+        }
+        for (String serialNumber : changes.getRemoved()) {
+            message.append("\n-").append(serialNumber);
+        }
+        redisTemplate.convertAndSend(CHANNEL, message.toString());
+    }
+
+    private void dispatch(String message, ChangeListener listener) {
+        String[] lines = message.split("\n", -1);
+        if (lines.length < 2 || nodeId.equals(lines[0])) {
+            return;
+        }
+        if (TYPE_SNAPSHOT.equals(lines[1])) {
+            listener.onSnapshotReplaced();
+        } else if (TYPE_CHANGES.equals(lines[1]) && lines.length >= 2 + META_LINES) {
+            CRLMetadata metadata = lines[2].isEmpty() ? null : new CRLMetadata(lines[2], emptyToNull(lines[3]),
+                toTime(lines[4]), toTime(lines[5]), emptyToNull(lines[6]), Integer.parseInt(lines[7]));
+            List<RevocationStatusCache.RevocationDetail> upserted = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+            for (int i = 2 + META_LINES; i < lines.length; i++) {
+                if (lines[i].startsWith("+")) {
+                    upserted.add(decodeDetail(lines[i].substring(1)));
+                } else if (lines[i].startsWith("-")) {
+                    removed.add(lines[i].substring(1));
+                }
+            }
+            listener.onChanges(metadata, new RevocationChanges(upserted, removed));
+        } else if (TYPE_REVOKED.equals(lines[1])) {
+            List<RevocationStatusCache.RevocationDetail> revocations = new ArrayList<>(lines.length - 2);
+            for (int i = 2; i < lines.length; i++) {
+                revocations.add(decodeDetail(lines[i]));
+            }
+            listener.onRevocations(revocations);
+        }
+    }
+
+    private void flush(byte[] key, List<RevocationStatusCache.RevocationDetail> buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            writeEntries(connection, key, buffer);
+            return null;
+        });
+        buffer.clear();
+    }
+
+    private static void writeEntries(RedisConnection connection, byte[] key,
+                                     List<RevocationStatusCache.RevocationDetail> details) {
+        for (int from = 0; from < details.size(); from += BATCH_SIZE) {
+            Map<byte[], byte[]> fields = new LinkedHashMap<>();
+            for (RevocationStatusCache.RevocationDetail detail : details.subList(from, Math.min(from + BATCH_SIZE, details.size()))) {
+                fields.put(bytes(detail.getSerialNumber()), bytes(encodeValue(detail)));
+            }
+            connection.hashCommands().hMSet(key, fields);
+        }
+    }
+
+    private void writeMeta(RevocationSnapshot snapshot) {
+        CRLMetadata metadata = snapshot.getCrlMetadata();
+        Map<String, String> meta = new HashMap<>();
+        meta.put("cacheId", snapshot.getCacheId());
+        meta.put("lastUpdateTime", String.valueOf(toMillis(snapshot.getLastUpdateTime())));
+        meta.put("crlNumber", metadata != null ? nullToEmpty(metadata.getCrlNumber()) : "");
+        meta.put("issuerDN", metadata != null ? nullToEmpty(metadata.getIssuerDN()) : "");
+        meta.put("thisUpdate", metadata != null && metadata.getThisUpdate() != null
+            ? String.valueOf(toMillis(metadata.getThisUpdate())) : "");
+        meta.put("nextUpdate", metadata != null && metadata.getNextUpdate() != null
+            ? String.valueOf(toMillis(metadata.getNextUpdate())) : "");
+        meta.put("crlUrl", metadata != null ? nullToEmpty(metadata.getCrlUrl()) : "");
+        meta.put("revokedCount", String.valueOf(metadata != null ? metadata.getRevokedCount() : 0));
+        redisTemplate.opsForHash().putAll(META_KEY, meta);
+    }
+
+    private void trimRecent() {
+        redisTemplate.opsForZSet().removeRangeByScore(RECENT_KEY, Double.NEGATIVE_INFINITY,
+            System.currentTimeMillis() - RECENT_RETENTION.toMillis());
+    }
+
+    private static String encodeValue(RevocationStatusCache.RevocationDetail detail) {
+        return (detail.getRevocationDate() != null ? String.valueOf(toMillis(detail.getRevocationDate())) : "")
+            + "|" + nullToEmpty(detail.getRevocationReason());
+    }
+
+    private static RevocationStatusCache.RevocationDetail decodeEntry(String serialNumber, String value) {
+        int separator = value.indexOf('|');
+        return new RevocationStatusCache.RevocationDetail(serialNumber,
+            toTime(value.substring(0, separator)), emptyToNull(value.substring(separator + 1)));
+    }
+
+    private static String encodeDetail(RevocationStatusCache.RevocationDetail detail) {
+        return detail.getSerialNumber() + "|" + encodeValue(detail);
+    }
+
+    private static RevocationStatusCache.RevocationDetail decodeDetail(String encoded) {
+        int separator = encoded.indexOf('|');
+        return decodeEntry(encoded.substring(0, separator), encoded.substring(separator + 1));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toTime(String millis) {
+        return millis == null || millis.isEmpty() ? null
+            : LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(millis)), ZoneId.systemDefault());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,184 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.CRLMetadata;
+import org.wyman.domain.status.valobj.RevocationIndex;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 吊销状态快照二进制编解码(本地快照文件与数据库快照共用)
+ * 格式: 魔数、版本、缓存ID、快照时间、CRL元数据、条目数, 随后逐条写序列号、吊销时间与原因(每条前有继续标记),
+ * 末尾是之前全部字节的CRC32; 版本或校验和不符时拒绝加载。
+ * 序列号按原始字节写入(1字节长度+至多20字节大端无符号值), 非规范十六进制的序列号以UTF字符串兜底; 仍可读取版本2(UTF序列号)
+ */
+final class RevocationSnapshotCodec {
+
+    static final int VERSION = 3;
+
+    /**
+     * 序列号以UTF字符串写入的版本
+     */
+    private static final int UTF_SERIAL_VERSION = 2;
+
+    /**
+     * 序列号最长20字节(RFC 5280 4.1.2.2)
+     */
+    private static final int MAX_SERIAL_BYTES = 20;
+
+    /**
+     * 序列号长度字节取该值时, 后跟UTF字符串
+     */
+    private static final int UTF_SERIAL = 0xFF;
+
+    private static final int MAGIC = 0x52565331;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private RevocationSnapshotCodec() {
+    }
+
+    static void write(RevocationSnapshot snapshot, OutputStream output) throws IOException {
+        CRC32 crc = new CRC32();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(output, crc));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(snapshot.getCacheId());
+        writeTime(out, snapshot.getLastUpdateTime());
+        CRLMetadata metadata = snapshot.getCrlMetadata();
+        out.writeBoolean(metadata != null);
+        if (metadata != null) {
+            writeString(out, metadata.getCrlNumber());
+            writeString(out, metadata.getIssuerDN());
+            writeTime(out, metadata.getThisUpdate());
+            writeTime(out, metadata.getNextUpdate());
+            writeString(out, metadata.getCrlUrl());
+            out.writeInt(metadata.getRevokedCount());
+        }
+        // 条目数只用于预分配索引容量
+        out.writeInt(snapshot.size());
+        try {
+            snapshot.forEach(detail -> {
+                try {
+                    out.writeBoolean(true);
+                    writeSerial(out, detail.getSerialNumber());
+                    writeTime(out, detail.getRevocationDate());
+                    writeString(out, detail.getRevocationReason());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.writeBoolean(false);
+        out.flush();
+        // 校验和本身不计入
+        new DataOutputStream(output).writeInt((int) crc.getValue());
+        output.flush();
+    }
+
+    static RevocationSnapshot read(InputStream input) throws IOException {
+        CRC32 crc = new CRC32();
+        DataInputStream in = new DataInputStream(new CheckedInputStream(input, crc));
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != MAGIC || (version != VERSION && version != UTF_SERIAL_VERSION)) {
+            throw new IOException("吊销状态快照格式不符: magic=" + Integer.toHexString(magic) + ", version=" + version);
+        }
+        String cacheId = in.readUTF();
+        LocalDateTime lastUpdateTime = readTime(in);
+        CRLMetadata crlMetadata = in.readBoolean()
+            ? new CRLMetadata(readString(in), readString(in), readTime(in), readTime(in), readString(in), in.readInt())
+            : null;
+        RevocationIndex.Builder builder = RevocationIndex.builder(in.readInt(), RevocationIndex.DEFAULT_BLOOM_BITS_PER_ENTRY);
+        while (in.readBoolean()) {
+            String serialNumber = version == UTF_SERIAL_VERSION ? in.readUTF() : readSerial(in);
+            builder.add(new RevocationStatusCache.RevocationDetail(serialNumber, readTime(in), readString(in)));
+        }
+        int expected = (int) crc.getValue();
+        if (new DataInputStream(input).readInt() != expected) {
+            throw new IOException("吊销状态快照校验和不符");
+        }
+        return new RevocationSnapshot(cacheId, lastUpdateTime, crlMetadata, builder.build());
+    }
+
+    /**
+     * 小写、无前导零的十六进制序列号写为原始字节, 其余写为UTF字符串
+     */
+    private static void writeSerial(DataOutputStream out, String serialNumber) throws IOException {
+        byte[] bytes = serialBytes(serialNumber);
+        if (bytes == null) {
+            out.writeByte(UTF_SERIAL);
+            out.writeUTF(serialNumber);
+            return;
+        }
+        out.writeByte(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readSerial(DataInputStream in) throws IOException {
+        int length = in.readUnsignedByte();
+        if (length == UTF_SERIAL) {
+            return in.readUTF();
+        }
+        if (length == 0 || length > MAX_SERIAL_BYTES) {
+            throw new IOException("吊销状态快照序列号长度无效: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new BigInteger(1, bytes).toString(16);
+    }
+
+    /**
+     * 能按原始字节无损往返的序列号返回其大端无符号字节, 否则返回null
+     */
+    private static byte[] serialBytes(String serialNumber) {
+        int length = serialNumber.length();
+        if (length == 0 || length > 2 * MAX_SERIAL_BYTES || (length > 1 && serialNumber.charAt(0) == '0')) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = serialNumber.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return null;
+            }
+        }
+        byte[] bytes = new BigInteger(serialNumber, 16).toByteArray();
+        // 去掉符号位补的0字节
+        return bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : NULL_TIME);
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        long millis = in.readLong();
+        return millis != NULL_TIME ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
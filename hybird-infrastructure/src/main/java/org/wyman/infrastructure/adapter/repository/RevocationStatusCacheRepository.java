@@ -1,81 +1,330 @@
 package org.wyman.infrastructure.adapter.repository;
 
 import com.alibaba.fastjson.JSON;
-import org.springframework.stereotype.Repository;
+import lombok.extern.slf4j.Slf4j;
 import org.wyman.domain.status.adapter.port.IRevocationStatusCacheRepository;
 import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.valobj.RevocationSnapshot;
 import org.wyman.infrastructure.dao.mapper.RevocationStatusCacheMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusDeltaMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusSnapshotMapper;
+import org.wyman.infrastructure.dao.mapper.RevocationStatusSnapshotSegmentMapper;
 import org.wyman.infrastructure.dao.po.RevocationStatusCachePO;
+import org.wyman.infrastructure.dao.po.RevocationStatusDeltaPO;
+import org.wyman.infrastructure.dao.po.RevocationStatusSnapshotPO;
+import org.wyman.infrastructure.dao.po.RevocationStatusSnapshotSegmentPO;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 /**
- * 吊销状态缓存仓储MyBatis实现
+ * 吊销状态缓存仓储MyBatis实现(cache.type=database)
+ * 单次吊销只向revocation_status_delta追加一行; 压缩时把最新快照与之后的增量合并成新的二进制快照,
+ * 写入revocation_status_snapshot并清理上一轮已并入的增量与快照。
+ * 快照数据边编码边按固定大小切分写入revocation_status_snapshot_segment, 读取时逐段拉取解码,
+ * 单行大小与快照条目数无关, 内存中只保留一个分段。
+ * 加载时取最新快照(损坏则退回上一份)再按ID顺序重放之后的增量; 尚无快照时读取旧版JSON缓存升级。
  */
-@Repository
+@Slf4j
 public class RevocationStatusCacheRepository implements IRevocationStatusCacheRepository {
 
-    private final RevocationStatusCacheMapper revocationStatusCacheMapper;
+    /**
+     * 保存快照或压缩时, 晚于基准时间减去该余量追加的增量不视为已并入
+     */
+    private static final Duration DELTA_COVER_MARGIN = Duration.ofMinutes(5);
 
-    public RevocationStatusCacheRepository(RevocationStatusCacheMapper revocationStatusCacheMapper) {
-        this.revocationStatusCacheMapper = revocationStatusCacheMapper;
+    /**
+     * 加载时依次尝试的快照份数(最新一份损坏时退回上一份, 上一份之后的增量尚未清理)
+     */
+    private static final int SNAPSHOT_CANDIDATES = 2;
+
+    /**
+     * 默认分段大小, 远小于MySQL默认的max_allowed_packet(64MB)
+     */
+    public static final int DEFAULT_SEGMENT_BYTES = 4 << 20;
+
+    private final RevocationStatusSnapshotMapper snapshotMapper;
+    private final RevocationStatusSnapshotSegmentMapper segmentMapper;
+    private final RevocationStatusDeltaMapper deltaMapper;
+    private final RevocationStatusCacheMapper legacyCacheMapper;
+    private final int segmentBytes;
+
+    public RevocationStatusCacheRepository(RevocationStatusSnapshotMapper snapshotMapper,
+                                           RevocationStatusSnapshotSegmentMapper segmentMapper,
+                                           RevocationStatusDeltaMapper deltaMapper,
+                                           RevocationStatusCacheMapper legacyCacheMapper) {
+        this(snapshotMapper, segmentMapper, deltaMapper, legacyCacheMapper, DEFAULT_SEGMENT_BYTES);
     }
 
-    @Override
-    public void save(RevocationStatusCache cache) {
-        RevocationStatusCachePO po = toPO(cache);
-        RevocationStatusCachePO existing = revocationStatusCacheMapper.selectById(cache.getCacheId());
+    public RevocationStatusCacheRepository(RevocationStatusSnapshotMapper snapshotMapper,
+                                           RevocationStatusSnapshotSegmentMapper segmentMapper,
+                                           RevocationStatusDeltaMapper deltaMapper,
+                                           RevocationStatusCacheMapper legacyCacheMapper,
+                                           int segmentBytes) {
+        this.snapshotMapper = snapshotMapper;
+        this.segmentMapper = segmentMapper;
+        this.deltaMapper = deltaMapper;
+        this.legacyCacheMapper = legacyCacheMapper;
+        this.segmentBytes = Math.max(1, segmentBytes);
+    }
 
-        // 如果是新缓存，先清除所有旧缓存标记
-        if (existing == null) {
-            revocationStatusCacheMapper.clearAllLatestFlag();
-            po.setIsLatest(true);
+    @Override
+    public void appendRevocations(String cacheId, Collection<RevocationStatusCache.RevocationDetail> revocations) {
+        if (revocations == null || revocations.isEmpty()) {
+            return;
         }
+        LocalDateTime now = LocalDateTime.now();
+        List<RevocationStatusDeltaPO> deltas = new ArrayList<>(revocations.size());
+        for (RevocationStatusCache.RevocationDetail detail : revocations) {
+            deltas.add(RevocationStatusDeltaPO.builder()
+                .cacheId(cacheId)
+                .serialNumber(detail.getSerialNumber())
+                .revocationDate(detail.getRevocationDate())
+                .revocationReason(detail.getRevocationReason())
+                .createTime(now)
+                .build());
+        }
+        deltaMapper.insertBatch(deltas);
+    }
+
+    @Override
+    public void saveSnapshot(RevocationSnapshot snapshot) {
+        Long covered = deltaMapper.selectMaxIdBefore(snapshot.getLastUpdateTime().minus(DELTA_COVER_MARGIN));
+        writeSnapshot(snapshot, covered != null ? covered : 0L);
+    }
 
-        if (existing == null) {
-            revocationStatusCacheMapper.insert(po);
-        } else {
-            revocationStatusCacheMapper.update(po);
+    @Override
+    public RevocationSnapshot loadLatest() {
+        Long maxDeltaId = deltaMapper.selectMaxId();
+        BaseSnapshot base = loadBase();
+        if (base == null && maxDeltaId == null) {
+            return null;
         }
+        RevocationSnapshot snapshot = base != null ? base.snapshot() : RevocationSnapshot.empty();
+        long afterId = base != null ? base.lastDeltaId() : 0L;
+        return maxDeltaId != null && maxDeltaId > afterId ? replay(snapshot, afterId, maxDeltaId) : snapshot;
     }
 
+    /**
+     * 只并入追加时间早于当前时间减去DELTA_COVER_MARGIN的增量: 自增ID不按提交顺序,
+     * 较小ID的增量可能晚于较大ID提交, 按最大ID记为已并入会漏掉它并在之后被清理
+     */
     @Override
-    public RevocationStatusCache findById(String cacheId) {
-        RevocationStatusCachePO po = revocationStatusCacheMapper.selectById(cacheId);
-        return toDomain(po);
+    public int compact(int minDeltas) {
+        Long coveredId = deltaMapper.selectMaxIdBefore(LocalDateTime.now().minus(DELTA_COVER_MARGIN));
+        if (coveredId == null) {
+            return 0;
+        }
+        BaseSnapshot base = loadBase();
+        long afterId = base != null ? base.lastDeltaId() : 0L;
+        if (coveredId <= afterId) {
+            return 0;
+        }
+        long pending = deltaMapper.countRange(afterId, coveredId);
+        if (pending == 0 || pending < minDeltas) {
+            return 0;
+        }
+        RevocationSnapshot snapshot = replay(base != null ? base.snapshot() : RevocationSnapshot.empty(), afterId, coveredId);
+        writeSnapshot(snapshot, coveredId);
+        return (int) pending;
     }
 
+    /**
+     * 数据库实现没有跨节点的即时视图, 以各节点本地快照为准
+     */
     @Override
-    public RevocationStatusCache findLatest() {
-        RevocationStatusCachePO po = revocationStatusCacheMapper.selectLatest();
-        return toDomain(po);
+    public Set<String> findRevoked(Collection<String> serialNumbers) {
+        return Set.of();
     }
 
+    /**
+     * 数据库实现没有通知渠道, 其他节点的变更在重启或CRL更新时生效
+     */
     @Override
-    public void delete(String cacheId) {
-        revocationStatusCacheMapper.deleteById(cacheId);
+    public void subscribe(ChangeListener listener) {
     }
 
-    private RevocationStatusCachePO toPO(RevocationStatusCache cache) {
-        // 将整个缓存对象序列化为JSON
-        String cacheData = JSON.toJSONString(cache);
-
-        return RevocationStatusCachePO.builder()
-                .cacheId(cache.getCacheId())
-                .cacheData(cacheData)
-                .version(1)
-                .isLatest(true)
-                .createTime(cache.getCreateTime() != null ? cache.getCreateTime() : LocalDateTime.now())
-                .updateTime(cache.getLastUpdateTime() != null ? cache.getLastUpdateTime() : LocalDateTime.now())
-                .build();
+    /**
+     * 写入新快照, 再清理上一份快照之前的快照, 以及上一份快照已并入的增量。
+     * 只清理到上一份为止: 并发压缩时后写入的快照可能并入得更少, 它之后的增量必须保留。
+     * 快照头先以未完成状态插入, 分段全部写入后才标记完成, 中途失败的快照不会被加载。
+     */
+    private void writeSnapshot(RevocationSnapshot snapshot, long lastDeltaId) {
+        List<RevocationStatusSnapshotPO> previous = snapshotMapper.selectRecentHeaders(1);
+        RevocationStatusSnapshotPO header = RevocationStatusSnapshotPO.builder()
+            .cacheId(snapshot.getCacheId())
+            .formatVersion(RevocationSnapshotCodec.VERSION)
+            .entryCount(snapshot.size())
+            .lastDeltaId(lastDeltaId)
+            .createTime(LocalDateTime.now())
+            .build();
+        snapshotMapper.insert(header);
+        SegmentOutputStream out = new SegmentOutputStream(header.getSnapshotId());
+        try {
+            RevocationSnapshotCodec.write(snapshot, out);
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("编码吊销状态快照失败", e);
+        }
+        snapshotMapper.markComplete(header.getSnapshotId(), out.segmentCount());
+        if (!previous.isEmpty()) {
+            RevocationStatusSnapshotPO base = previous.get(0);
+            segmentMapper.deleteBefore(base.getSnapshotId());
+            snapshotMapper.deleteBefore(base.getSnapshotId());
+            deltaMapper.deleteUpTo(Math.min(base.getLastDeltaId(), lastDeltaId));
+        }
     }
 
-    private RevocationStatusCache toDomain(RevocationStatusCachePO po) {
-        if (po == null || po.getCacheData() == null) {
+    /**
+     * 读取最近一份可用的快照; 没有快照时读取旧版JSON缓存
+     */
+    private BaseSnapshot loadBase() {
+        for (RevocationStatusSnapshotPO header : snapshotMapper.selectRecentHeaders(SNAPSHOT_CANDIDATES)) {
+            try (InputStream in = new BufferedInputStream(
+                new SegmentInputStream(header.getSnapshotId(), header.getSegmentCount()), 64 * 1024)) {
+                return new BaseSnapshot(RevocationSnapshotCodec.read(in), header.getLastDeltaId());
+            } catch (IOException e) {
+                log.error("吊销状态快照不可用, 尝试上一份: snapshotId={}", header.getSnapshotId(), e);
+            }
+        }
+        RevocationStatusCachePO legacy = legacyCacheMapper.selectLatest();
+        if (legacy == null || legacy.getCacheData() == null) {
             return null;
         }
+        RevocationStatusCache cache = JSON.parseObject(legacy.getCacheData(), RevocationStatusCache.class);
+        return new BaseSnapshot(RevocationSnapshot.of(cache), 0L);
+    }
+
+    /**
+     * 按ID顺序并入(afterId, upToId]范围内的增量, 一次性归并入索引
+     */
+    private RevocationSnapshot replay(RevocationSnapshot snapshot, long afterId, long upToId) {
+        List<RevocationStatusCache.RevocationDetail> revocations = new ArrayList<>();
+        deltaMapper.scanRange(afterId, upToId, context -> {
+            RevocationStatusDeltaPO delta = context.getResultObject();
+            revocations.add(new RevocationStatusCache.RevocationDetail(
+                delta.getSerialNumber(), delta.getRevocationDate(), delta.getRevocationReason()));
+        });
+        return revocations.isEmpty() ? snapshot : snapshot.withRevocations(revocations);
+    }
+
+    private record BaseSnapshot(RevocationSnapshot snapshot, long lastDeltaId) {
+    }
+
+    /**
+     * 写满一个分段即插入一行
+     */
+    private final class SegmentOutputStream extends OutputStream {
+        private final long snapshotId;
+        private final byte[] buffer = new byte[segmentBytes];
+        private int position;
+        private int segments;
+
+        private SegmentOutputStream(long snapshotId) {
+            this.snapshotId = snapshotId;
+        }
+
+        @Override
+        public void write(int b) {
+            if (position == buffer.length) {
+                writeSegment();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                if (position == buffer.length) {
+                    writeSegment();
+                }
+                int n = Math.min(length, buffer.length - position);
+                System.arraycopy(bytes, offset, buffer, position, n);
+                position += n;
+                offset += n;
+                length -= n;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (position > 0) {
+                writeSegment();
+            }
+        }
+
+        int segmentCount() {
+            return segments;
+        }
 
-        // 从JSON反序列化为缓存对象
-        return JSON.parseObject(po.getCacheData(), RevocationStatusCache.class);
+        private void writeSegment() {
+            segmentMapper.insert(RevocationStatusSnapshotSegmentPO.builder()
+                .snapshotId(snapshotId)
+                .segmentNo(segments++)
+                .segmentData(Arrays.copyOf(buffer, position))
+                .build());
+            position = 0;
+        }
+    }
+
+    /**
+     * 按序号逐段读取, 同一时刻只持有一个分段
+     */
+    private final class SegmentInputStream extends InputStream {
+        private final long snapshotId;
+        private final int segmentCount;
+        private int nextSegment;
+        private byte[] current = new byte[0];
+        private int position;
+
+        private SegmentInputStream(long snapshotId, int segmentCount) {
+            this.snapshotId = snapshotId;
+            this.segmentCount = segmentCount;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? current[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(length, current.length - position);
+            System.arraycopy(current, position, bytes, offset, n);
+            position += n;
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+            while (position == current.length) {
+                if (nextSegment == segmentCount) {
+                    return false;
+                }
+                RevocationStatusSnapshotSegmentPO segment = segmentMapper.selectSegment(snapshotId, nextSegment);
+                if (segment == null || segment.getSegmentData() == null) {
+                    throw new IOException("吊销状态快照分段缺失: snapshotId=" + snapshotId + ", segmentNo=" + nextSegment);
+                }
+                nextSegment++;
+                current = segment.getSegmentData();
+                position = 0;
+            }
+            return true;
+        }
     }
 }
@@ -0,0 +1,90 @@
+package org.wyman.infrastructure.adapter.repository;
+
+import org.springframework.stereotype.Repository;
+import org.wyman.domain.signing.adapter.port.IRevokedCertificateSource;
+import org.wyman.domain.signing.valobj.RevocationSummary;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.infrastructure.dao.mapper.CertificateMapper;
+import org.wyman.infrastructure.dao.po.CertificatePO;
+import org.wyman.infrastructure.dao.po.CrlPartitionStatePO;
+import org.wyman.types.enums.RevocationReason;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 吊销条目数据源MyBatis实现: 数据库游标逐行读取, 读出一行回调一次
+ */
+@Repository
+public class RevokedCertificateSource implements IRevokedCertificateSource {
+
+    private final CertificateMapper certificateMapper;
+
+    public RevokedCertificateSource(CertificateMapper certificateMapper) {
+        this.certificateMapper = certificateMapper;
+    }
+
+    @Override
+    public void scan(String issuerDN, Consumer<RevokedCertificate> consumer) {
+        certificateMapper.scanRevokedEntries(issuerDN, false,
+            context -> consumer.accept(toEntry(context.getResultObject())));
+    }
+
+    @Override
+    public List<RevokedCertificate> findRevokedSince(String issuerDN, LocalDateTime since) {
+        return certificateMapper.selectRevokedEntries(issuerDN, since, false).stream().map(this::toEntry).toList();
+    }
+
+    @Override
+    public void scanUnpartitioned(String issuerDN, Consumer<RevokedCertificate> consumer) {
+        certificateMapper.scanRevokedEntries(issuerDN, true,
+            context -> consumer.accept(toEntry(context.getResultObject())));
+    }
+
+    @Override
+    public List<RevokedCertificate> findUnpartitionedRevokedSince(String issuerDN, LocalDateTime since) {
+        return certificateMapper.selectRevokedEntries(issuerDN, since, true).stream().map(this::toEntry).toList();
+    }
+
+    @Override
+    public void scan(String issuerDN, int partition, Consumer<RevokedCertificate> consumer) {
+        certificateMapper.scanRevokedEntriesByPartition(issuerDN, partition,
+            context -> consumer.accept(toEntry(context.getResultObject())));
+    }
+
+    @Override
+    public Map<Integer, RevocationSummary> summarizeByPartition(String issuerDN) {
+        Map<Integer, RevocationSummary> summaries = new HashMap<>();
+        for (CrlPartitionStatePO po : certificateMapper.selectRevocationSummaryByPartition(issuerDN)) {
+            summaries.put(po.getPartitionNo(), new RevocationSummary(
+                po.getRevokedCount() != null ? po.getRevokedCount() : 0L, po.getLatestRevocationDate()));
+        }
+        return summaries;
+    }
+
+    private RevokedCertificate toEntry(CertificatePO po) {
+        RevokedCertificate revoked = new RevokedCertificate();
+        revoked.setSerialNumber(po.getSerialNumber());
+        // 吊销时状态与原因一并更新, update_time即吊销时间
+        revoked.setRevocationDate(po.getUpdateTime());
+        if (po.getRevocationReason() != null) {
+            revoked.setReason(reasonOf(po.getRevocationReason()));
+        }
+        return revoked;
+    }
+
+    /**
+     * 吊销原因以描述存储, 无法识别时按密钥泄露处理
+     */
+    private RevocationReason reasonOf(String desc) {
+        for (RevocationReason reason : RevocationReason.values()) {
+            if (reason.getDesc().equals(desc)) {
+                return reason;
+            }
+        }
+        return RevocationReason.KEY_COMPROMISE;
+    }
+}
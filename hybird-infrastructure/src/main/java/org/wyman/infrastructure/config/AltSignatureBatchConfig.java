@@ -0,0 +1,34 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量备用签名配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "alt.signature.batch")
+public class AltSignatureBatchConfig {
+
+    /**
+     * 是否启用批量备用签名(关闭时每张证书单独做一次备用签名)
+     */
+    private boolean enabled = false;
+
+    /**
+     * 攒批窗口(毫秒): 批次中第一张证书到达后最多等待的时间
+     */
+    private long flushWindowMs = 20;
+
+    /**
+     * 单批最大证书数, 达到后立即签名
+     */
+    private int maxBatchSize = 256;
+
+    /**
+     * 签发线程等待所在批次签名完成的最长时间(毫秒), 超时则本次签发失败
+     */
+    private long signTimeoutMs = 5000;
+}
@@ -0,0 +1,64 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CRL发布配置(基础CRL长周期全量发布, 增量CRL短周期发布)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "crl")
+public class CRLConfig {
+
+    /**
+     * CRL签名算法, 基础CRL与增量CRL须一致
+     */
+    private String signatureAlgorithm = "SM2";
+
+    /**
+     * 是否发布增量CRL; 关闭时定时任务只生成完整CRL
+     */
+    private boolean deltaEnabled = true;
+
+    /**
+     * 基础CRL生成周期(cron), 仅在定时注解中引用
+     */
+    private String baseCron = "0 0 2 * * ?";
+
+    /**
+     * 基础CRL(未启用增量CRL时为定时发布的完整CRL)有效期(小时), 即nextUpdate与thisUpdate之差
+     */
+    private long baseValidityHours = 24;
+
+    /**
+     * 增量CRL生成间隔(毫秒), 仅在定时注解中引用
+     */
+    private long deltaIntervalMs = 900_000;
+
+    /**
+     * 增量CRL有效期(分钟), 应大于生成间隔以容忍一次发布失败
+     */
+    private long deltaValidityMinutes = 30;
+
+    /**
+     * 定时任务中并行生成CRL的CA数上限(各CA的CRL互不依赖, 同一CA内仍串行)
+     */
+    private int generationParallelism = 4;
+
+    /**
+     * 分区CRL检查间隔(毫秒), 仅在定时注解中引用; 每次只重新生成有新吊销或即将过期的分区
+     */
+    private long partitionCheckIntervalMs = 300_000;
+
+    /**
+     * 分区CRL有效期(小时)
+     */
+    private long partitionValidityHours = 24;
+
+    /**
+     * 分区CRL距nextUpdate不足该时长(分钟)时即使没有新吊销也重新生成, 应大于检查间隔
+     */
+    private long partitionRefreshMinutes = 60;
+}
@@ -0,0 +1,31 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.wyman.domain.policy.valobj.ExtensionProfile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 证书扩展配置(按证书类型)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "certificate.profile")
+public class CertificateProfileConfig {
+
+    /**
+     * 证书类型(CertificateType枚举名) -> 扩展配置; 未配置的类型使用默认扩展
+     */
+    private Map<String, ExtensionProfile> types = new LinkedHashMap<>();
+
+    /**
+     * 获取证书类型的扩展配置
+     */
+    public ExtensionProfile profileFor(String certificateType) {
+        ExtensionProfile profile = types.get(certificateType);
+        return profile != null ? profile : new ExtensionProfile();
+    }
+}
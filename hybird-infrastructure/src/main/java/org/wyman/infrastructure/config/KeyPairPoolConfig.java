@@ -0,0 +1,42 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 密钥对预生成池配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "key.pool")
+public class KeyPairPoolConfig {
+
+    /**
+     * 是否启用预生成
+     */
+    private boolean enabled = true;
+
+    /**
+     * 各算法的池深度
+     */
+    private Map<String, Integer> depth = new LinkedHashMap<>(Map.of(
+        "SM2", 32,
+        "ECDSA_P256", 32,
+        "RSA2048", 8,
+        "RSA4096", 4
+    ));
+
+    /**
+     * 低水位比例, 池内数量低于 深度*比例 时触发后台补充
+     */
+    private double lowWatermarkRatio = 0.5;
+
+    /**
+     * 后台补充线程数(低优先级)
+     */
+    private int refillThreads = 1;
+}
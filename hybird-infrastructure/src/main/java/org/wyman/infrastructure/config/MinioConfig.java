@@ -41,4 +41,9 @@ public class MinioConfig {
      * 证书文件路径
      */
     private String certPath = "certificates/";
+
+    /**
+     * 混合证书sidecar文件路径
+     */
+    private String sidecarPath = "sidecar/";
 }
@@ -0,0 +1,89 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.wyman.domain.status.valobj.OcspResponderSettings;
+
+import java.time.Duration;
+
+/**
+ * OCSP响应器配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "ocsp")
+public class OcspConfig {
+
+    /**
+     * 响应有效期(分钟), 即nextUpdate与thisUpdate之差; 缓存的响应在有效期过半后重新签名
+     */
+    private long responseValidityMinutes = 60;
+
+    /**
+     * CA签发委托响应器证书使用的签名算法
+     */
+    private String signatureAlgorithm = "SM2";
+
+    /**
+     * 委托响应器密钥算法
+     */
+    private String responderKeyAlgorithm = "SM2";
+
+    /**
+     * 委托响应器证书有效期(小时)
+     */
+    private long responderValidityHours = 48;
+
+    /**
+     * 委托响应器证书剩余有效期不足该时长(小时)时换发, 应大于响应有效期
+     */
+    private long responderRenewBeforeHours = 12;
+
+    /**
+     * 单个请求最多查询的证书数
+     */
+    private int maxRequestCertificates = 64;
+
+    /**
+     * 是否为激活与已吊销证书后台预签名响应
+     */
+    private boolean presignEnabled = true;
+
+    /**
+     * 预签名响应有效期(小时), 应大于全量预签名间隔并小于委托响应器证书有效期
+     */
+    private long presignValidityHours = 24;
+
+    /**
+     * 全量预签名间隔(毫秒)
+     */
+    private long presignSweepIntervalMs = 21600000;
+
+    /**
+     * 增量预签名间隔(毫秒), 重签两次之间状态变化的证书
+     */
+    private long presignIncrementalIntervalMs = 60000;
+
+    /**
+     * 预签名响应文件目录
+     */
+    private String storeDirectory = "data/ocsp";
+
+    /**
+     * 每个CA增量段的容量(字节), 写满后合并为新的基础段
+     */
+    private int storeDeltaCapacityBytes = 32 * 1024 * 1024;
+
+    public OcspResponderSettings toSettings() {
+        return OcspResponderSettings.builder()
+            .responseValidity(Duration.ofMinutes(responseValidityMinutes))
+            .caSignatureAlgorithm(signatureAlgorithm)
+            .responderKeyAlgorithm(responderKeyAlgorithm)
+            .responderValidity(Duration.ofHours(responderValidityHours))
+            .responderRenewBefore(Duration.ofHours(responderRenewBeforeHours))
+            .maxRequestCertificates(maxRequestCertificates)
+            .presignedValidity(Duration.ofHours(presignValidityHours))
+            .build();
+    }
+}
@@ -0,0 +1,54 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 吊销状态快照配置(本地快照文件, 吊销事件的批量合并, 持久化缓存的增量压缩, 以及基于快照的流式批量查询)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "revocation.snapshot")
+public class RevocationSnapshotConfig {
+
+    /**
+     * 快照文件路径
+     */
+    private String file = "data/revocation/snapshot.bin";
+
+    /**
+     * 待合并吊销并入快照的间隔(毫秒)
+     */
+    private long flushIntervalMs = 200;
+
+    /**
+     * 待合并吊销每批并入的条数(每批一次快照替换与一次持久化追加)
+     */
+    private int flushBatchSize = 500;
+
+    /**
+     * 持久化缓存增量压缩的检查间隔(毫秒)
+     */
+    private long compactIntervalMs = 600000;
+
+    /**
+     * 累积的吊销增量达到该条数才压缩为新快照
+     */
+    private int compactMinDeltas = 10000;
+
+    /**
+     * 流式批量状态查询每个分块的序列号条数
+     */
+    private int streamChunkSize = 2048;
+
+    /**
+     * 流式批量状态查询的并行线程数
+     */
+    private int streamParallelism = 4;
+
+    /**
+     * 单个流式查询同时在途的分块数上限(超过时先写出最早的分块), 决定单个请求的内存上限
+     */
+    private int streamMaxInFlightChunks = 8;
+}
@@ -0,0 +1,42 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 持久化序列分配器配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "sequence.allocator")
+public class SequenceAllocatorConfig {
+
+    /**
+     * 每次向数据库预留的号段大小; 为1时退化为每次分配都更新数据库, 集群内严格递增
+     */
+    private int blockSize = 20;
+
+    /**
+     * 按序列名前缀(冒号之前)覆盖号段大小
+     * CRL编号须在集群内单调递增(RFC 5280 5.2.3), 增量CRL的BaseCRLNumber比较也依赖于此, 固定为1
+     */
+    private Map<String, Integer> blockSizes = new HashMap<>(Map.of("crl_number", 1));
+
+    /**
+     * 号段预留发生并发冲突时的最大重试次数
+     */
+    private int maxRetries = 32;
+
+    /**
+     * 指定序列的号段大小
+     */
+    public int blockSizeOf(String sequenceName) {
+        int separator = sequenceName.indexOf(':');
+        String prefix = separator >= 0 ? sequenceName.substring(0, separator) : sequenceName;
+        return Math.max(1, blockSizes.getOrDefault(prefix, blockSize));
+    }
+}
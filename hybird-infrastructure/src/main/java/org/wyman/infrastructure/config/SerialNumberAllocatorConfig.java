@@ -0,0 +1,29 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 证书序列号分配器配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "serial.allocator")
+public class SerialNumberAllocatorConfig {
+
+    /**
+     * 节点ID(0-1023), 集群内每个节点必须不同; 单节点部署未配置时由主机名派生
+     */
+    private Integer nodeId;
+
+    /**
+     * 是否多节点部署; 为true时必须配置nodeId, 否则启动失败(主机名派生的节点ID在节点间可能相同)
+     */
+    private boolean multiNode;
+
+    /**
+     * 条带数量(1-64), 线程按条带分散, 各条带独立维护时间戳与序号
+     */
+    private int stripes = 16;
+}
@@ -0,0 +1,64 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 混合证书sidecar配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "sidecar")
+public class SidecarConfig {
+
+    /**
+     * sidecar签名线程数(签名任务队列满时由签发线程自行签名)
+     */
+    private int signThreads = 2;
+
+    /**
+     * 尚未上传成功的sidecar上限, 达到上限后新sidecar转存本地日志目录, 待上传腾出空间后补传
+     */
+    private int uploadQueueCapacity = 10_000;
+
+    /**
+     * 上传队列已满时发布调用等待空位的最长时间(毫秒), 超时即转存本地日志目录, 不阻塞签发
+     */
+    private long publishTimeoutMs = 50;
+
+    /**
+     * 读取仍在签名中的sidecar时的最长等待(毫秒)
+     */
+    private long readTimeoutMs = 5_000;
+
+    /**
+     * 上传队列溢出时sidecar的本地日志目录(每个sidecar一个文件, 上传成功后删除)
+     */
+    private String spillDirectory = "data/sidecar/spill";
+
+    /**
+     * 每批上传的最大数量
+     */
+    private int uploadBatchSize = 64;
+
+    /**
+     * 上传批次间隔(毫秒)
+     */
+    private long flushIntervalMs = 200;
+
+    /**
+     * 首次重试退避(毫秒), 之后按2倍递增
+     */
+    private long retryBackoffMs = 1_000;
+
+    /**
+     * 重试退避上限(毫秒), 上传成功前持续重试
+     */
+    private long maxRetryBackoffMs = 60_000;
+
+    /**
+     * 上传成功后本地保留的sidecar数量(供本地端点直接返回)
+     */
+    private int localCacheSize = 10_000;
+}
@@ -0,0 +1,24 @@
+package org.wyman.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 签名器池配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "signer.pool")
+public class SignerPoolConfig {
+
+    /**
+     * 是否启用签名器池
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个(CA, 算法, 密钥别名)最多缓存的空闲签名器数量
+     */
+    private int maxIdlePerKey = 32;
+}
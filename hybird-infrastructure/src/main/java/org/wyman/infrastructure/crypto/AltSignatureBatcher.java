@@ -0,0 +1,193 @@
+package org.wyman.infrastructure.crypto;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.springframework.stereotype.Component;
+import org.wyman.infrastructure.config.AltSignatureBatchConfig;
+
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 批量备用签名器
+ * 同一备用签名密钥在攒批窗口内收到的待签数据组成一棵Merkle树, 只对树根做一次签名,
+ * 每项得到自己的包含路径(编码为{@link BatchAltSignature})。批次满时由提交线程立即签名,
+ * 否则由窗口定时器签名。
+ */
+@Slf4j
+@Component
+public class AltSignatureBatcher {
+
+    static {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    private final SignerPool signerPool;
+    private final AltSignatureBatchConfig config;
+
+    private final Map<SignerPool.SignerKey, Lane> lanes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService windowTimer;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder leaves = new LongAdder();
+
+    public AltSignatureBatcher(SignerPool signerPool, AltSignatureBatchConfig config) {
+        this.signerPool = signerPool;
+        this.config = config;
+        this.windowTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alt-signature-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        lanes.values().forEach(Lane::flush);
+        windowTimer.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public long getSignTimeoutMs() {
+        return config.getSignTimeoutMs();
+    }
+
+    /**
+     * 提交待签数据, 返回编码后的批量备用签名值
+     */
+    public CompletableFuture<byte[]> submit(SignerPool.SignerKey signerKey,
+                                            PrivateKey privateKey,
+                                            String jcaAlgorithm,
+                                            byte[] signedData) {
+        Lane lane = lanes.computeIfAbsent(signerKey, key -> new Lane(key, privateKey, jcaAlgorithm));
+        return lane.add(BatchMerkleTree.leafHash(signedData));
+    }
+
+    public BatcherStatistics getStatistics() {
+        long batchCount = batches.sum();
+        long leafCount = leaves.sum();
+        return new BatcherStatistics(batchCount, leafCount,
+            batchCount == 0 ? 0 : (double) leafCount / batchCount);
+    }
+
+    private void sign(Lane lane, List<PendingLeaf> batch) {
+        List<byte[]> leafHashes = new ArrayList<>(batch.size());
+        for (PendingLeaf leaf : batch) {
+            leafHashes.add(leaf.leafHash);
+        }
+        try {
+            BatchMerkleTree tree = new BatchMerkleTree(leafHashes);
+            byte[] root = tree.root();
+            Signature signature = signerPool.borrowSignature(lane.signerKey, () -> {
+                Signature created = Signature.getInstance(lane.jcaAlgorithm, BouncyCastleProvider.PROVIDER_NAME);
+                created.initSign(lane.privateKey);
+                return created;
+            });
+            byte[] rootSignature;
+            try {
+                signature.update(BatchAltSignature.rootMessage(batch.size(), root));
+                rootSignature = signature.sign();
+            } catch (Exception e) {
+                signature = SignerPool.reset(signature);
+                throw e;
+            } finally {
+                signerPool.releaseSignature(lane.signerKey, signature);
+            }
+
+            batches.increment();
+            leaves.add(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(
+                    new BatchAltSignature(i, batch.size(), tree.proof(i), root, rootSignature).getEncoded());
+            }
+        } catch (Exception e) {
+            log.error("批量备用签名失败: signerKey={}, batchSize={}", lane.signerKey, batch.size(), e);
+            batch.forEach(leaf -> leaf.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * 单个备用签名密钥的攒批通道
+     */
+    private final class Lane {
+        private final SignerPool.SignerKey signerKey;
+        private final PrivateKey privateKey;
+        private final String jcaAlgorithm;
+
+        private List<PendingLeaf> pending = new ArrayList<>();
+        private ScheduledFuture<?> windowTask;
+
+        private Lane(SignerPool.SignerKey signerKey, PrivateKey privateKey, String jcaAlgorithm) {
+            this.signerKey = signerKey;
+            this.privateKey = privateKey;
+            this.jcaAlgorithm = jcaAlgorithm;
+        }
+
+        private CompletableFuture<byte[]> add(byte[] leafHash) {
+            CompletableFuture<byte[]> future = new CompletableFuture<>();
+            List<PendingLeaf> full = null;
+            synchronized (this) {
+                pending.add(new PendingLeaf(leafHash, future));
+                if (pending.size() >= Math.max(1, config.getMaxBatchSize())) {
+                    full = takePending();
+                } else if (pending.size() == 1) {
+                    windowTask = windowTimer.schedule(this::flush, config.getFlushWindowMs(), TimeUnit.MILLISECONDS);
+                }
+            }
+            if (full != null) {
+                sign(this, full);
+            }
+            return future;
+        }
+
+        private void flush() {
+            List<PendingLeaf> batch;
+            synchronized (this) {
+                batch = takePending();
+            }
+            if (!batch.isEmpty()) {
+                sign(this, batch);
+            }
+        }
+
+        private List<PendingLeaf> takePending() {
+            if (windowTask != null) {
+                windowTask.cancel(false);
+                windowTask = null;
+            }
+            List<PendingLeaf> batch = pending;
+            pending = new ArrayList<>();
+            return batch;
+        }
+    }
+
+    private record PendingLeaf(byte[] leafHash, CompletableFuture<byte[]> future) {
+    }
+
+    /**
+     * 批量备用签名统计
+     */
+    public record BatcherStatistics(
+        long batches,
+        long leaves,
+        double averageBatchSize
+    ) {
+    }
+}
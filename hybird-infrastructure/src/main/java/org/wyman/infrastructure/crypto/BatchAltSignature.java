@@ -0,0 +1,137 @@
+package org.wyman.infrastructure.crypto;
+
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.asn1.DERBitString;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.io.IOException;
+import java.security.PublicKey;
+import java.security.Security;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 批量备用签名值: 一个批次的Merkle根只做一次备用(PQ)签名, 每张证书携带自己的包含路径
+ * <pre>
+ * BatchAltSignature ::= SEQUENCE {
+ *     leafIndex      INTEGER,
+ *     batchSize      INTEGER,
+ *     path           SEQUENCE OF OCTET STRING,  -- 自底向上的兄弟节点哈希
+ *     batchRoot      OCTET STRING,
+ *     rootSignature  BIT STRING                 -- 对 SEQUENCE { batchSize, batchRoot } 的DER编码签名
+ * }
+ * </pre>
+ * 叶子为 SHA256(0x00 || 预TBS的DER编码), 与逐证书备用签名的被签数据相同。
+ */
+public final class BatchAltSignature {
+
+    static {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    private final int leafIndex;
+    private final int batchSize;
+    private final List<byte[]> path;
+    private final byte[] batchRoot;
+    private final byte[] rootSignature;
+
+    public BatchAltSignature(int leafIndex, int batchSize, List<byte[]> path, byte[] batchRoot, byte[] rootSignature) {
+        this.leafIndex = leafIndex;
+        this.batchSize = batchSize;
+        this.path = path;
+        this.batchRoot = batchRoot;
+        this.rootSignature = rootSignature;
+    }
+
+    /**
+     * 从DER编码解析
+     */
+    public static BatchAltSignature getInstance(byte[] encoded) {
+        ASN1Sequence seq = ASN1Sequence.getInstance(encoded);
+        ASN1Sequence pathSeq = ASN1Sequence.getInstance(seq.getObjectAt(2));
+        List<byte[]> path = new ArrayList<>(pathSeq.size());
+        for (int i = 0; i < pathSeq.size(); i++) {
+            path.add(ASN1OctetString.getInstance(pathSeq.getObjectAt(i)).getOctets());
+        }
+        return new BatchAltSignature(
+            ASN1Integer.getInstance(seq.getObjectAt(0)).intValueExact(),
+            ASN1Integer.getInstance(seq.getObjectAt(1)).intValueExact(),
+            path,
+            ASN1OctetString.getInstance(seq.getObjectAt(3)).getOctets(),
+            DERBitString.getInstance(seq.getObjectAt(4)).getOctets());
+    }
+
+    /**
+     * 批次根签名的被签数据
+     */
+    public static byte[] rootMessage(int batchSize, byte[] batchRoot) {
+        ASN1EncodableVector v = new ASN1EncodableVector(2);
+        v.add(new ASN1Integer(batchSize));
+        v.add(new DEROctetString(batchRoot));
+        return encode(new DERSequence(v));
+    }
+
+    /**
+     * DER编码
+     */
+    public byte[] getEncoded() {
+        ASN1EncodableVector pathVector = new ASN1EncodableVector(path.size());
+        for (byte[] node : path) {
+            pathVector.add(new DEROctetString(node));
+        }
+        ASN1EncodableVector v = new ASN1EncodableVector(5);
+        v.add(new ASN1Integer(leafIndex));
+        v.add(new ASN1Integer(batchSize));
+        v.add(new DERSequence(pathVector));
+        v.add(new DEROctetString(batchRoot));
+        v.add(new DERBitString(rootSignature));
+        return encode(new DERSequence(v));
+    }
+
+    /**
+     * 验证: 叶子序号落在批次内, 被签数据经包含路径还原出批次根, 且批次根签名有效
+     */
+    public boolean verify(byte[] signedData, PublicKey altPublicKey, String jcaAlgorithm) throws Exception {
+        if (leafIndex < 0 || leafIndex >= batchSize) {
+            return false;
+        }
+        byte[] root = BatchMerkleTree.rootOf(BatchMerkleTree.leafHash(signedData), leafIndex, path);
+        if (!Arrays.equals(root, batchRoot)) {
+            return false;
+        }
+        Signature verifier = Signature.getInstance(jcaAlgorithm, BouncyCastleProvider.PROVIDER_NAME);
+        verifier.initVerify(altPublicKey);
+        verifier.update(rootMessage(batchSize, batchRoot));
+        return verifier.verify(rootSignature);
+    }
+
+    public int getLeafIndex() {
+        return leafIndex;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public byte[] getBatchRoot() {
+        return batchRoot.clone();
+    }
+
+    private static byte[] encode(DERSequence sequence) {
+        try {
+            return sequence.getEncoded(ASN1Encoding.DER);
+        } catch (IOException e) {
+            throw new IllegalStateException("编码批量备用签名失败", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.wyman.infrastructure.crypto;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量备用签名的Merkle树
+ * 叶子: SHA256(0x00 || 待签数据); 内部节点: SHA256(0x01 || left || right), 奇数个时与自身副本配对。
+ * 叶子与内部节点使用不同前缀, 避免把内部节点伪造成叶子。
+ */
+public final class BatchMerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    /**
+     * levels[0]为叶子哈希, 最后一层为根
+     */
+    private final List<List<byte[]>> levels = new ArrayList<>();
+
+    public BatchMerkleTree(List<byte[]> leafHashes) {
+        if (leafHashes.isEmpty()) {
+            throw new IllegalArgumentException("批次不能为空");
+        }
+        MessageDigest md = sha256();
+        List<byte[]> level = new ArrayList<>(leafHashes);
+        levels.add(level);
+        while (level.size() > 1) {
+            List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                byte[] left = level.get(i);
+                byte[] right = (i + 1 < level.size()) ? level.get(i + 1) : left;
+                next.add(hashNode(md, left, right));
+            }
+            levels.add(next);
+            level = next;
+        }
+    }
+
+    /**
+     * 计算叶子哈希
+     */
+    public static byte[] leafHash(byte[] data) {
+        MessageDigest md = sha256();
+        md.update(LEAF_PREFIX);
+        md.update(data);
+        return md.digest();
+    }
+
+    /**
+     * Merkle根(32字节)
+     */
+    public byte[] root() {
+        return levels.get(levels.size() - 1).get(0).clone();
+    }
+
+    /**
+     * 叶子的认证路径: 自底向上的兄弟节点哈希
+     */
+    public List<byte[]> proof(int leafIndex) {
+        List<byte[]> path = new ArrayList<>(levels.size() - 1);
+        int index = leafIndex;
+        for (int depth = 0; depth < levels.size() - 1; depth++) {
+            List<byte[]> level = levels.get(depth);
+            int sibling = (index % 2 == 0) ? index + 1 : index - 1;
+            path.add(sibling < level.size() ? level.get(sibling) : level.get(index));
+            index /= 2;
+        }
+        return path;
+    }
+
+    /**
+     * 由叶子哈希和认证路径还原根
+     */
+    public static byte[] rootOf(byte[] leafHash, int leafIndex, List<byte[]> path) {
+        MessageDigest md = sha256();
+        byte[] node = leafHash;
+        int index = leafIndex;
+        for (byte[] sibling : path) {
+            node = (index % 2 == 0) ? hashNode(md, node, sibling) : hashNode(md, sibling, node);
+            index /= 2;
+        }
+        return node;
+    }
+
+    private static byte[] hashNode(MessageDigest md, byte[] left, byte[] right) {
+        md.reset();
+        md.update(NODE_PREFIX);
+        md.update(left);
+        md.update(right);
+        return md.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
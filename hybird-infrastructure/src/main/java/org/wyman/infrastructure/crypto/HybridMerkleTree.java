@@ -0,0 +1,134 @@
+package org.wyman.infrastructure.crypto;
+
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 混合证书Merkle树(见docs/混合证书Merkle侧载方案.md第2节)
+ * 叶子: SHA256(label || 0x00 || len(value, 4字节大端) || value); 自底向上两两合并, 奇数个时与自身副本配对。
+ */
+public final class HybridMerkleTree {
+
+    /**
+     * 叶子标签, 顺序固定
+     */
+    public static final List<String> LABELS = List.of("pqSigPub", "pqKekPub", "altSigValue", "altSigAlg");
+
+    private final List<byte[]> leafValues;
+
+    /**
+     * levels[0]为叶子哈希, 最后一层为根
+     */
+    private final List<List<byte[]>> levels;
+
+    private HybridMerkleTree(List<byte[]> leafValues) {
+        this.leafValues = leafValues;
+        this.levels = new ArrayList<>();
+        MessageDigest md = sha256();
+        List<byte[]> level = new ArrayList<>(leafValues.size());
+        for (int i = 0; i < leafValues.size(); i++) {
+            level.add(hashLeaf(md, LABELS.get(i), leafValues.get(i)));
+        }
+        levels.add(level);
+        while (level.size() > 1) {
+            List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                byte[] left = level.get(i);
+                byte[] right = (i + 1 < level.size()) ? level.get(i + 1) : left;
+                next.add(hashNode(md, left, right));
+            }
+            levels.add(next);
+            level = next;
+        }
+    }
+
+    /**
+     * 由混合证书上下文和替代签名值构建
+     */
+    public static HybridMerkleTree of(HybridCertificateRequestContext context, byte[] altSignatureValue) {
+        return new HybridMerkleTree(List.of(
+            utf8(context.getPqSignaturePublicKeyPem()),
+            utf8(context.getPqKekPublicKeyPem()),
+            altSignatureValue != null ? altSignatureValue : new byte[0],
+            utf8(context.getAltSignatureJcaName())
+        ));
+    }
+
+    /**
+     * Merkle根(32字节)
+     */
+    public byte[] root() {
+        return levels.get(levels.size() - 1).get(0).clone();
+    }
+
+    /**
+     * 叶子原始值
+     */
+    public byte[] leafValue(int leafIndex) {
+        return leafValues.get(leafIndex).clone();
+    }
+
+    /**
+     * 叶子的认证路径: 自底向上的兄弟节点哈希
+     */
+    public List<byte[]> proof(int leafIndex) {
+        List<byte[]> path = new ArrayList<>(levels.size() - 1);
+        int index = leafIndex;
+        for (int depth = 0; depth < levels.size() - 1; depth++) {
+            List<byte[]> level = levels.get(depth);
+            int sibling = (index % 2 == 0) ? index + 1 : index - 1;
+            path.add((sibling < level.size() ? level.get(sibling) : level.get(index)).clone());
+            index /= 2;
+        }
+        return path;
+    }
+
+    /**
+     * 按认证路径验证叶子是否包含在根中
+     */
+    public static boolean verify(int leafIndex, byte[] leafValue, List<byte[]> path, byte[] root) {
+        MessageDigest md = sha256();
+        byte[] node = hashLeaf(md, LABELS.get(leafIndex), leafValue);
+        int index = leafIndex;
+        for (byte[] sibling : path) {
+            node = (index % 2 == 0) ? hashNode(md, node, sibling) : hashNode(md, sibling, node);
+            index /= 2;
+        }
+        return Arrays.equals(node, root);
+    }
+
+    private static byte[] hashLeaf(MessageDigest md, String label, byte[] value) {
+        md.reset();
+        md.update(label.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0x00);
+        md.update(ByteBuffer.allocate(4).putInt(value.length).array());
+        md.update(value);
+        return md.digest();
+    }
+
+    private static byte[] hashNode(MessageDigest md, byte[] left, byte[] right) {
+        md.reset();
+        md.update(left);
+        md.update(right);
+        return md.digest();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
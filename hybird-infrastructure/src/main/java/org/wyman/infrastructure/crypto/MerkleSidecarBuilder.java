@@ -0,0 +1,106 @@
+package org.wyman.infrastructure.crypto;
+
+import com.alibaba.fastjson.JSON;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.signing.adapter.port.IPrivateKeyProvider;
+import org.wyman.domain.signing.valobj.Certificate;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.infrastructure.adapter.port.BouncyCastleCertificateGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 混合证书sidecar构建器(格式见docs/混合证书Merkle侧载方案.md第2节)
+ * 输出叶子原值与逐叶子认证路径, 对不含签名字段的规范JSON(字段按固定顺序, 无多余空白)签名。
+ * 签名使用签发该证书的CA私钥与同一签名算法(经签名器池复用), 可用内嵌的CA证书公钥验证。
+ */
+@Component
+public class MerkleSidecarBuilder {
+
+    private static final Base64.Encoder BASE64 = Base64.getEncoder();
+
+    private final IPrivateKeyProvider keyProvider;
+    private final SignerPool signerPool;
+
+    public MerkleSidecarBuilder(IPrivateKeyProvider keyProvider, SignerPool signerPool) {
+        this.keyProvider = keyProvider;
+        this.signerPool = signerPool;
+    }
+
+    /**
+     * 构建签名后的sidecar JSON
+     *
+     * @param signingCertificate 签发该证书的CA证书
+     * @param signatureAlgorithm CA签发该证书使用的签名算法
+     */
+    public String build(String serialNumber,
+                        HybridCertificateRequestContext context,
+                        Certificate signingCertificate,
+                        String signatureAlgorithm) throws Exception {
+        HybridMerkleTree tree = HybridMerkleTree.of(context, context.getAltSignatureValue());
+
+        List<Map<String, Object>> leaves = new ArrayList<>(HybridMerkleTree.LABELS.size());
+        List<Map<String, Object>> proofs = new ArrayList<>(HybridMerkleTree.LABELS.size());
+        for (int i = 0; i < HybridMerkleTree.LABELS.size(); i++) {
+            String label = HybridMerkleTree.LABELS.get(i);
+            Map<String, Object> leaf = new LinkedHashMap<>();
+            leaf.put("label", label);
+            leaf.put("valueB64", BASE64.encodeToString(tree.leafValue(i)));
+            leaves.add(leaf);
+
+            List<String> path = tree.proof(i).stream().map(BASE64::encodeToString).toList();
+            Map<String, Object> proof = new LinkedHashMap<>();
+            proof.put("label", label);
+            proof.put("pathB64", path);
+            proofs.add(proof);
+        }
+
+        Map<String, Object> sidecar = new LinkedHashMap<>();
+        sidecar.put("version", 1);
+        sidecar.put("hashAlg", "SHA256");
+        sidecar.put("serialNumber", serialNumber);
+        sidecar.put("merkleRoot", BASE64.encodeToString(tree.root()));
+        sidecar.put("leaves", leaves);
+        sidecar.put("proofs", proofs);
+        sidecar.put("issuedAt", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+
+        String canonical = JSON.toJSONString(sidecar);
+        sidecar.put("sidecarSignatureB64", BASE64.encodeToString(
+            sign(canonical.getBytes(StandardCharsets.UTF_8), signingCertificate, signatureAlgorithm)));
+        sidecar.put("sidecarSigningCertPem", signingCertificate.getPemEncoded());
+        return JSON.toJSONString(sidecar);
+    }
+
+    private byte[] sign(byte[] data, Certificate signingCertificate, String signatureAlgorithm) throws Exception {
+        PrivateKey privateKey = keyProvider.getSigningPrivateKey(signatureAlgorithm);
+        String algorithm = BouncyCastleCertificateGenerator.getSignerAlgorithm(signatureAlgorithm);
+        // 与证书签名器同一CA标识, CA密钥轮换时一并失效
+        SignerPool.SignerKey signerKey = new SignerPool.SignerKey(new X500Name(signingCertificate.getSubjectDN()).toString(),
+            algorithm, SignerPool.keyAlias(privateKey));
+        Signature signature = signerPool.borrowSignature(signerKey, () -> {
+            Signature created = Signature.getInstance(algorithm, BouncyCastleProvider.PROVIDER_NAME);
+            created.initSign(privateKey);
+            return created;
+        });
+        try {
+            signature.update(data);
+            return signature.sign();
+        } catch (Exception e) {
+            signature = SignerPool.reset(signature);
+            throw e;
+        } finally {
+            signerPool.releaseSignature(signerKey, signature);
+        }
+    }
+}
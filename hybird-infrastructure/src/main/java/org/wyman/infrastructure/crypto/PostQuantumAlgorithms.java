@@ -0,0 +1,156 @@
+package org.wyman.infrastructure.crypto;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+import org.bouncycastle.jcajce.SecretKeyWithEncapsulation;
+import org.bouncycastle.jcajce.spec.KEMExtractSpec;
+import org.bouncycastle.jcajce.spec.KEMGenerateSpec;
+import org.bouncycastle.jcajce.spec.MLDSAParameterSpec;
+import org.bouncycastle.jcajce.spec.MLKEMParameterSpec;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import javax.crypto.KeyGenerator;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.util.Map;
+
+/**
+ * 后量子算法(ML-DSA签名、ML-KEM密钥封装)的名称映射与基本操作
+ * 使用Bouncy Castle提供的FIPS 204/203定稿实现, 签名算法标识采用NIST分配的OID
+ * (ML-DSA: 2.16.840.1.101.3.4.3.17-19, ML-KEM: 2.16.840.1.101.3.4.4.1-3)。
+ */
+public final class PostQuantumAlgorithms {
+
+    static {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    /**
+     * 未指定参数集时的默认签名算法
+     */
+    public static final String DEFAULT_ML_DSA = "ML-DSA-65";
+
+    /**
+     * 未指定参数集时的默认密钥封装算法
+     */
+    public static final String DEFAULT_ML_KEM = "ML-KEM-768";
+
+    private static final Map<String, MLDSAParameterSpec> ML_DSA_SPECS = Map.of(
+        "ML-DSA-44", MLDSAParameterSpec.ml_dsa_44,
+        "ML-DSA-65", MLDSAParameterSpec.ml_dsa_65,
+        "ML-DSA-87", MLDSAParameterSpec.ml_dsa_87
+    );
+
+    private static final Map<String, ASN1ObjectIdentifier> ML_DSA_OIDS = Map.of(
+        "ML-DSA-44", NISTObjectIdentifiers.id_ml_dsa_44,
+        "ML-DSA-65", NISTObjectIdentifiers.id_ml_dsa_65,
+        "ML-DSA-87", NISTObjectIdentifiers.id_ml_dsa_87
+    );
+
+    private static final Map<String, MLKEMParameterSpec> ML_KEM_SPECS = Map.of(
+        "ML-KEM-512", MLKEMParameterSpec.ml_kem_512,
+        "ML-KEM-768", MLKEMParameterSpec.ml_kem_768,
+        "ML-KEM-1024", MLKEMParameterSpec.ml_kem_1024
+    );
+
+    private PostQuantumAlgorithms() {
+    }
+
+    /**
+     * 规范化算法名: ML_DSA/ML-DSA取默认参数集, 非后量子算法返回null
+     */
+    public static String normalize(String algorithm) {
+        if (algorithm == null) {
+            return null;
+        }
+        String name = algorithm.trim().toUpperCase().replace('_', '-');
+        if (name.equals("ML-DSA")) {
+            return DEFAULT_ML_DSA;
+        }
+        if (name.equals("ML-KEM")) {
+            return DEFAULT_ML_KEM;
+        }
+        return ML_DSA_SPECS.containsKey(name) || ML_KEM_SPECS.containsKey(name) ? name : null;
+    }
+
+    /**
+     * 是否为ML-DSA签名算法
+     */
+    public static boolean isSignature(String algorithm) {
+        String name = normalize(algorithm);
+        return name != null && ML_DSA_SPECS.containsKey(name);
+    }
+
+    /**
+     * 是否为ML-KEM密钥封装算法
+     */
+    public static boolean isKem(String algorithm) {
+        String name = normalize(algorithm);
+        return name != null && ML_KEM_SPECS.containsKey(name);
+    }
+
+    /**
+     * ML-DSA的JCA签名算法名(参数集由密钥决定)
+     */
+    public static String jcaSignatureName(String algorithm) {
+        requireSignature(algorithm);
+        return "ML-DSA";
+    }
+
+    /**
+     * ML-DSA签名算法标识OID
+     */
+    public static String signatureOid(String algorithm) {
+        return ML_DSA_OIDS.get(requireSignature(algorithm)).getId();
+    }
+
+    /**
+     * 生成ML-DSA或ML-KEM密钥对
+     */
+    public static KeyPair generateKeyPair(String algorithm) throws Exception {
+        String name = normalize(algorithm);
+        if (name != null && ML_DSA_SPECS.containsKey(name)) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("ML-DSA", BouncyCastleProvider.PROVIDER_NAME);
+            generator.initialize(ML_DSA_SPECS.get(name), new SecureRandom());
+            return generator.generateKeyPair();
+        }
+        if (name != null && ML_KEM_SPECS.containsKey(name)) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("ML-KEM", BouncyCastleProvider.PROVIDER_NAME);
+            generator.initialize(ML_KEM_SPECS.get(name), new SecureRandom());
+            return generator.generateKeyPair();
+        }
+        throw new IllegalArgumentException("不支持的后量子算法: " + algorithm);
+    }
+
+    /**
+     * ML-KEM封装: 返回共享密钥及其封装值
+     */
+    public static SecretKeyWithEncapsulation encapsulate(PublicKey kemPublicKey) throws Exception {
+        KeyGenerator generator = KeyGenerator.getInstance("ML-KEM", BouncyCastleProvider.PROVIDER_NAME);
+        generator.init(new KEMGenerateSpec(kemPublicKey, "AES"), new SecureRandom());
+        return (SecretKeyWithEncapsulation) generator.generateKey();
+    }
+
+    /**
+     * ML-KEM解封装: 返回共享密钥
+     */
+    public static byte[] decapsulate(PrivateKey kemPrivateKey, byte[] encapsulation) throws Exception {
+        KeyGenerator generator = KeyGenerator.getInstance("ML-KEM", BouncyCastleProvider.PROVIDER_NAME);
+        generator.init(new KEMExtractSpec(kemPrivateKey, encapsulation, "AES"));
+        return generator.generateKey().getEncoded();
+    }
+
+    private static String requireSignature(String algorithm) {
+        String name = normalize(algorithm);
+        if (name == null || !ML_DSA_SPECS.containsKey(name)) {
+            throw new IllegalArgumentException("不是ML-DSA算法: " + algorithm);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,298 @@
+package org.wyman.infrastructure.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.operator.ContentSigner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wyman.infrastructure.config.SignerPoolConfig;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 签名器池
+ * 按(CA, 算法, 密钥别名)缓存已初始化的ContentSigner/Signature, 避免每次签名都进行提供者查找和私钥初始化。
+ * 签名器不是线程安全的, 使用方式为 borrow -> 签名 -> release(放在finally中, 签名失败时先reset再归还); 空闲数量有上限, 超出部分直接丢弃。
+ * 密钥别名取私钥指纹, 同一(CA, 算法)出现新指纹即视为密钥轮换, 旧签名器随之失效。
+ */
+@Slf4j
+@Component
+public class SignerPool {
+
+    /**
+     * 私钥(按对象身份) -> 密钥别名; 弱引用键, 私钥不再使用后随之回收; 读路径无锁
+     */
+    private static final Map<KeyReference, String> KEY_ALIASES = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<PrivateKey> COLLECTED_KEYS = new ReferenceQueue<>();
+    private static final AtomicLong KEY_IDS = new AtomicLong();
+
+    private final SignerPoolConfig config;
+
+    private final Map<SignerKey, BlockingQueue<ContentSigner>> contentSigners = new ConcurrentHashMap<>();
+    private final Map<SignerKey, BlockingQueue<Signature>> signatures = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SignerPool(SignerPoolConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 借出ContentSigner, 池中无空闲时通过factory新建
+     */
+    public ContentSigner borrowContentSigner(SignerKey key, SignerFactory<ContentSigner> factory) throws Exception {
+        if (!config.isEnabled()) {
+            return factory.create();
+        }
+        ContentSigner signer = idleQueue(contentSigners, key).poll();
+        if (signer != null) {
+            hits.incrementAndGet();
+            return signer;
+        }
+        misses.incrementAndGet();
+        return factory.create();
+    }
+
+    /**
+     * 归还ContentSigner
+     */
+    public void releaseContentSigner(SignerKey key, ContentSigner signer) {
+        if (!config.isEnabled() || signer == null) {
+            return;
+        }
+        BlockingQueue<ContentSigner> queue = contentSigners.get(key);
+        if (queue != null) {
+            queue.offer(signer);
+        }
+    }
+
+    /**
+     * 借出已用私钥初始化的Signature, 池中无空闲时通过factory新建
+     */
+    public Signature borrowSignature(SignerKey key, SignerFactory<Signature> factory) throws Exception {
+        if (!config.isEnabled()) {
+            return factory.create();
+        }
+        Signature signature = idleQueue(signatures, key).poll();
+        if (signature != null) {
+            hits.incrementAndGet();
+            return signature;
+        }
+        misses.incrementAndGet();
+        return factory.create();
+    }
+
+    /**
+     * 归还Signature(sign()之后Signature已自动重置, 可直接复用)
+     */
+    public void releaseSignature(SignerKey key, Signature signature) {
+        if (!config.isEnabled() || signature == null) {
+            return;
+        }
+        BlockingQueue<Signature> queue = signatures.get(key);
+        if (queue != null) {
+            queue.offer(signature);
+        }
+    }
+
+    /**
+     * 签名中途失败后重置Signature: sign()会丢弃已写入的部分数据并回到初始化后的状态; 无法重置时返回null, 不再归还入池
+     */
+    public static Signature reset(Signature signature) {
+        try {
+            signature.sign();
+            return signature;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 签名中途失败后重置ContentSigner, 同{@link #reset(Signature)}
+     */
+    public static ContentSigner reset(ContentSigner signer) {
+        try {
+            signer.getSignature();
+            return signer;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 使指定CA的全部签名器失效(CA密钥轮换或CA吊销时调用), caId为颁发者DN
+     */
+    public void invalidate(String caId) {
+        int removed = removeIf(contentSigners, k -> k.caId().equals(caId))
+            + removeIf(signatures, k -> k.caId().equals(caId));
+        if (removed > 0) {
+            log.info("签名器池失效: caId={}, 移除条目={}", caId, removed);
+        }
+    }
+
+    /**
+     * 清空签名器池
+     */
+    public void invalidateAll() {
+        invalidations.addAndGet(contentSigners.size() + signatures.size());
+        contentSigners.clear();
+        signatures.clear();
+    }
+
+    /**
+     * 获取池统计信息
+     */
+    public SignerPoolStatistics getStatistics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        return new SignerPoolStatistics(
+            hitCount,
+            missCount,
+            total == 0 ? 0D : (double) hitCount / total,
+            invalidations.get(),
+            contentSigners.size() + signatures.size()
+        );
+    }
+
+    /**
+     * 定期输出命中率统计
+     */
+    @Scheduled(fixedDelayString = "${signer.pool.report-interval-ms:300000}")
+    public void reportStatistics() {
+        SignerPoolStatistics statistics = getStatistics();
+        if (statistics.hits() + statistics.misses() > 0) {
+            log.info("签名器池统计: {}", statistics);
+        }
+    }
+
+    /**
+     * 私钥的密钥别名(按私钥对象缓存, 每次借出不再重复计算)
+     * 可导出的私钥取编码的SHA-256指纹; HSM等不可导出的私钥(getEncoded()为null)分配进程内唯一的密钥ID
+     */
+    public static String keyAlias(PrivateKey privateKey) {
+        String alias = KEY_ALIASES.get(new KeyReference(privateKey, null));
+        if (alias != null) {
+            return alias;
+        }
+        expungeCollectedKeys();
+        alias = computeKeyAlias(privateKey);
+        String existing = KEY_ALIASES.putIfAbsent(new KeyReference(privateKey, COLLECTED_KEYS), alias);
+        return existing != null ? existing : alias;
+    }
+
+    private static void expungeCollectedKeys() {
+        Reference<? extends PrivateKey> collected;
+        while ((collected = COLLECTED_KEYS.poll()) != null) {
+            KEY_ALIASES.remove(collected);
+        }
+    }
+
+    private static String computeKeyAlias(PrivateKey privateKey) {
+        byte[] encoded = privateKey.getEncoded();
+        if (encoded == null) {
+            return privateKey.getAlgorithm() + ":id-" + KEY_IDS.incrementAndGet();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(encoded);
+            return privateKey.getAlgorithm() + ":" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (Exception e) {
+            throw new RuntimeException("计算密钥指纹失败", e);
+        }
+    }
+
+    private <T> BlockingQueue<T> idleQueue(Map<SignerKey, BlockingQueue<T>> pool, SignerKey key) {
+        BlockingQueue<T> queue = pool.get(key);
+        if (queue != null) {
+            return queue;
+        }
+        // 同一CA同一算法出现新的密钥别名, 说明发生了密钥轮换, 丢弃旧密钥的签名器
+        removeIf(pool, k -> k.caId().equals(key.caId())
+            && k.algorithm().equals(key.algorithm())
+            && !k.keyAlias().equals(key.keyAlias()));
+        return pool.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(Math.max(1, config.getMaxIdlePerKey())));
+    }
+
+    private <T> int removeIf(Map<SignerKey, BlockingQueue<T>> pool, java.util.function.Predicate<SignerKey> predicate) {
+        int removed = 0;
+        for (SignerKey k : pool.keySet()) {
+            if (predicate.test(k) && pool.remove(k) != null) {
+                removed++;
+            }
+        }
+        invalidations.addAndGet(removed);
+        return removed;
+    }
+
+    /**
+     * 签名器池键
+     */
+    public record SignerKey(String caId, String algorithm, String keyAlias) {
+        public SignerKey {
+            Objects.requireNonNull(caId, "caId");
+            Objects.requireNonNull(algorithm, "algorithm");
+            Objects.requireNonNull(keyAlias, "keyAlias");
+        }
+    }
+
+    /**
+     * 按对象身份比较的私钥弱引用; 私钥回收后只与自身相等, 由引用队列清理
+     */
+    private static final class KeyReference extends WeakReference<PrivateKey> {
+        private final int hash;
+
+        private KeyReference(PrivateKey privateKey, ReferenceQueue<PrivateKey> queue) {
+            super(privateKey, queue);
+            this.hash = System.identityHashCode(privateKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof KeyReference reference) || hash != reference.hash) {
+                return false;
+            }
+            PrivateKey privateKey = get();
+            return privateKey != null && privateKey == reference.get();
+        }
+    }
+
+    /**
+     * 签名器工厂
+     */
+    @FunctionalInterface
+    public interface SignerFactory<T> {
+        T create() throws Exception;
+    }
+
+    /**
+     * 签名器池统计
+     */
+    public record SignerPoolStatistics(
+        long hits,
+        long misses,
+        double hitRate,
+        long invalidations,
+        int pooledKeys
+    ) {}
+}
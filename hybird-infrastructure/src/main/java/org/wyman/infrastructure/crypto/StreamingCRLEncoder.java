@@ -0,0 +1,286 @@
+package org.wyman.infrastructure.crypto;
+
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.DERBitString;
+import org.bouncycastle.asn1.DERTaggedObject;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.ExtensionsGenerator;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.IssuingDistributionPoint;
+import org.bouncycastle.asn1.x509.Time;
+import org.bouncycastle.operator.ContentSigner;
+import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.StreamedCRL;
+import org.wyman.types.enums.RevocationReason;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 流式CRL编码器: 不经X509v2CRLBuilder在内存中构造整个TBSCertList
+ * <pre>
+ * CertificateList ::= SEQUENCE { tbsCertList, signatureAlgorithm, signatureValue }
+ * TBSCertList     ::= SEQUENCE { version, signature, issuer, thisUpdate, nextUpdate,
+ *                                revokedCertificates SEQUENCE OF ... OPTIONAL,
+ *                                crlExtensions [0] EXPLICIT Extensions OPTIONAL }
+ * </pre>
+ * DER要求定长编码, 条目总长度在读完数据源前未知, 因此分三步:
+ * 1. 条目逐条编码追加到临时文件, 同时累计长度;
+ * 2. 按已知长度写出各层SEQUENCE头, 依次将头部、条目文件、扩展送入签名器;
+ * 3. 得到签名后, 完整CRL由 head(外层头 + TBS头部) + 条目文件 + tail(扩展 + 签名) 拼接而成。
+ * 编码结果与X509v2CRLBuilder逐字节一致(签名值除外)。
+ */
+public final class StreamingCRLEncoder {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int TAG_SEQUENCE = 0x30;
+
+    private static final int TAG_INTEGER = 0x02;
+
+    private static final int TAG_UTC_TIME = 0x17;
+
+    private static final int TAG_GENERALIZED_TIME = 0x18;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * 各吊销原因的条目扩展DER编码, 百万级条目共用
+     */
+    private static final Map<RevocationReason, byte[]> REASON_EXTENSIONS = new EnumMap<>(RevocationReason.class);
+
+    static {
+        for (RevocationReason reason : RevocationReason.values()) {
+            try {
+                ExtensionsGenerator extGen = new ExtensionsGenerator();
+                extGen.addExtension(Extension.reasonCode, false, CRLReason.lookup(reason.getCode()));
+                REASON_EXTENSIONS.put(reason, extGen.generate().getEncoded(ASN1Encoding.DER));
+            } catch (IOException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    private StreamingCRLEncoder() {
+    }
+
+    /**
+     * 编码并签名CRL
+     *
+     * @param entrySource    接收条目消费者并依次推送全部条目
+     * @param baseCrlNumber  非空时写入关键的deltaCRLIndicator扩展
+     * @param freshestCrlUrl 非空时写入freshestCRL扩展
+     * @param issuingDistributionPointUrl 非空时写入关键的issuingDistributionPoint扩展(分区CRL)
+     * @param signer         签名器, 调用期间独占
+     */
+    public static StreamedCRL encode(X500Name issuer,
+                                     Date thisUpdate,
+                                     Date nextUpdate,
+                                     BigInteger crlNumber,
+                                     Consumer<Consumer<RevokedCertificate>> entrySource,
+                                     BigInteger baseCrlNumber,
+                                     String freshestCrlUrl,
+                                     String issuingDistributionPointUrl,
+                                     ContentSigner signer) throws IOException {
+        Path entriesFile = Files.createTempFile("crl-" + crlNumber + "-", ".der");
+        try {
+            EntryWriter entries = new EntryWriter(thisUpdate);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(entriesFile), BUFFER_SIZE)) {
+                entries.out = out;
+                entrySource.accept(entries);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            byte[] signatureAlgorithm = signer.getAlgorithmIdentifier().getEncoded(ASN1Encoding.DER);
+            ByteArrayOutputStream prefix = new ByteArrayOutputStream(512);
+            prefix.write(new ASN1Integer(1).getEncoded(ASN1Encoding.DER));
+            prefix.write(signatureAlgorithm);
+            prefix.write(issuer.getEncoded(ASN1Encoding.DER));
+            prefix.write(new Time(thisUpdate).getEncoded(ASN1Encoding.DER));
+            prefix.write(new Time(nextUpdate).getEncoded(ASN1Encoding.DER));
+            // 无吊销条目时必须省略revokedCertificates(RFC 5280 5.1.2.6), 不能编码为空SEQUENCE
+            if (entries.count > 0) {
+                prefix.write(header(TAG_SEQUENCE, entries.length));
+            }
+            byte[] crlExtensions = new DERTaggedObject(true, 0,
+                crlExtensions(crlNumber, baseCrlNumber, freshestCrlUrl, issuingDistributionPointUrl))
+                .getEncoded(ASN1Encoding.DER);
+            long tbsLength = prefix.size() + entries.length + crlExtensions.length;
+            byte[] tbsHeader = header(TAG_SEQUENCE, tbsLength);
+
+            try (OutputStream signerOut = signer.getOutputStream()) {
+                signerOut.write(tbsHeader);
+                prefix.writeTo(signerOut);
+                Files.copy(entriesFile, signerOut);
+                signerOut.write(crlExtensions);
+            }
+            byte[] signatureValue = new DERBitString(signer.getSignature()).getEncoded(ASN1Encoding.DER);
+
+            ByteArrayOutputStream head = new ByteArrayOutputStream(prefix.size() + 16);
+            head.write(header(TAG_SEQUENCE,
+                tbsHeader.length + tbsLength + signatureAlgorithm.length + signatureValue.length));
+            head.write(tbsHeader);
+            prefix.writeTo(head);
+            ByteArrayOutputStream tail = new ByteArrayOutputStream(
+                crlExtensions.length + signatureAlgorithm.length + signatureValue.length);
+            tail.write(crlExtensions);
+            tail.write(signatureAlgorithm);
+            tail.write(signatureValue);
+
+            return new StreamedCRL(crlNumber, toLocalDateTime(thisUpdate), toLocalDateTime(nextUpdate),
+                entries.count, entries.latestRevocationDate, head.toByteArray(), entriesFile, tail.toByteArray());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(entriesFile);
+            throw e;
+        }
+    }
+
+    private static Extensions crlExtensions(BigInteger crlNumber,
+                                            BigInteger baseCrlNumber,
+                                            String freshestCrlUrl,
+                                            String issuingDistributionPointUrl) throws IOException {
+        ExtensionsGenerator extGen = new ExtensionsGenerator();
+        extGen.addExtension(Extension.cRLNumber, false, new ASN1Integer(crlNumber));
+        if (baseCrlNumber != null) {
+            extGen.addExtension(Extension.deltaCRLIndicator, true, new ASN1Integer(baseCrlNumber));
+        }
+        // 分区CRL: issuingDistributionPoint必须为关键扩展(RFC 5280 5.2.5), 分发点与证书中的CRL分发点一致
+        if (issuingDistributionPointUrl != null) {
+            extGen.addExtension(Extension.issuingDistributionPoint, true,
+                new IssuingDistributionPoint(uriName(issuingDistributionPointUrl), false, false));
+        }
+        if (freshestCrlUrl != null) {
+            DistributionPoint deltaPoint = new DistributionPoint(uriName(freshestCrlUrl), null, null);
+            extGen.addExtension(Extension.freshestCRL, false, new CRLDistPoint(new DistributionPoint[]{deltaPoint}));
+        }
+        return extGen.generate();
+    }
+
+    private static DistributionPointName uriName(String url) {
+        return new DistributionPointName(new GeneralNames(new GeneralName(GeneralName.uniformResourceIdentifier, url)));
+    }
+
+    /**
+     * DER标签与定长长度字段
+     */
+    static byte[] header(int tag, long length) {
+        if (length < 0x80) {
+            return new byte[]{(byte) tag, (byte) length};
+        }
+        int size = (Long.SIZE - Long.numberOfLeadingZeros(length) + 7) / 8;
+        byte[] header = new byte[2 + size];
+        header[0] = (byte) tag;
+        header[1] = (byte) (0x80 | size);
+        for (int i = 0; i < size; i++) {
+            header[2 + i] = (byte) (length >>> (8 * (size - 1 - i)));
+        }
+        return header;
+    }
+
+    /**
+     * 与{@link Time#Time(Date)}相同的编码(精确到秒, UTC): 1950-2049年为UTCTime, 其余为GeneralizedTime
+     * 逐条目使用Time会为每个条目创建SimpleDateFormat, 百万级条目时是主要开销
+     */
+    static byte[] encodeTime(long epochMillis) {
+        ZonedDateTime t = Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC);
+        int year = t.getYear();
+        boolean utcTime = year >= 1950 && year <= 2049;
+        byte[] encoded = new byte[utcTime ? 15 : 17];
+        int pos = 0;
+        encoded[pos++] = (byte) (utcTime ? TAG_UTC_TIME : TAG_GENERALIZED_TIME);
+        encoded[pos++] = (byte) (encoded.length - 2);
+        if (!utcTime) {
+            pos = digits(encoded, pos, year / 100);
+        }
+        pos = digits(encoded, pos, year % 100);
+        pos = digits(encoded, pos, t.getMonthValue());
+        pos = digits(encoded, pos, t.getDayOfMonth());
+        pos = digits(encoded, pos, t.getHour());
+        pos = digits(encoded, pos, t.getMinute());
+        pos = digits(encoded, pos, t.getSecond());
+        encoded[pos] = 'Z';
+        return encoded;
+    }
+
+    private static int digits(byte[] buf, int pos, int value) {
+        buf[pos] = (byte) ('0' + value / 10);
+        buf[pos + 1] = (byte) ('0' + value % 10);
+        return pos + 2;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * 逐条编码吊销条目并写入临时文件
+     */
+    private static final class EntryWriter implements Consumer<RevokedCertificate> {
+
+        private final Date thisUpdate;
+        private OutputStream out;
+        private long count;
+        private long length;
+        private LocalDateTime latestRevocationDate;
+
+        private EntryWriter(Date thisUpdate) {
+            this.thisUpdate = thisUpdate;
+        }
+
+        @Override
+        public void accept(RevokedCertificate revoked) {
+            LocalDateTime revocationDate = revoked.getRevocationDate();
+            if (revocationDate != null
+                && (latestRevocationDate == null || revocationDate.isAfter(latestRevocationDate))) {
+                latestRevocationDate = revocationDate;
+            }
+
+            // 证书序列号以十六进制字符串存储; toByteArray即INTEGER的最短补码编码
+            byte[] serial = new BigInteger(revoked.getSerialNumber(), 16).toByteArray();
+            byte[] serialHeader = header(TAG_INTEGER, serial.length);
+            // 缺少吊销时间的历史数据以本次更新时间代替
+            byte[] time = encodeTime(revocationDate != null
+                ? revocationDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : thisUpdate.getTime());
+            byte[] extensions = revoked.getReason() != null ? REASON_EXTENSIONS.get(revoked.getReason()) : EMPTY;
+
+            long contentLength = serialHeader.length + serial.length + time.length + extensions.length;
+            byte[] entryHeader = header(TAG_SEQUENCE, contentLength);
+            try {
+                out.write(entryHeader);
+                out.write(serialHeader);
+                out.write(serial);
+                out.write(time);
+                out.write(extensions);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            length += entryHeader.length + contentLength;
+            count++;
+        }
+    }
+}
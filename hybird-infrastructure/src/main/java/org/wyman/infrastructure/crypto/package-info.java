@@ -0,0 +1,4 @@
+/**
+ * 签名器池等密码运算基础设施
+ */
+package org.wyman.infrastructure.crypto;
@@ -27,6 +27,16 @@ public interface CertificateAuthorityMapper {
      */
     CertificateAuthorityPO selectById(@Param("caId") String caId);
 
+    /**
+     * 根据CA名称查询
+     */
+    CertificateAuthorityPO selectByName(@Param("caName") String caName);
+
+    /**
+     * 查询CA表版本戳(记录数|最大更新时间), 用于跨节点检测CA变更
+     */
+    String selectVersionStamp();
+
     /**
      * 查询所有CA
      */
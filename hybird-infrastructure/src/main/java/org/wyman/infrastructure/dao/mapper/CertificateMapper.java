@@ -2,9 +2,12 @@ package org.wyman.infrastructure.dao.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 import org.wyman.infrastructure.dao.po.CertificatePO;
+import org.wyman.infrastructure.dao.po.CrlPartitionStatePO;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,6 +21,11 @@ public interface CertificateMapper {
      */
     int insert(CertificatePO certificate);
 
+    /**
+     * 批量插入证书
+     */
+    int insertBatch(@Param("list") List<CertificatePO> certificates);
+
     /**
      * 更新证书
      */
@@ -48,6 +56,53 @@ public interface CertificateMapper {
      */
     List<CertificatePO> selectRevokedCertificates();
 
+    /**
+     * 按颁发者流式扫描吊销条目, 只取序列号、吊销原因与吊销时间, 每行回调一次不累积结果
+     *
+     * @param unpartitionedOnly 为true时只含crl_partition为空的证书
+     */
+    void scanRevokedEntries(@Param("issuerDn") String issuerDn,
+                            @Param("unpartitionedOnly") boolean unpartitionedOnly,
+                            ResultHandler<CertificatePO> handler);
+
+    /**
+     * 按颁发者查询吊销时间不早于since的吊销条目(since为空时不限), 只取序列号、吊销原因与吊销时间
+     *
+     * @param unpartitionedOnly 为true时只含crl_partition为空的证书
+     */
+    List<CertificatePO> selectRevokedEntries(@Param("issuerDn") String issuerDn,
+                                             @Param("since") LocalDateTime since,
+                                             @Param("unpartitionedOnly") boolean unpartitionedOnly);
+
+    /**
+     * 流式扫描某一CRL分区的吊销条目
+     */
+    void scanRevokedEntriesByPartition(@Param("issuerDn") String issuerDn,
+                                       @Param("partition") int partition,
+                                       ResultHandler<CertificatePO> handler);
+
+    /**
+     * 按CRL分区汇总吊销条目数与最晚吊销时间
+     */
+    List<CrlPartitionStatePO> selectRevocationSummaryByPartition(@Param("issuerDn") String issuerDn);
+
+    /**
+     * 按颁发者流式扫描激活与已吊销证书的状态, 每行回调一次不累积结果
+     */
+    void scanStatusEntries(@Param("issuerDn") String issuerDn, ResultHandler<CertificatePO> handler);
+
+    /**
+     * 按颁发者查询状态更新时间不早于since的激活与已吊销证书
+     */
+    List<CertificatePO> selectStatusEntriesSince(@Param("issuerDn") String issuerDn,
+                                                 @Param("since") LocalDateTime since);
+
+    /**
+     * 返回给定序列号中由该颁发者签发的序列号
+     */
+    List<String> selectIssuedSerialNumbers(@Param("issuerDn") String issuerDn,
+                                           @Param("serialNumbers") Collection<String> serialNumbers);
+
     /**
      * 更新证书状态
      */
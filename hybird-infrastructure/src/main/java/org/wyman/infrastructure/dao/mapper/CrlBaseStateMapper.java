@@ -0,0 +1,22 @@
+package org.wyman.infrastructure.dao.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.wyman.infrastructure.dao.po.CrlBaseStatePO;
+
+/**
+ * 基础CRL状态Mapper接口
+ */
+@Mapper
+public interface CrlBaseStateMapper {
+
+    /**
+     * 根据CA ID查询
+     */
+    CrlBaseStatePO selectByCaId(@Param("caId") String caId);
+
+    /**
+     * 新增或覆盖
+     */
+    int upsert(CrlBaseStatePO state);
+}
@@ -0,0 +1,24 @@
+package org.wyman.infrastructure.dao.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.wyman.infrastructure.dao.po.CrlPartitionStatePO;
+
+import java.util.List;
+
+/**
+ * CRL分区状态Mapper接口
+ */
+@Mapper
+public interface CrlPartitionStateMapper {
+
+    /**
+     * 查询CA的全部分区状态
+     */
+    List<CrlPartitionStatePO> selectByCaId(@Param("caId") String caId);
+
+    /**
+     * 新增或覆盖
+     */
+    int upsert(CrlPartitionStatePO state);
+}
@@ -0,0 +1,47 @@
+package org.wyman.infrastructure.dao.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import org.wyman.infrastructure.dao.po.RevocationStatusDeltaPO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 吊销状态增量Mapper接口
+ */
+@Mapper
+public interface RevocationStatusDeltaMapper {
+
+    /**
+     * 批量追加增量
+     */
+    int insertBatch(@Param("list") List<RevocationStatusDeltaPO> deltas);
+
+    /**
+     * 按增量ID顺序逐行读取(afterId, upToId]范围内的增量
+     */
+    void scanRange(@Param("afterId") long afterId, @Param("upToId") long upToId,
+                   ResultHandler<RevocationStatusDeltaPO> handler);
+
+    /**
+     * 统计(afterId, upToId]范围内的增量条数
+     */
+    long countRange(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    /**
+     * 最大增量ID, 没有增量时返回null
+     */
+    Long selectMaxId();
+
+    /**
+     * 追加时间早于before的最大增量ID, 没有时返回null
+     */
+    Long selectMaxIdBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 删除不大于该增量ID的增量
+     */
+    int deleteUpTo(@Param("deltaId") long deltaId);
+}
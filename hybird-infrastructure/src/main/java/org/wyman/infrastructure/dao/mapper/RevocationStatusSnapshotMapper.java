@@ -0,0 +1,34 @@
+package org.wyman.infrastructure.dao.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.wyman.infrastructure.dao.po.RevocationStatusSnapshotPO;
+
+import java.util.List;
+
+/**
+ * 吊销状态快照Mapper接口
+ */
+@Mapper
+public interface RevocationStatusSnapshotMapper {
+
+    /**
+     * 插入快照头(回填快照ID), 分段数为空表示尚未写完
+     */
+    int insert(RevocationStatusSnapshotPO snapshot);
+
+    /**
+     * 全部分段写入后记录分段数, 快照自此可见
+     */
+    int markComplete(@Param("snapshotId") long snapshotId, @Param("segmentCount") int segmentCount);
+
+    /**
+     * 按快照ID倒序查询最近的若干已写完的快照
+     */
+    List<RevocationStatusSnapshotPO> selectRecentHeaders(@Param("limit") int limit);
+
+    /**
+     * 删除该快照ID之前的快照
+     */
+    int deleteBefore(@Param("snapshotId") long snapshotId);
+}
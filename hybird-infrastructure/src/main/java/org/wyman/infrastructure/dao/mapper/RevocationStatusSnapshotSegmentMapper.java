@@ -0,0 +1,27 @@
+package org.wyman.infrastructure.dao.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.wyman.infrastructure.dao.po.RevocationStatusSnapshotSegmentPO;
+
+/**
+ * 吊销状态快照分段Mapper接口
+ */
+@Mapper
+public interface RevocationStatusSnapshotSegmentMapper {
+
+    /**
+     * 插入分段
+     */
+    int insert(RevocationStatusSnapshotSegmentPO segment);
+
+    /**
+     * 查询快照的一个分段, 不存在时返回null
+     */
+    RevocationStatusSnapshotSegmentPO selectSegment(@Param("snapshotId") long snapshotId, @Param("segmentNo") int segmentNo);
+
+    /**
+     * 删除该快照ID之前的快照分段
+     */
+    int deleteBefore(@Param("snapshotId") long snapshotId);
+}
@@ -0,0 +1,28 @@
+package org.wyman.infrastructure.dao.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 序列号段Mapper接口
+ */
+@Mapper
+public interface SequenceBlockMapper {
+
+    /**
+     * 序列不存在时以初始值创建
+     */
+    int insertIfAbsent(@Param("seqName") String seqName, @Param("initialValue") long initialValue);
+
+    /**
+     * 查询下一个未预留的值
+     */
+    Long selectNextValue(@Param("seqName") String seqName);
+
+    /**
+     * 比较并设置: 仅当当前值等于expected时更新为nextValue, 返回影响行数
+     */
+    int compareAndSet(@Param("seqName") String seqName,
+                      @Param("expected") long expected,
+                      @Param("nextValue") long nextValue);
+}
@@ -50,6 +50,16 @@ public class CertificateAuthorityPO {
      */
     private Integer keySize;
 
+    /**
+     * 混合证书备用签名算法
+     */
+    private String altSignatureAlgorithm;
+
+    /**
+     * CRL分区数
+     */
+    private Integer crlPartitionCount;
+
     /**
      * 是否启用
      */
@@ -100,6 +100,11 @@ public class CertificatePO {
      */
     private Integer renewalNoticeDays;
 
+    /**
+     * CRL分区号
+     */
+    private Integer crlPartition;
+
     /**
      * 创建时间
      */
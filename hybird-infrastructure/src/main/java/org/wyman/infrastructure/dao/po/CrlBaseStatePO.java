@@ -0,0 +1,62 @@
+package org.wyman.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 基础CRL状态PO实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrlBaseStatePO {
+    /**
+     * CA ID
+     */
+    private String caId;
+
+    /**
+     * 基础CRL编号
+     */
+    private String baseCrlNumber;
+
+    /**
+     * 基础CRL本次更新时间
+     */
+    private LocalDateTime baseThisUpdate;
+
+    /**
+     * 并入基础CRL的吊销时间上界
+     */
+    private LocalDateTime revocationCutoff;
+
+    /**
+     * 基础CRL吊销条目数
+     */
+    private Integer baseRevokedCount;
+
+    /**
+     * 基础CRL访问URL
+     */
+    private String baseCrlUrl;
+
+    /**
+     * 增量CRL访问URL
+     */
+    private String deltaCrlUrl;
+
+    /**
+     * 最近一次增量CRL编号
+     */
+    private String lastDeltaCrlNumber;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,62 @@
+package org.wyman.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * CRL分区状态PO实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrlPartitionStatePO {
+    /**
+     * CA ID
+     */
+    private String caId;
+
+    /**
+     * 分区号
+     */
+    private Integer partitionNo;
+
+    /**
+     * 最近一次发布的CRL编号
+     */
+    private String crlNumber;
+
+    /**
+     * 已发布CRL的吊销条目数
+     */
+    private Long revokedCount;
+
+    /**
+     * 已发布CRL中最晚的吊销时间
+     */
+    private LocalDateTime latestRevocationDate;
+
+    /**
+     * 本次更新时间
+     */
+    private LocalDateTime thisUpdate;
+
+    /**
+     * 下次更新时间
+     */
+    private LocalDateTime nextUpdate;
+
+    /**
+     * 分区CRL访问URL
+     */
+    private String crlUrl;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,47 @@
+package org.wyman.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 吊销状态增量PO实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationStatusDeltaPO {
+    /**
+     * 增量ID(自增)
+     */
+    private Long deltaId;
+
+    /**
+     * 缓存ID
+     */
+    private String cacheId;
+
+    /**
+     * 证书序列号
+     */
+    private String serialNumber;
+
+    /**
+     * 吊销时间
+     */
+    private LocalDateTime revocationDate;
+
+    /**
+     * 吊销原因
+     */
+    private String revocationReason;
+
+    /**
+     * 追加时间
+     */
+    private LocalDateTime createTime;
+}
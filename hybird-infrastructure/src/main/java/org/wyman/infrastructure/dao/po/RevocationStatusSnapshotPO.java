@@ -0,0 +1,52 @@
+package org.wyman.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 吊销状态快照PO实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationStatusSnapshotPO {
+    /**
+     * 快照ID(自增)
+     */
+    private Long snapshotId;
+
+    /**
+     * 缓存ID
+     */
+    private String cacheId;
+
+    /**
+     * 快照格式版本
+     */
+    private Integer formatVersion;
+
+    /**
+     * 吊销条目数
+     */
+    private Integer entryCount;
+
+    /**
+     * 已并入的最大增量ID
+     */
+    private Long lastDeltaId;
+
+    /**
+     * 数据分段数(写入完成前为null)
+     */
+    private Integer segmentCount;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+}
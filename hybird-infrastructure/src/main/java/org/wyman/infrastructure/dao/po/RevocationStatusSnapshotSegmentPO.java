@@ -0,0 +1,30 @@
+package org.wyman.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 吊销状态快照分段PO实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationStatusSnapshotSegmentPO {
+    /**
+     * 快照ID
+     */
+    private Long snapshotId;
+
+    /**
+     * 分段序号(从0开始)
+     */
+    private Integer segmentNo;
+
+    /**
+     * 分段数据
+     */
+    private byte[] segmentData;
+}
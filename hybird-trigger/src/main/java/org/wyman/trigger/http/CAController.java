@@ -36,7 +36,9 @@ public class CAController {
                 request.getCaName(),
                 request.getSubjectDN(),
                 request.getSignatureAlgorithm(),
-                request.getValidityDays()
+                request.getValidityDays(),
+                request.getAltSignatureAlgorithm(),
+                request.getCrlPartitionCount() != null ? request.getCrlPartitionCount() : 0
             );
 
             CAQueryResponse response = new CAQueryResponse();
@@ -44,6 +46,8 @@ public class CAController {
             response.setCaName(ca.getCaName());
             response.setSubjectDN(ca.getCaCertificate().getSubjectDN());
             response.setSignatureAlgorithm(ca.getCaCertificate().getSignatureAlgorithm());
+            response.setAltSignatureAlgorithm(ca.getAltSignatureAlgorithm());
+            response.setCrlPartitionCount(ca.getCrlPartitionCount());
             response.setStatus("ACTIVE");
             response.setCertificatePem(ca.getCaCertificate().getPemEncoded());
             response.setPublicKey(""); // 需要从证书中提取
@@ -71,7 +75,9 @@ public class CAController {
                     response.setCaName(ca.getCaName());
                     response.setSubjectDN(ca.getCaCertificate() != null ? ca.getCaCertificate().getSubjectDN() : "");
                     response.setSignatureAlgorithm(ca.getCaCertificate() != null ? ca.getCaCertificate().getSignatureAlgorithm() : "");
-                    response.setStatus("ACTIVE");
+                    response.setAltSignatureAlgorithm(ca.getAltSignatureAlgorithm());
+                    response.setCrlPartitionCount(ca.getCrlPartitionCount());
+            response.setStatus("ACTIVE");
                     response.setCertificatePem(ca.getCaCertificate() != null ? ca.getCaCertificate().getPemEncoded() : "");
                     response.setPublicKey("");
                     response.setCreateTime(ca.getCreateTime().toString());
@@ -102,6 +108,8 @@ public class CAController {
             response.setCaName(ca.getCaName());
             response.setSubjectDN(ca.getCaCertificate().getSubjectDN());
             response.setSignatureAlgorithm(ca.getCaCertificate().getSignatureAlgorithm());
+            response.setAltSignatureAlgorithm(ca.getAltSignatureAlgorithm());
+            response.setCrlPartitionCount(ca.getCrlPartitionCount());
             response.setStatus("ACTIVE");
             response.setCertificatePem(ca.getCaCertificate().getPemEncoded());
             response.setPublicKey(""); // 需要从证书中提取
@@ -0,0 +1,124 @@
+package org.wyman.trigger.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import org.wyman.api.dto.*;
+import org.wyman.api.response.Response;
+import org.wyman.trigger.pipeline.CertificateIssuancePipeline;
+import org.wyman.trigger.pipeline.IssuanceTicket;
+import org.wyman.trigger.pipeline.PipelineStage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步证书签发控制器
+ * 申请提交到分阶段签发流水线后立即返回票据, 通过票据轮询或长轮询结果
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/certificate")
+@CrossOrigin("*")
+public class CertificateAsyncController {
+
+    /**
+     * 长轮询最大等待时间(毫秒)
+     */
+    private static final long MAX_WAIT_MILLIS = 30_000L;
+
+    private final CertificateIssuancePipeline issuancePipeline;
+
+    public CertificateAsyncController(CertificateIssuancePipeline issuancePipeline) {
+        this.issuancePipeline = issuancePipeline;
+    }
+
+    /**
+     * 异步申请证书
+     */
+    @PostMapping("/apply/async")
+    public Response<IssuanceTicketResponse> applyCertificateAsync(@RequestBody CertificateApplyRequest request) {
+        try {
+            return Response.success(toResponse(issuancePipeline.submit(request)));
+        } catch (Exception e) {
+            log.error("提交异步证书申请失败", e);
+            return Response.fail(e.getMessage());
+        }
+    }
+
+    /**
+     * 异步申请混合证书
+     */
+    @PostMapping("/apply/hybrid/async")
+    public Response<IssuanceTicketResponse> applyHybridCertificateAsync(@RequestBody HybridCertificateApplyRequest request) {
+        try {
+            return Response.success(toResponse(issuancePipeline.submitHybrid(request)));
+        } catch (Exception e) {
+            log.error("提交异步混合证书申请失败", e);
+            return Response.fail(e.getMessage());
+        }
+    }
+
+    /**
+     * 查询票据; waitMillis > 0 时长轮询, 票据完成或超时后返回
+     */
+    @GetMapping("/ticket/{ticketId}")
+    public CompletableFuture<Response<IssuanceTicketResponse>> queryTicket(
+            @PathVariable String ticketId,
+            @RequestParam(defaultValue = "0") long waitMillis) {
+        IssuanceTicket ticket = issuancePipeline.getTicket(ticketId);
+        if (ticket == null) {
+            return CompletableFuture.completedFuture(Response.fail("票据不存在或已过期"));
+        }
+        if (waitMillis <= 0 || ticket.isDone()) {
+            return CompletableFuture.completedFuture(Response.success(toResponse(ticket)));
+        }
+        // copy()后再设置超时, 避免超时动作完成票据本身的future
+        return ticket.getCompletion().copy()
+            .completeOnTimeout(ticket, Math.min(waitMillis, MAX_WAIT_MILLIS), TimeUnit.MILLISECONDS)
+            .thenApply(t -> Response.success(toResponse(ticket)));
+    }
+
+    /**
+     * 查询签发流水线各阶段指标
+     */
+    @GetMapping("/pipeline/metrics")
+    public Response<IssuancePipelineMetricsResponse> queryPipelineMetrics() {
+        try {
+            List<IssuancePipelineMetricsResponse.StageMetrics> stages = issuancePipeline.metrics().stream()
+                .map(this::toStageMetrics)
+                .toList();
+            return Response.success(new IssuancePipelineMetricsResponse(issuancePipeline.pendingTickets(), stages));
+        } catch (Exception e) {
+            log.error("查询签发流水线指标失败", e);
+            return Response.fail(e.getMessage());
+        }
+    }
+
+    private IssuanceTicketResponse toResponse(IssuanceTicket ticket) {
+        return new IssuanceTicketResponse(
+            ticket.getTicketId(),
+            ticket.getStatus().name(),
+            ticket.getErrorMessage(),
+            ticket.getSubmitTime(),
+            ticket.getCompleteTime(),
+            ticket.getResult()
+        );
+    }
+
+    private IssuancePipelineMetricsResponse.StageMetrics toStageMetrics(PipelineStage.StageMetrics metrics) {
+        return new IssuancePipelineMetricsResponse.StageMetrics(
+            metrics.stage(),
+            metrics.queueDepth(),
+            metrics.queueRemainingCapacity(),
+            metrics.activeThreads(),
+            metrics.maxThreads(),
+            metrics.submitted(),
+            metrics.completed(),
+            metrics.rejected(),
+            metrics.avgQueueMillis(),
+            metrics.avgServiceMillis(),
+            metrics.maxServiceMillis()
+        );
+    }
+}
@@ -6,7 +6,6 @@ import org.wyman.api.dto.*;
 import org.wyman.api.response.Response;
 import org.wyman.domain.authentication.adapter.port.ICSRParser;
 import org.wyman.domain.authentication.model.aggregate.AuthenticationRequest;
-import org.wyman.domain.authentication.model.entity.Applicant;
 import org.wyman.domain.authentication.valobj.CertificateSigningRequest;
 import org.wyman.domain.authentication.service.AuthenticationService;
 import org.wyman.domain.chain.service.CertificateChainService;
@@ -14,9 +13,11 @@ import org.wyman.domain.lifecycle.model.aggregate.Certificate;
 import org.wyman.domain.lifecycle.service.CertificateLifecycleService;
 import org.wyman.domain.policy.service.PolicyService;
 import org.wyman.domain.signing.service.SigningService;
-import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
 import org.wyman.domain.status.service.RevocationStatusService;
-import org.wyman.types.constants.HybridCertificateOids;
+import org.wyman.infrastructure.config.CRLConfig;
+import org.wyman.trigger.pipeline.CertificateIssuanceHandler;
+import org.wyman.types.enums.CRLType;
 import org.wyman.types.enums.CertificateType;
 import org.wyman.types.enums.RevocationReason;
 
@@ -40,6 +41,8 @@ public class CertificateController {
     private final RevocationStatusService revocationStatusService;
     private final CertificateChainService certificateChainService;
     private final ICSRParser csrParser;
+    private final CRLConfig crlConfig;
+    private final CertificateIssuanceHandler issuanceHandler;
 
     public CertificateController(AuthenticationService authenticationService,
                                  PolicyService policyService,
@@ -47,7 +50,9 @@ public class CertificateController {
                                  CertificateLifecycleService lifecycleService,
                                  RevocationStatusService revocationStatusService,
                                  CertificateChainService certificateChainService,
-                                 ICSRParser csrParser) {
+                                 ICSRParser csrParser,
+                                 CRLConfig crlConfig,
+                                 CertificateIssuanceHandler issuanceHandler) {
         this.authenticationService = authenticationService;
         this.policyService = policyService;
         this.signingService = signingService;
@@ -55,6 +60,8 @@ public class CertificateController {
         this.revocationStatusService = revocationStatusService;
         this.certificateChainService = certificateChainService;
         this.csrParser = csrParser;
+        this.crlConfig = crlConfig;
+        this.issuanceHandler = issuanceHandler;
     }
 
     /**
@@ -63,98 +70,8 @@ public class CertificateController {
     @PostMapping("/apply")
     public Response<CertificateIssuanceResponse> applyCertificate(@RequestBody CertificateApplyRequest request) {
         try {
-            // 1. 解析CSR,提取公钥和主题DN
-            CertificateSigningRequest csr = csrParser.parsePEM(request.getCsrPemData());
-
-            // 验证CSR签名
-            if (!csr.isSignatureValid()) {
-                return Response.fail("CSR签名验证失败");
-            }
-
-            // 2. 创建申请者
-            Applicant applicant = new Applicant(
-                request.getApplicantId(),
-                request.getApplicantName()
-            );
-            applicant.setEmail(request.getApplicantEmail());
-
-            // 3. 执行身份验证
-            AuthenticationRequest authRequest = authenticationService.processAuthentication(
-                java.util.UUID.randomUUID().toString(),
-                request.getApplicantId(),
-                request.getIdToken(),
-                request.getCsrPemData()
-            );
-
-            if (authRequest.getStatus() != org.wyman.types.enums.AuthRequestStatus.VALIDATION_SUCCESSFUL) {
-                return Response.fail("身份验证失败: " + authRequest.getFailureReason());
-            }
-
-            // 4. 获取策略
-            CertificateType certType;
-            try {
-                certType = CertificateType.from(request.getCertificateType());
-            } catch (IllegalArgumentException ex) {
-                return Response.fail(ex.getMessage());
-            }
-            var policy = policyService.getPolicyForCertificateType(certType);
-            if (policy == null) {
-                return Response.fail("未找到可用的证书策略");
-            }
-
-            // 5. 验证CSR符合策略
-            String signatureAlgorithm = csr.getPublicKeyAlgorithm();
-            if (!policyService.validateCSRAgainstPolicy(
-                certType,
-                signatureAlgorithm,
-                null,
-                csr.getSubjectDN(),
-                LocalDateTime.now(),
-                request.getNotAfter()
-            )) {
-                return Response.fail("CSR不符合策略要求");
-            }
-
-            // 6. 签发证书,使用从CSR中提取的公钥
-            org.wyman.domain.signing.valobj.Certificate cert = signingService.issueCertificate(
-                request.getCaName(),
-                csr.getSubjectDN(),
-                csr.getPublicKey(),  // 从CSR中提取的公钥
-                LocalDateTime.now(),
-                request.getNotAfter(),
-                signatureAlgorithm,
-                null,
-                null
-            );
-
-            // 7. 保存证书
-            Certificate certificate = new Certificate(
-                cert.getSerialNumber(),
-                certType,
-                cert.getSubjectDN(),
-                cert.getIssuerDN(),
-                cert.getNotBefore(),
-                cert.getNotAfter(),
-                request.getApplicantId()
-            );
-            certificate.setPemEncoded(cert.getPemEncoded());
-            certificate.setIssuanceRequestId(authRequest.getRequestId());
-            certificate.activate();
-
-            lifecycleService.saveCertificate(certificate);
-
-            // 8. 构建响应
-            CertificateIssuanceResponse response = new CertificateIssuanceResponse();
-            response.setSerialNumber(cert.getSerialNumber());
-            response.setCertificatePem(cert.getPemEncoded());
-            response.setSubjectDN(cert.getSubjectDN());
-            response.setIssuerDN(cert.getIssuerDN());
-            response.setNotBefore(cert.getNotBefore().toString());
-            response.setNotAfter(cert.getNotAfter().toString());
-            response.setSignatureAlgorithm(cert.getSignatureAlgorithm());
-            response.setCrlDistributionPoint(cert.getCrlDistributionPoint());
-
-            return Response.success(response);
+            CertificateIssuanceHandler.PreparedIssuance prepared = issuanceHandler.validate(request);
+            return Response.success(issuanceHandler.persist(issuanceHandler.sign(prepared)));
         } catch (Exception e) {
             log.error("申请证书失败", e);
             return Response.fail(e.getMessage());
@@ -167,152 +84,129 @@ public class CertificateController {
     @PostMapping("/apply/hybrid")
     public Response<CertificateIssuanceResponse> applyHybridCertificate(@RequestBody HybridCertificateApplyRequest request) {
         try {
-            // 1. 解析并校验两个CSR
-            CertificateSigningRequest classicalCsr = csrParser.parsePEM(request.getClassicalCsrPemData());
-            if (!classicalCsr.isSignatureValid()) {
-                return Response.fail("传统算法CSR签名验证失败");
-            }
-            CertificateSigningRequest pqCsr = csrParser.parsePEM(request.getPostQuantumCsrPemData());
-            if (!pqCsr.isSignatureValid()) {
-                return Response.fail("后量子算法CSR签名验证失败");
-            }
+            CertificateIssuanceHandler.PreparedIssuance prepared = issuanceHandler.validateHybrid(request);
+            return Response.success(issuanceHandler.persist(issuanceHandler.sign(prepared)));
+        } catch (Exception e) {
+            log.error("申请混合证书失败", e);
+            return Response.fail(e.getMessage());
+        }
+    }
 
-            if (!classicalCsr.getSubjectDN().equals(pqCsr.getSubjectDN())) {
-                return Response.fail("两份CSR的Subject DN不一致，无法签发混合证书");
+    /**
+     * 批量申请证书
+     * 整批只做一次身份验证、策略查询和CA解析, 签名并行执行, 证书一次批量入库;
+     * 单个CSR失败只体现在对应的逐项结果中
+     */
+    @PostMapping("/apply/batch")
+    public Response<CertificateBatchIssuanceResponse> applyCertificates(@RequestBody CertificateBatchApplyRequest request) {
+        try {
+            if (request.getCsrPemDataList() == null || request.getCsrPemDataList().isEmpty()) {
+                return Response.fail("CSR列表不能为空");
             }
-
-            // 2. 申请者与身份验证
-            Applicant applicant = new Applicant(
-                request.getApplicantId(),
-                request.getApplicantName()
-            );
-            applicant.setEmail(request.getApplicantEmail());
-
-            AuthenticationRequest authRequest = authenticationService.processAuthentication(
-                java.util.UUID.randomUUID().toString(),
-                request.getApplicantId(),
-                request.getIdToken(),
-                request.getClassicalCsrPemData()
-            );
-
-            if (authRequest.getStatus() != org.wyman.types.enums.AuthRequestStatus.VALIDATION_SUCCESSFUL) {
-                return Response.fail("身份验证失败: " + authRequest.getFailureReason());
+            int total = request.getCsrPemDataList().size();
+            if (total > SigningService.MAX_BATCH_SIZE) {
+                return Response.fail("单批CSR不能超过" + SigningService.MAX_BATCH_SIZE + "个");
             }
 
-            // 3. 策略校验（要求混合签名）
-            CertificateType certType = CertificateType.DEVICE_CERT;
+            // 1. 获取策略(整批一次)
+            CertificateType certType;
+            try {
+                certType = CertificateType.from(request.getCertificateType());
+            } catch (IllegalArgumentException ex) {
+                return Response.fail(ex.getMessage());
+            }
             var policy = policyService.getPolicyForCertificateType(certType);
             if (policy == null) {
                 return Response.fail("未找到可用的证书策略");
             }
-            if (!policy.requiresHybridSignature()) {
-                return Response.fail("当前策略未开启混合签名要求");
-            }
 
-            String signatureAlgorithm = request.getSignatureAlgorithm() != null
-                ? request.getSignatureAlgorithm()
-                : classicalCsr.getPublicKeyAlgorithm();
-
-            if (!policy.validateCryptographicParameters(signatureAlgorithm, request.getKemAlgorithm())) {
-                return Response.fail("签名/密钥封装算法不符合策略要求");
+            // 2. 逐项解析CSR并校验策略(整批共享一个编译后的证书模板)
+            CertificateProfileTemplate profile = policyService.getProfileTemplate(policy);
+            LocalDateTime notBefore = LocalDateTime.now();
+            CertificateBatchIssuanceResponse.ItemResult[] items = new CertificateBatchIssuanceResponse.ItemResult[total];
+            List<org.wyman.domain.signing.valobj.CertificateIssuanceCommand> commands = new ArrayList<>();
+            List<Integer> commandIndexes = new ArrayList<>();
+            String authCsrPem = null;
+            for (int i = 0; i < total; i++) {
+                String csrPem = request.getCsrPemDataList().get(i);
+                try {
+                    CertificateSigningRequest csr = csrParser.parsePEM(csrPem);
+                    if (!csr.isSignatureValid()) {
+                        items[i] = new CertificateBatchIssuanceResponse.ItemResult(i, false, "CSR签名验证失败", null);
+                        continue;
+                    }
+                    String signatureAlgorithm = csr.getPublicKeyAlgorithm();
+                    if (!profile.allowsSignatureAlgorithm(signatureAlgorithm)
+                        || !policy.validateSubjectDN(csr.getSubjectDN())
+                        || !profile.allowsValidity(notBefore, request.getNotAfter())) {
+                        items[i] = new CertificateBatchIssuanceResponse.ItemResult(i, false, "CSR不符合策略要求", null);
+                        continue;
+                    }
+                    if (authCsrPem == null) {
+                        authCsrPem = csrPem;
+                    }
+                    commands.add(org.wyman.domain.signing.valobj.CertificateIssuanceCommand.builder()
+                        .subjectDN(csr.getSubjectDN())
+                        .publicKey(csr.getPublicKey())
+                        .notBefore(notBefore)
+                        .notAfter(request.getNotAfter())
+                        .signatureAlgorithm(signatureAlgorithm)
+                        .profileTemplate(profile)
+                        .build());
+                    commandIndexes.add(i);
+                } catch (Exception e) {
+                    items[i] = new CertificateBatchIssuanceResponse.ItemResult(i, false, "CSR解析失败: " + e.getMessage(), null);
+                }
             }
 
-            if (!policy.validateSubjectDN(classicalCsr.getSubjectDN())) {
-                return Response.fail("Subject DN 不符合策略要求");
-            }
+            if (!commands.isEmpty()) {
+                // 3. 执行身份验证(整批一次)
+                AuthenticationRequest authRequest = authenticationService.processAuthentication(
+                    java.util.UUID.randomUUID().toString(),
+                    request.getApplicantId(),
+                    request.getIdToken(),
+                    authCsrPem
+                );
+                if (authRequest.getStatus() != org.wyman.types.enums.AuthRequestStatus.VALIDATION_SUCCESSFUL) {
+                    return Response.fail("身份验证失败: " + authRequest.getFailureReason());
+                }
 
-            if (!policy.validateValidityPeriod(LocalDateTime.now(), request.getNotAfter())) {
-                return Response.fail("证书有效期不符合策略要求");
+                // 4. 并行签发
+                List<org.wyman.domain.signing.valobj.CertificateIssuanceResult> results =
+                    signingService.issueCertificates(request.getCaName(), commands);
+
+                // 5. 批量保存
+                List<Certificate> issued = new ArrayList<>();
+                for (org.wyman.domain.signing.valobj.CertificateIssuanceResult result : results) {
+                    int index = commandIndexes.get(result.getIndex());
+                    if (!result.isSuccess()) {
+                        items[index] = new CertificateBatchIssuanceResponse.ItemResult(index, false, result.getErrorMessage(), null);
+                        continue;
+                    }
+                    org.wyman.domain.signing.valobj.Certificate cert = result.getCertificate();
+                    issued.add(issuanceHandler.toLifecycleCertificate(cert, certType, request.getApplicantId(),
+                        authRequest.getRequestId()));
+                    items[index] = new CertificateBatchIssuanceResponse.ItemResult(index, true, null,
+                        issuanceHandler.toResponse(cert));
+                }
+                lifecycleService.saveCertificates(issued);
             }
 
-            String pqSignaturePublicKeyPem = resolvePqPublicKeyPem(pqCsr);
-            String pqKekPublicKeyPem = resolvePqKekPublicKeyPem(pqCsr, pqSignaturePublicKeyPem);
-
-            HybridCertificateRequestContext hybridContext = HybridCertificateRequestContext.builder()
-                .hybridEnabled(true)
-                .pqSignaturePublicKeyPem(pqSignaturePublicKeyPem)
-                .pqKekPublicKeyPem(pqKekPublicKeyPem)
-                .applicantPqSignatureValue(pqCsr.getPqSignatureValue())
-                .applicantKekProof(pqCsr.getPqKekProofValue())
-                .altSignatureAlgorithmOid(HybridCertificateOids.EXT_ALT_SIGNATURE_ALGORITHM)
-                .altSignatureJcaName(signatureAlgorithm)
-                .altSignatureRequired(true)
-                .build();
-
-            org.wyman.domain.signing.valobj.Certificate cert = signingService.issueCertificate(
-                request.getCaName(),
-                classicalCsr.getSubjectDN(),
-                classicalCsr.getPublicKey(),
-                LocalDateTime.now(),
-                request.getNotAfter(),
-                signatureAlgorithm,
-                request.getKemAlgorithm(),
-                hybridContext
-            );
-
-            Certificate certificate = new Certificate(
-                cert.getSerialNumber(),
-                certType,
-                cert.getSubjectDN(),
-                cert.getIssuerDN(),
-                cert.getNotBefore(),
-                cert.getNotAfter(),
-                request.getApplicantId()
-            );
-            certificate.setPemEncoded(cert.getPemEncoded());
-            certificate.setPostQuantumCsrPem(request.getPostQuantumCsrPemData());
-            certificate.setPostQuantumPublicKeyPem(pqSignaturePublicKeyPem);
-            certificate.setPostQuantumKekPublicKeyPem(pqKekPublicKeyPem);
-            certificate.setIssuanceRequestId(authRequest.getRequestId());
-            certificate.activate();
-
-            lifecycleService.saveCertificate(certificate);
-
-            // 5. 响应
-            CertificateIssuanceResponse response = new CertificateIssuanceResponse();
-            response.setSerialNumber(cert.getSerialNumber());
-            response.setCertificatePem(cert.getPemEncoded());
-            response.setSubjectDN(cert.getSubjectDN());
-            response.setIssuerDN(cert.getIssuerDN());
-            response.setNotBefore(cert.getNotBefore().toString());
-            response.setNotAfter(cert.getNotAfter().toString());
-            response.setSignatureAlgorithm(cert.getSignatureAlgorithm());
-            response.setCrlDistributionPoint(cert.getCrlDistributionPoint());
-
-            // 可选：在响应中附带后量子公钥以便客户端存档
-            // response.setPostQuantumPublicKeyPem(toPublicKeyPem(pqCsr.getPublicKey()));
-
-            return Response.success(response);
+            // 6. 构建响应
+            int successCount = 0;
+            for (CertificateBatchIssuanceResponse.ItemResult item : items) {
+                if (Boolean.TRUE.equals(item.getSuccess())) {
+                    successCount++;
+                }
+            }
+            return Response.success(new CertificateBatchIssuanceResponse(
+                total, successCount, total - successCount, Arrays.asList(items)));
         } catch (Exception e) {
-            log.error("申请混合证书失败", e);
+            log.error("批量申请证书失败", e);
             return Response.fail(e.getMessage());
         }
     }
 
-    private String resolvePqPublicKeyPem(CertificateSigningRequest pqCsr) {
-        if (pqCsr.getPqSignaturePublicKeyPem() != null && !pqCsr.getPqSignaturePublicKeyPem().isBlank()) {
-            return pqCsr.getPqSignaturePublicKeyPem();
-        }
-        return toPublicKeyPem(pqCsr.getPublicKey());
-    }
-
-    private String resolvePqKekPublicKeyPem(CertificateSigningRequest pqCsr, String fallback) {
-        if (pqCsr.getPqKekPublicKeyPem() != null && !pqCsr.getPqKekPublicKeyPem().isBlank()) {
-            return pqCsr.getPqKekPublicKeyPem();
-        }
-        return fallback;
-    }
-
-    private String toPublicKeyPem(java.security.PublicKey publicKey) {
-        try {
-            String base64 = java.util.Base64.getMimeEncoder(64, "\n".getBytes())
-                .encodeToString(publicKey.getEncoded());
-            return "-----BEGIN PUBLIC KEY-----\n" + base64 + "\n-----END PUBLIC KEY-----";
-        } catch (Exception e) {
-            throw new RuntimeException("公钥转PEM失败", e);
-        }
-    }
-
     /**
      * 查询证书
      */
@@ -474,6 +368,7 @@ public class CertificateController {
                 oldCert.getApplicantId()
             );
             certificate.setPemEncoded(newCert.getPemEncoded());
+            certificate.setCrlPartition(newCert.getCrlPartition());
             certificate.activate();
 
             lifecycleService.saveCertificate(certificate);
@@ -583,67 +478,37 @@ public class CertificateController {
     @PostMapping("/crl/generate")
     public Response<CRLGenerateResponse> generateCRL(@RequestBody CRLGenerateRequest request) {
         try {
-            // 获取所有吊销证书
-            List<org.wyman.domain.lifecycle.model.aggregate.Certificate> revokedCerts =
-                lifecycleService.getRevokedCertificates();
-
-            // 转换为RevokedCertificate列表
-            List<org.wyman.domain.signing.valobj.RevokedCertificate> revokedList = revokedCerts.stream()
-                .map(cert -> {
-                    org.wyman.domain.signing.valobj.RevokedCertificate revoked =
-                        new org.wyman.domain.signing.valobj.RevokedCertificate();
-                    revoked.setSerialNumber(cert.getSerialNumber());
-                    revoked.setRevocationDate(cert.getRevocationInfo().getRevocationTime());
-                    // 将String原因转换为RevocationReason枚举
-                    String reasonStr = cert.getRevocationInfo().getRevocationReason();
-                    org.wyman.types.enums.RevocationReason reasonEnum = null;
-                    if (reasonStr != null) {
-                        for (org.wyman.types.enums.RevocationReason r : org.wyman.types.enums.RevocationReason.values()) {
-                            if (r.getDesc().equals(reasonStr)) {
-                                reasonEnum = r;
-                                break;
-                            }
-                        }
-                    }
-                    revoked.setReason(reasonEnum != null ? reasonEnum : org.wyman.types.enums.RevocationReason.KEY_COMPROMISE);
-                    return revoked;
-                })
-                .toList();
-
-            org.wyman.domain.signing.valobj.CRL crl = signingService.generateCRL(
-                request.getCaName(),
-                revokedList,
-                request.getSignatureAlgorithm()
-            );
-
-            // 同步更新吊销状态缓存
-            String issuerDN = revokedCerts.isEmpty() ? request.getCaName() : revokedCerts.get(0).getIssuerDN();
-            java.util.List<org.wyman.domain.status.model.aggregate.RevocationStatusCache.RevocationDetail> revokedDetails = revokedCerts.stream()
-                .filter(cert -> cert.getRevocationInfo() != null)
-                .map(cert -> new org.wyman.domain.status.model.aggregate.RevocationStatusCache.RevocationDetail(
-                    cert.getSerialNumber(),
-                    cert.getRevocationInfo().getRevocationTime(),
-                    cert.getRevocationInfo().getRevocationReason()
-                ))
-                .toList();
-
+            // 与CRLUpdateJob一致: 完整/基础CRL按该CA的颁发者DN从数据库游标流式编码, 增量CRL按吊销时间界查询
+            CRLType crlType = CRLType.from(request.getCrlType());
+            java.time.Duration baseValidity = java.time.Duration.ofHours(crlConfig.getBaseValidityHours());
+            org.wyman.domain.signing.valobj.CRL crl = crlType == CRLType.DELTA
+                ? signingService.publishDeltaCRL(request.getCaName(), request.getSignatureAlgorithm(), baseValidity,
+                    java.time.Duration.ofMinutes(crlConfig.getDeltaValidityMinutes()))
+                : signingService.publishStreamingCRL(request.getCaName(), crlType, request.getSignatureAlgorithm(),
+                    baseValidity);
+            String crlUrl = crl.getCrlUrl();
+
+            // 同步核对吊销状态缓存(各CA按颁发者读取吊销条目, 不加载证书PEM)
             org.wyman.domain.status.valobj.CRLMetadata metadata = new org.wyman.domain.status.valobj.CRLMetadata(
                 String.valueOf(crl.getCrlNumber()),
-                issuerDN,
+                crl.getIssuerDN(),
                 crl.getThisUpdate(),
                 crl.getNextUpdate(),
-                "http://crl.example.com/crl-" + crl.getCrlNumber() + ".crl",
-                revokedCerts.size()
+                crlUrl,
+                crl.getRevokedCount()
             );
-            revocationStatusService.updateCacheFromCRL(metadata, revokedDetails);
+            revocationStatusService.updateCacheFromRevocationSource(metadata);
 
             CRLGenerateResponse response = new CRLGenerateResponse();
             response.setCrlNumber(crl.getCrlNumber());
             response.setCrlPem(crl.getPemEncoded());
-            response.setCrlUrl("http://crl.example.com/crl-" + crl.getCrlNumber() + ".crl");
+            response.setCrlUrl(crlUrl);
             response.setThisUpdate(crl.getThisUpdate());
             response.setNextUpdate(crl.getNextUpdate());
-            response.setRevokedCount(revokedCerts.size());
+            response.setRevokedCount(crl.getRevokedCertificates() != null
+                ? crl.getRevokedCertificates().size() : crl.getRevokedCount());
+            response.setCrlType(crl.getCrlType().getCode());
+            response.setBaseCrlNumber(crl.getBaseCrlNumber());
 
             return Response.success(response);
         } catch (Exception e) {
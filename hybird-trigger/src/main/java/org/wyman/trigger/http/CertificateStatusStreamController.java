@@ -0,0 +1,312 @@
+package org.wyman.trigger.http;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.wyman.domain.status.model.aggregate.RevocationStatusCache;
+import org.wyman.domain.status.service.RevocationStatusService;
+import org.wyman.infrastructure.config.RevocationSnapshotConfig;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 证书状态流式批量查询控制器
+ * 请求体为NDJSON(每行一个序列号: 字符串、带引号的JSON字符串或{"serialNumber":...})或二进制(每条为1字节长度+大端序列号字节);
+ * 序列号按分块在有界线程池中并行查询进程内吊销快照, 结果按输入顺序逐块写出NDJSON。
+ * 同时在途的分块数有上限, 单个请求的内存占用与序列号总数无关; details=true时吊销条目附带吊销时间与原因。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/certificate")
+@CrossOrigin("*")
+public class CertificateStatusStreamController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * 序列号最长20字节(RFC 5280 4.1.2.2)
+     */
+    private static final int MAX_SERIAL_BYTES = 20;
+
+    /**
+     * NDJSON单行最大字符数, 超长的行不缓存, 跳过其余部分并按无效条目返回
+     */
+    private static final int MAX_LINE_CHARS = 256;
+
+    /**
+     * 无法解析的条目(不会是合法序列号)
+     */
+    private static final String INVALID = "";
+
+    private final RevocationStatusService revocationStatusService;
+    private final int chunkSize;
+    private final int maxInFlightChunks;
+    private final ExecutorService lookupExecutor;
+
+    public CertificateStatusStreamController(RevocationStatusService revocationStatusService,
+                                             RevocationSnapshotConfig snapshotConfig) {
+        this.revocationStatusService = revocationStatusService;
+        this.chunkSize = Math.max(1, snapshotConfig.getStreamChunkSize());
+        this.maxInFlightChunks = Math.max(1, snapshotConfig.getStreamMaxInFlightChunks());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.lookupExecutor = Executors.newFixedThreadPool(Math.max(1, snapshotConfig.getStreamParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "status-stream-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    /**
+     * NDJSON序列号列表, 空行忽略; 超过MAX_LINE_CHARS的行返回错误行
+     */
+    @PostMapping(value = "/status/stream", consumes = NDJSON, produces = NDJSON)
+    public void streamNdjson(@RequestParam(defaultValue = "false") boolean details,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder(MAX_LINE_CHARS);
+        stream(() -> {
+            int length;
+            while ((length = readLine(reader, line)) >= 0) {
+                if (length > MAX_LINE_CHARS) {
+                    return INVALID;
+                }
+                String text = line.toString().trim();
+                if (!text.isEmpty()) {
+                    return normalize(parseLine(text));
+                }
+            }
+            return null;
+        }, details, response);
+    }
+
+    /**
+     * 二进制序列号列表, 每条为1字节长度(1~20)加该长度的大端无符号序列号字节
+     */
+    @PostMapping(value = "/status/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = NDJSON)
+    public void streamBinary(@RequestParam(defaultValue = "false") boolean details,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(request.getInputStream()));
+        stream(() -> {
+            int length = in.read();
+            if (length < 0) {
+                return null;
+            }
+            if (length == 0 || length > MAX_SERIAL_BYTES) {
+                // 长度错误后无法再定位下一条记录
+                throw new IllegalArgumentException("序列号长度无效: " + length);
+            }
+            byte[] serial = new byte[length];
+            try {
+                in.readFully(serial);
+            } catch (EOFException e) {
+                throw new IllegalArgumentException("序列号记录不完整");
+            }
+            return new BigInteger(1, serial).toString(16);
+        }, details, response);
+    }
+
+    /**
+     * 读取一块、提交查询; 在途分块达到上限时先按顺序写出最早的一块
+     */
+    private void stream(SerialSource source, boolean details, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        ArrayDeque<PendingChunk> inFlight = new ArrayDeque<>();
+        long nextIndex = 0;
+        String error = null;
+        try {
+            boolean exhausted = false;
+            while (!exhausted) {
+                List<String> chunk = new ArrayList<>(chunkSize);
+                try {
+                    String serialNumber;
+                    while (chunk.size() < chunkSize && (serialNumber = source.next()) != null) {
+                        chunk.add(INVALID.equals(serialNumber) ? null : serialNumber);
+                    }
+                    exhausted = chunk.size() < chunkSize;
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                    exhausted = true;
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                if (inFlight.size() >= maxInFlightChunks) {
+                    writeChunk(out, inFlight.poll(), details);
+                }
+                inFlight.add(new PendingChunk(nextIndex, chunk, lookupExecutor.submit(() -> lookup(chunk, details))));
+                nextIndex += chunk.size();
+            }
+            while (!inFlight.isEmpty()) {
+                writeChunk(out, inFlight.poll(), details);
+            }
+            if (error != null) {
+                out.write("{\"index\":" + nextIndex + ",\"error\":" + JSON.toJSONString(error) + "}\n");
+            }
+            out.flush();
+        } finally {
+            // 客户端断开等异常退出时, 取消尚未完成的查询
+            inFlight.forEach(pending -> pending.result().cancel(true));
+        }
+    }
+
+    private ChunkResult lookup(List<String> serialNumbers, boolean details) {
+        boolean[] revoked = revocationStatusService.checkRevocationStatuses(serialNumbers);
+        if (!details) {
+            return new ChunkResult(revoked, Map.of());
+        }
+        List<String> revokedSerials = new ArrayList<>();
+        for (int i = 0; i < revoked.length; i++) {
+            if (revoked[i]) {
+                revokedSerials.add(serialNumbers.get(i));
+            }
+        }
+        return new ChunkResult(revoked, revokedSerials.isEmpty()
+            ? Map.of() : revocationStatusService.getRevocationDetails(revokedSerials));
+    }
+
+    private void writeChunk(Writer out, PendingChunk pending, boolean details) throws IOException {
+        ChunkResult result;
+        try {
+            result = pending.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("流式状态查询被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("流式状态查询失败", e.getCause());
+        }
+        StringBuilder line = new StringBuilder(128);
+        List<String> serialNumbers = pending.serialNumbers();
+        for (int i = 0; i < serialNumbers.size(); i++) {
+            String serialNumber = serialNumbers.get(i);
+            line.setLength(0);
+            if (serialNumber == null) {
+                line.append("{\"index\":").append(pending.firstIndex() + i).append(",\"error\":\"无效的序列号\"}");
+            } else {
+                line.append("{\"serialNumber\":\"").append(serialNumber).append("\",\"revoked\":").append(result.revoked()[i]);
+                RevocationStatusCache.RevocationDetail detail = details ? result.details().get(serialNumber) : null;
+                if (detail != null) {
+                    if (detail.getRevocationDate() != null) {
+                        line.append(",\"revocationDate\":\"").append(detail.getRevocationDate()).append('"');
+                    }
+                    if (detail.getRevocationReason() != null) {
+                        line.append(",\"revocationReason\":").append(JSON.toJSONString(detail.getRevocationReason()));
+                    }
+                }
+                line.append('}');
+            }
+            out.append(line).append('\n');
+        }
+        // 每块写出后立即刷新, 客户端逐块收到结果
+        out.flush();
+    }
+
+    /**
+     * 读取一行到line(不含换行符), 最多保留MAX_LINE_CHARS个字符
+     *
+     * @return 该行的实际字符数(可能大于MAX_LINE_CHARS), 已读完时返回-1
+     */
+    private static int readLine(Reader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (length++ < MAX_LINE_CHARS) {
+                line.append((char) c);
+            }
+        }
+        return c == -1 && length == 0 ? -1 : length;
+    }
+
+    /**
+     * 一行NDJSON: 对象取serialNumber字段, 带引号的按JSON字符串解析, 其余按原样
+     */
+    private static String parseLine(String line) {
+        try {
+            if (line.startsWith("{")) {
+                JSONObject object = JSON.parseObject(line);
+                return object != null ? object.getString("serialNumber") : null;
+            }
+            if (line.startsWith("\"")) {
+                Object value = JSON.parse(line);
+                return value instanceof String text ? text : null;
+            }
+            return line;
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 统一为小写、无前导零的十六进制(与签发时的序列号格式一致); 不合法时返回INVALID
+     */
+    private static String normalize(String serialNumber) {
+        if (serialNumber == null) {
+            return INVALID;
+        }
+        String value = serialNumber.trim().toLowerCase();
+        if (value.isEmpty() || value.length() > 2 * MAX_SERIAL_BYTES) {
+            return INVALID;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return INVALID;
+            }
+            if (c == '0' && start == i && i < value.length() - 1) {
+                start++;
+            }
+        }
+        return value.substring(start);
+    }
+
+    /**
+     * 逐条读取序列号, 读完返回null, 无法解析的条目返回INVALID; 无法继续读取时抛出IllegalArgumentException
+     */
+    @FunctionalInterface
+    private interface SerialSource {
+        String next() throws IOException;
+    }
+
+    private record PendingChunk(long firstIndex, List<String> serialNumbers, Future<ChunkResult> result) {
+    }
+
+    private record ChunkResult(boolean[] revoked, Map<String, RevocationStatusCache.RevocationDetail> details) {
+    }
+}
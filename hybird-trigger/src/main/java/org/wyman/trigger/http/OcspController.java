@@ -0,0 +1,83 @@
+package org.wyman.trigger.http;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import org.wyman.domain.status.service.OcspResponderService;
+import org.wyman.domain.status.valobj.OcspResponderSettings;
+import org.wyman.infrastructure.config.OcspConfig;
+import org.wyman.types.enums.OcspResponseStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Base64;
+
+/**
+ * OCSP响应器控制器(RFC 6960 附录A.1)
+ * POST请求体为DER编码的OCSPRequest; GET请求路径为其Base64编码(可经URL编码)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/ocsp")
+@CrossOrigin("*")
+public class OcspController {
+
+    private static final String OCSP_REQUEST = "application/ocsp-request";
+    private static final String OCSP_RESPONSE = "application/ocsp-response";
+
+    private final OcspResponderService ocspResponderService;
+    private final OcspResponderSettings settings;
+
+    public OcspController(OcspResponderService ocspResponderService, OcspConfig ocspConfig) {
+        this.ocspResponderService = ocspResponderService;
+        this.settings = ocspConfig.toSettings();
+    }
+
+    /**
+     * POST方式查询
+     */
+    @PostMapping(consumes = OCSP_REQUEST)
+    public void post(@RequestBody byte[] request, HttpServletResponse response) throws IOException {
+        write(response, respond(request));
+    }
+
+    /**
+     * GET方式查询, Base64中的'/'经URL编码后以%2F出现在路径中
+     */
+    @GetMapping("/{*request}")
+    public void get(@PathVariable String request, HttpServletResponse response) throws IOException {
+        byte[] decoded;
+        try {
+            decoded = Base64.getDecoder().decode(request.startsWith("/") ? request.substring(1) : request);
+        } catch (IllegalArgumentException e) {
+            write(response, ocspResponderService.errorResponse(OcspResponseStatus.MALFORMED_REQUEST));
+            return;
+        }
+        write(response, respond(decoded));
+    }
+
+    private ByteBuffer respond(byte[] request) {
+        try {
+            return ocspResponderService.respond(request, settings);
+        } catch (Exception e) {
+            log.error("处理OCSP请求失败", e);
+            return ocspResponderService.errorResponse(OcspResponseStatus.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * 预签名响应是映射文件的只读切片, 经通道直接写入输出流, 不先复制成堆内数组
+     */
+    private void write(HttpServletResponse response, ByteBuffer body) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(OCSP_RESPONSE);
+        response.setContentLength(body.remaining());
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        ByteBuffer source = body.duplicate();
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
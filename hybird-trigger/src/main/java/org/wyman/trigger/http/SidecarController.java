@@ -0,0 +1,55 @@
+package org.wyman.trigger.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.wyman.domain.signing.service.SigningService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 混合证书sidecar控制器
+ * sidecar签发后内容不再变化, 以不可变缓存头返回, 便于CDN和客户端长期缓存
+ */
+@Slf4j
+@RestController
+@RequestMapping("/sidecar")
+@CrossOrigin("*")
+public class SidecarController {
+
+    private final SigningService signingService;
+
+    public SidecarController(SigningService signingService) {
+        this.signingService = signingService;
+    }
+
+    /**
+     * 获取sidecar(与证书扩展中的sidecar URL路径一致)
+     */
+    @GetMapping("/{serialNumber}.json")
+    public ResponseEntity<String> getSidecar(@PathVariable String serialNumber) {
+        String sidecarJson = signingService.getSidecar(serialNumber.toLowerCase());
+        if (sidecarJson == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+            .eTag(etag(sidecarJson))
+            .body(sidecarJson);
+    }
+
+    private String etag(String sidecarJson) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sidecarJson.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
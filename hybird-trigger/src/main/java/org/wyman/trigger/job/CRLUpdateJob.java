@@ -1,101 +1,152 @@
 package org.wyman.trigger.job;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.wyman.domain.lifecycle.service.CertificateLifecycleService;
 import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRepository;
 import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
 import org.wyman.domain.signing.service.SigningService;
-import org.wyman.domain.signing.valobj.RevokedCertificate;
+import org.wyman.domain.signing.valobj.CRL;
+import org.wyman.infrastructure.config.CRLConfig;
+import org.wyman.types.enums.CRLType;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * CRL更新定时任务
+ * 启用增量CRL时: 按base-cron生成基础CRL, 按delta-interval-ms生成增量CRL;
+ * 未启用时按base-cron生成完整CRL; 启用CRL分区的CA另按partition-check-interval-ms发布有变化的分区CRL
+ * 各CA的CRL在有界线程池中并行生成, 每轮汇总各CA的条目数与耗时
  */
 @Slf4j
 @Component
 public class CRLUpdateJob {
 
     private final SigningService signingService;
-    private final CertificateLifecycleService lifecycleService;
     private final ICertificateAuthorityRepository caRepository;
+    private final CRLConfig crlConfig;
+    private final ExecutorService crlExecutor;
 
     public CRLUpdateJob(SigningService signingService,
-                         CertificateLifecycleService lifecycleService,
-                         ICertificateAuthorityRepository caRepository) {
+                         ICertificateAuthorityRepository caRepository,
+                         CRLConfig crlConfig) {
         this.signingService = signingService;
-        this.lifecycleService = lifecycleService;
         this.caRepository = caRepository;
+        this.crlConfig = crlConfig;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.crlExecutor = Executors.newFixedThreadPool(Math.max(1, crlConfig.getGenerationParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "crl-generate-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * 每天凌晨2点更新CRL
+     * 每天凌晨2点更新CRL(基础CRL或完整CRL)
      */
-    @Scheduled(cron = "0 0 2 * * ?")
+    @Scheduled(cron = "${crl.base-cron:0 0 2 * * ?}")
     public void updateCRL() {
-        log.info("开始更新CRL");
-        try {
-            // 查询所有启用的CA
-            List<CertificateAuthority> caList = caRepository.findAll().stream()
-                .filter(CertificateAuthority::isEnabled)
-                .toList();
+        // 基础/完整CRL包含全部吊销条目, 条目从数据库游标流式编码并上传, 不在内存中物化
+        CRLType crlType = crlConfig.isDeltaEnabled() ? CRLType.BASE : CRLType.FULL;
+        publishForEachCa(crlType.getDesc(), enabledCAs(), ca -> List.of(
+            signingService.publishStreamingCRL(ca.getCaName(), crlType, crlConfig.getSignatureAlgorithm(),
+                Duration.ofHours(crlConfig.getBaseValidityHours()))));
+    }
 
-            log.info("找到{}个启用的CA", caList.size());
+    /**
+     * 每隔delta-interval-ms发布增量CRL, 只包含基础CRL之后的吊销条目
+     */
+    @Scheduled(fixedDelayString = "${crl.delta-interval-ms:900000}",
+        initialDelayString = "${crl.delta-interval-ms:900000}")
+    public void updateDeltaCRL() {
+        if (!crlConfig.isDeltaEnabled()) {
+            return;
+        }
+        // 条目按颁发者与基础CRL的吊销时间界查询, 只取序列号、时间与原因
+        publishForEachCa(CRLType.DELTA.getDesc(), enabledCAs(), ca -> List.of(
+            signingService.publishDeltaCRL(ca.getCaName(), crlConfig.getSignatureAlgorithm(),
+                Duration.ofHours(crlConfig.getBaseValidityHours()),
+                Duration.ofMinutes(crlConfig.getDeltaValidityMinutes()))));
+    }
 
-            for (CertificateAuthority ca : caList) {
-                try {
-                    // 查询已吊销证书
-                    List<org.wyman.domain.lifecycle.model.aggregate.Certificate> revokedCerts =
-                        lifecycleService.getRevokedCertificates();
+    /**
+     * 每隔partition-check-interval-ms检查启用CRL分区的CA, 只重新生成有新吊销或即将过期的分区CRL
+     */
+    @Scheduled(fixedDelayString = "${crl.partition-check-interval-ms:300000}")
+    public void updatePartitionedCRL() {
+        List<CertificateAuthority> caList = enabledCAs().stream()
+            .filter(ca -> ca.getCrlPartitionCount() > 0)
+            .toList();
+        if (caList.isEmpty()) {
+            return;
+        }
+        publishForEachCa("分区CRL", caList, ca -> signingService.publishPartitionedCRLs(ca.getCaName(),
+            crlConfig.getSignatureAlgorithm(),
+            Duration.ofHours(crlConfig.getPartitionValidityHours()),
+            Duration.ofMinutes(crlConfig.getPartitionRefreshMinutes())));
+    }
 
-                    // 转换为RevokedCertificate列表
-                    List<RevokedCertificate> revokedList = revokedCerts.stream()
-                        .filter(cert -> cert.getIssuerDN().equals(ca.getCaCertificate().getSubjectDN()))
-                        .map(cert -> {
-                            RevokedCertificate revoked = new RevokedCertificate();
-                            revoked.setSerialNumber(cert.getSerialNumber());
-                            revoked.setRevocationDate(
-                                cert.getRevocationInfo() != null ? cert.getRevocationInfo().getRevocationTime() : null
-                            );
-                            if (cert.getRevocationInfo() != null && cert.getRevocationInfo().getRevocationReason() != null) {
-                                // 将String原因转换为RevocationReason枚举
-                                String reasonStr = cert.getRevocationInfo().getRevocationReason();
-                                org.wyman.types.enums.RevocationReason reasonEnum = null;
-                                for (org.wyman.types.enums.RevocationReason r : org.wyman.types.enums.RevocationReason.values()) {
-                                    if (r.getDesc().equals(reasonStr)) {
-                                        reasonEnum = r;
-                                        break;
-                                    }
-                                }
-                                revoked.setReason(reasonEnum != null ? reasonEnum : org.wyman.types.enums.RevocationReason.KEY_COMPROMISE);
-                            }
-                            return revoked;
-                        })
-                        .toList();
+    @PreDestroy
+    public void shutdown() {
+        crlExecutor.shutdownNow();
+    }
 
-                    log.info("CA {} 有 {} 个已吊销证书", ca.getCaName(), revokedList.size());
+    private List<CertificateAuthority> enabledCAs() {
+        return caRepository.findAll().stream()
+            .filter(CertificateAuthority::isEnabled)
+            .toList();
+    }
 
-                    if (!revokedList.isEmpty()) {
-                        // 生成CRL,使用SM2签名算法
-                        signingService.generateCRL(
-                            ca.getCaName(),
-                            revokedList,
-                            "SM2"
-                        );
-                        log.info("CA {} 的CRL生成完成,吊销证书数: {}", ca.getCaName(), revokedList.size());
-                    } else {
-                        log.info("CA {} 无已吊销证书,跳过CRL生成", ca.getCaName());
-                    }
+    /**
+     * 各CA并行发布CRL并等待全部完成; 单个CA失败不影响其他CA
+     */
+    private void publishForEachCa(String task,
+                                  List<CertificateAuthority> caList,
+                                  Function<CertificateAuthority, List<CRL>> publisher) {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<CaReport>> futures = new ArrayList<>(caList.size());
+        for (CertificateAuthority ca : caList) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                long caStart = System.currentTimeMillis();
+                try {
+                    List<CRL> crls = publisher.apply(ca);
+                    return new CaReport(ca.getCaName(), crls, null, System.currentTimeMillis() - caStart);
                 } catch (Exception e) {
-                    log.error("更新CA {} 的CRL失败", ca.getCaName(), e);
+                    return new CaReport(ca.getCaName(), List.of(), e, System.currentTimeMillis() - caStart);
                 }
-            }
+            }, crlExecutor));
+        }
 
-            log.info("CRL更新完成");
-        } catch (Exception e) {
-            log.error("更新CRL失败", e);
+        long totalEntries = 0;
+        int failed = 0;
+        for (CompletableFuture<CaReport> future : futures) {
+            CaReport report = future.join();
+            if (report.error() != null) {
+                failed++;
+                log.error("CA {} 的{}发布失败, 耗时: {}ms", report.caName(), task, report.elapsedMs(), report.error());
+                continue;
+            }
+            if (report.crls().isEmpty()) {
+                log.debug("CA {} 的{}无需更新", report.caName(), task);
+                continue;
+            }
+            long entries = report.crls().stream().mapToLong(CRL::getRevokedCount).sum();
+            totalEntries += entries;
+            log.info("CA {} 的{}发布完成, crlNumber={}, 条目数: {}, 耗时: {}ms", report.caName(), task,
+                report.crls().stream().map(CRL::getCrlNumber).toList(), entries, report.elapsedMs());
         }
+        log.info("{}更新完成: CA数: {}, 失败: {}, 条目合计: {}, 总耗时: {}ms",
+            task, caList.size(), failed, totalEntries, System.currentTimeMillis() - start);
+    }
+
+    private record CaReport(String caName, List<CRL> crls, Exception error, long elapsedMs) {
     }
 }
@@ -0,0 +1,93 @@
+package org.wyman.trigger.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.signing.adapter.port.ICertificateAuthorityRepository;
+import org.wyman.domain.signing.model.aggregate.CertificateAuthority;
+import org.wyman.domain.status.service.OcspResponderService;
+import org.wyman.domain.status.valobj.OcspResponderSettings;
+import org.wyman.infrastructure.config.OcspConfig;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OCSP响应预签名定时任务
+ * 按presign-sweep-interval-ms为各CA的全部激活与已吊销证书重新签名并替换存储;
+ * 两次全量之间按presign-incremental-interval-ms只重签状态有变化的证书
+ */
+@Slf4j
+@Component
+public class OcspPresignJob {
+
+    private final OcspResponderService ocspResponderService;
+    private final ICertificateAuthorityRepository caRepository;
+    private final OcspConfig ocspConfig;
+    private final OcspResponderSettings settings;
+
+    /**
+     * CA名称 -> 下次增量的起点(上次全量或增量开始的时间)
+     */
+    private final Map<String, LocalDateTime> changedSince = new ConcurrentHashMap<>();
+
+    public OcspPresignJob(OcspResponderService ocspResponderService,
+                          ICertificateAuthorityRepository caRepository,
+                          OcspConfig ocspConfig) {
+        this.ocspResponderService = ocspResponderService;
+        this.caRepository = caRepository;
+        this.ocspConfig = ocspConfig;
+        this.settings = ocspConfig.toSettings();
+    }
+
+    /**
+     * 全量预签名, 启动后立即执行一次
+     */
+    @Scheduled(fixedDelayString = "${ocsp.presign-sweep-interval-ms:21600000}")
+    public void presignAll() {
+        if (!ocspConfig.isPresignEnabled()) {
+            return;
+        }
+        for (CertificateAuthority ca : caRepository.findAll()) {
+            if (!ca.isEnabled()) {
+                continue;
+            }
+            // 数据库update_time精确到秒, 起点截断到秒后以>=查询, 不会漏掉与起点同一秒的变化
+            LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            long begin = System.currentTimeMillis();
+            try {
+                long count = ocspResponderService.presignAll(ca.getCaName(), settings);
+                changedSince.put(ca.getCaName(), start);
+                log.info("OCSP全量预签名完成: caName={}, count={}, 耗时{}ms",
+                    ca.getCaName(), count, System.currentTimeMillis() - begin);
+            } catch (Exception e) {
+                log.error("OCSP全量预签名失败: caName={}", ca.getCaName(), e);
+            }
+        }
+    }
+
+    /**
+     * 增量预签名, 只处理已完成过全量预签名的CA
+     */
+    @Scheduled(fixedDelayString = "${ocsp.presign-incremental-interval-ms:60000}",
+        initialDelayString = "${ocsp.presign-incremental-interval-ms:60000}")
+    public void presignChanged() {
+        if (!ocspConfig.isPresignEnabled()) {
+            return;
+        }
+        changedSince.forEach((caName, since) -> {
+            LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            try {
+                int count = ocspResponderService.presignChanged(caName, since, settings);
+                changedSince.put(caName, start);
+                if (count > 0) {
+                    log.info("OCSP增量预签名完成: caName={}, count={}", caName, count);
+                }
+            } catch (Exception e) {
+                log.error("OCSP增量预签名失败: caName={}", caName, e);
+            }
+        });
+    }
+}
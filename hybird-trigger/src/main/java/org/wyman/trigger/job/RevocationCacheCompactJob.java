@@ -0,0 +1,39 @@
+package org.wyman.trigger.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.status.service.RevocationStatusService;
+import org.wyman.infrastructure.config.RevocationSnapshotConfig;
+
+/**
+ * 吊销状态缓存压缩定时任务
+ * 按compact-interval-ms检查持久化缓存中累积的吊销增量, 达到compact-min-deltas条时并入新快照
+ */
+@Slf4j
+@Component
+public class RevocationCacheCompactJob {
+
+    private final RevocationStatusService revocationStatusService;
+    private final RevocationSnapshotConfig snapshotConfig;
+
+    public RevocationCacheCompactJob(RevocationStatusService revocationStatusService,
+                                     RevocationSnapshotConfig snapshotConfig) {
+        this.revocationStatusService = revocationStatusService;
+        this.snapshotConfig = snapshotConfig;
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.snapshot.compact-interval-ms:600000}",
+        initialDelayString = "${revocation.snapshot.compact-interval-ms:600000}")
+    public void compact() {
+        long start = System.currentTimeMillis();
+        try {
+            int count = revocationStatusService.compactCache(snapshotConfig.getCompactMinDeltas());
+            if (count > 0) {
+                log.info("吊销状态缓存压缩完成: 并入{}条增量, 耗时{}ms", count, System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            log.error("吊销状态缓存压缩失败", e);
+        }
+    }
+}
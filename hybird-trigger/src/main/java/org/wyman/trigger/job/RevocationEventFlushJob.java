@@ -0,0 +1,38 @@
+package org.wyman.trigger.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wyman.domain.status.service.RevocationStatusService;
+import org.wyman.infrastructure.config.RevocationSnapshotConfig;
+
+/**
+ * 吊销事件合并定时任务
+ * 按flush-interval-ms把吊销事件累积的待合并条目以flush-batch-size条一批并入吊销状态快照并追加到持久化缓存;
+ * 运行在独立的revocationFlushScheduler上, 不与其他定时任务争用调度线程
+ */
+@Slf4j
+@Component
+public class RevocationEventFlushJob {
+
+    private final RevocationStatusService revocationStatusService;
+    private final RevocationSnapshotConfig snapshotConfig;
+
+    public RevocationEventFlushJob(RevocationStatusService revocationStatusService,
+                                   RevocationSnapshotConfig snapshotConfig) {
+        this.revocationStatusService = revocationStatusService;
+        this.snapshotConfig = snapshotConfig;
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.snapshot.flush-interval-ms:200}", scheduler = "revocationFlushScheduler")
+    public void flush() {
+        try {
+            int count = revocationStatusService.flushPendingRevocations(snapshotConfig.getFlushBatchSize());
+            if (count > 0) {
+                log.debug("吊销事件并入快照: {}条", count);
+            }
+        } catch (Exception e) {
+            log.error("吊销事件并入快照失败, 下次重试", e);
+        }
+    }
+}
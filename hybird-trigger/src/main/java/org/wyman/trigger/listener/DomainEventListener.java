@@ -5,8 +5,15 @@ import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.wyman.domain.audit.service.AuditService;
+import org.wyman.domain.status.service.OcspResponderService;
+import org.wyman.domain.status.service.RevocationStatusService;
+import org.wyman.domain.status.valobj.OcspResponderSettings;
+import org.wyman.infrastructure.config.OcspConfig;
 import org.wyman.types.event.*;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 领域事件监听器
  */
@@ -15,9 +22,20 @@ import org.wyman.types.event.*;
 public class DomainEventListener {
 
     private final AuditService auditService;
+    private final RevocationStatusService revocationStatusService;
+    private final OcspResponderService ocspResponderService;
+    private final OcspResponderSettings ocspSettings;
 
-    public DomainEventListener(AuditService auditService) {
+    public DomainEventListener(AuditService auditService,
+                               RevocationStatusService revocationStatusService,
+                               OcspResponderService ocspResponderService,
+                               OcspConfig ocspConfig) {
         this.auditService = auditService;
+        this.revocationStatusService = revocationStatusService;
+        this.ocspResponderService = ocspResponderService;
+        this.ocspSettings = ocspConfig.toSettings();
+        // 其他节点的吊销与CRL核对同样使本节点的OCSP响应缓存失效并重签预签名响应
+        revocationStatusService.addStatusChangeListener(this::refreshOcspResponses);
     }
 
     /**
@@ -80,6 +98,31 @@ public class DomainEventListener {
         }
     }
 
+    /**
+     * 证书吊销后同步更新吊销状态, 使OCSP响应缓存失效并重签预签名响应(同步执行, 吊销接口返回时OCSP即可查到)
+     * 吊销状态进入待合并队列(O(1)), 由RevocationEventFlushJob批量并入快照; 共享存储(Redis)同步写入并通知其他节点
+     */
+    @EventListener
+    public void refreshRevocationStatus(CertificateRevokedEvent event) {
+        try {
+            revocationStatusService.recordRevocation(
+                event.getCertificateSerial(), event.getRevocationDate(), event.getReason());
+        } catch (Exception e) {
+            log.error("更新吊销状态失败: serialNumber={}", event.getCertificateSerial(), e);
+        }
+        refreshOcspResponses(List.of(event.getCertificateSerial()));
+    }
+
+    private void refreshOcspResponses(Collection<String> serialNumbers) {
+        for (String serialNumber : serialNumbers) {
+            try {
+                ocspResponderService.refresh(serialNumber, ocspSettings);
+            } catch (Exception e) {
+                log.error("重签OCSP预签名响应失败: serialNumber={}", serialNumber, e);
+            }
+        }
+    }
+
     /**
      * 监听CRL签发事件
      */
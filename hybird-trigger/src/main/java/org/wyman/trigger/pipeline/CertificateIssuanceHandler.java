@@ -0,0 +1,270 @@
+package org.wyman.trigger.pipeline;
+
+import org.springframework.stereotype.Component;
+import org.wyman.api.dto.CertificateApplyRequest;
+import org.wyman.api.dto.CertificateIssuanceResponse;
+import org.wyman.api.dto.HybridCertificateApplyRequest;
+import org.wyman.domain.authentication.adapter.port.ICSRParser;
+import org.wyman.domain.authentication.model.aggregate.AuthenticationRequest;
+import org.wyman.domain.authentication.service.AuthenticationService;
+import org.wyman.domain.authentication.valobj.CertificateSigningRequest;
+import org.wyman.domain.lifecycle.model.aggregate.Certificate;
+import org.wyman.domain.lifecycle.service.CertificateLifecycleService;
+import org.wyman.domain.policy.service.PolicyService;
+import org.wyman.domain.signing.service.SigningService;
+import org.wyman.domain.signing.valobj.CertificateProfileTemplate;
+import org.wyman.domain.signing.valobj.HybridCertificateRequestContext;
+import org.wyman.types.constants.HybridCertificateOids;
+import org.wyman.types.enums.AuthRequestStatus;
+import org.wyman.types.enums.CertificateType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 证书签发步骤
+ * 校验(CSR解析/身份验证/策略) -> 签名 -> 持久化, 同步接口与分阶段流水线共用, 校验失败抛出带原因的异常
+ */
+@Component
+public class CertificateIssuanceHandler {
+
+    private final AuthenticationService authenticationService;
+    private final PolicyService policyService;
+    private final SigningService signingService;
+    private final CertificateLifecycleService lifecycleService;
+    private final ICSRParser csrParser;
+
+    public CertificateIssuanceHandler(AuthenticationService authenticationService,
+                                      PolicyService policyService,
+                                      SigningService signingService,
+                                      CertificateLifecycleService lifecycleService,
+                                      ICSRParser csrParser) {
+        this.authenticationService = authenticationService;
+        this.policyService = policyService;
+        this.signingService = signingService;
+        this.lifecycleService = lifecycleService;
+        this.csrParser = csrParser;
+    }
+
+    /**
+     * 校验: 普通证书
+     */
+    public PreparedIssuance validate(CertificateApplyRequest request) {
+        CertificateSigningRequest csr = csrParser.parsePEM(request.getCsrPemData());
+        if (!csr.isSignatureValid()) {
+            throw new RuntimeException("CSR签名验证失败");
+        }
+
+        AuthenticationRequest authRequest = authenticate(request.getApplicantId(), request.getIdToken(),
+            request.getCsrPemData());
+
+        CertificateType certType = CertificateType.from(request.getCertificateType());
+        var policy = policyService.getPolicyForCertificateType(certType);
+        if (policy == null) {
+            throw new RuntimeException("未找到可用的证书策略");
+        }
+
+        CertificateProfileTemplate profile = policyService.getProfileTemplate(policy);
+
+        String signatureAlgorithm = csr.getPublicKeyAlgorithm();
+        if (!profile.allowsSignatureAlgorithm(signatureAlgorithm)
+            || !policy.validateSubjectDN(csr.getSubjectDN())
+            || !profile.allowsValidity(LocalDateTime.now(), request.getNotAfter())) {
+            throw new RuntimeException("CSR不符合策略要求");
+        }
+
+        PreparedIssuance prepared = new PreparedIssuance();
+        prepared.caName = request.getCaName();
+        prepared.csr = csr;
+        prepared.certType = certType;
+        prepared.notAfter = request.getNotAfter();
+        prepared.signatureAlgorithm = signatureAlgorithm;
+        prepared.profile = profile;
+        prepared.applicantId = request.getApplicantId();
+        prepared.authRequestId = authRequest.getRequestId();
+        return prepared;
+    }
+
+    /**
+     * 校验: 混合证书
+     */
+    public PreparedIssuance validateHybrid(HybridCertificateApplyRequest request) {
+        CertificateSigningRequest classicalCsr = csrParser.parsePEM(request.getClassicalCsrPemData());
+        if (!classicalCsr.isSignatureValid()) {
+            throw new RuntimeException("传统算法CSR签名验证失败");
+        }
+        CertificateSigningRequest pqCsr = csrParser.parsePEM(request.getPostQuantumCsrPemData());
+        if (!pqCsr.isSignatureValid()) {
+            throw new RuntimeException("后量子算法CSR签名验证失败");
+        }
+        if (!classicalCsr.getSubjectDN().equals(pqCsr.getSubjectDN())) {
+            throw new RuntimeException("两份CSR的Subject DN不一致，无法签发混合证书");
+        }
+
+        AuthenticationRequest authRequest = authenticate(request.getApplicantId(), request.getIdToken(),
+            request.getClassicalCsrPemData());
+
+        CertificateType certType = CertificateType.DEVICE_CERT;
+        var policy = policyService.getPolicyForCertificateType(certType);
+        if (policy == null) {
+            throw new RuntimeException("未找到可用的证书策略");
+        }
+        CertificateProfileTemplate profile = policyService.getProfileTemplate(policy);
+        if (!profile.isRequireHybridSignature()) {
+            throw new RuntimeException("当前策略未开启混合签名要求");
+        }
+
+        String signatureAlgorithm = request.getSignatureAlgorithm() != null
+            ? request.getSignatureAlgorithm()
+            : classicalCsr.getPublicKeyAlgorithm();
+        if (!profile.allowsSignatureAlgorithm(signatureAlgorithm)
+            || !profile.allowsKemAlgorithm(request.getKemAlgorithm())) {
+            throw new RuntimeException("签名/密钥封装算法不符合策略要求");
+        }
+        if (!policy.validateSubjectDN(classicalCsr.getSubjectDN())) {
+            throw new RuntimeException("Subject DN 不符合策略要求");
+        }
+        if (!profile.allowsValidity(LocalDateTime.now(), request.getNotAfter())) {
+            throw new RuntimeException("证书有效期不符合策略要求");
+        }
+
+        String pqSignaturePublicKeyPem = pqCsr.getPqSignaturePublicKeyPem() != null && !pqCsr.getPqSignaturePublicKeyPem().isBlank()
+            ? pqCsr.getPqSignaturePublicKeyPem()
+            : toPublicKeyPem(pqCsr.getPublicKey());
+        String pqKekPublicKeyPem = pqCsr.getPqKekPublicKeyPem() != null && !pqCsr.getPqKekPublicKeyPem().isBlank()
+            ? pqCsr.getPqKekPublicKeyPem()
+            : pqSignaturePublicKeyPem;
+
+        PreparedIssuance prepared = new PreparedIssuance();
+        prepared.caName = request.getCaName();
+        prepared.csr = classicalCsr;
+        prepared.certType = certType;
+        prepared.notAfter = request.getNotAfter();
+        prepared.signatureAlgorithm = signatureAlgorithm;
+        prepared.kemAlgorithm = request.getKemAlgorithm();
+        prepared.profile = profile;
+        prepared.applicantId = request.getApplicantId();
+        prepared.authRequestId = authRequest.getRequestId();
+        prepared.postQuantumCsrPem = request.getPostQuantumCsrPemData();
+        prepared.hybridContext = HybridCertificateRequestContext.builder()
+            .hybridEnabled(true)
+            .pqSignaturePublicKeyPem(pqSignaturePublicKeyPem)
+            .pqKekPublicKeyPem(pqKekPublicKeyPem)
+            .applicantPqSignatureValue(pqCsr.getPqSignatureValue())
+            .applicantKekProof(pqCsr.getPqKekProofValue())
+            .altSignatureAlgorithmOid(HybridCertificateOids.EXT_ALT_SIGNATURE_ALGORITHM)
+            .altSignatureJcaName(signatureAlgorithm)
+            .altSignatureRequired(true)
+            .build();
+        return prepared;
+    }
+
+    private AuthenticationRequest authenticate(String applicantId, String idToken, String csrPem) {
+        AuthenticationRequest authRequest = authenticationService.processAuthentication(
+            UUID.randomUUID().toString(),
+            applicantId,
+            idToken,
+            csrPem
+        );
+        if (authRequest.getStatus() != AuthRequestStatus.VALIDATION_SUCCESSFUL) {
+            throw new RuntimeException("身份验证失败: " + authRequest.getFailureReason());
+        }
+        return authRequest;
+    }
+
+    /**
+     * 签名
+     */
+    public PreparedIssuance sign(PreparedIssuance prepared) {
+        prepared.issued = signingService.issueCertificate(
+            prepared.caName,
+            prepared.csr.getSubjectDN(),
+            prepared.csr.getPublicKey(),
+            LocalDateTime.now(),
+            prepared.notAfter,
+            prepared.signatureAlgorithm,
+            prepared.kemAlgorithm,
+            prepared.profile,
+            prepared.hybridContext
+        );
+        return prepared;
+    }
+
+    /**
+     * 持久化, 返回签发响应
+     */
+    public CertificateIssuanceResponse persist(PreparedIssuance prepared) {
+        org.wyman.domain.signing.valobj.Certificate cert = prepared.issued;
+        Certificate certificate = toLifecycleCertificate(cert, prepared.certType, prepared.applicantId, prepared.authRequestId);
+        if (prepared.hybridContext != null) {
+            certificate.setPostQuantumCsrPem(prepared.postQuantumCsrPem);
+            certificate.setPostQuantumPublicKeyPem(prepared.hybridContext.getPqSignaturePublicKeyPem());
+            certificate.setPostQuantumKekPublicKeyPem(prepared.hybridContext.getPqKekPublicKeyPem());
+        }
+        lifecycleService.saveCertificate(certificate);
+        return toResponse(cert);
+    }
+
+    /**
+     * 签发结果转换为待入库的已激活证书
+     */
+    public Certificate toLifecycleCertificate(org.wyman.domain.signing.valobj.Certificate cert,
+                                              CertificateType certType,
+                                              String applicantId,
+                                              String authRequestId) {
+        Certificate certificate = new Certificate(
+            cert.getSerialNumber(),
+            certType,
+            cert.getSubjectDN(),
+            cert.getIssuerDN(),
+            cert.getNotBefore(),
+            cert.getNotAfter(),
+            applicantId
+        );
+        certificate.setPemEncoded(cert.getPemEncoded());
+        certificate.setCrlPartition(cert.getCrlPartition());
+        certificate.setIssuanceRequestId(authRequestId);
+        certificate.activate();
+        return certificate;
+    }
+
+    /**
+     * 签发结果转换为响应
+     */
+    public CertificateIssuanceResponse toResponse(org.wyman.domain.signing.valobj.Certificate cert) {
+        CertificateIssuanceResponse response = new CertificateIssuanceResponse();
+        response.setSerialNumber(cert.getSerialNumber());
+        response.setCertificatePem(cert.getPemEncoded());
+        response.setSubjectDN(cert.getSubjectDN());
+        response.setIssuerDN(cert.getIssuerDN());
+        response.setNotBefore(cert.getNotBefore().toString());
+        response.setNotAfter(cert.getNotAfter().toString());
+        response.setSignatureAlgorithm(cert.getSignatureAlgorithm());
+        response.setCrlDistributionPoint(cert.getCrlDistributionPoint());
+        return response;
+    }
+
+    private String toPublicKeyPem(java.security.PublicKey publicKey) {
+        String base64 = java.util.Base64.getMimeEncoder(64, "\n".getBytes())
+            .encodeToString(publicKey.getEncoded());
+        return "-----BEGIN PUBLIC KEY-----\n" + base64 + "\n-----END PUBLIC KEY-----";
+    }
+
+    /**
+     * 阶段间传递的签发上下文(仅在本类各步骤之间流转)
+     */
+    public static final class PreparedIssuance {
+        private String caName;
+        private CertificateSigningRequest csr;
+        private CertificateType certType;
+        private LocalDateTime notAfter;
+        private String signatureAlgorithm;
+        private String kemAlgorithm;
+        private CertificateProfileTemplate profile;
+        private String applicantId;
+        private String authRequestId;
+        private String postQuantumCsrPem;
+        private HybridCertificateRequestContext hybridContext;
+        private org.wyman.domain.signing.valobj.Certificate issued;
+    }
+}
@@ -0,0 +1,144 @@
+package org.wyman.trigger.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.wyman.api.dto.CertificateApplyRequest;
+import org.wyman.api.dto.HybridCertificateApplyRequest;
+import org.wyman.types.exception.AppException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 证书签发分阶段(SEDA)流水线
+ * 校验(CSR解析/身份验证/策略) -> 签名 -> 持久化, 各阶段之间为有界队列, 由独立线程池处理,
+ * 慢数据库写入不会占用签名线程, 大量RSA4096签名也不会阻塞Tomcat线程。
+ * 校验、签名阶段队列满时拒绝; 持久化阶段队列满时由签名线程直接入库, 已签名的证书不会被丢弃;
+ * 阶段关闭后提交的任务被拒绝, 票据以失败结束而不会一直停在处理中。
+ * 提交后立即返回票据, 调用方轮询或长轮询票据获取结果。
+ */
+@Slf4j
+@Component
+public class CertificateIssuancePipeline {
+
+    private final CertificateIssuanceHandler issuanceHandler;
+
+    private final PipelineStage validateStage;
+    private final PipelineStage signStage;
+    private final PipelineStage persistStage;
+
+    private final Map<String, IssuanceTicket> tickets = new ConcurrentHashMap<>();
+
+    @Value("${issuance.pipeline.ticket-ttl-minutes:10}")
+    private long ticketTtlMinutes;
+
+    public CertificateIssuancePipeline(CertificateIssuanceHandler issuanceHandler,
+                                       @Qualifier("issuanceValidateStage") PipelineStage validateStage,
+                                       @Qualifier("issuanceSignStage") PipelineStage signStage,
+                                       @Qualifier("issuancePersistStage") PipelineStage persistStage) {
+        this.issuanceHandler = issuanceHandler;
+        this.validateStage = validateStage;
+        this.signStage = signStage;
+        this.persistStage = persistStage;
+    }
+
+    /**
+     * 提交普通证书申请
+     */
+    public IssuanceTicket submit(CertificateApplyRequest request) {
+        return submit(() -> issuanceHandler.validate(request));
+    }
+
+    /**
+     * 提交混合证书申请
+     */
+    public IssuanceTicket submitHybrid(HybridCertificateApplyRequest request) {
+        return submit(() -> issuanceHandler.validateHybrid(request));
+    }
+
+    /**
+     * 查询票据
+     */
+    public IssuanceTicket getTicket(String ticketId) {
+        return tickets.get(ticketId);
+    }
+
+    /**
+     * 未完成的票据数
+     */
+    public long pendingTickets() {
+        return tickets.values().stream().filter(ticket -> !ticket.isDone()).count();
+    }
+
+    /**
+     * 各阶段指标
+     */
+    public List<PipelineStage.StageMetrics> metrics() {
+        return List.of(validateStage.metrics(), signStage.metrics(), persistStage.metrics());
+    }
+
+    /**
+     * 清理过期票据
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpiredTickets() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(ticketTtlMinutes);
+        tickets.values().removeIf(ticket -> ticket.isDone() && ticket.getCompleteTime().isBefore(threshold));
+    }
+
+    private IssuanceTicket submit(Supplier<CertificateIssuanceHandler.PreparedIssuance> validator) {
+        IssuanceTicket ticket = new IssuanceTicket(UUID.randomUUID().toString());
+        CompletableFuture<CertificateIssuanceHandler.PreparedIssuance> validated;
+        try {
+            validated = CompletableFuture.supplyAsync(() -> {
+                ticket.advance(IssuanceTicket.Status.VALIDATING);
+                return validator.get();
+            }, validateStage);
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("签发队列已满, 请稍后重试");
+        }
+        tickets.put(ticket.getTicketId(), ticket);
+
+        validated
+            .thenApplyAsync(prepared -> {
+                ticket.advance(IssuanceTicket.Status.SIGNING);
+                return issuanceHandler.sign(prepared);
+            }, signStage)
+            .thenApplyAsync(signed -> {
+                ticket.advance(IssuanceTicket.Status.PERSISTING);
+                return issuanceHandler.persist(signed);
+            }, persistStage)
+            .whenComplete((response, throwable) -> {
+                if (throwable == null) {
+                    ticket.complete(response);
+                } else {
+                    String message = errorMessage(throwable);
+                    log.error("异步签发失败: ticketId={}, 原因={}", ticket.getTicketId(), message);
+                    ticket.fail(message);
+                }
+            });
+        return ticket;
+    }
+
+    private String errorMessage(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause() : throwable;
+        if (cause instanceof RejectedExecutionException) {
+            return persistStage.isShutdown() ? "签发服务正在停止, 请稍后重试" : "签发队列已满, 请稍后重试";
+        }
+        if (cause instanceof AppException appException) {
+            return appException.getInfo() != null ? appException.getInfo() : appException.getCode();
+        }
+        return cause.getMessage();
+    }
+}
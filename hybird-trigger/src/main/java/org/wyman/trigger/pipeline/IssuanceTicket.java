@@ -0,0 +1,57 @@
+package org.wyman.trigger.pipeline;
+
+import lombok.Getter;
+import org.wyman.api.dto.CertificateIssuanceResponse;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步签发票据
+ */
+@Getter
+public class IssuanceTicket {
+
+    /**
+     * 票据状态
+     */
+    public enum Status {
+        QUEUED, VALIDATING, SIGNING, PERSISTING, COMPLETED, FAILED
+    }
+
+    private final String ticketId;
+    private final LocalDateTime submitTime;
+    private final CompletableFuture<IssuanceTicket> completion = new CompletableFuture<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile CertificateIssuanceResponse result;
+    private volatile String errorMessage;
+    private volatile LocalDateTime completeTime;
+
+    public IssuanceTicket(String ticketId) {
+        this.ticketId = ticketId;
+        this.submitTime = LocalDateTime.now();
+    }
+
+    void advance(Status status) {
+        this.status = status;
+    }
+
+    void complete(CertificateIssuanceResponse result) {
+        this.result = result;
+        this.completeTime = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+        completion.complete(this);
+    }
+
+    void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.completeTime = LocalDateTime.now();
+        this.status = Status.FAILED;
+        completion.complete(this);
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+}
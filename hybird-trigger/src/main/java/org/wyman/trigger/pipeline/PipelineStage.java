@@ -0,0 +1,118 @@
+package org.wyman.trigger.pipeline;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 流水线阶段
+ * 每个阶段独占一个有界队列的线程池, 并统计队列深度、排队耗时与处理耗时
+ */
+public class PipelineStage implements Executor {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final AtomicLong maxServiceNanos = new AtomicLong();
+
+    public PipelineStage(String name, ThreadPoolExecutor executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long enqueueTime = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                queueNanos.add(start - enqueueTime);
+                try {
+                    command.run();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    serviceNanos.add(elapsed);
+                    maxServiceNanos.accumulateAndGet(elapsed, Math::max);
+                    completed.increment();
+                }
+            });
+            submitted.increment();
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 阶段指标快照
+     */
+    public StageMetrics metrics() {
+        long done = completed.sum();
+        return new StageMetrics(
+            name,
+            executor.getQueue().size(),
+            executor.getQueue().remainingCapacity(),
+            executor.getActiveCount(),
+            executor.getMaximumPoolSize(),
+            submitted.sum(),
+            done,
+            rejected.sum(),
+            done == 0 ? 0D : TimeUnit.NANOSECONDS.toMicros(queueNanos.sum()) / 1000D / done,
+            done == 0 ? 0D : TimeUnit.NANOSECONDS.toMicros(serviceNanos.sum()) / 1000D / done,
+            TimeUnit.NANOSECONDS.toMicros(maxServiceNanos.get()) / 1000D
+        );
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * 队列满时由提交线程直接执行; 线程池关闭后抛出RejectedExecutionException,
+     * 不像CallerRunsPolicy那样静默丢弃, 依赖该任务的CompletableFuture随之异常完成
+     */
+    public static class CallerRunsUnlessShutdownPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("流水线阶段已关闭");
+            }
+            r.run();
+        }
+    }
+
+    /**
+     * 阶段指标
+     */
+    public record StageMetrics(
+        String stage,
+        int queueDepth,
+        int queueRemainingCapacity,
+        int activeThreads,
+        int maxThreads,
+        long submitted,
+        long completed,
+        long rejected,
+        double avgQueueMillis,
+        double avgServiceMillis,
+        double maxServiceMillis
+    ) {}
+}
@@ -20,6 +20,9 @@ public final class HybridCertificateOids {
     /** 扩展：Catalyst模型的备用签名值 */
     public static final String EXT_ALT_SIGNATURE_VALUE = BASE + ".1.4";
 
+    /** 扩展：批量备用签名（批次Merkle根签名及本证书的包含路径），与备用签名值二选一 */
+    public static final String EXT_ALT_SIGNATURE_BATCH = BASE + ".1.5";
+
     /** 扩展：Merkle 根承诺（混合材料哈希承诺） */
     public static final String EXT_HYBRID_MERKLE_ROOT = BASE + ".1.10";
 
@@ -0,0 +1,31 @@
+package org.wyman.types.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CRL类型枚举(RFC 5280 第5.2.4节)
+ */
+@Getter
+@AllArgsConstructor
+public enum CRLType {
+    FULL("FULL", "完整CRL"),
+    BASE("BASE", "基础CRL"),
+    DELTA("DELTA", "增量CRL");
+
+    private final String code;
+    private final String desc;
+
+    public static CRLType from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        String upper = value.trim().toUpperCase();
+        for (CRLType type : values()) {
+            if (type.name().equals(upper) || type.code.equals(upper)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("不支持的CRL类型: " + value);
+    }
+}
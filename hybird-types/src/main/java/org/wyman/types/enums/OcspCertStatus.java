@@ -0,0 +1,18 @@
+package org.wyman.types.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * OCSP单证书状态(RFC 6960 第2.2节)
+ */
+@Getter
+@AllArgsConstructor
+public enum OcspCertStatus {
+    GOOD("GOOD", "正常"),
+    REVOKED("REVOKED", "已吊销"),
+    UNKNOWN("UNKNOWN", "未知");
+
+    private final String code;
+    private final String desc;
+}
@@ -0,0 +1,21 @@
+package org.wyman.types.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * OCSP响应状态(RFC 6960 第4.2.1节), code即OCSPResponseStatus枚举值
+ */
+@Getter
+@AllArgsConstructor
+public enum OcspResponseStatus {
+    SUCCESSFUL(0, "成功"),
+    MALFORMED_REQUEST(1, "请求格式错误"),
+    INTERNAL_ERROR(2, "内部错误"),
+    TRY_LATER(3, "稍后重试"),
+    SIG_REQUIRED(5, "请求须签名"),
+    UNAUTHORIZED(6, "未授权");
+
+    private final int code;
+    private final String desc;
+}
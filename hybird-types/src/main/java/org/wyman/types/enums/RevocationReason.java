@@ -21,4 +21,16 @@ public enum RevocationReason {
 
     private final int code;
     private final String desc;
+
+    /**
+     * 按描述查找吊销原因(吊销原因以描述存储), 无法识别时返回null
+     */
+    public static RevocationReason fromDesc(String desc) {
+        for (RevocationReason reason : values()) {
+            if (reason.desc.equals(desc)) {
+                return reason;
+            }
+        }
+        return null;
+    }
 }